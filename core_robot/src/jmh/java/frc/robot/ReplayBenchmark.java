@@ -0,0 +1,43 @@
+package frc.robot;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import frc.robot.driver.common.JoystickReplay;
+
+/**
+ * Measures the cost of one teleop cycle (the mechanisms' readSensors, Driver.update and the mechanisms' update) while
+ * replaying a recorded session of joystick inputs, including the macros and control tasks that the session triggers.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ReplayBenchmark
+{
+    private ReplayHarness harness;
+
+    @Setup
+    public void setup() throws IOException
+    {
+        this.harness = new ReplayHarness(new JoystickReplay(ReplayHarness.recordTeleop(1318, 3000)));
+    }
+
+    @Benchmark
+    public void cycle()
+    {
+        if (!this.harness.step())
+        {
+            // start the session over
+            this.harness.rewind();
+            this.harness.step();
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package frc.robot.common;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import frc.robot.common.robotprovider.ITimer;
+import frc.robot.common.robotprovider.NullLogger;
+
+/**
+ * Measures the cost of one cycle of the ControllerManager with as many controllers as the drivetrain and the vision tasks
+ * register (the drivetrain's 4, plus the vision turn and forward controllers), all evaluated together in one batch.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ControllerManagerBenchmark
+{
+    private BenchmarkTimer timer;
+    private ControllerManager manager;
+    private Controller[] controllers;
+    private double measuredValue;
+
+    @Setup
+    public void setup()
+    {
+        this.timer = new BenchmarkTimer();
+        this.manager = new ControllerManager(new LoggingManager(new NullLogger()), this.timer);
+        this.controllers = new Controller[6];
+        for (int i = 0; i < this.controllers.length; i++)
+        {
+            this.controllers[i] = this.manager.register(new PIDControlLaw(0.1, 0.001, 0.01, 0.0, 0.0, -1.0, 1.0));
+        }
+
+        this.measuredValue = 0.0;
+    }
+
+    @Benchmark
+    public double evaluate()
+    {
+        this.timer.time += 0.02;
+        this.manager.readSensors();
+
+        this.measuredValue = -this.measuredValue + 0.5;
+        for (int i = 0; i < this.controllers.length; i++)
+        {
+            this.controllers[i].setInputs(1.0, this.measuredValue);
+        }
+
+        this.manager.update();
+        return this.controllers[0].getOutput();
+    }
+
+    private static class BenchmarkTimer implements ITimer
+    {
+        private double time;
+
+        @Override
+        public void start()
+        {
+        }
+
+        @Override
+        public void stop()
+        {
+        }
+
+        @Override
+        public double get()
+        {
+            return this.time;
+        }
+
+        @Override
+        public void reset()
+        {
+            this.time = 0.0;
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package frc.robot.common;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import frc.robot.TuningConstants;
+
+/**
+ * Measures the cost of one cycle of the pose estimator that PoseEstimatorManager runs: a prediction from the odometry, and
+ * a prediction followed by a sighting of the vision target (the most that a cycle does).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class PoseEstimatorBenchmark
+{
+    private PoseEstimator estimator;
+    private double direction;
+
+    @Setup
+    public void setup()
+    {
+        this.estimator = new PoseEstimator(
+            TuningConstants.POSE_ESTIMATOR_TRANSLATION_NOISE,
+            TuningConstants.POSE_ESTIMATOR_TRANSLATION_DRIFT,
+            TuningConstants.POSE_ESTIMATOR_GYRO_NOISE,
+            TuningConstants.POSE_ESTIMATOR_GYRO_DRIFT,
+            TuningConstants.POSE_ESTIMATOR_WHEEL_ROTATION_NOISE,
+            TuningConstants.POSE_ESTIMATOR_VISION_DISTANCE_NOISE,
+            TuningConstants.POSE_ESTIMATOR_VISION_ANGLE_NOISE,
+            TuningConstants.POSE_ESTIMATOR_VISION_GATE,
+            TuningConstants.POSE_ESTIMATOR_VISION_MAX_REJECTED);
+
+        this.estimator.updateTarget(200.0, 0.0);
+        this.direction = 1.0;
+    }
+
+    @Benchmark
+    public double predict()
+    {
+        this.advance();
+        this.estimator.predict(0.02, 60.0 * this.direction, 10.0 * this.direction, this.direction, true);
+        return this.estimator.getX();
+    }
+
+    @Benchmark
+    public boolean predictAndSighting()
+    {
+        this.advance();
+        this.estimator.predict(0.02, 60.0 * this.direction, 10.0 * this.direction, this.direction, true);
+
+        // the target is where it was first seen, so this sighting is always close to where it is expected
+        double offsetX = 200.0 - this.estimator.getX();
+        double offsetY = -this.estimator.getY();
+        return this.estimator.updateTarget(
+            Math.sqrt(offsetX * offsetX + offsetY * offsetY),
+            this.estimator.getAngle() - Helpers.atan2d(offsetY, offsetX));
+    }
+
+    private void advance()
+    {
+        // drive back and forth, turning one way and then the other, so that the pose stays in range
+        this.direction = -this.direction;
+    }
+}
@@ -0,0 +1,86 @@
+package frc.robot.common;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import frc.robot.HardwareConstants;
+import frc.robot.TuningConstants;
+
+/**
+ * Measures the cost of one cycle of the swerve kinematics that DriveTrainMechanism runs: the module goals (inverse
+ * kinematics and desaturation) and the robot velocity for odometry (forward kinematics).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class SwerveKinematicsBenchmark
+{
+    private SwerveKinematics kinematics;
+    private double[] currentSteerAngles;
+    private double[] moduleVelocities;
+    private double[] moduleSteerAngles;
+    private double[] robotVelocity;
+    private double yaw;
+
+    @Setup
+    public void setup()
+    {
+        this.kinematics = new SwerveKinematics(
+            new double[]
+            {
+                -HardwareConstants.DRIVETRAIN_HORIZONTAL_WHEEL_CENTER_DISTANCE,
+                HardwareConstants.DRIVETRAIN_HORIZONTAL_WHEEL_CENTER_DISTANCE,
+                HardwareConstants.DRIVETRAIN_HORIZONTAL_WHEEL_CENTER_DISTANCE,
+                -HardwareConstants.DRIVETRAIN_HORIZONTAL_WHEEL_CENTER_DISTANCE,
+            },
+            new double[]
+            {
+                -HardwareConstants.DRIVETRAIN_VERTICAL_WHEEL_CENTER_DISTANCE,
+                -HardwareConstants.DRIVETRAIN_VERTICAL_WHEEL_CENTER_DISTANCE,
+                HardwareConstants.DRIVETRAIN_VERTICAL_WHEEL_CENTER_DISTANCE,
+                HardwareConstants.DRIVETRAIN_VERTICAL_WHEEL_CENTER_DISTANCE,
+            },
+            TuningConstants.DRIVETRAIN_MAX_VELOCITY,
+            TuningConstants.DRIVETRAIN_SKIP_ANGLE_ON_ZERO_DELTA);
+
+        this.currentSteerAngles = new double[] { 10.0, -20.0, 200.0, 95.0 };
+        this.moduleVelocities = new double[] { 50.0, 60.0, -70.0, 80.0 };
+        this.moduleSteerAngles = new double[] { 10.0, -20.0, 20.0, 95.0 };
+        this.robotVelocity = new double[3];
+    }
+
+    @Benchmark
+    public double moduleGoals()
+    {
+        this.kinematics.setYaw(this.advance());
+        double right = this.kinematics.getRobotRight(40.0, 60.0);
+        double forward = this.kinematics.getRobotForward(40.0, 60.0);
+        return this.kinematics.calculateModuleGoals(right, forward, 1.5, 0.0, 0.0, this.currentSteerAngles, this.moduleVelocities, this.moduleSteerAngles);
+    }
+
+    @Benchmark
+    public double robotVelocity()
+    {
+        this.moduleSteerAngles[0] = this.advance();
+        this.kinematics.calculateRobotVelocity(this.moduleVelocities, this.moduleSteerAngles, this.robotVelocity);
+        return this.robotVelocity[2];
+    }
+
+    private double advance()
+    {
+        this.yaw += 0.5;
+        if (this.yaw > 180.0)
+        {
+            this.yaw = -180.0;
+        }
+
+        return this.yaw;
+    }
+}
@@ -0,0 +1,172 @@
+package frc.robot.common.robotprovider;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import frc.robot.LoggingKey;
+
+/**
+ * Measures the cost of one robot cycle worth of file logging: a value for every LoggingKey followed by update().
+ * "indexOfLookup" mirrors the previous CSVLogger, which searched the schema for every logged value.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class CSVLoggerBenchmark
+{
+    private static final LoggingKey[] keys = LoggingKey.values();
+
+    private ILogger indexOfLogger;
+    private ILogger csvLogger;
+    private ILogger binaryLogger;
+    private double time;
+
+    @Setup
+    public void setup() throws IOException
+    {
+        String[] schema = new String[CSVLoggerBenchmark.keys.length];
+        for (int i = 0; i < schema.length; i++)
+        {
+            schema[i] = CSVLoggerBenchmark.keys[i].value;
+        }
+
+        this.indexOfLogger = new IndexOfCSVLogger(new NullFileWriter(), schema);
+        this.csvLogger = new CSVLogger(new NullFileWriter(), schema);
+        this.binaryLogger = new BinaryLogger(new NullBinaryFileWriter(), CSVLoggerBenchmark.keys);
+    }
+
+    @Benchmark
+    public void indexOfLookup()
+    {
+        this.logCycle(this.indexOfLogger);
+    }
+
+    @Benchmark
+    public void ordinalLookup()
+    {
+        this.logCycle(this.csvLogger);
+    }
+
+    @Benchmark
+    public void binary()
+    {
+        this.logCycle(this.binaryLogger);
+    }
+
+    private void logCycle(ILogger logger)
+    {
+        this.time += 0.02;
+        for (LoggingKey key : CSVLoggerBenchmark.keys)
+        {
+            logger.logNumber(key, this.time);
+        }
+
+        logger.update();
+    }
+
+    /**
+     * The previous CSVLogger, using a linear search through the schema for each logged value
+     */
+    private static class IndexOfCSVLogger extends StringLogger
+    {
+        private final IFileWriter fileWriter;
+        private final ArrayList<String> schema;
+        private final String[] values;
+
+        IndexOfCSVLogger(IFileWriter fileWriter, String... schema)
+        {
+            this.fileWriter = fileWriter;
+            this.schema = new ArrayList<String>();
+            for (String schemaEntry : schema)
+            {
+                this.schema.add(schemaEntry);
+            }
+
+            this.values = new String[this.schema.size()];
+        }
+
+        @Override
+        public void logString(LoggingKey key, String value)
+        {
+            int index = this.schema.indexOf(key.value);
+            if (index >= 0)
+            {
+                if (value.contains("\"") || value.contains("\r") || value.contains("\n"))
+                {
+                    value = "\"" + value.replace("\"", "\"\"") + "\"";
+                }
+
+                this.values[index] = value;
+            }
+        }
+
+        @Override
+        public void update()
+        {
+            try
+            {
+                for (int i = 0; i < this.schema.size(); i++)
+                {
+                    if (i > 0)
+                    {
+                        this.fileWriter.append(",");
+                    }
+
+                    String value = this.values[i];
+                    if (value != null)
+                    {
+                        this.fileWriter.append(value);
+                    }
+                }
+
+                this.fileWriter.append("\r\n");
+            }
+            catch (IOException e)
+            {
+                // best-effort...
+            }
+
+            Arrays.fill(this.values, null);
+        }
+    }
+
+    private static class NullFileWriter implements IFileWriter
+    {
+        public void append(String string)
+        {
+        }
+
+        public void write(char[] buffer, int offset, int length)
+        {
+        }
+
+        public void flush()
+        {
+        }
+    }
+
+    private static class NullBinaryFileWriter implements IBinaryFileWriter
+    {
+        public void write(byte[] buffer, int offset, int length)
+        {
+        }
+
+        public void flush()
+        {
+        }
+
+        public void close()
+        {
+        }
+    }
+}
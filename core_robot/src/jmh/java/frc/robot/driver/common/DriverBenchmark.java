@@ -0,0 +1,198 @@
+package frc.robot.driver.common;
+
+import static org.mockito.Mockito.mock;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.google.inject.AbstractModule;
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+
+import frc.robot.TestProvider;
+import frc.robot.common.LoggingManager;
+import frc.robot.common.robotprovider.*;
+import frc.robot.driver.ButtonMap;
+import frc.robot.driver.common.descriptions.UserInputDevice;
+
+/**
+ * Measures the cost of one cycle of Driver.update() using the real ButtonMap, with joysticks whose sticks move every
+ * cycle.  Run with "-prof gc" to see the garbage produced per cycle.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class DriverBenchmark
+{
+    private Driver driver;
+    private MovingJoystick[] joysticks;
+
+    @Setup
+    public void setup()
+    {
+        this.joysticks = new MovingJoystick[UserInputDevice.MaxCount.getId()];
+        BenchmarkProvider provider = new BenchmarkProvider();
+        for (int i = 0; i < this.joysticks.length; i++)
+        {
+            this.joysticks[i] = new MovingJoystick(i);
+            provider.setJoystick(i, this.joysticks[i]);
+        }
+
+        Injector injector = Guice.createInjector(
+            new AbstractModule()
+            {
+                @Override
+                protected void configure()
+                {
+                    this.bind(IRobotProvider.class).toInstance(provider);
+                    this.bind(IFile.class).toInstance(mock(IFile.class));
+                }
+            });
+
+        this.driver = new Driver(new LoggingManager(new NullLogger()), injector, new ButtonMap(), provider);
+    }
+
+    @Benchmark
+    public void update()
+    {
+        for (MovingJoystick joystick : this.joysticks)
+        {
+            joystick.advance();
+        }
+
+        this.driver.update();
+    }
+
+    /**
+     * Provider for the driver's dependencies, without a dashboard or driver station
+     */
+    private static class BenchmarkProvider extends TestProvider
+    {
+        private final INetworkTableProvider networkTableProvider;
+
+        BenchmarkProvider()
+        {
+            this.networkTableProvider = new NullNetworkTableProvider();
+        }
+
+        @Override
+        public INetworkTableProvider getNetworkTableProvider()
+        {
+            return this.networkTableProvider;
+        }
+    }
+
+    /**
+     * Joystick with its sticks slowly sweeping back and forth, and no buttons pressed
+     */
+    private static class MovingJoystick implements IJoystick
+    {
+        private final int offset;
+        private int cycle;
+
+        MovingJoystick(int offset)
+        {
+            this.offset = offset;
+        }
+
+        void advance()
+        {
+            this.cycle++;
+        }
+
+        @Override
+        public boolean isConnected()
+        {
+            return true;
+        }
+
+        @Override
+        public double getAxis(int relevantAxis)
+        {
+            // sweep from -1.0 to 1.0 over 200 cycles, with each axis out of phase
+            int position = (this.cycle + this.offset * 17 + relevantAxis * 31) % 200;
+            return position / 100.0 - 1.0;
+        }
+
+        @Override
+        public int getPOV()
+        {
+            return -1;
+        }
+
+        @Override
+        public boolean getRawButton(int value)
+        {
+            return false;
+        }
+
+        @Override
+        public void setRumble(JoystickRumbleType type, double value)
+        {
+        }
+    }
+
+    private static class NullNetworkTableProvider implements INetworkTableProvider
+    {
+        @Override
+        public INetworkTableEntry getNumberSlider(String title, double initialValue)
+        {
+            return null;
+        }
+
+        @Override
+        public <V> ISendableChooser<V> getSendableChooser()
+        {
+            return new NullSendableChooser<V>();
+        }
+
+        @Override
+        public <V> void addChooser(String name, ISendableChooser<V> chooser)
+        {
+        }
+
+        @Override
+        public double getSmartDashboardNumber(String key)
+        {
+            return 0.0;
+        }
+
+        @Override
+        public boolean getSmartDashboardBoolean(String key)
+        {
+            return false;
+        }
+
+        @Override
+        public String getSmartDashboardString(String key)
+        {
+            return null;
+        }
+    }
+
+    private static class NullSendableChooser<V> implements ISendableChooser<V>
+    {
+        @Override
+        public void addDefault(String name, V object)
+        {
+        }
+
+        @Override
+        public void addObject(String name, V object)
+        {
+        }
+
+        @Override
+        public V getSelected()
+        {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package frc.robot.driver.common;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.acmerobotics.roadrunner.geometry.Pose2d;
+import com.acmerobotics.roadrunner.geometry.Vector2d;
+import com.acmerobotics.roadrunner.trajectory.TrajectoryBuilder;
+import com.acmerobotics.roadrunner.trajectory.constraints.ProfileAccelerationConstraint;
+import com.acmerobotics.roadrunner.trajectory.constraints.TranslationalVelocityConstraint;
+
+import frc.robot.TuningConstants;
+import frc.robot.common.robotprovider.ITrajectory;
+import frc.robot.common.robotprovider.TrajectoryState;
+
+/**
+ * Measures the cost of looking up the state of a path once per cycle, as FollowPathTask does, by evaluating the RoadRunner
+ * trajectory ("roadRunner") versus interpolating its samples ("sampled"), and filling in a reused state ("sampledFill").
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class TrajectoryBenchmark
+{
+    private ITrajectory wrapper;
+    private ITrajectory sampled;
+    private TrajectoryState state;
+    private double time;
+
+    @Setup
+    public void setup()
+    {
+        this.wrapper = new TrajectoryWrapper(
+            new TrajectoryBuilder(new Pose2d(0.0, 0.0, 0.0), 0.0, new TranslationalVelocityConstraint(100.0), new ProfileAccelerationConstraint(100.0))
+                .splineTo(new Vector2d(60.0, 30.0), Math.PI / 2.0)
+                .splineTo(new Vector2d(60.0, 120.0), Math.PI / 2.0)
+                .build());
+
+        this.sampled = SampledTrajectory.sample(this.wrapper, TuningConstants.TRAJECTORY_SAMPLE_STEP);
+        this.state = new TrajectoryState();
+    }
+
+    @Benchmark
+    public TrajectoryState roadRunner()
+    {
+        return this.wrapper.get(this.advance());
+    }
+
+    @Benchmark
+    public TrajectoryState sampled()
+    {
+        return this.sampled.get(this.advance());
+    }
+
+    @Benchmark
+    public double sampledFill()
+    {
+        this.sampled.get(this.advance(), this.state);
+        return this.state.xPosition;
+    }
+
+    private double advance()
+    {
+        this.time += TuningConstants.LOOP_DURATION;
+        if (this.time > this.wrapper.getDuration())
+        {
+            this.time = 0.0;
+        }
+
+        return this.time;
+    }
+}
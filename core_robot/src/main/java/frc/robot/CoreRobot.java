@@ -32,6 +32,8 @@ public class CoreRobot<T extends AbstractModule>
     // Mechanisms and injector
     private MechanismManager mechanisms;
     private LoggingManager logger;
+    private LoopTimings loopTimings;
+    private LoopOverrunWatchdog overrunWatchdog;
     private Injector injector;
 
     private ITimer timer;
@@ -63,12 +65,16 @@ public class CoreRobot<T extends AbstractModule>
         //SettingsManager.initAndUpdatePreferences(preferences, ElectronicsConstants.class);
         //SettingsManager.initAndUpdatePreferences(preferences, VisionConstants.class);
 
+        // create the logger first, so that the driver and mechanisms can log while they are being created
+        this.logger = injector.getInstance(LoggingManager.class);
+        this.logger.refresh(injector);
+
         // create driver
         this.driver = injector.getInstance(IDriver.class);
 
         this.mechanisms = injector.getInstance(MechanismManager.class);
-        this.logger = injector.getInstance(LoggingManager.class);
-        this.logger.refresh(injector);
+        this.loopTimings = new LoopTimings(this.mechanisms);
+        this.overrunWatchdog = new LoopOverrunWatchdog(this.loopTimings, this.mechanisms);
 
         this.logger.logString(LoggingKey.RobotState, "Init");
 
@@ -101,8 +107,22 @@ public class CoreRobot<T extends AbstractModule>
         }
 
         this.logger.logString(LoggingKey.RobotState, "Disabled");
+        if (this.overrunWatchdog != null)
+        {
+            // report the final cycle before we were disabled
+            this.overrunWatchdog.log(this.logger);
+        }
+
         this.logger.update();
         this.logger.flush();
+
+        if (this.loopTimings != null && this.loopTimings.hasTimings())
+        {
+            System.out.println(this.loopTimings.getSummary());
+            System.out.println(this.overrunWatchdog.getSummary());
+            this.loopTimings.reset();
+            this.overrunWatchdog.reset();
+        }
     }
 
     /**
@@ -204,6 +224,9 @@ public class CoreRobot<T extends AbstractModule>
                 this.timerStarted = true;
             }
 
+            // start any background work, such as the drivetrain's odometry thread, until we are disabled
+            this.mechanisms.start();
+
             // log our current mode
             this.logger.logString(LoggingKey.RobotState, robotMode.toString());
         }
@@ -223,22 +246,32 @@ public class CoreRobot<T extends AbstractModule>
      */
     private void generalPeriodic()
     {
+        long loopStart = System.nanoTime();
+        long readSensorsEnd = 0L;
+        long driverEnd = 0L;
+        long mechanismsEnd = 0L;
         try
         {
             this.mechanisms.readSensors();
+            readSensorsEnd = System.nanoTime();
 
             this.driver.update();
+            driverEnd = System.nanoTime();
 
             // run each mechanism
             this.mechanisms.update();
+            mechanismsEnd = System.nanoTime();
 
             this.logger.logNumber(LoggingKey.RobotTime, this.timer.get());
+            this.loopTimings.log(this.logger);
+            this.overrunWatchdog.log(this.logger); // reports the previous cycle, as this one isn't over yet
             this.logger.update();
 
             if (this.loggerUpdates++ > TuningConstants.LOG_FLUSH_THRESHOLD)
             {
                 // lazily flush the log, in case of power-off.
                 this.logger.flush();
+                this.loggerUpdates = 0;
             }
         }
         catch (RuntimeException ex)
@@ -250,6 +283,33 @@ public class CoreRobot<T extends AbstractModule>
 
             throw ex;
         }
+        finally
+        {
+            // record the cycle even when it threw, so that a slow cycle leading up to an exception isn't hidden from the
+            // timings and the watchdog (the phase that threw runs until the end of the cycle, and the ones after it take no time)
+            long loopEnd = System.nanoTime();
+            if (readSensorsEnd == 0L)
+            {
+                readSensorsEnd = loopEnd;
+            }
+
+            if (driverEnd == 0L)
+            {
+                driverEnd = loopEnd;
+            }
+
+            if (mechanismsEnd == 0L)
+            {
+                mechanismsEnd = loopEnd;
+            }
+
+            this.loopTimings.record(LoopTimings.LoopPhase.ReadSensors, readSensorsEnd - loopStart);
+            this.loopTimings.record(LoopTimings.LoopPhase.Driver, driverEnd - readSensorsEnd);
+            this.loopTimings.record(LoopTimings.LoopPhase.Mechanisms, mechanismsEnd - driverEnd);
+            this.loopTimings.record(LoopTimings.LoopPhase.Logger, loopEnd - mechanismsEnd);
+            this.loopTimings.record(LoopTimings.LoopPhase.Total, loopEnd - loopStart);
+            this.overrunWatchdog.check();
+        }
     }
 
     private String generateMatchString(IDriverStation driverStation)
@@ -1,35 +1,71 @@
 package frc.robot;
 
+import frc.robot.common.LoggingPriority;
+
 /**
  * Keys describing logging 
  */
 public enum LoggingKey
 {
-    RobotState("r.state", true),
-    RobotTime("r.time", true),
-    RobotMatch("r.match"),
-    RobotCrash("r.crash", true),
+    RobotState("r.state", true, LoggingPriority.Critical),
+    RobotTime("r.time", true, LoggingPriority.Critical),
+    RobotMatch("r.match", false, LoggingPriority.Critical),
+    RobotCrash("r.crash", true, LoggingPriority.Critical),
+    LoggerDroppedRecords("log.dropped", true, LoggingPriority.Critical),
+    LoggerOverruns("log.overruns", true, LoggingPriority.Critical),
+    LoopTotalP50("loop.total_p50", true, 50),
+    LoopTotalP99("loop.total_p99", true, 50),
+    LoopTotalMax("loop.total_max", true, 50),
+    LoopReadSensorsP50("loop.readSensors_p50", true, 50),
+    LoopReadSensorsP99("loop.readSensors_p99", true, 50),
+    LoopReadSensorsMax("loop.readSensors_max", true, 50),
+    LoopDriverP50("loop.driver_p50", true, 50),
+    LoopDriverP99("loop.driver_p99", true, 50),
+    LoopDriverMax("loop.driver_max", true, 50),
+    LoopMechanismsP50("loop.mechanisms_p50", true, 50),
+    LoopMechanismsP99("loop.mechanisms_p99", true, 50),
+    LoopMechanismsMax("loop.mechanisms_max", true, 50),
+    LoopLoggerP50("loop.logger_p50", true, 50),
+    LoopLoggerP99("loop.logger_p99", true, 50),
+    LoopLoggerMax("loop.logger_max", true, 50),
+    LoopSlowestMechanism("loop.slowestMech", true, 50),
+    LoopSlowestMechanismP99("loop.slowestMech_p99", true, 50),
+    LoopOverrunBlame("loop.overrun_blame", true, LoggingPriority.Critical),
+    LoopOverrunBlameDuration("loop.overrun_blame_ms", true, LoggingPriority.Critical),
+    LoopOverrunDuration("loop.overrun_ms", true, LoggingPriority.Critical),
+    LoopOverruns("loop.overruns", true),
+    LoopOverrunsRecent("loop.overruns_recent", true),
+    LoopOverrunStreak("loop.overrun_streak", true),
+    LoopOverrunLongestStreak("loop.overrun_longestStreak", true),
+    LoopOverrunStreaks("loop.overrun_streaks", true),
     DriverMode("driver.mode"),
     DriverActiveMacros("driver.activeMacros", true),
     DriverActiveShifts("driver.activeShifts"),
     AutonomousSelection("auto.selected"),
     AutonomousDSMessage("auto.dsMessage"),
+    AutonomousPathCache("auto.pathCache"),
     OffboardVisionTargetDistance("rpi.v_distance", true),
     OffboardVisionTargetHorizontalAngle("rpi.v_horizontalAngle", true),
+    OffboardVisionTargetRawDistance("rpi.v_rawDistance", true),
+    OffboardVisionTargetRawHorizontalAngle("rpi.v_rawHorizontalAngle", true),
     OffboardVisionGamePieceDistance("rpi.g_distance", true),
     OffboardVisionGamePieceHorizontalAngle("rpi.g_horizontalAngle", true),
     OffboardVisionEnableVision("rpi.enableVision", true),
     OffboardVisionEnableStream("rpi.enableStream", true),
     OffboardVisionEnableProcessing("rpi.processingSetting", true),
     OffboardVisionMissedHeartbeats("rpi.missedHeartbeats", true),
-    PowerCurrent("power.curr"),
-    PowerCurrentFloatingAverage("power.currFltAvg"),
-    PowerBatteryVoltage("power.battV"),
+    VisionTurnError("vision.turn_err", false),
+    VisionTurnOutput("vision.turn_out", true),
+    VisionForwardError("vision.forward_err", false),
+    VisionForwardOutput("vision.forward_out", true),
+    PowerCurrent("power.curr", false, 5),
+    PowerCurrentFloatingAverage("power.currFltAvg", false, 5),
+    PowerBatteryVoltage("power.battV", false, 5),
     PigeonState("pigeon.state"),
     PigeonYaw("pigeon.yaw", true),
-    PigeonPitch("pigeon.pitch"),
-    PigeonRoll("pigeon.roll"),
-    PigeonStartingYaw("pigeon.startingYaw"),
+    PigeonPitch("pigeon.pitch", false, 5),
+    PigeonRoll("pigeon.roll", false, 5),
+    PigeonStartingYaw("pigeon.startingYaw", false, 5),
 
     DriveTrainDesiredAngle("dt.angle_goal", true),
     DriveTrainAngle("dt.angle", true),
@@ -39,52 +75,65 @@ public enum LoggingKey
     DriveTrainYPositionGoal("dt.ypos_goal", true),
     DriveTrainFieldOriented("dt.field_oriented", true),
     DriveTrainMaintainOrientation("dt.maintain_orientation", true),
+    DriveTrainOmegaError("dt.omega_err", false),
+    DriveTrainOmegaOutput("dt.omega_out", true),
+    DriveTrainPathOmegaError("dt.path_omega_err", false),
+    DriveTrainPathOmegaOutput("dt.path_omega_out", true),
+    DriveTrainPathXOffsetError("dt.path_x_err", false),
+    DriveTrainPathXOffsetOutput("dt.path_x_out", true),
+    DriveTrainPathYOffsetError("dt.path_y_err", false),
+    DriveTrainPathYOffsetOutput("dt.path_y_out", true),
+    PoseEstimatorXPosition("pe.xpos", true),
+    PoseEstimatorYPosition("pe.ypos", true),
+    PoseEstimatorAngle("pe.angle", true),
+    PoseEstimatorHasTarget("pe.has_target", true),
+    PoseEstimatorVisionAccepted("pe.vision_accepted", true),
 
-    DriveTrainAbsoluteEncoderAngle1("dt.absenc_ang1"),
-    DriveTrainDriveVelocity1("dt.drive_vel1"),
-    DriveTrainDrivePosition1("dt.drive_pos1"),
+    DriveTrainAbsoluteEncoderAngle1("dt.absenc_ang1", false, LoggingPriority.Debug),
+    DriveTrainDriveVelocity1("dt.drive_vel1", false, 5),
+    DriveTrainDrivePosition1("dt.drive_pos1", false, LoggingPriority.Debug),
     DriveTrainDriveError1("dt.drive_err1"),
-    DriveTrainDriveVelocityGoal1("dt.drive_goal1"),
-    DriveTrainSteerVelocity1("dt.steer_vel1"),
-    DriveTrainSteerPosition1("dt.steer_pos1"),
-    DriveTrainSteerAngle1("dt.steer_ang1"),
+    DriveTrainDriveVelocityGoal1("dt.drive_goal1", false, 5),
+    DriveTrainSteerVelocity1("dt.steer_vel1", false, 5),
+    DriveTrainSteerPosition1("dt.steer_pos1", false, LoggingPriority.Debug),
+    DriveTrainSteerAngle1("dt.steer_ang1", false, LoggingPriority.Debug),
     DriveTrainSteerError1("dt.steer_err1"),
-    DriveTrainSteerPositionGoal1("dt.steer_goal1"),
+    DriveTrainSteerPositionGoal1("dt.steer_goal1", false, 5),
 
-    DriveTrainAbsoluteEncoderAngle2("dt.absenc_ang2"),
-    DriveTrainDriveVelocity2("dt.drive_vel2"),
-    DriveTrainDrivePosition2("dt.drive_pos2"),
+    DriveTrainAbsoluteEncoderAngle2("dt.absenc_ang2", false, LoggingPriority.Debug),
+    DriveTrainDriveVelocity2("dt.drive_vel2", false, 5),
+    DriveTrainDrivePosition2("dt.drive_pos2", false, LoggingPriority.Debug),
     DriveTrainDriveError2("dt.drive_err2"),
-    DriveTrainDriveVelocityGoal2("dt.drive_goal2"),
-    DriveTrainSteerVelocity2("dt.steer_vel2"),
-    DriveTrainSteerPosition2("dt.steer_pos2"),
-    DriveTrainSteerAngle2("dt.steer_ang2"),
+    DriveTrainDriveVelocityGoal2("dt.drive_goal2", false, 5),
+    DriveTrainSteerVelocity2("dt.steer_vel2", false, 5),
+    DriveTrainSteerPosition2("dt.steer_pos2", false, LoggingPriority.Debug),
+    DriveTrainSteerAngle2("dt.steer_ang2", false, LoggingPriority.Debug),
     DriveTrainSteerError2("dt.steer_err2"),
-    DriveTrainSteerPositionGoal2("dt.steer_goal2"),
+    DriveTrainSteerPositionGoal2("dt.steer_goal2", false, 5),
 
-    DriveTrainAbsoluteEncoderAngle3("dt.absenc_ang3"),
-    DriveTrainDriveVelocity3("dt.drive_vel3"),
-    DriveTrainDrivePosition3("dt.drive_pos3"),
+    DriveTrainAbsoluteEncoderAngle3("dt.absenc_ang3", false, LoggingPriority.Debug),
+    DriveTrainDriveVelocity3("dt.drive_vel3", false, 5),
+    DriveTrainDrivePosition3("dt.drive_pos3", false, LoggingPriority.Debug),
     DriveTrainDriveError3("dt.drive_err3"),
-    DriveTrainDriveVelocityGoal3("dt.drive_goal3"),
-    DriveTrainSteerVelocity3("dt.steer_vel3"),
-    DriveTrainSteerPosition3("dt.steer_pos3"),
-    DriveTrainSteerAngle3("dt.steer_ang3"),
+    DriveTrainDriveVelocityGoal3("dt.drive_goal3", false, 5),
+    DriveTrainSteerVelocity3("dt.steer_vel3", false, 5),
+    DriveTrainSteerPosition3("dt.steer_pos3", false, LoggingPriority.Debug),
+    DriveTrainSteerAngle3("dt.steer_ang3", false, LoggingPriority.Debug),
     DriveTrainSteerError3("dt.steer_err3"),
-    DriveTrainSteerPositionGoal3("dt.steer_goal3"),
+    DriveTrainSteerPositionGoal3("dt.steer_goal3", false, 5),
 
-    DriveTrainAbsoluteEncoderAngle4("dt.absenc_ang4"),
-    DriveTrainDriveVelocity4("dt.drive_vel4"),
-    DriveTrainDrivePosition4("dt.drive_pos4"),
+    DriveTrainAbsoluteEncoderAngle4("dt.absenc_ang4", false, LoggingPriority.Debug),
+    DriveTrainDriveVelocity4("dt.drive_vel4", false, 5),
+    DriveTrainDrivePosition4("dt.drive_pos4", false, LoggingPriority.Debug),
     DriveTrainDriveError4("dt.drive_err4"),
-    DriveTrainDriveVelocityGoal4("dt.drive_goal4"),
-    DriveTrainSteerVelocity4("dt.steer_vel4"),
-    DriveTrainSteerPosition4("dt.steer_pos4"),
-    DriveTrainSteerAngle4("dt.steer_ang4"),
+    DriveTrainDriveVelocityGoal4("dt.drive_goal4", false, 5),
+    DriveTrainSteerVelocity4("dt.steer_vel4", false, 5),
+    DriveTrainSteerPosition4("dt.steer_pos4", false, LoggingPriority.Debug),
+    DriveTrainSteerAngle4("dt.steer_ang4", false, LoggingPriority.Debug),
     DriveTrainSteerError4("dt.steer_err4"),
-    DriveTrainSteerPositionGoal4("dt.steer_goal4"),
+    DriveTrainSteerPositionGoal4("dt.steer_goal4", false, 5),
 
-    CompressorPreassure("com.pres"),
+    CompressorPreassure("com.pres", false, 5),
 
     ClimberWinchPower("c.winch_pow"),
     ClimberWinchPosition("c.winch_pos"),
@@ -102,21 +151,41 @@ public enum LoggingKey
     CargoFlywheelError("cg.flywheel_err", true),
     CargoFlywheelDesiredVelocity("cg.flywheel_goal", true),
     CargoConveyorState("cg.conveyor"),
-    CargoFeederSensor("cg.feeder_tb_voltage"),
-    CargoConveyerSensor("cg.conveyer_tb_voltage"),
+    CargoFeederSensor("cg.feeder_tb_voltage", false, LoggingPriority.Debug),
+    CargoConveyerSensor("cg.conveyer_tb_voltage", false, LoggingPriority.Debug),
     CargoFeederBeamBroken("cg.feeder_tb_broken", true),
     CargoConveyerBeamBroken("cg.conveyer_tb_broken", true);
 
     public final String value;
     public final boolean shouldLog;
+    public final int sampleDivisor; // log every N cycles (e.g. 5 for 10 Hz)
+    public final LoggingPriority priority;
+
     private LoggingKey(String value)
     {
         this(value, false);
     }
 
     private LoggingKey(String value, boolean shouldLog)
+    {
+        this(value, shouldLog, 1, LoggingPriority.Normal);
+    }
+
+    private LoggingKey(String value, boolean shouldLog, int sampleDivisor)
+    {
+        this(value, shouldLog, sampleDivisor, LoggingPriority.Normal);
+    }
+
+    private LoggingKey(String value, boolean shouldLog, LoggingPriority priority)
+    {
+        this(value, shouldLog, 1, priority);
+    }
+
+    private LoggingKey(String value, boolean shouldLog, int sampleDivisor, LoggingPriority priority)
     {
         this.value = value;
         this.shouldLog = shouldLog;
+        this.sampleDivisor = sampleDivisor;
+        this.priority = priority;
     }
 }
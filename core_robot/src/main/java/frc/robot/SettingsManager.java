@@ -9,6 +9,7 @@ import com.google.inject.Injector;
 
 import frc.robot.common.*;
 import frc.robot.common.robotprovider.*;
+import frc.robot.driver.common.JoystickRecorder;
 import frc.robot.mechanisms.*;
 
 public class SettingsManager
@@ -16,6 +17,7 @@ public class SettingsManager
     public static List<IMechanism> getActiveMechanisms(Injector injector)
     {
         List<IMechanism> mechanismList = new ArrayList<IMechanism>();
+        mechanismList.add(injector.getInstance(ControllerManager.class)); // ControllerManager should always be the first mechanism on the list
         mechanismList.add(injector.getInstance(PowerManager.class));
         mechanismList.add(injector.getInstance(CompressorMechanism.class));
         mechanismList.add(injector.getInstance(PigeonManager.class)); // PigeonManager/NavxManager should come before DriveTrainMechanism
@@ -23,11 +25,136 @@ public class SettingsManager
         mechanismList.add(injector.getInstance(CargoMechanism.class));
         mechanismList.add(injector.getInstance(ClimberSammamishMechanism.class));
         mechanismList.add(injector.getInstance(OffboardVisionManager.class));
+        mechanismList.add(injector.getInstance(PoseEstimatorManager.class)); // PoseEstimatorManager should come after DriveTrainMechanism and OffboardVisionManager
         mechanismList.add(injector.getInstance(DriverFeedbackManager.class)); // DriverFeedbackManager should always be the last mechanism on the list
         return mechanismList;
     }
 
-    public static ILogger getLogger(Injector injector)
+    public static LoggingSettings getLoggingSettings(Injector injector)
+    {
+        LoggingSettings settings = new LoggingSettings();
+
+        // read any overrides to the sampling rates/priorities of logging keys, so they can be adjusted without recompiling
+        IFile settingsFile = injector.getInstance(IFile.class);
+        settingsFile.open(TuningConstants.LOG_SETTINGS_FILE_PATH);
+        if (settingsFile.exists())
+        {
+            try
+            {
+                settings.load(settingsFile.readAllLines());
+            }
+            catch (IOException ex)
+            {
+                // best-effort...
+            }
+        }
+
+        return settings;
+    }
+
+    public static ILogger getBlackBoxLogger(Injector injector)
+    {
+        if (!TuningConstants.LOG_BLACK_BOX)
+        {
+            return null;
+        }
+
+        IFile rootDirectory = injector.getInstance(IFile.class);
+        rootDirectory.open("/U/");
+        if (!rootDirectory.exists() || rootDirectory.getFreeSpace() < TuningConstants.LOG_FILE_REQUIRED_FREE_SPACE)
+        {
+            return null;
+        }
+
+        IFile directory = injector.getInstance(IFile.class);
+        directory.open("/U/blackbox/");
+        directory.mkdir();
+
+        // rotate through a fixed set of files, so that the black box from before a brown-out isn't overwritten by the
+        // next boot, without filling up the USB stick with a new file on every boot
+        int fileIndex = 0;
+        IFile indexFile = injector.getInstance(IFile.class);
+        indexFile.open("/U/blackbox/next.txt");
+        try
+        {
+            if (indexFile.exists())
+            {
+                List<String> lines = indexFile.readAllLines();
+                if (lines.size() > 0)
+                {
+                    fileIndex = Math.floorMod(Integer.parseInt(lines.get(0).trim()), TuningConstants.LOG_BLACK_BOX_FILE_COUNT);
+                }
+            }
+        }
+        catch (IOException | NumberFormatException ex)
+        {
+            // start over from the first file...
+        }
+
+        try
+        {
+            IFileWriter indexWriter = indexFile.openWriter();
+            indexWriter.append(Integer.toString((fileIndex + 1) % TuningConstants.LOG_BLACK_BOX_FILE_COUNT));
+            indexWriter.flush();
+        }
+        catch (IOException ex)
+        {
+            // best-effort...
+        }
+
+        IFile file = injector.getInstance(IFile.class);
+        file.open(String.format("/U/blackbox/%1$d.bin", fileIndex));
+
+        int slotCount = TuningConstants.LOG_BLACK_BOX_SECONDS * TuningConstants.LOOPS_PER_SECOND;
+        try
+        {
+            return new BlackBoxLogger(
+                file.openMemoryMapped(BlackBoxLogger.getRequiredSize(slotCount, TuningConstants.LOG_BLACK_BOX_SLOT_SIZE)),
+                slotCount,
+                TuningConstants.LOG_BLACK_BOX_SLOT_SIZE);
+        }
+        catch (IOException ex)
+        {
+            return null;
+        }
+    }
+
+    public static JoystickRecorder getJoystickRecorder(Injector injector)
+    {
+        if (!TuningConstants.LOG_JOYSTICKS)
+        {
+            return null;
+        }
+
+        IFile rootDirectory = injector.getInstance(IFile.class);
+        rootDirectory.open("/U/");
+        if (!rootDirectory.exists() || rootDirectory.getFreeSpace() < TuningConstants.LOG_FILE_REQUIRED_FREE_SPACE)
+        {
+            return null;
+        }
+
+        IFile directory = injector.getInstance(IFile.class);
+        directory.open("/U/joysticks/");
+        directory.mkdir();
+
+        IFile file = injector.getInstance(IFile.class);
+        file.open(String.format("/U/joysticks/%1$d.joy", Calendar.getInstance().getTime().getTime()));
+        if (file.exists())
+        {
+            return null;
+        }
+
+        try
+        {
+            return new JoystickRecorder(file.openBinaryWriter());
+        }
+        catch (IOException ex)
+        {
+            return null;
+        }
+    }
+
+    public static ILogger getLogger(Injector injector, LoggingSettings settings)
     {
         ISmartDashboardLogger smartDashboardLogger = injector.getInstance(ISmartDashboardLogger.class);
         if (!TuningConstants.LOG_TO_FILE)
@@ -53,6 +180,7 @@ public class SettingsManager
             return smartDashboardLogger;
         }
 
+        String extension = TuningConstants.LOG_FILE_BINARY ? "bin" : "csv";
         String eventName = driverStation.getEventName();
         int matchNumber = driverStation.getMatchNumber();
         int replayNumber = driverStation.getReplayNumber();
@@ -79,7 +207,7 @@ public class SettingsManager
                 directory.mkdir();
 
                 file = injector.getInstance(IFile.class);
-                file.open(String.format("/U/other/%1$d.csv", Calendar.getInstance().getTime().getTime()));
+                file.open(String.format("/U/other/%1$d.%2$s", Calendar.getInstance().getTime().getTime(), extension));
                 if (file.exists())
                 {
                     // file already exists
@@ -99,14 +227,15 @@ public class SettingsManager
             file = injector.getInstance(IFile.class);
             String fileName =
                 String.format(
-                    "%1$s%2$s%3$02d%4$s (%5$s%6$d).%7$s.csv",
+                    "%1$s%2$s%3$02d%4$s (%5$s%6$d).%7$s.%8$s",
                     directoryPath,
                     matchType.value,
                     matchNumber,
                     replayNumber == 0 ? "" : String.format("R%1$d", replayNumber),
                     alliance.value,
                     location,
-                    mode.toString().toLowerCase());
+                    mode.toString().toLowerCase(),
+                    extension);
 
             file.open(fileName);
             if (file.exists())
@@ -116,7 +245,7 @@ public class SettingsManager
                     // start adding .2, .3, etc. to the name, a la "/U/2020 - Glacier Peak/Q03 (R2).2.csv"
                     fileName =
                         String.format(
-                            "%1$s%2$s%3$02d%4$s (%5$s%6$d).%7$s.%8$d.csv",
+                            "%1$s%2$s%3$02d%4$s (%5$s%6$d).%7$s.%8$d.%9$s",
                             directoryPath,
                             matchType.value,
                             matchNumber,
@@ -124,7 +253,8 @@ public class SettingsManager
                             alliance.value,
                             location,
                             mode.toString().toLowerCase(),
-                            i);
+                            i,
+                            extension);
 
                     file.open(fileName);
                     if (!file.exists())
@@ -137,8 +267,23 @@ public class SettingsManager
 
         try
         {
-            CSVLogger csvLogger = new CSVLogger(file.openWriter());
-            return new MultiLogger(csvLogger, smartDashboardLogger);
+            ILogger fileLogger;
+            if (TuningConstants.LOG_FILE_BINARY)
+            {
+                IBinaryFileWriter binaryWriter = file.openBinaryWriter();
+                if (TuningConstants.LOG_FILE_ASYNC)
+                {
+                    binaryWriter = new AsyncBinaryFileWriter(binaryWriter);
+                }
+
+                fileLogger = new BinaryLogger(binaryWriter, TuningConstants.LOG_FILE_DELTA, settings.getSkippedSampleDivisors());
+            }
+            else
+            {
+                fileLogger = new CSVLogger(file.openWriter());
+            }
+
+            return new MultiLogger(fileLogger, smartDashboardLogger);
         }
         catch (IOException ex)
         {
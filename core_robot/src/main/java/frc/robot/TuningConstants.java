@@ -1,6 +1,7 @@
 package frc.robot;
 
 import frc.robot.driver.DigitalOperation;
+import frc.robot.driver.Shift;
 
 /**
  * All constants related to tuning the operation of the robot.
@@ -17,6 +18,7 @@ public class TuningConstants
     public static int LOOPS_PER_SECOND = 50; // we expect the robot's main loop to run at roughly ~50 Hz, or 1 update per 20ms (0.02s)
 
     public static final boolean EXPECT_UNUSED_JOYSTICKS = true;
+    public static final boolean VERIFY_BUTTON_MAP_ON_STARTUP = false; // the button map is verified at build time by the verifyButtonMap gradle task
 
     //================================================== Magic Values ==============================================================
 
@@ -32,6 +34,26 @@ public class TuningConstants
     public static final boolean LOG_FILE_ONLY_COMPETITION_MATCHES = true;
     public static final long LOG_FILE_REQUIRED_FREE_SPACE = 50 * 1024 * 1024; // require at least 50 MB of space
     public static final int LOG_FLUSH_THRESHOLD = 25;
+    public static final boolean LOG_FILE_BINARY = true; // write typed binary records (convert with BinaryLogConverter) instead of CSV
+    public static final int LOG_BINARY_BUFFER_SIZE = 64 * 1024;
+    public static final boolean LOG_FILE_ASYNC = true; // write the binary log from a background thread so the robot thread never blocks on the USB stick
+    public static final int LOG_ASYNC_BUFFER_SIZE = 1024 * 1024; // roughly a minute of rows at 50 Hz
+    public static final long LOG_ASYNC_POLL_PERIOD_NANOS = 10000000L; // 10ms
+    public static final boolean LOG_FILE_DELTA = true; // only write the values that changed since the previous row (binary log only)
+    public static final int LOG_DELTA_KEYFRAME_INTERVAL = 250; // every 5 seconds at 50 Hz
+    public static final String LOG_SETTINGS_FILE_PATH = "/U/logging.txt"; // per-key overrides of sampling divisor and priority ("key,divisor[,priority]")
+    public static final Shift LOG_DEBUG_SHIFT = Shift.DriverDebug; // debug-priority keys are only logged while this shift is held
+    public static final boolean LOG_BLACK_BOX = true; // record the last few seconds of every key into a memory-mapped file on the USB stick
+    public static final int LOG_BLACK_BOX_SECONDS = 10;
+    public static final int LOG_BLACK_BOX_SLOT_SIZE = 4096; // maximum size of each row in the black box, in bytes
+    public static final int LOG_BLACK_BOX_FILE_COUNT = 3; // number of black box files kept on the USB stick, reused in rotation across boots
+    public static final long LOG_DASHBOARD_PUBLISH_PERIOD_NANOS = 100000000L; // publish changed values to the dashboard at 10 Hz (0 to publish every cycle)
+    public static final boolean LOG_JOYSTICKS = false; // record the joystick inputs each cycle onto the USB stick, so the session can be replayed headlessly (see JoystickReplay)
+    public static final long LOOP_TIMING_BUCKET_NANOS = 10000L; // 10us buckets for loop timing histograms
+    public static final int LOOP_TIMING_BUCKET_COUNT = 5000; // up to 50ms, anything longer goes in the last bucket
+    public static final int LOOP_TIMING_REPORT_CYCLES = 50; // recalculate loop timing percentiles once per second
+    public static final long LOOP_OVERRUN_BUDGET_NANOS = 20000000L; // 20ms, matching LOOP_DURATION
+    public static final int LOOP_OVERRUN_WINDOW_CYCLES = 250; // count recent overruns over the last 5 seconds
 
     //================================================= Power ======================================================
 
@@ -93,6 +115,25 @@ public class TuningConstants
 
     public static final int VISION_MISSED_HEARTBEAT_THRESHOLD = 500;
 
+    // Project vision measurements from where the robot was when the frame was captured to where it is now
+    public static final boolean VISION_LATENCY_COMPENSATION = true;
+    public static final double VISION_CAPTURE_LATENCY = 0.06; // estimated time from capturing a frame to its results reaching us, in seconds
+
+    //================================================== Pose Estimator ==============================================================
+
+    // Fuse the odometry, the IMU and the vision target into one estimate of the pose (an extended Kalman filter), which is only logged for now
+    public static final boolean POSE_ESTIMATOR_ENABLED = true;
+    public static final double POSE_ESTIMATOR_TRANSLATION_NOISE = 0.25; // variance added to the odometry for each inch travelled (e.g. from wheel slip), in square inches per inch
+    public static final double POSE_ESTIMATOR_TRANSLATION_DRIFT = 4.0; // variance added to the odometry over time (e.g. from bumps), in square inches per second
+    public static final double POSE_ESTIMATOR_GYRO_NOISE = 0.01; // standard deviation of the Pigeon's rotation, as a fraction of the angle turned
+    public static final double POSE_ESTIMATOR_GYRO_DRIFT = 0.01; // variance added to the Pigeon's rotation over time, in square degrees per second
+    public static final double POSE_ESTIMATOR_WHEEL_ROTATION_NOISE = 0.1; // standard deviation of the rotation from the modules (when the Pigeon is disconnected), as a fraction of the angle turned
+    public static final double POSE_ESTIMATOR_VISION_DISTANCE_NOISE = 0.03; // standard deviation of the vision target's distance, as a fraction of the distance
+    public static final double POSE_ESTIMATOR_VISION_ANGLE_NOISE = 1.0; // standard deviation of the vision target's angle, in degrees
+    public static final double POSE_ESTIMATOR_VISION_GATE = 13.8; // ignore sightings that are less likely than 1 in 1000 (chi-squared with 2 degrees of freedom)
+    public static final int POSE_ESTIMATOR_VISION_MAX_REJECTED = 25; // after this many ignored sightings in a row, assume that our idea of where the target is was wrong
+    public static final int POSE_ESTIMATOR_HISTORY_LENGTH = 10; // cycles of estimates kept so that sightings are applied as of when their frame was captured (must cover VISION_CAPTURE_LATENCY)
+
     //================================================== Indicator Lights ========================================================
 
     public static final double INDICATOR_LIGHT_VISION_ACCEPTABLE_ANGLE_RANGE = 3.0;
@@ -137,6 +178,8 @@ public class TuningConstants
     public static final boolean DRIVETRAIN_STEER_MOTORS_USE_MOTION_MAGIC = true;
 
     public static final boolean DRIVETRAIN_USE_ODOMETRY = true;
+    public static final long DRIVETRAIN_ODOMETRY_PERIOD_NANOS = 5000000L; // integrate odometry on its own thread at 200 Hz while enabled (0 to integrate once per cycle on the robot thread)
+    public static final int DRIVETRAIN_POSE_HISTORY_LENGTH = 50; // keep a second of poses (one per cycle), to look up where the robot was when a camera frame was captured (results from older frames are dropped)
     public static final boolean DRIVETRAIN_RESET_ON_ROBOT_START = true;
     public static final boolean DRIVETRAIN_FIELD_ORIENTED_ON_ROBOT_START = true;
     public static final boolean DRIVETRAIN_MAINTAIN_ORIENTATION_ON_ROBOT_START = true;
@@ -224,7 +267,7 @@ public class TuningConstants
     public static final double DRIVETRAIN_STEER_SUPPLY_TRIGGER_CURRENT = 30.0;
     public static final double DRIVETRAIN_STEER_SUPPLY_TRIGGER_DURATION = 0.1;
 
-    public static final int DRIVETRAIN_SENSOR_FRAME_PERIOD_MS = 10;
+    public static final int DRIVETRAIN_SENSOR_FRAME_PERIOD_MS = 5; // as fast as the odometry thread samples them
     public static final int DRIVETRAIN_PID_FRAME_PERIOD_MS = 100;
 
     public static final boolean DRIVETRAIN_SKIP_ANGLE_ON_ZERO_VELOCITY = true;
@@ -250,6 +293,9 @@ public class TuningConstants
     public static final double DRIVETRAIN_MAX_PATH_TRANSLATIONAL_VELOCITY = 0.80 * TuningConstants.DRIVETRAIN_MAX_VELOCITY; // in inches per second
     public static final double DRIVETRAIN_MAX_PATH_TRANSLATIONAL_ACCELERATION = 0.75 * TuningConstants.DRIVETRAIN_MAX_VELOCITY; // in inches per second per second
 
+    public static final String PATH_CACHE_FILE = "/home/lvuser/deploy/paths.bin"; // written at build time by the generatePathCache gradle task
+    public static final double TRAJECTORY_SAMPLE_STEP = 0.01; // sample paths every 10ms
+
     //================================================== Cargo Mechanism ==============================================================
 
     public static final double CARGO_FLYWHEEL_MOTOR_PID_KP = 0.055;
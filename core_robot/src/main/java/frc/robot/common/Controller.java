@@ -0,0 +1,141 @@
+package frc.robot.common;
+
+import frc.robot.LoggingKey;
+
+/**
+ * A control law registered with the ControllerManager, which evaluates it using the cycle's shared timestamp.
+ *
+ * A controller can either be calculated immediately (when its output is needed right away), or have its inputs set so that
+ * it is evaluated along with the other pending controllers the next time that the ControllerManager evaluates them.
+ */
+public class Controller
+{
+    private final ControllerManager manager;
+    private final IControlLaw law;
+    private final LoggingKey errorLoggingKey;
+    private final LoggingKey outputLoggingKey;
+
+    private double prevTime;
+    private double setpoint;
+    private double measuredValue;
+    private double output;
+    private boolean pending;
+
+    /**
+     * Initializes a new Controller (see ControllerManager.register)
+     * @param manager that evaluates the controller
+     * @param law to evaluate
+     * @param errorLoggingKey to log the error into, or null
+     * @param outputLoggingKey to log the output into, or null
+     * @param time of the current cycle, in seconds
+     */
+    Controller(ControllerManager manager, IControlLaw law, LoggingKey errorLoggingKey, LoggingKey outputLoggingKey, double time)
+    {
+        this.manager = manager;
+        this.law = law;
+        this.errorLoggingKey = errorLoggingKey;
+        this.outputLoggingKey = outputLoggingKey;
+
+        this.prevTime = time;
+        this.output = 0.0;
+        this.pending = false;
+    }
+
+    /**
+     * Calculate the output right away, as of the current cycle
+     * @param setpoint describes the goal value
+     * @param measuredValue describes the measured value
+     * @return output value to be used
+     */
+    public double calculate(double setpoint, double measuredValue)
+    {
+        this.setInputs(setpoint, measuredValue);
+        this.evaluate(this.manager.getCycleTime());
+        return this.output;
+    }
+
+    /**
+     * Set the inputs for the next time that the ControllerManager evaluates the pending controllers
+     * @param setpoint describes the goal value
+     * @param measuredValue describes the measured value
+     */
+    public void setInputs(double setpoint, double measuredValue)
+    {
+        this.setpoint = setpoint;
+        this.measuredValue = measuredValue;
+        this.pending = true;
+    }
+
+    /**
+     * Get the output as of the latest evaluation
+     * @return output value to be used
+     */
+    public double getOutput()
+    {
+        return this.output;
+    }
+
+    /**
+     * Get the law that the controller evaluates
+     * @return the control law
+     */
+    public IControlLaw getLaw()
+    {
+        return this.law;
+    }
+
+    /**
+     * Reset the law and the output, so that the next evaluation starts over
+     */
+    public void reset()
+    {
+        this.law.reset();
+        this.prevTime = this.manager.getCycleTime();
+        this.output = 0.0;
+        this.pending = false;
+    }
+
+    /**
+     * Stop evaluating the controller (e.g. when the task that registered it ends)
+     */
+    public void release()
+    {
+        this.manager.release(this);
+    }
+
+    boolean isPending()
+    {
+        return this.pending;
+    }
+
+    /**
+     * Evaluate the law with the pending inputs, at most once per 10ms (to prevent division by zero and over-aggressive
+     * measurement), holding the previous output otherwise
+     * @param time of the current cycle, in seconds
+     */
+    void evaluate(double time)
+    {
+        this.pending = false;
+
+        double dt = time - this.prevTime;
+        if (dt >= ControllerManager.MIN_TIME_STEP)
+        {
+            this.prevTime = time;
+            this.output = this.law.calculate(this.setpoint, this.measuredValue, dt);
+        }
+        else if (dt < 0.0)
+        {
+            this.prevTime = time;
+        }
+
+        if (this.errorLoggingKey != null)
+        {
+            this.manager.getLogger().logNumber(this.errorLoggingKey, this.law.getError());
+        }
+
+        if (this.outputLoggingKey != null)
+        {
+            this.manager.getLogger().logNumber(this.outputLoggingKey, this.output);
+        }
+    }
+}
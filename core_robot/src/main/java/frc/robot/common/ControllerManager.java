@@ -0,0 +1,159 @@
+package frc.robot.common;
+
+import frc.robot.LoggingKey;
+import frc.robot.common.robotprovider.ILogger;
+import frc.robot.common.robotprovider.ITimer;
+
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+
+/**
+ * Controller manager, which evaluates all of the registered controllers (PID, feedforward, motion-profiled PID, ...) from a
+ * single timestamp per cycle, rather than each controller reading the timer and tracking its own time step.
+ *
+ * The timestamp is read in readSensors, so the ControllerManager should be the first of the active mechanisms.  Controllers
+ * can be calculated immediately, or have their inputs set and be evaluated together (in one pass over the controllers) by
+ * evaluate, which also runs in update for any controllers left pending by the driver's tasks.
+ */
+@Singleton
+public class ControllerManager implements IMechanism
+{
+    // output updates at a max of 100Hz
+    static final double MIN_TIME_STEP = 0.01;
+
+    private final ILogger logger;
+    private final ITimer timer;
+
+    private Controller[] controllers;
+    private int controllerCount;
+
+    private double cycleTime;
+
+    /**
+     * Initializes a new ControllerManager
+     * @param logger for logging each controller's telemetry
+     * @param timer for the time of each cycle
+     */
+    @Inject
+    public ControllerManager(LoggingManager logger, ITimer timer)
+    {
+        this.logger = logger;
+        this.timer = timer;
+
+        this.controllers = new Controller[16];
+        this.controllerCount = 0;
+
+        this.cycleTime = timer.get();
+    }
+
+    /**
+     * Register a control law to be evaluated
+     * @param law to evaluate
+     * @return the controller for the law
+     */
+    public Controller register(IControlLaw law)
+    {
+        return this.register(law, null, null);
+    }
+
+    /**
+     * Register a control law to be evaluated, logging its error and output each time that it is evaluated
+     * @param law to evaluate
+     * @param errorLoggingKey to log the error into, or null
+     * @param outputLoggingKey to log the output into, or null
+     * @return the controller for the law
+     */
+    public Controller register(IControlLaw law, LoggingKey errorLoggingKey, LoggingKey outputLoggingKey)
+    {
+        Controller controller = new Controller(this, law, errorLoggingKey, outputLoggingKey, this.cycleTime);
+        if (this.controllerCount == this.controllers.length)
+        {
+            Controller[] controllers = new Controller[2 * this.controllers.length];
+            System.arraycopy(this.controllers, 0, controllers, 0, this.controllerCount);
+            this.controllers = controllers;
+        }
+
+        this.controllers[this.controllerCount++] = controller;
+        return controller;
+    }
+
+    /**
+     * Get the number of registered controllers
+     * @return number of controllers
+     */
+    public int getControllerCount()
+    {
+        return this.controllerCount;
+    }
+
+    /**
+     * Get the timestamp that every controller is evaluated with this cycle
+     * @return time of the current cycle, in seconds
+     */
+    public double getCycleTime()
+    {
+        return this.cycleTime;
+    }
+
+    /**
+     * Evaluate all of the controllers that have pending inputs
+     */
+    public void evaluate()
+    {
+        for (int i = 0; i < this.controllerCount; i++)
+        {
+            Controller controller = this.controllers[i];
+            if (controller.isPending())
+            {
+                controller.evaluate(this.cycleTime);
+            }
+        }
+    }
+
+    /**
+     * read all of the sensors for the mechanism that we will use in macros/autonomous mode and record their values
+     */
+    @Override
+    public void readSensors()
+    {
+        this.cycleTime = this.timer.get();
+    }
+
+    /**
+     * calculate the various outputs to use based on the inputs and apply them to the outputs for the relevant mechanism
+     */
+    @Override
+    public void update()
+    {
+        this.evaluate();
+    }
+
+    /**
+     * stop the relevant component
+     */
+    @Override
+    public void stop()
+    {
+        // the timer is reset when the robot is disabled, so controllers reset afterwards start from the new time
+        this.cycleTime = this.timer.get();
+    }
+
+    ILogger getLogger()
+    {
+        return this.logger;
+    }
+
+    void release(Controller controller)
+    {
+        for (int i = 0; i < this.controllerCount; i++)
+        {
+            if (this.controllers[i] == controller)
+            {
+                this.controllerCount--;
+                this.controllers[i] = this.controllers[this.controllerCount];
+                this.controllers[this.controllerCount] = null;
+                return;
+            }
+        }
+    }
+}
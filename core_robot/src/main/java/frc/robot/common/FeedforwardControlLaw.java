@@ -0,0 +1,80 @@
+package frc.robot.common;
+
+/**
+ * Feedforward control law for a velocity setpoint, from the static friction (kS), velocity (kV) and acceleration (kA)
+ * constants of the mechanism.  The acceleration is the change in the setpoint since the previous calculation, and the
+ * measured value is only used for the error.
+ */
+public class FeedforwardControlLaw implements IControlLaw
+{
+    private final double ks; // output to overcome static friction
+    private final double kv; // output per unit of velocity
+    private final double ka; // output per unit of acceleration
+    private final Double minOutput;
+    private final Double maxOutput;
+
+    private boolean hasPrevSetpoint;
+    private double prevSetpoint;
+    private double error;
+
+    /**
+     * Initializes a new FeedforwardControlLaw
+     * @param ks output to overcome static friction (in the direction of the setpoint)
+     * @param kv output per unit of velocity
+     * @param ka output per unit of acceleration
+     * @param minOutput indicates the minimum output value acceptable, or null
+     * @param maxOutput indicates the maximum output value acceptable, or null
+     */
+    public FeedforwardControlLaw(double ks, double kv, double ka, Double minOutput, Double maxOutput)
+    {
+        this.ks = ks;
+        this.kv = kv;
+        this.ka = ka;
+        this.minOutput = minOutput;
+        this.maxOutput = maxOutput;
+
+        this.hasPrevSetpoint = false;
+        this.prevSetpoint = 0.0;
+        this.error = 0.0;
+    }
+
+    @Override
+    public double calculate(double setpoint, double measuredValue, double dt)
+    {
+        double acceleration = 0.0;
+        if (this.hasPrevSetpoint)
+        {
+            acceleration = (setpoint - this.prevSetpoint) / dt;
+        }
+
+        this.hasPrevSetpoint = true;
+        this.prevSetpoint = setpoint;
+        this.error = setpoint - measuredValue;
+
+        double result = this.ks * Math.signum(setpoint) + this.kv * setpoint + this.ka * acceleration;
+        if (this.maxOutput != null && result > this.maxOutput)
+        {
+            result = this.maxOutput;
+        }
+        else if (this.minOutput != null && result < this.minOutput)
+        {
+            result = this.minOutput;
+        }
+
+        return result;
+    }
+
+    @Override
+    public double getError()
+    {
+        return this.error;
+    }
+
+    @Override
+    public void reset()
+    {
+        this.hasPrevSetpoint = false;
+        this.prevSetpoint = 0.0;
+        this.error = 0.0;
+    }
+}
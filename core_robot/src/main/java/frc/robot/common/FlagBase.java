@@ -40,6 +40,17 @@ public class FlagBase
         return (this.value & other.value) == other.value;
     }
 
+    /**
+     * Check whether a raw flag value has all of the bits of another flag set, without allocating a new flag
+     * @param value raw flag value to check
+     * @param other flag to look for
+     * @return true if all of the bits of other are set in value
+     */
+    public static boolean HasFlag(int value, FlagBase other)
+    {
+        return (value & other.value) == other.value;
+    }
+
     @Override
     public String toString()
     {
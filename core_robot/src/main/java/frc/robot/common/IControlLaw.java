@@ -0,0 +1,28 @@
+package frc.robot.common;
+
+/**
+ * A control law that a Controller evaluates each cycle (e.g. PID, feedforward, or motion-profiled PID), turning a setpoint
+ * and a measured value into an output.
+ */
+public interface IControlLaw
+{
+    /**
+     * Calculate the output for this cycle
+     * @param setpoint describes the goal value
+     * @param measuredValue describes the measured value
+     * @param dt time since the previous calculation, in seconds
+     * @return output value to be used
+     */
+    double calculate(double setpoint, double measuredValue, double dt);
+
+    /**
+     * Get the error as of the latest calculation, for telemetry
+     * @return the error
+     */
+    double getError();
+
+    /**
+     * Forget any history (e.g. integral), so that the next calculation starts over
+     */
+    void reset();
+}
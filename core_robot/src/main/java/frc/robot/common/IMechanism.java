@@ -23,4 +23,12 @@ public interface IMechanism
      * stop the relevant mechanism
      */
     public void stop();
+
+    /**
+     * start any work that the mechanism does in the background (e.g. on its own thread) while the robot is enabled, until
+     * it is stopped
+     */
+    public default void start()
+    {
+    }
 }
@@ -7,19 +7,44 @@ import com.google.inject.Singleton;
 import frc.robot.*;
 import frc.robot.common.robotprovider.*;
 
+/**
+ * Logger that forwards values to the current logger, skipping values for keys that aren't due to be logged this cycle
+ * based on their sampling divisor and priority tier (see LoggingSettings).
+ * Every value is also forwarded to the black box logger (if any), which is kept across refreshes.
+ */
 @Singleton
 public class LoggingManager implements ILogger
 {
     private ILogger currentLogger;
+    private ILogger blackBoxLogger;
+    private LoggingSettings settings;
+    private long cycle;
+    private boolean debugLogging;
 
     @Inject
     public LoggingManager()
     {
+        this.settings = new LoggingSettings();
     }
 
     public LoggingManager(ILogger logger)
+    {
+        this(logger, new LoggingSettings());
+    }
+
+    public LoggingManager(ILogger logger, LoggingSettings settings)
     {
         this.currentLogger = logger;
+        this.settings = settings;
+    }
+
+    /**
+     * Set whether debug-priority keys should be logged (i.e. whether the debug shift is held)
+     * @param debugLogging true to log debug-priority keys
+     */
+    public void setDebugLogging(boolean debugLogging)
+    {
+        this.debugLogging = debugLogging;
     }
 
     /**
@@ -27,7 +52,19 @@ public class LoggingManager implements ILogger
      */
     public void refresh(Injector injector)
     {
-        this.currentLogger = SettingsManager.getLogger(injector);
+        this.settings = SettingsManager.getLoggingSettings(injector);
+        if (this.blackBoxLogger == null)
+        {
+            this.blackBoxLogger = SettingsManager.getBlackBoxLogger(injector);
+        }
+
+        ILogger newLogger = SettingsManager.getLogger(injector, this.settings);
+        if (this.currentLogger != null && this.currentLogger != newLogger)
+        {
+            this.currentLogger.close();
+        }
+
+        this.currentLogger = newLogger;
     }
 
     /**
@@ -38,7 +75,15 @@ public class LoggingManager implements ILogger
     @Override
     public void logBoolean(LoggingKey key, boolean value)
     {
-        this.currentLogger.logBoolean(key, value);
+        if (this.blackBoxLogger != null)
+        {
+            this.blackBoxLogger.logBoolean(key, value);
+        }
+
+        if (this.settings.shouldLog(key, this.cycle, this.debugLogging))
+        {
+            this.currentLogger.logBoolean(key, value);
+        }
     }
 
     /**
@@ -49,7 +94,15 @@ public class LoggingManager implements ILogger
     @Override
     public void logBooleanArray(LoggingKey key, boolean[] value)
     {
-        this.currentLogger.logBooleanArray(key, value);
+        if (this.blackBoxLogger != null)
+        {
+            this.blackBoxLogger.logBooleanArray(key, value);
+        }
+
+        if (this.settings.shouldLog(key, this.cycle, this.debugLogging))
+        {
+            this.currentLogger.logBooleanArray(key, value);
+        }
     }
 
     /**
@@ -60,7 +113,15 @@ public class LoggingManager implements ILogger
     @Override
     public void logNumber(LoggingKey key, double value)
     {
-        this.currentLogger.logNumber(key, value);
+        if (this.blackBoxLogger != null)
+        {
+            this.blackBoxLogger.logNumber(key, value);
+        }
+
+        if (this.settings.shouldLog(key, this.cycle, this.debugLogging))
+        {
+            this.currentLogger.logNumber(key, value);
+        }
     }
 
     /**
@@ -71,7 +132,15 @@ public class LoggingManager implements ILogger
     @Override
     public void logNumber(LoggingKey key, Double value)
     {
-        this.currentLogger.logNumber(key, value);
+        if (this.blackBoxLogger != null)
+        {
+            this.blackBoxLogger.logNumber(key, value);
+        }
+
+        if (this.settings.shouldLog(key, this.cycle, this.debugLogging))
+        {
+            this.currentLogger.logNumber(key, value);
+        }
     }
 
     /**
@@ -82,7 +151,15 @@ public class LoggingManager implements ILogger
     @Override
     public void logInteger(LoggingKey key, int value)
     {
-        this.currentLogger.logInteger(key, value);
+        if (this.blackBoxLogger != null)
+        {
+            this.blackBoxLogger.logInteger(key, value);
+        }
+
+        if (this.settings.shouldLog(key, this.cycle, this.debugLogging))
+        {
+            this.currentLogger.logInteger(key, value);
+        }
     }
 
     /**
@@ -94,7 +171,15 @@ public class LoggingManager implements ILogger
     @Override
     public void logInteger(LoggingKey key, int value, String formatString)
     {
-        this.currentLogger.logInteger(key, value, formatString);
+        if (this.blackBoxLogger != null)
+        {
+            this.blackBoxLogger.logInteger(key, value, formatString);
+        }
+
+        if (this.settings.shouldLog(key, this.cycle, this.debugLogging))
+        {
+            this.currentLogger.logInteger(key, value, formatString);
+        }
     }
 
     /**
@@ -105,7 +190,15 @@ public class LoggingManager implements ILogger
     @Override
     public void logPoint(LoggingKey key, IPoint value)
     {
-        this.currentLogger.logPoint(key, value);
+        if (this.blackBoxLogger != null)
+        {
+            this.blackBoxLogger.logPoint(key, value);
+        }
+
+        if (this.settings.shouldLog(key, this.cycle, this.debugLogging))
+        {
+            this.currentLogger.logPoint(key, value);
+        }
     }
 
     /**
@@ -116,7 +209,15 @@ public class LoggingManager implements ILogger
     @Override
     public void logString(LoggingKey key, String value)
     {
-        this.currentLogger.logString(key, value);
+        if (this.blackBoxLogger != null)
+        {
+            this.blackBoxLogger.logString(key, value);
+        }
+
+        if (this.settings.shouldLog(key, this.cycle, this.debugLogging))
+        {
+            this.currentLogger.logString(key, value);
+        }
     }
 
     /**
@@ -125,7 +226,13 @@ public class LoggingManager implements ILogger
     @Override
     public void update()
     {
+        if (this.blackBoxLogger != null)
+        {
+            this.blackBoxLogger.update();
+        }
+
         this.currentLogger.update();
+        this.cycle++;
     }
 
     /**
@@ -136,4 +243,18 @@ public class LoggingManager implements ILogger
     {
         this.currentLogger.flush();
     }
+
+    /**
+     * Close the output stream, if appropriate..
+     */
+    @Override
+    public void close()
+    {
+        if (this.blackBoxLogger != null)
+        {
+            this.blackBoxLogger.close();
+        }
+
+        this.currentLogger.close();
+    }
 }
@@ -0,0 +1,11 @@
+package frc.robot.common;
+
+/**
+ * Priority tiers for logging keys
+ */
+public enum LoggingPriority
+{
+    Critical, // always logged, every cycle
+    Normal, // logged at the key's sampling rate
+    Debug; // only logged (at the key's sampling rate) while the debug shift is held
+}
@@ -0,0 +1,159 @@
+package frc.robot.common;
+
+import java.util.HashMap;
+import java.util.List;
+
+import frc.robot.LoggingKey;
+
+/**
+ * Per-key sampling divisors and priority tiers, starting from the defaults declared on each LoggingKey.
+ *
+ * Overrides can be loaded from a settings file so that they can be changed without recompiling, one key per line:
+ *   key,divisor[,priority]
+ * e.g. "power.curr,10" to log the current at 5 Hz, or "dt.steer_ang1,1,Normal" to always log a debug key.
+ * Blank lines and lines starting with # are ignored, as are lines that can't be parsed.
+ */
+public class LoggingSettings
+{
+    private final int[] sampleDivisors;
+    private final LoggingPriority[] priorities;
+
+    /**
+     * Initializes a new instance of the LoggingSettings class, using the defaults declared on each LoggingKey
+     */
+    public LoggingSettings()
+    {
+        LoggingKey[] keys = LoggingKey.values();
+        this.sampleDivisors = new int[keys.length];
+        this.priorities = new LoggingPriority[keys.length];
+        for (LoggingKey key : keys)
+        {
+            this.sampleDivisors[key.ordinal()] = key.sampleDivisor;
+            this.priorities[key.ordinal()] = key.priority;
+        }
+    }
+
+    /**
+     * Apply overrides from the lines of a settings file
+     * @param lines of the settings file
+     * @return the number of keys that were overridden
+     */
+    public int load(List<String> lines)
+    {
+        HashMap<String, LoggingKey> keysByValue = new HashMap<String, LoggingKey>();
+        for (LoggingKey key : LoggingKey.values())
+        {
+            keysByValue.put(key.value, key);
+        }
+
+        int overrides = 0;
+        for (String line : lines)
+        {
+            line = line.trim();
+            if (line.isEmpty() || line.startsWith("#"))
+            {
+                continue;
+            }
+
+            String[] parts = line.split(",");
+            LoggingKey key = keysByValue.get(parts[0].trim());
+            if (key == null || parts.length < 2 || parts.length > 3)
+            {
+                continue;
+            }
+
+            int sampleDivisor;
+            LoggingPriority priority = this.priorities[key.ordinal()];
+            try
+            {
+                sampleDivisor = Integer.parseInt(parts[1].trim());
+                if (parts.length > 2)
+                {
+                    priority = LoggingPriority.valueOf(parts[2].trim());
+                }
+            }
+            catch (IllegalArgumentException ex)
+            {
+                continue;
+            }
+
+            if (sampleDivisor < 1)
+            {
+                continue;
+            }
+
+            this.sampleDivisors[key.ordinal()] = sampleDivisor;
+            this.priorities[key.ordinal()] = priority;
+            overrides++;
+        }
+
+        return overrides;
+    }
+
+    /**
+     * Retrieve the number of cycles between each logged value for the key
+     * @param key to check
+     * @return sampling divisor
+     */
+    public int getSampleDivisor(LoggingKey key)
+    {
+        return this.sampleDivisors[key.ordinal()];
+    }
+
+    /**
+     * Retrieve the priority tier for the key
+     * @param key to check
+     * @return priority tier
+     */
+    public LoggingPriority getPriority(LoggingKey key)
+    {
+        return this.priorities[key.ordinal()];
+    }
+
+    /**
+     * Get the number of cycles between each logged value for every key, so that a logger can tell a key that was skipped
+     * because of its sampling divisor apart from one that is no longer being logged.  Critical keys are never skipped, so
+     * their divisor is 1.
+     * @return sampling divisors, indexed by LoggingKey ordinal
+     */
+    public int[] getSkippedSampleDivisors()
+    {
+        int[] sampleDivisors = new int[this.sampleDivisors.length];
+        for (int i = 0; i < sampleDivisors.length; i++)
+        {
+            sampleDivisors[i] = this.priorities[i] == LoggingPriority.Critical ? 1 : this.sampleDivisors[i];
+        }
+
+        return sampleDivisors;
+    }
+
+    /**
+     * Check whether a value for the key should be logged during this cycle
+     * @param key to check
+     * @param cycle number of the current cycle
+     * @param debug whether the debug shift is currently held
+     * @return true if the value should be logged
+     */
+    public boolean shouldLog(LoggingKey key, long cycle, boolean debug)
+    {
+        int ordinal = key.ordinal();
+        switch (this.priorities[ordinal])
+        {
+            case Critical:
+                return true;
+
+            case Debug:
+                if (!debug)
+                {
+                    return false;
+                }
+
+                break;
+
+            default:
+                break;
+        }
+
+        return cycle % this.sampleDivisors[ordinal] == 0;
+    }
+}
@@ -0,0 +1,138 @@
+package frc.robot.common;
+
+/**
+ * A hash map from primitive long keys to primitive int values, using open addressing with linear probing so that neither
+ * the keys nor the values are boxed.
+ */
+public class LongIntHashMap
+{
+    private static final int DefaultCapacity = 16;
+
+    private long[] keys;
+    private int[] values;
+    private boolean[] used;
+    private int size;
+
+    /**
+     * Initializes a new, empty LongIntHashMap
+     */
+    public LongIntHashMap()
+    {
+        this(LongIntHashMap.DefaultCapacity);
+    }
+
+    /**
+     * Initializes a new, empty LongIntHashMap
+     * @param expectedSize number of entries to make room for before the map needs to grow
+     */
+    public LongIntHashMap(int expectedSize)
+    {
+        // keep the table at most half full
+        int capacity = LongIntHashMap.DefaultCapacity;
+        while (capacity < 2 * expectedSize)
+        {
+            capacity <<= 1;
+        }
+
+        this.keys = new long[capacity];
+        this.values = new int[capacity];
+        this.used = new boolean[capacity];
+    }
+
+    /**
+     * Get the number of entries in the map
+     * @return number of keys
+     */
+    public int size()
+    {
+        return this.size;
+    }
+
+    /**
+     * Check whether the map contains a key
+     * @param key to check
+     * @return true if the key has a value, otherwise false
+     */
+    public boolean containsKey(long key)
+    {
+        return this.used[this.find(key)];
+    }
+
+    /**
+     * Get the value for a key
+     * @param key to get
+     * @param defaultValue to return if the key isn't in the map
+     * @return the value for the key, or defaultValue if there isn't one
+     */
+    public int get(long key, int defaultValue)
+    {
+        int slot = this.find(key);
+        return this.used[slot] ? this.values[slot] : defaultValue;
+    }
+
+    /**
+     * Set the value for a key
+     * @param key to set
+     * @param value to set for the key
+     */
+    public void put(long key, int value)
+    {
+        int slot = this.find(key);
+        if (!this.used[slot])
+        {
+            if (2 * (this.size + 1) > this.keys.length)
+            {
+                this.resize(this.keys.length << 1);
+                slot = this.find(key);
+            }
+
+            this.used[slot] = true;
+            this.keys[slot] = key;
+            this.size++;
+        }
+
+        this.values[slot] = value;
+    }
+
+    private int find(long key)
+    {
+        int mask = this.keys.length - 1;
+        int slot = LongIntHashMap.hash(key) & mask;
+        while (this.used[slot] && this.keys[slot] != key)
+        {
+            slot = (slot + 1) & mask;
+        }
+
+        return slot;
+    }
+
+    private void resize(int capacity)
+    {
+        long[] oldKeys = this.keys;
+        int[] oldValues = this.values;
+        boolean[] oldUsed = this.used;
+
+        this.keys = new long[capacity];
+        this.values = new int[capacity];
+        this.used = new boolean[capacity];
+        for (int i = 0; i < oldKeys.length; i++)
+        {
+            if (oldUsed[i])
+            {
+                int slot = this.find(oldKeys[i]);
+                this.used[slot] = true;
+                this.keys[slot] = oldKeys[i];
+                this.values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    private static int hash(long key)
+    {
+        // spread the bits of the key (from the 64-bit finalizer of MurmurHash3), as packed keys tend to differ in only a few bits
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        return (int)key;
+    }
+}
@@ -0,0 +1,286 @@
+package frc.robot.common;
+
+import frc.robot.LoggingKey;
+import frc.robot.TuningConstants;
+import frc.robot.common.robotprovider.ILogger;
+
+/**
+ * Watchdog that checks each cycle of the robot's main loop against a time budget.  When a cycle overruns, the blame is
+ * placed on the slowest phase of that cycle (or the slowest mechanism, when readSensors or mechanisms was slowest), and
+ * counts of overruns and overrun streaks are kept.  Checking and logging don't allocate.
+ */
+public class LoopOverrunWatchdog
+{
+    private static final double NANOS_PER_MILLISECOND = 1000000.0;
+
+    private static final LoopTimings.LoopPhase[] BlamablePhases =
+        new LoopTimings.LoopPhase[]
+        {
+            LoopTimings.LoopPhase.ReadSensors,
+            LoopTimings.LoopPhase.Driver,
+            LoopTimings.LoopPhase.Mechanisms,
+            LoopTimings.LoopPhase.Logger,
+        };
+
+    private final LoopTimings loopTimings;
+    private final MechanismManager mechanisms;
+    private final long budgetNanos;
+
+    // precalculated blame names, so that an overrun doesn't need to build a string
+    private final String[] phaseNames;
+    private final String[] readSensorsNames;
+    private final String[] updateNames;
+
+    // whether each of the recent cycles overran
+    private final boolean[] recentOverruns;
+    private int recentIndex;
+    private int recentOverrunCount;
+
+    private boolean overran;
+    private String blame;
+    private long blameNanos;
+    private long overrunNanos;
+
+    private int overrunCount;
+    private int currentStreak;
+    private int longestStreak;
+    private int streakCount;
+
+    /**
+     * Initializes a new instance of the LoopOverrunWatchdog class, using the budget from TuningConstants
+     * @param loopTimings holding the duration of each phase of the loop
+     * @param mechanisms holding the duration of each mechanism
+     */
+    public LoopOverrunWatchdog(LoopTimings loopTimings, MechanismManager mechanisms)
+    {
+        this(loopTimings, mechanisms, TuningConstants.LOOP_OVERRUN_BUDGET_NANOS, TuningConstants.LOOP_OVERRUN_WINDOW_CYCLES);
+    }
+
+    /**
+     * Initializes a new instance of the LoopOverrunWatchdog class
+     * @param loopTimings holding the duration of each phase of the loop
+     * @param mechanisms holding the duration of each mechanism
+     * @param budgetNanos longest a cycle can take before it is considered an overrun, in nanoseconds
+     * @param windowCycles number of cycles to count recent overruns over
+     */
+    public LoopOverrunWatchdog(LoopTimings loopTimings, MechanismManager mechanisms, long budgetNanos, int windowCycles)
+    {
+        this.loopTimings = loopTimings;
+        this.mechanisms = mechanisms;
+        this.budgetNanos = budgetNanos;
+
+        LoopTimings.LoopPhase[] phases = LoopTimings.LoopPhase.values();
+        this.phaseNames = new String[phases.length];
+        for (int i = 0; i < phases.length; i++)
+        {
+            this.phaseNames[i] = phases[i].toString();
+        }
+
+        int mechanismCount = mechanisms.getMechanismCount();
+        this.readSensorsNames = new String[mechanismCount];
+        this.updateNames = new String[mechanismCount];
+        for (int i = 0; i < mechanismCount; i++)
+        {
+            this.readSensorsNames[i] = mechanisms.getMechanismName(i) + ".readSensors";
+            this.updateNames[i] = mechanisms.getMechanismName(i) + ".update";
+        }
+
+        this.recentOverruns = new boolean[windowCycles];
+        this.blame = "";
+    }
+
+    /**
+     * Check the most recently recorded cycle against the budget
+     * @return true if the cycle overran
+     */
+    public boolean check()
+    {
+        long totalNanos = this.loopTimings.getTiming(LoopTimings.LoopPhase.Total).getLastNanos();
+        this.overran = totalNanos > this.budgetNanos;
+        if (this.overran)
+        {
+            this.overrunNanos = totalNanos;
+            this.overrunCount++;
+            if (this.currentStreak == 0)
+            {
+                this.streakCount++;
+            }
+
+            this.currentStreak++;
+            if (this.currentStreak > this.longestStreak)
+            {
+                this.longestStreak = this.currentStreak;
+            }
+
+            this.assignBlame();
+        }
+        else
+        {
+            this.currentStreak = 0;
+        }
+
+        if (this.recentOverruns.length > 0)
+        {
+            if (this.recentOverruns[this.recentIndex])
+            {
+                this.recentOverrunCount--;
+            }
+
+            this.recentOverruns[this.recentIndex] = this.overran;
+            if (this.overran)
+            {
+                this.recentOverrunCount++;
+            }
+
+            this.recentIndex = (this.recentIndex + 1) % this.recentOverruns.length;
+        }
+
+        return this.overran;
+    }
+
+    /**
+     * Log the blame for the most recently checked cycle (if it overran) and the overrun counts
+     * @param logger to log into
+     */
+    public void log(ILogger logger)
+    {
+        if (this.overran)
+        {
+            logger.logString(LoggingKey.LoopOverrunBlame, this.blame);
+            logger.logNumber(LoggingKey.LoopOverrunBlameDuration, this.blameNanos / LoopOverrunWatchdog.NANOS_PER_MILLISECOND);
+            logger.logNumber(LoggingKey.LoopOverrunDuration, this.overrunNanos / LoopOverrunWatchdog.NANOS_PER_MILLISECOND);
+        }
+
+        logger.logInteger(LoggingKey.LoopOverruns, this.overrunCount);
+        logger.logInteger(LoggingKey.LoopOverrunsRecent, this.recentOverrunCount);
+        logger.logInteger(LoggingKey.LoopOverrunStreak, this.currentStreak);
+        logger.logInteger(LoggingKey.LoopOverrunLongestStreak, this.longestStreak);
+        logger.logInteger(LoggingKey.LoopOverrunStreaks, this.streakCount);
+    }
+
+    /**
+     * Clear the overrun counts
+     */
+    public void reset()
+    {
+        for (int i = 0; i < this.recentOverruns.length; i++)
+        {
+            this.recentOverruns[i] = false;
+        }
+
+        this.recentIndex = 0;
+        this.recentOverrunCount = 0;
+        this.overran = false;
+        this.blame = "";
+        this.blameNanos = 0L;
+        this.overrunNanos = 0L;
+        this.overrunCount = 0;
+        this.currentStreak = 0;
+        this.longestStreak = 0;
+        this.streakCount = 0;
+    }
+
+    /**
+     * Build a summary of the overrun counts (allocates, so only use while disabled)
+     * @return summary line
+     */
+    public String getSummary()
+    {
+        return String.format(
+            "Loop overruns (budget %.1fms): %d overruns in %d streaks, longest streak %d cycles",
+            this.budgetNanos / LoopOverrunWatchdog.NANOS_PER_MILLISECOND,
+            this.overrunCount,
+            this.streakCount,
+            this.longestStreak);
+    }
+
+    /**
+     * Retrieve the blame for the most recent overrun
+     * @return name of the phase or mechanism that was slowest
+     */
+    public String getBlame()
+    {
+        return this.blame;
+    }
+
+    /**
+     * Retrieve the number of overruns since the last reset
+     * @return number of overruns
+     */
+    public int getOverrunCount()
+    {
+        return this.overrunCount;
+    }
+
+    /**
+     * Retrieve the number of consecutive cycles that have overrun, up to and including the most recent cycle
+     * @return length of the current streak
+     */
+    public int getCurrentStreak()
+    {
+        return this.currentStreak;
+    }
+
+    /**
+     * Retrieve the longest number of consecutive cycles that have overrun since the last reset
+     * @return length of the longest streak
+     */
+    public int getLongestStreak()
+    {
+        return this.longestStreak;
+    }
+
+    /**
+     * Retrieve the number of separate overrun streaks since the last reset
+     * @return number of streaks
+     */
+    public int getStreakCount()
+    {
+        return this.streakCount;
+    }
+
+    /**
+     * Retrieve the number of overruns within the recent window of cycles
+     * @return number of recent overruns
+     */
+    public int getRecentOverrunCount()
+    {
+        return this.recentOverrunCount;
+    }
+
+    private void assignBlame()
+    {
+        LoopTimings.LoopPhase slowestPhase = null;
+        long slowestNanos = -1L;
+        for (LoopTimings.LoopPhase phase : LoopOverrunWatchdog.BlamablePhases)
+        {
+            long nanos = this.loopTimings.getTiming(phase).getLastNanos();
+            if (nanos > slowestNanos)
+            {
+                slowestNanos = nanos;
+                slowestPhase = phase;
+            }
+        }
+
+        this.blame = this.phaseNames[slowestPhase.ordinal()];
+        this.blameNanos = slowestNanos;
+
+        // narrow the blame down to a single mechanism, when possible
+        if (slowestPhase == LoopTimings.LoopPhase.ReadSensors || slowestPhase == LoopTimings.LoopPhase.Mechanisms)
+        {
+            boolean readSensors = slowestPhase == LoopTimings.LoopPhase.ReadSensors;
+            long slowestMechanismNanos = -1L;
+            for (int i = 0; i < this.mechanisms.getMechanismCount(); i++)
+            {
+                LoopTimingHistogram timing = readSensors ? this.mechanisms.getReadSensorsTiming(i) : this.mechanisms.getUpdateTiming(i);
+                long nanos = timing.getLastNanos();
+                if (nanos > slowestMechanismNanos)
+                {
+                    slowestMechanismNanos = nanos;
+                    this.blame = readSensors ? this.readSensorsNames[i] : this.updateNames[i];
+                    this.blameNanos = nanos;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package frc.robot.common;
+
+import frc.robot.TuningConstants;
+
+/**
+ * Histogram of durations, using preallocated fixed-width buckets so that recording doesn't allocate.
+ * Percentiles are accurate to within one bucket width, and anything beyond the last bucket is counted in the last bucket.
+ */
+public class LoopTimingHistogram
+{
+    private final long bucketWidthNanos;
+    private final int[] buckets;
+
+    private long count;
+    private long totalNanos;
+    private long maxNanos;
+    private long lastNanos;
+
+    /**
+     * Initializes a new instance of the LoopTimingHistogram class, using the bucket sizes from TuningConstants
+     */
+    public LoopTimingHistogram()
+    {
+        this(TuningConstants.LOOP_TIMING_BUCKET_NANOS, TuningConstants.LOOP_TIMING_BUCKET_COUNT);
+    }
+
+    /**
+     * Initializes a new instance of the LoopTimingHistogram class
+     * @param bucketWidthNanos width of each bucket, in nanoseconds
+     * @param bucketCount number of buckets
+     */
+    public LoopTimingHistogram(long bucketWidthNanos, int bucketCount)
+    {
+        this.bucketWidthNanos = bucketWidthNanos;
+        this.buckets = new int[bucketCount];
+    }
+
+    /**
+     * Record a duration
+     * @param durationNanos duration in nanoseconds
+     */
+    public void record(long durationNanos)
+    {
+        if (durationNanos < 0L)
+        {
+            durationNanos = 0L;
+        }
+
+        long bucket = durationNanos / this.bucketWidthNanos;
+        if (bucket >= this.buckets.length)
+        {
+            bucket = this.buckets.length - 1;
+        }
+
+        this.buckets[(int)bucket]++;
+        this.count++;
+        this.totalNanos += durationNanos;
+        this.lastNanos = durationNanos;
+        if (durationNanos > this.maxNanos)
+        {
+            this.maxNanos = durationNanos;
+        }
+    }
+
+    /**
+     * Clear all recorded durations
+     */
+    public void reset()
+    {
+        for (int i = 0; i < this.buckets.length; i++)
+        {
+            this.buckets[i] = 0;
+        }
+
+        this.count = 0L;
+        this.totalNanos = 0L;
+        this.maxNanos = 0L;
+        this.lastNanos = 0L;
+    }
+
+    /**
+     * Retrieve the number of recorded durations
+     * @return count
+     */
+    public long getCount()
+    {
+        return this.count;
+    }
+
+    /**
+     * Retrieve the most recently recorded duration
+     * @return duration in nanoseconds
+     */
+    public long getLastNanos()
+    {
+        return this.lastNanos;
+    }
+
+    /**
+     * Retrieve the longest recorded duration
+     * @return duration in nanoseconds
+     */
+    public long getMaxNanos()
+    {
+        return this.maxNanos;
+    }
+
+    /**
+     * Retrieve the average recorded duration
+     * @return duration in nanoseconds
+     */
+    public long getMeanNanos()
+    {
+        if (this.count == 0L)
+        {
+            return 0L;
+        }
+
+        return this.totalNanos / this.count;
+    }
+
+    /**
+     * Retrieve the duration that the given fraction of recorded durations are at or below
+     * @param percentile fraction between 0.0 and 1.0 (e.g. 0.99 for p99)
+     * @return the upper edge of the bucket holding the percentile (no more than the longest duration), in nanoseconds
+     */
+    public long getPercentileNanos(double percentile)
+    {
+        if (this.count == 0L)
+        {
+            return 0L;
+        }
+
+        long rank = (long)Math.ceil(percentile * this.count);
+        if (rank < 1L)
+        {
+            rank = 1L;
+        }
+
+        long cumulative = 0L;
+        for (int i = 0; i < this.buckets.length; i++)
+        {
+            cumulative += this.buckets[i];
+            if (cumulative >= rank)
+            {
+                if (i == this.buckets.length - 1)
+                {
+                    // the last bucket also holds everything beyond it
+                    return this.maxNanos;
+                }
+
+                return Math.min((i + 1) * this.bucketWidthNanos, this.maxNanos);
+            }
+        }
+
+        return this.maxNanos;
+    }
+}
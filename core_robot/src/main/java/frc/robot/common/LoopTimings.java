@@ -0,0 +1,202 @@
+package frc.robot.common;
+
+import frc.robot.LoggingKey;
+import frc.robot.TuningConstants;
+import frc.robot.common.robotprovider.ILogger;
+
+/**
+ * Keeps track of how long each phase of the robot's main loop takes, along with the per-mechanism timings from the
+ * MechanismManager.  Percentiles are recalculated periodically and logged every cycle, and a summary is available for
+ * printing when the robot is disabled.  Recording and logging don't allocate.
+ */
+public class LoopTimings
+{
+    /**
+     * Phases of the robot's main loop
+     */
+    public enum LoopPhase
+    {
+        ReadSensors(LoggingKey.LoopReadSensorsP50, LoggingKey.LoopReadSensorsP99, LoggingKey.LoopReadSensorsMax),
+        Driver(LoggingKey.LoopDriverP50, LoggingKey.LoopDriverP99, LoggingKey.LoopDriverMax),
+        Mechanisms(LoggingKey.LoopMechanismsP50, LoggingKey.LoopMechanismsP99, LoggingKey.LoopMechanismsMax),
+        Logger(LoggingKey.LoopLoggerP50, LoggingKey.LoopLoggerP99, LoggingKey.LoopLoggerMax),
+        Total(LoggingKey.LoopTotalP50, LoggingKey.LoopTotalP99, LoggingKey.LoopTotalMax);
+
+        public final LoggingKey p50Key;
+        public final LoggingKey p99Key;
+        public final LoggingKey maxKey;
+
+        private LoopPhase(LoggingKey p50Key, LoggingKey p99Key, LoggingKey maxKey)
+        {
+            this.p50Key = p50Key;
+            this.p99Key = p99Key;
+            this.maxKey = maxKey;
+        }
+    }
+
+    private static final LoopPhase[] Phases = LoopPhase.values();
+    private static final double NANOS_PER_MILLISECOND = 1000000.0;
+
+    private final MechanismManager mechanisms;
+    private final LoopTimingHistogram[] phaseTimings;
+
+    // most recently calculated percentiles, in milliseconds
+    private final double[] p50s;
+    private final double[] p99s;
+    private final double[] maxes;
+    private String slowestMechanism;
+    private double slowestMechanismP99;
+
+    private int cyclesSinceReport;
+
+    /**
+     * Initializes a new instance of the LoopTimings class
+     * @param mechanisms whose per-mechanism timings should be reported
+     */
+    public LoopTimings(MechanismManager mechanisms)
+    {
+        this.mechanisms = mechanisms;
+        this.phaseTimings = new LoopTimingHistogram[LoopTimings.Phases.length];
+        for (int i = 0; i < this.phaseTimings.length; i++)
+        {
+            this.phaseTimings[i] = new LoopTimingHistogram();
+        }
+
+        this.p50s = new double[LoopTimings.Phases.length];
+        this.p99s = new double[LoopTimings.Phases.length];
+        this.maxes = new double[LoopTimings.Phases.length];
+        this.slowestMechanism = "";
+    }
+
+    /**
+     * Record how long a phase took during this cycle
+     * @param phase of the loop
+     * @param durationNanos duration in nanoseconds
+     */
+    public void record(LoopPhase phase, long durationNanos)
+    {
+        this.phaseTimings[phase.ordinal()].record(durationNanos);
+    }
+
+    /**
+     * Retrieve the timing of a phase
+     * @param phase of the loop
+     * @return histogram of durations
+     */
+    public LoopTimingHistogram getTiming(LoopPhase phase)
+    {
+        return this.phaseTimings[phase.ordinal()];
+    }
+
+    /**
+     * Log the most recent percentiles, recalculating them periodically
+     * @param logger to log into
+     */
+    public void log(ILogger logger)
+    {
+        if (++this.cyclesSinceReport >= TuningConstants.LOOP_TIMING_REPORT_CYCLES)
+        {
+            this.cyclesSinceReport = 0;
+            this.calculate();
+        }
+
+        for (int i = 0; i < LoopTimings.Phases.length; i++)
+        {
+            LoopPhase phase = LoopTimings.Phases[i];
+            logger.logNumber(phase.p50Key, this.p50s[i]);
+            logger.logNumber(phase.p99Key, this.p99s[i]);
+            logger.logNumber(phase.maxKey, this.maxes[i]);
+        }
+
+        logger.logString(LoggingKey.LoopSlowestMechanism, this.slowestMechanism);
+        logger.logNumber(LoggingKey.LoopSlowestMechanismP99, this.slowestMechanismP99);
+    }
+
+    /**
+     * Clear all of the timings
+     */
+    public void reset()
+    {
+        for (int i = 0; i < this.phaseTimings.length; i++)
+        {
+            this.phaseTimings[i].reset();
+            this.p50s[i] = 0.0;
+            this.p99s[i] = 0.0;
+            this.maxes[i] = 0.0;
+        }
+
+        this.mechanisms.resetTimings();
+        this.slowestMechanism = "";
+        this.slowestMechanismP99 = 0.0;
+        this.cyclesSinceReport = 0;
+    }
+
+    /**
+     * Check whether any cycles have been recorded since the last reset
+     * @return true if there are timings to report
+     */
+    public boolean hasTimings()
+    {
+        return this.phaseTimings[LoopPhase.Total.ordinal()].getCount() > 0L;
+    }
+
+    /**
+     * Build a summary table of the timings (allocates, so only use while disabled)
+     * @return summary, one line per phase and mechanism
+     */
+    public String getSummary()
+    {
+        StringBuilder builder = new StringBuilder();
+        builder.append(String.format("Loop timings (ms) over %d cycles:%n", this.phaseTimings[LoopPhase.Total.ordinal()].getCount()));
+        builder.append(String.format("  %-40s %8s %8s %8s %8s%n", "", "mean", "p50", "p99", "max"));
+        for (LoopPhase phase : LoopTimings.Phases)
+        {
+            LoopTimings.appendSummaryLine(builder, phase.toString(), this.phaseTimings[phase.ordinal()]);
+        }
+
+        for (int i = 0; i < this.mechanisms.getMechanismCount(); i++)
+        {
+            String name = this.mechanisms.getMechanismName(i);
+            LoopTimings.appendSummaryLine(builder, name + ".readSensors", this.mechanisms.getReadSensorsTiming(i));
+            LoopTimings.appendSummaryLine(builder, name + ".update", this.mechanisms.getUpdateTiming(i));
+        }
+
+        return builder.toString();
+    }
+
+    private void calculate()
+    {
+        for (int i = 0; i < this.phaseTimings.length; i++)
+        {
+            LoopTimingHistogram timing = this.phaseTimings[i];
+            this.p50s[i] = timing.getPercentileNanos(0.5) / LoopTimings.NANOS_PER_MILLISECOND;
+            this.p99s[i] = timing.getPercentileNanos(0.99) / LoopTimings.NANOS_PER_MILLISECOND;
+            this.maxes[i] = timing.getMaxNanos() / LoopTimings.NANOS_PER_MILLISECOND;
+        }
+
+        long slowestP99 = -1L;
+        for (int i = 0; i < this.mechanisms.getMechanismCount(); i++)
+        {
+            long p99 = this.mechanisms.getUpdateTiming(i).getPercentileNanos(0.99);
+            if (p99 > slowestP99)
+            {
+                slowestP99 = p99;
+                this.slowestMechanism = this.mechanisms.getMechanismName(i);
+            }
+        }
+
+        this.slowestMechanismP99 = Math.max(slowestP99, 0L) / LoopTimings.NANOS_PER_MILLISECOND;
+    }
+
+    private static void appendSummaryLine(StringBuilder builder, String name, LoopTimingHistogram timing)
+    {
+        builder.append(
+            String.format(
+                "  %-40s %8.3f %8.3f %8.3f %8.3f%n",
+                name,
+                timing.getMeanNanos() / LoopTimings.NANOS_PER_MILLISECOND,
+                timing.getPercentileNanos(0.5) / LoopTimings.NANOS_PER_MILLISECOND,
+                timing.getPercentileNanos(0.99) / LoopTimings.NANOS_PER_MILLISECOND,
+                timing.getMaxNanos() / LoopTimings.NANOS_PER_MILLISECOND));
+    }
+}
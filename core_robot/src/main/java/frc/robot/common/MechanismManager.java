@@ -8,19 +8,38 @@ public class MechanismManager implements IMechanism
 {
     public final List<IMechanism> mechanismList;
 
+    // indexed the same as mechanismList, to avoid iterating over the list every cycle
+    private final IMechanism[] mechanisms;
+    private final String[] mechanismNames;
+    private final LoopTimingHistogram[] readSensorsTimings;
+    private final LoopTimingHistogram[] updateTimings;
+
     public MechanismManager(List<IMechanism> mechanismList)
     {
         this.mechanismList = mechanismList;
+
+        int mechanismCount = mechanismList.size();
+        this.mechanisms = mechanismList.toArray(new IMechanism[mechanismCount]);
+        this.mechanismNames = new String[mechanismCount];
+        this.readSensorsTimings = new LoopTimingHistogram[mechanismCount];
+        this.updateTimings = new LoopTimingHistogram[mechanismCount];
+        for (int i = 0; i < mechanismCount; i++)
+        {
+            this.mechanismNames[i] = this.mechanisms[i].getClass().getSimpleName();
+            this.readSensorsTimings[i] = new LoopTimingHistogram();
+            this.updateTimings[i] = new LoopTimingHistogram();
+        }
     }
 
     @Override
     public void readSensors()
     {
-        for (IMechanism mechanism : this.mechanismList)
+        for (int i = 0; i < this.mechanisms.length; i++)
         {
+            long start = System.nanoTime();
             try
             {
-                mechanism.readSensors();
+                this.mechanisms[i].readSensors();
             }
             catch (Exception ex)
             {
@@ -30,17 +49,22 @@ public class MechanismManager implements IMechanism
                     throw ex;
                 }
             }
+            finally
+            {
+                this.readSensorsTimings[i].record(System.nanoTime() - start);
+            }
         }
     }
 
     @Override
     public void update()
     {
-        for (IMechanism mechanism : this.mechanismList)
+        for (int i = 0; i < this.mechanisms.length; i++)
         {
+            long start = System.nanoTime();
             try
             {
-                mechanism.update();
+                this.mechanisms[i].update();
             }
             catch (Exception ex)
             {
@@ -50,6 +74,10 @@ public class MechanismManager implements IMechanism
                     throw ex;
                 }
             }
+            finally
+            {
+                this.updateTimings[i].record(System.nanoTime() - start);
+            }
         }
     }
 
@@ -72,4 +100,75 @@ public class MechanismManager implements IMechanism
             }
         }
     }
+
+    @Override
+    public void start()
+    {
+        for (IMechanism mechanism : this.mechanismList)
+        {
+            try
+            {
+                mechanism.start();
+            }
+            catch (Exception ex)
+            {
+                System.err.println("Encountered exception: " + ex.toString());
+                if (TuningConstants.THROW_EXCEPTIONS)
+                {
+                    throw ex;
+                }
+            }
+        }
+    }
+
+    /**
+     * Retrieve the number of mechanisms being managed
+     * @return number of mechanisms
+     */
+    public int getMechanismCount()
+    {
+        return this.mechanisms.length;
+    }
+
+    /**
+     * Retrieve the name of a mechanism, for reporting
+     * @param index of the mechanism within the list
+     * @return name of the mechanism
+     */
+    public String getMechanismName(int index)
+    {
+        return this.mechanismNames[index];
+    }
+
+    /**
+     * Retrieve the timing of a mechanism's readSensors calls
+     * @param index of the mechanism within the list
+     * @return histogram of durations
+     */
+    public LoopTimingHistogram getReadSensorsTiming(int index)
+    {
+        return this.readSensorsTimings[index];
+    }
+
+    /**
+     * Retrieve the timing of a mechanism's update calls
+     * @param index of the mechanism within the list
+     * @return histogram of durations
+     */
+    public LoopTimingHistogram getUpdateTiming(int index)
+    {
+        return this.updateTimings[index];
+    }
+
+    /**
+     * Clear the timings of each mechanism
+     */
+    public void resetTimings()
+    {
+        for (int i = 0; i < this.mechanisms.length; i++)
+        {
+            this.readSensorsTimings[i].reset();
+            this.updateTimings[i].reset();
+        }
+    }
 }
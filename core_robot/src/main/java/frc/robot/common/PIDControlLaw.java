@@ -0,0 +1,97 @@
+package frc.robot.common;
+
+/**
+ * PID control law with a feed-forward term, calculating the same output as PIDHandler's calculatePosition (the integral
+ * and derivative are per calculation rather than per second, so existing tuning values still apply).
+ */
+public class PIDControlLaw implements IControlLaw
+{
+    private final Double minOutput;
+    private final Double maxOutput;
+
+    private final double kp; // proportion for proportional
+    private final double ki; // proportion for integral
+    private final double kd; // proportion for derivative
+    private final double kf; // proportion for feed-forward
+    private final double ks; // multiplicand for adjusting scale of setpoint to match scale of measured value
+
+    private double integral;
+    private double prevError;
+
+    /**
+     * Initializes a new PIDControlLaw
+     * @param kp scalar for proportional component
+     * @param ki scalar for integral component
+     * @param kd scalar for derivative component
+     * @param kf scalar for feed-forward control
+     * @param ks scalar for adjusting scale difference between measured value and setpoint value
+     * @param minOutput indicates the minimum output value acceptable, or null
+     * @param maxOutput indicates the maximum output value acceptable, or null
+     */
+    public PIDControlLaw(double kp, double ki, double kd, double kf, double ks, Double minOutput, Double maxOutput)
+    {
+        this.kp = kp;
+        this.ki = ki;
+        this.kd = kd;
+        this.kf = kf;
+        this.ks = ks;
+        this.minOutput = minOutput;
+        this.maxOutput = maxOutput;
+
+        this.integral = 0.0;
+        this.prevError = 0.0;
+    }
+
+    @Override
+    public double calculate(double setpoint, double measuredValue, double dt)
+    {
+        double error = this.ks * setpoint - measuredValue;
+
+        // calculate integral, limiting it based on MaxOutput/MinOutput
+        double potentialI = this.ki * (this.integral + error * dt);
+        if (this.maxOutput != null && potentialI > this.maxOutput)
+        {
+            this.integral = this.maxOutput / this.ki;
+        }
+        else if (this.minOutput != null && potentialI < this.minOutput)
+        {
+            this.integral = this.minOutput / this.ki;
+        }
+        else
+        {
+            this.integral += error;
+        }
+
+        double derivative = error - this.prevError;
+        this.prevError = error;
+
+        double result = this.kp * error +   // proportional
+            this.ki * this.integral +       // integral
+            this.kd * derivative +          // derivative
+            this.kf * setpoint;             // feed-forward
+
+        if (this.maxOutput != null && result > this.maxOutput)
+        {
+            result = this.maxOutput;
+        }
+        else if (this.minOutput != null && result < this.minOutput)
+        {
+            result = this.minOutput;
+        }
+
+        return result;
+    }
+
+    @Override
+    public double getError()
+    {
+        return this.prevError;
+    }
+
+    @Override
+    public void reset()
+    {
+        this.integral = 0.0;
+        this.prevError = 0.0;
+    }
+}
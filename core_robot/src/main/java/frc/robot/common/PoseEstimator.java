@@ -0,0 +1,474 @@
+package frc.robot.common;
+
+import frc.robot.common.robotprovider.Pose2d;
+
+/**
+ * An extended Kalman filter that fuses the swerve odometry, the IMU and the vision target into one estimate of the pose,
+ * weighting each by how uncertain it is.
+ *
+ * The state is the robot's pose (x, y and angle) along with the vision target's position (x, y), because the odometry's
+ * frame starts wherever the robot was reset rather than at a known spot on the field.  The target is added the first time
+ * that it is seen, and from then on each sighting corrects the drift in the odometry relative to it.
+ *
+ * Each cycle costs one prediction and at most one vision update, all on preallocated arrays of a fixed size, so that the
+ * filter takes the same (small) amount of time every cycle and never allocates.
+ */
+public class PoseEstimator
+{
+    private static final int STATE_SIZE = 5;
+    private static final int X = 0;
+    private static final int Y = 1;
+    private static final int ANGLE = 2;
+    private static final int TARGET_X = 3;
+    private static final int TARGET_Y = 4;
+
+    // noise settings
+    private final double translationNoise;
+    private final double translationDrift;
+    private final double gyroNoise;
+    private final double gyroDrift;
+    private final double wheelRotationNoise;
+    private final double visionDistanceNoise;
+    private final double visionAngleNoise;
+    private final double visionGate;
+    private final int maxRejectedSightings;
+
+    // state (angle in radians) and its covariance (row-major)
+    private final double[] state;
+    private final double[] covariance;
+
+    // buffers for the vision update
+    private final double[] jacobian; // 2 x 5
+    private final double[] covarianceJacobian; // 5 x 2 (P * H^T)
+    private final double[] gain; // 5 x 2
+
+    private boolean hasTarget;
+    private int rejectedSightings;
+
+    /**
+     * Initializes a new PoseEstimator
+     * @param translationNoise variance added to the odometry's translation for each inch travelled, in square inches per inch
+     * @param translationDrift variance added to the odometry's translation over time, in square inches per second
+     * @param gyroNoise standard deviation of the IMU's rotation, as a fraction of the angle turned
+     * @param gyroDrift variance added to the IMU's rotation over time, in square degrees per second
+     * @param wheelRotationNoise standard deviation of the rotation from the modules (when the IMU isn't connected), as a fraction of the angle turned
+     * @param visionDistanceNoise standard deviation of the vision target's distance, as a fraction of the distance
+     * @param visionAngleNoise standard deviation of the vision target's angle, in degrees
+     * @param visionGate largest squared Mahalanobis distance of a sighting from where the target is expected for it to be used
+     * @param maxRejectedSightings number of sightings in a row outside of the gate after which the target is forgotten and re-added
+     */
+    public PoseEstimator(
+        double translationNoise,
+        double translationDrift,
+        double gyroNoise,
+        double gyroDrift,
+        double wheelRotationNoise,
+        double visionDistanceNoise,
+        double visionAngleNoise,
+        double visionGate,
+        int maxRejectedSightings)
+    {
+        this.translationNoise = translationNoise;
+        this.translationDrift = translationDrift;
+        this.gyroNoise = gyroNoise;
+        this.gyroDrift = gyroDrift * Helpers.DEGREES_TO_RADIANS * Helpers.DEGREES_TO_RADIANS;
+        this.wheelRotationNoise = wheelRotationNoise;
+        this.visionDistanceNoise = visionDistanceNoise;
+        this.visionAngleNoise = visionAngleNoise * Helpers.DEGREES_TO_RADIANS;
+        this.visionGate = visionGate;
+        this.maxRejectedSightings = maxRejectedSightings;
+
+        this.state = new double[PoseEstimator.STATE_SIZE];
+        this.covariance = new double[PoseEstimator.STATE_SIZE * PoseEstimator.STATE_SIZE];
+        this.jacobian = new double[2 * PoseEstimator.STATE_SIZE];
+        this.covarianceJacobian = new double[PoseEstimator.STATE_SIZE * 2];
+        this.gain = new double[PoseEstimator.STATE_SIZE * 2];
+
+        this.reset(0.0, 0.0, 0.0);
+    }
+
+    /**
+     * Initializes a new PoseEstimator with the same settings and estimate as another one
+     * @param other estimator to copy
+     */
+    public PoseEstimator(PoseEstimator other)
+    {
+        this.translationNoise = other.translationNoise;
+        this.translationDrift = other.translationDrift;
+        this.gyroNoise = other.gyroNoise;
+        this.gyroDrift = other.gyroDrift;
+        this.wheelRotationNoise = other.wheelRotationNoise;
+        this.visionDistanceNoise = other.visionDistanceNoise;
+        this.visionAngleNoise = other.visionAngleNoise;
+        this.visionGate = other.visionGate;
+        this.maxRejectedSightings = other.maxRejectedSightings;
+
+        this.state = new double[PoseEstimator.STATE_SIZE];
+        this.covariance = new double[PoseEstimator.STATE_SIZE * PoseEstimator.STATE_SIZE];
+        this.jacobian = new double[2 * PoseEstimator.STATE_SIZE];
+        this.covarianceJacobian = new double[PoseEstimator.STATE_SIZE * 2];
+        this.gain = new double[PoseEstimator.STATE_SIZE * 2];
+
+        this.copyFrom(other);
+    }
+
+    /**
+     * Replace the estimate with another estimator's (which should have the same settings), without allocating
+     * @param other estimator to copy the estimate from
+     */
+    public void copyFrom(PoseEstimator other)
+    {
+        System.arraycopy(other.state, 0, this.state, 0, PoseEstimator.STATE_SIZE);
+        System.arraycopy(other.covariance, 0, this.covariance, 0, this.covariance.length);
+        this.hasTarget = other.hasTarget;
+        this.rejectedSightings = other.rejectedSightings;
+    }
+
+    /**
+     * Reset the pose (which is then known exactly) and forget the vision target, whose position is relative to the old pose
+     * @param x position, in inches
+     * @param y position, in inches
+     * @param angle in degrees
+     */
+    public void reset(double x, double y, double angle)
+    {
+        this.state[PoseEstimator.X] = x;
+        this.state[PoseEstimator.Y] = y;
+        this.state[PoseEstimator.ANGLE] = angle * Helpers.DEGREES_TO_RADIANS;
+        this.state[PoseEstimator.TARGET_X] = 0.0;
+        this.state[PoseEstimator.TARGET_Y] = 0.0;
+        for (int i = 0; i < this.covariance.length; i++)
+        {
+            this.covariance[i] = 0.0;
+        }
+
+        this.hasTarget = false;
+        this.rejectedSightings = 0;
+    }
+
+    /**
+     * Predict the pose after the robot moved according to the odometry, following the robot-oriented velocity at the
+     * heading halfway through the turn
+     * @param deltaTime time since the previous prediction, in seconds
+     * @param forwardVelocity of the robot, in inches per second
+     * @param leftVelocity of the robot, in inches per second
+     * @param deltaAngle change in angle since the previous prediction, in degrees (counter-clockwise)
+     * @param fromGyro whether the change in angle was measured by the IMU (rather than from the modules)
+     */
+    public void predict(double deltaTime, double forwardVelocity, double leftVelocity, double deltaAngle, boolean fromGyro)
+    {
+        double forwardDistance = forwardVelocity * deltaTime;
+        double leftDistance = leftVelocity * deltaTime;
+        double turn = deltaAngle * Helpers.DEGREES_TO_RADIANS;
+        double midAngle = this.state[PoseEstimator.ANGLE] + turn / 2.0;
+        double cosine = Math.cos(midAngle);
+        double sine = Math.sin(midAngle);
+
+        double deltaX = forwardDistance * cosine - leftDistance * sine;
+        double deltaY = forwardDistance * sine + leftDistance * cosine;
+        this.state[PoseEstimator.X] += deltaX;
+        this.state[PoseEstimator.Y] += deltaY;
+        this.state[PoseEstimator.ANGLE] += turn;
+
+        // P = F * P * F^T, where F is the identity apart from how x and y depend on the angle
+        double[] p = this.covariance;
+        int n = PoseEstimator.STATE_SIZE;
+        for (int j = 0; j < n; j++)
+        {
+            p[PoseEstimator.X * n + j] -= deltaY * p[PoseEstimator.ANGLE * n + j];
+            p[PoseEstimator.Y * n + j] += deltaX * p[PoseEstimator.ANGLE * n + j];
+        }
+
+        for (int i = 0; i < n; i++)
+        {
+            p[i * n + PoseEstimator.X] -= deltaY * p[i * n + PoseEstimator.ANGLE];
+            p[i * n + PoseEstimator.Y] += deltaX * p[i * n + PoseEstimator.ANGLE];
+        }
+
+        // the odometry's noise grows with how far the robot moved and turned, and with time
+        double distance = Math.sqrt(forwardDistance * forwardDistance + leftDistance * leftDistance);
+        double translationVariance = this.translationNoise * distance + this.translationDrift * deltaTime;
+
+        double angleDeviation = (fromGyro ? this.gyroNoise : this.wheelRotationNoise) * turn;
+        double angleVariance = angleDeviation * angleDeviation + this.gyroDrift * deltaTime;
+
+        // noise in the angle moves the position too, as the robot followed the heading halfway through the turn
+        double angleX = -deltaY / 2.0;
+        double angleY = deltaX / 2.0;
+        p[PoseEstimator.X * n + PoseEstimator.X] += translationVariance + angleVariance * angleX * angleX;
+        p[PoseEstimator.Y * n + PoseEstimator.Y] += translationVariance + angleVariance * angleY * angleY;
+        p[PoseEstimator.X * n + PoseEstimator.Y] += angleVariance * angleX * angleY;
+        p[PoseEstimator.Y * n + PoseEstimator.X] += angleVariance * angleX * angleY;
+        p[PoseEstimator.X * n + PoseEstimator.ANGLE] += angleVariance * angleX;
+        p[PoseEstimator.ANGLE * n + PoseEstimator.X] += angleVariance * angleX;
+        p[PoseEstimator.Y * n + PoseEstimator.ANGLE] += angleVariance * angleY;
+        p[PoseEstimator.ANGLE * n + PoseEstimator.Y] += angleVariance * angleY;
+        p[PoseEstimator.ANGLE * n + PoseEstimator.ANGLE] += angleVariance;
+    }
+
+    /**
+     * Correct the pose with a sighting of the vision target (or add the target, the first time that it is seen)
+     * @param distance to the target, in inches
+     * @param angle to the target, in degrees (positive is clockwise)
+     * @return true if the sighting was used, false if it was too far from where the target is expected
+     */
+    public boolean updateTarget(double distance, double angle)
+    {
+        double distanceDeviation = this.visionDistanceNoise * distance;
+        double distanceVariance = distanceDeviation * distanceDeviation;
+        double angleVariance = this.visionAngleNoise * this.visionAngleNoise;
+        if (!this.hasTarget)
+        {
+            this.addTarget(distance, angle * Helpers.DEGREES_TO_RADIANS, distanceVariance, angleVariance);
+            return true;
+        }
+
+        double offsetX = this.state[PoseEstimator.TARGET_X] - this.state[PoseEstimator.X];
+        double offsetY = this.state[PoseEstimator.TARGET_Y] - this.state[PoseEstimator.Y];
+        double squaredDistance = offsetX * offsetX + offsetY * offsetY;
+        double expectedDistance = Math.sqrt(squaredDistance);
+        if (expectedDistance < 1.0)
+        {
+            // too close to the target for its angle to mean anything
+            return false;
+        }
+
+        double distanceInnovation = distance - expectedDistance;
+        double angleInnovation = PoseEstimator.wrapAngle(
+            angle * Helpers.DEGREES_TO_RADIANS - (this.state[PoseEstimator.ANGLE] - Math.atan2(offsetY, offsetX)));
+
+        // H, the jacobian of the distance and angle with respect to the state
+        int n = PoseEstimator.STATE_SIZE;
+        double[] h = this.jacobian;
+        h[PoseEstimator.X] = -offsetX / expectedDistance;
+        h[PoseEstimator.Y] = -offsetY / expectedDistance;
+        h[PoseEstimator.ANGLE] = 0.0;
+        h[PoseEstimator.TARGET_X] = offsetX / expectedDistance;
+        h[PoseEstimator.TARGET_Y] = offsetY / expectedDistance;
+        h[n + PoseEstimator.X] = -offsetY / squaredDistance;
+        h[n + PoseEstimator.Y] = offsetX / squaredDistance;
+        h[n + PoseEstimator.ANGLE] = 1.0;
+        h[n + PoseEstimator.TARGET_X] = offsetY / squaredDistance;
+        h[n + PoseEstimator.TARGET_Y] = -offsetX / squaredDistance;
+
+        // P * H^T and S = H * P * H^T + R
+        double[] p = this.covariance;
+        double[] ph = this.covarianceJacobian;
+        for (int i = 0; i < n; i++)
+        {
+            double distanceSum = 0.0;
+            double angleSum = 0.0;
+            for (int k = 0; k < n; k++)
+            {
+                distanceSum += p[i * n + k] * h[k];
+                angleSum += p[i * n + k] * h[n + k];
+            }
+
+            ph[i * 2] = distanceSum;
+            ph[i * 2 + 1] = angleSum;
+        }
+
+        double s00 = distanceVariance;
+        double s01 = 0.0;
+        double s11 = angleVariance;
+        for (int k = 0; k < n; k++)
+        {
+            s00 += h[k] * ph[k * 2];
+            s01 += h[k] * ph[k * 2 + 1];
+            s11 += h[n + k] * ph[k * 2 + 1];
+        }
+
+        double determinant = s00 * s11 - s01 * s01;
+        if (determinant <= 0.0)
+        {
+            return false;
+        }
+
+        double inverse00 = s11 / determinant;
+        double inverse01 = -s01 / determinant;
+        double inverse11 = s00 / determinant;
+
+        // ignore sightings that are too unlikely (e.g. reflections), unless they keep happening
+        double mahalanobis =
+            distanceInnovation * (inverse00 * distanceInnovation + inverse01 * angleInnovation)
+                + angleInnovation * (inverse01 * distanceInnovation + inverse11 * angleInnovation);
+        if (mahalanobis > this.visionGate)
+        {
+            this.rejectedSightings++;
+            if (this.rejectedSightings >= this.maxRejectedSightings)
+            {
+                this.removeTarget();
+            }
+
+            return false;
+        }
+
+        this.rejectedSightings = 0;
+
+        // K = P * H^T * S^-1, x += K * y, and P -= K * (P * H^T)^T
+        double[] k = this.gain;
+        for (int i = 0; i < n; i++)
+        {
+            k[i * 2] = ph[i * 2] * inverse00 + ph[i * 2 + 1] * inverse01;
+            k[i * 2 + 1] = ph[i * 2] * inverse01 + ph[i * 2 + 1] * inverse11;
+            this.state[i] += k[i * 2] * distanceInnovation + k[i * 2 + 1] * angleInnovation;
+        }
+
+        for (int i = 0; i < n; i++)
+        {
+            for (int j = i; j < n; j++)
+            {
+                double value = p[i * n + j] - (k[i * 2] * ph[j * 2] + k[i * 2 + 1] * ph[j * 2 + 1]);
+                p[i * n + j] = value;
+                p[j * n + i] = value;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Get whether the vision target has been seen since the estimator was reset
+     * @return true if the target is part of the estimate
+     */
+    public boolean hasTarget()
+    {
+        return this.hasTarget;
+    }
+
+    /**
+     * Get the estimated x position
+     * @return x position, in inches
+     */
+    public double getX()
+    {
+        return this.state[PoseEstimator.X];
+    }
+
+    /**
+     * Get the estimated y position
+     * @return y position, in inches
+     */
+    public double getY()
+    {
+        return this.state[PoseEstimator.Y];
+    }
+
+    /**
+     * Get the estimated angle
+     * @return angle, in degrees (continuous, rather than wrapped to a range)
+     */
+    public double getAngle()
+    {
+        return this.state[PoseEstimator.ANGLE] * Helpers.RADIANS_TO_DEGREES;
+    }
+
+    /**
+     * Get the estimated position of the vision target
+     * @param pose to fill in with the target's position (the angle is left alone)
+     * @return true if the target has been seen, false otherwise
+     */
+    public boolean getTarget(Pose2d pose)
+    {
+        if (!this.hasTarget)
+        {
+            return false;
+        }
+
+        pose.x = this.state[PoseEstimator.TARGET_X];
+        pose.y = this.state[PoseEstimator.TARGET_Y];
+        return true;
+    }
+
+    /**
+     * Get how uncertain the estimated position is
+     * @return the sum of the variances of the x and y positions, in square inches
+     */
+    public double getPositionVariance()
+    {
+        int n = PoseEstimator.STATE_SIZE;
+        return this.covariance[PoseEstimator.X * n + PoseEstimator.X] + this.covariance[PoseEstimator.Y * n + PoseEstimator.Y];
+    }
+
+    /**
+     * Get the estimated pose
+     * @param pose to fill in with the estimated pose
+     */
+    public void getPose(Pose2d pose)
+    {
+        pose.x = this.getX();
+        pose.y = this.getY();
+        pose.angle = this.getAngle();
+    }
+
+    /**
+     * Add the target where it was seen, with the uncertainty of both the robot's pose and the sighting
+     * @param distance to the target, in inches
+     * @param angle to the target, in radians (positive is clockwise)
+     * @param distanceVariance of the sighting, in square inches
+     * @param angleVariance of the sighting, in square radians
+     */
+    private void addTarget(double distance, double angle, double distanceVariance, double angleVariance)
+    {
+        double bearing = this.state[PoseEstimator.ANGLE] - angle;
+        double cosine = Math.cos(bearing);
+        double sine = Math.sin(bearing);
+        this.state[PoseEstimator.TARGET_X] = this.state[PoseEstimator.X] + distance * cosine;
+        this.state[PoseEstimator.TARGET_Y] = this.state[PoseEstimator.Y] + distance * sine;
+
+        // J, the jacobian of the target's position with respect to the robot's pose, is [[1, 0, -d sin], [0, 1, d cos]]
+        int n = PoseEstimator.STATE_SIZE;
+        double[] p = this.covariance;
+        double angleX = -distance * sine;
+        double angleY = distance * cosine;
+
+        // cross-covariance of the target with the robot's pose (J * P)
+        for (int j = 0; j < PoseEstimator.TARGET_X; j++)
+        {
+            double crossX = p[PoseEstimator.X * n + j] + angleX * p[PoseEstimator.ANGLE * n + j];
+            double crossY = p[PoseEstimator.Y * n + j] + angleY * p[PoseEstimator.ANGLE * n + j];
+            p[PoseEstimator.TARGET_X * n + j] = crossX;
+            p[j * n + PoseEstimator.TARGET_X] = crossX;
+            p[PoseEstimator.TARGET_Y * n + j] = crossY;
+            p[j * n + PoseEstimator.TARGET_Y] = crossY;
+        }
+
+        // covariance of the target (J * P * J^T + G * R * G^T, where G is the jacobian with respect to the sighting)
+        double targetXX = p[PoseEstimator.TARGET_X * n + PoseEstimator.X] + angleX * p[PoseEstimator.TARGET_X * n + PoseEstimator.ANGLE];
+        double targetXY = p[PoseEstimator.TARGET_X * n + PoseEstimator.Y] + angleY * p[PoseEstimator.TARGET_X * n + PoseEstimator.ANGLE];
+        double targetYY = p[PoseEstimator.TARGET_Y * n + PoseEstimator.Y] + angleY * p[PoseEstimator.TARGET_Y * n + PoseEstimator.ANGLE];
+
+        targetXX += cosine * cosine * distanceVariance + angleX * angleX * angleVariance;
+        targetXY += cosine * sine * distanceVariance + angleX * angleY * angleVariance;
+        targetYY += sine * sine * distanceVariance + angleY * angleY * angleVariance;
+
+        p[PoseEstimator.TARGET_X * n + PoseEstimator.TARGET_X] = targetXX;
+        p[PoseEstimator.TARGET_X * n + PoseEstimator.TARGET_Y] = targetXY;
+        p[PoseEstimator.TARGET_Y * n + PoseEstimator.TARGET_X] = targetXY;
+        p[PoseEstimator.TARGET_Y * n + PoseEstimator.TARGET_Y] = targetYY;
+
+        this.hasTarget = true;
+        this.rejectedSightings = 0;
+    }
+
+    private void removeTarget()
+    {
+        int n = PoseEstimator.STATE_SIZE;
+        for (int i = 0; i < n; i++)
+        {
+            for (int j = PoseEstimator.TARGET_X; j < n; j++)
+            {
+                this.covariance[i * n + j] = 0.0;
+                this.covariance[j * n + i] = 0.0;
+            }
+        }
+
+        this.hasTarget = false;
+        this.rejectedSightings = 0;
+    }
+
+    private static double wrapAngle(double angle)
+    {
+        return angle - 2.0 * Math.PI * Math.floor((angle + Math.PI) / (2.0 * Math.PI));
+    }
+}
@@ -0,0 +1,194 @@
+package frc.robot.common;
+
+/**
+ * Runs a PoseEstimator while keeping a fixed-size history of its estimate and of the odometry that moved it, so that a
+ * sighting of the vision target can be applied as of when its camera frame was captured (rather than when its results
+ * arrived), with the odometry since then replayed on top of the corrected estimate.  Once the history is full, each
+ * prediction replaces the oldest estimate.
+ */
+public class PoseEstimatorHistory
+{
+    private final PoseEstimator estimator;
+
+    private final PoseEstimator[] estimates; // the estimate as of each time
+    private final double[] times;
+    private final double[] forwardVelocities; // the prediction that led to each estimate
+    private final double[] leftVelocities;
+    private final double[] deltaAngles;
+    private final boolean[] fromGyro;
+
+    private int start; // index of the oldest estimate
+    private int count;
+
+    /**
+     * Initializes a new PoseEstimatorHistory
+     * @param estimator to run
+     * @param capacity maximum number of estimates to keep, which limits how old a sighting can be
+     */
+    public PoseEstimatorHistory(PoseEstimator estimator, int capacity)
+    {
+        if (capacity < 1)
+        {
+            throw new IllegalArgumentException("Expected a capacity of at least 1, but got " + capacity);
+        }
+
+        this.estimator = estimator;
+
+        this.estimates = new PoseEstimator[capacity];
+        for (int i = 0; i < capacity; i++)
+        {
+            this.estimates[i] = new PoseEstimator(estimator);
+        }
+
+        this.times = new double[capacity];
+        this.forwardVelocities = new double[capacity];
+        this.leftVelocities = new double[capacity];
+        this.deltaAngles = new double[capacity];
+        this.fromGyro = new boolean[capacity];
+
+        this.start = 0;
+        this.count = 0;
+    }
+
+    /**
+     * Get the estimator, which holds the latest estimate
+     * @return the estimator
+     */
+    public PoseEstimator getEstimator()
+    {
+        return this.estimator;
+    }
+
+    /**
+     * Reset the pose (see PoseEstimator.reset) and forget the history
+     * @param time of the pose, in seconds
+     * @param x position, in inches
+     * @param y position, in inches
+     * @param angle in degrees
+     */
+    public void reset(double time, double x, double y, double angle)
+    {
+        this.estimator.reset(x, y, angle);
+
+        this.start = 0;
+        this.count = 0;
+        this.add(time, 0.0, 0.0, 0.0, true);
+    }
+
+    /**
+     * Predict the pose at a time from the odometry since the latest estimate (see PoseEstimator.predict).  A time that isn't
+     * after the latest estimate is ignored.
+     * @param time of the prediction, in seconds
+     * @param forwardVelocity of the robot, in inches per second
+     * @param leftVelocity of the robot, in inches per second
+     * @param deltaAngle change in angle since the latest estimate, in degrees (counter-clockwise)
+     * @param fromGyro whether the change in angle was measured by the IMU (rather than from the modules)
+     */
+    public void predict(double time, double forwardVelocity, double leftVelocity, double deltaAngle, boolean fromGyro)
+    {
+        if (this.count > 0)
+        {
+            double deltaTime = time - this.times[this.getIndex(this.count - 1)];
+            if (!(deltaTime > 0.0))
+            {
+                return;
+            }
+
+            this.estimator.predict(deltaTime, forwardVelocity, leftVelocity, deltaAngle, fromGyro);
+        }
+
+        this.add(time, forwardVelocity, leftVelocity, deltaAngle, fromGyro);
+    }
+
+    /**
+     * Correct the estimate as of when the camera frame was captured with a sighting of the vision target (see
+     * PoseEstimator.updateTarget), and then replay the predictions since then
+     * @param captureTime of the frame, in seconds
+     * @param distance to the target from where the robot was when the frame was captured, in inches
+     * @param angle to the target from where the robot was when the frame was captured, in degrees (positive is clockwise)
+     * @return true if the sighting was used, false if it was too far from where the target is expected or the history doesn't
+     * cover the capture time
+     */
+    public boolean updateTarget(double captureTime, double distance, double angle)
+    {
+        if (this.count == 0 || !(captureTime >= this.times[this.start]))
+        {
+            return false;
+        }
+
+        // binary search for the latest estimate at or before the capture time, and then use the nearer of it and the next one
+        int low = 0;
+        int high = this.count - 1;
+        while (low < high)
+        {
+            int middle = (low + high + 1) >>> 1;
+            if (this.times[this.getIndex(middle)] <= captureTime)
+            {
+                low = middle;
+            }
+            else
+            {
+                high = middle - 1;
+            }
+        }
+
+        if (low < this.count - 1
+            && this.times[this.getIndex(low + 1)] - captureTime < captureTime - this.times[this.getIndex(low)])
+        {
+            low++;
+        }
+
+        int index = this.getIndex(low);
+        this.estimator.copyFrom(this.estimates[index]);
+        boolean accepted = this.estimator.updateTarget(distance, angle);
+        this.estimates[index].copyFrom(this.estimator);
+
+        for (int i = low + 1; i < this.count; i++)
+        {
+            int previousIndex = index;
+            index = this.getIndex(i);
+            this.estimator.predict(
+                this.times[index] - this.times[previousIndex],
+                this.forwardVelocities[index],
+                this.leftVelocities[index],
+                this.deltaAngles[index],
+                this.fromGyro[index]);
+            this.estimates[index].copyFrom(this.estimator);
+        }
+
+        return accepted;
+    }
+
+    private void add(double time, double forwardVelocity, double leftVelocity, double deltaAngle, boolean fromGyro)
+    {
+        int index;
+        if (this.count < this.times.length)
+        {
+            index = this.getIndex(this.count);
+            this.count++;
+        }
+        else
+        {
+            index = this.start;
+            this.start = this.getIndex(1);
+        }
+
+        this.times[index] = time;
+        this.forwardVelocities[index] = forwardVelocity;
+        this.leftVelocities[index] = leftVelocity;
+        this.deltaAngles[index] = deltaAngle;
+        this.fromGyro[index] = fromGyro;
+        this.estimates[index].copyFrom(this.estimator);
+    }
+
+    private int getIndex(int offset)
+    {
+        int index = this.start + offset;
+        if (index >= this.times.length)
+        {
+            index -= this.times.length;
+        }
+
+        return index;
+    }
+}
@@ -0,0 +1,170 @@
+package frc.robot.common;
+
+import frc.robot.common.robotprovider.Pose2d;
+
+/**
+ * A fixed-size ring buffer of timestamped poses, which can be interpolated at any time that it covers (e.g. to find where
+ * the robot was when a camera frame was captured).  Once it is full, adding a pose replaces the oldest one.
+ */
+public class PoseHistory
+{
+    private final double[] times;
+    private final double[] xPositions;
+    private final double[] yPositions;
+    private final double[] angles;
+
+    private int start; // index of the oldest pose
+    private int count;
+
+    /**
+     * Initializes a new PoseHistory
+     * @param capacity maximum number of poses to keep
+     */
+    public PoseHistory(int capacity)
+    {
+        if (capacity < 1)
+        {
+            throw new IllegalArgumentException("Expected a capacity of at least 1, but got " + capacity);
+        }
+
+        this.times = new double[capacity];
+        this.xPositions = new double[capacity];
+        this.yPositions = new double[capacity];
+        this.angles = new double[capacity];
+
+        this.start = 0;
+        this.count = 0;
+    }
+
+    /**
+     * Remove all of the poses
+     */
+    public void clear()
+    {
+        this.start = 0;
+        this.count = 0;
+    }
+
+    /**
+     * Get the number of poses in the history
+     * @return number of poses
+     */
+    public int size()
+    {
+        return this.count;
+    }
+
+    /**
+     * Add the latest pose.  A pose with the same time as the latest one is ignored, and a pose from before the latest one
+     * (e.g. after the timer was reset) clears the history first.
+     * @param time of the pose, in seconds
+     * @param x position, in inches
+     * @param y position, in inches
+     * @param angle in degrees (continuous, rather than wrapped to a range)
+     */
+    public void add(double time, double x, double y, double angle)
+    {
+        if (this.count > 0)
+        {
+            double latestTime = this.getLatestTime();
+            if (time == latestTime)
+            {
+                return;
+            }
+
+            if (time < latestTime)
+            {
+                this.clear();
+            }
+        }
+
+        int index;
+        if (this.count < this.times.length)
+        {
+            index = this.getIndex(this.count);
+            this.count++;
+        }
+        else
+        {
+            index = this.start;
+            this.start = this.getIndex(1);
+        }
+
+        this.times[index] = time;
+        this.xPositions[index] = x;
+        this.yPositions[index] = y;
+        this.angles[index] = angle;
+    }
+
+    /**
+     * Get the time of the latest pose
+     * @return time of the latest pose, in seconds, or NaN if the history is empty
+     */
+    public double getLatestTime()
+    {
+        if (this.count == 0)
+        {
+            return Double.NaN;
+        }
+
+        return this.times[this.getIndex(this.count - 1)];
+    }
+
+    /**
+     * Get the pose at a time, linearly interpolated between the poses before and after it (or the latest pose, for a time
+     * after it)
+     * @param time of the pose, in seconds
+     * @param pose to fill in
+     * @return true if the history covers the time, false if it is empty or the time is before its oldest pose (or NaN)
+     */
+    public boolean getPose(double time, Pose2d pose)
+    {
+        if (this.count == 0 || !(time >= this.times[this.start]))
+        {
+            return false;
+        }
+
+        // binary search for the latest pose at or before the time
+        int low = 0;
+        int high = this.count - 1;
+        while (low < high)
+        {
+            int middle = (low + high + 1) >>> 1;
+            if (this.times[this.getIndex(middle)] <= time)
+            {
+                low = middle;
+            }
+            else
+            {
+                high = middle - 1;
+            }
+        }
+
+        int index = this.getIndex(low);
+        if (low == this.count - 1)
+        {
+            pose.x = this.xPositions[index];
+            pose.y = this.yPositions[index];
+            pose.angle = this.angles[index];
+            return true;
+        }
+
+        int nextIndex = this.getIndex(low + 1);
+        double ratio = (time - this.times[index]) / (this.times[nextIndex] - this.times[index]);
+        pose.x = this.xPositions[index] + (this.xPositions[nextIndex] - this.xPositions[index]) * ratio;
+        pose.y = this.yPositions[index] + (this.yPositions[nextIndex] - this.yPositions[index]) * ratio;
+        pose.angle = this.angles[index] + (this.angles[nextIndex] - this.angles[index]) * ratio;
+        return true;
+    }
+
+    private int getIndex(int offset)
+    {
+        int index = this.start + offset;
+        if (index >= this.times.length)
+        {
+            index -= this.times.length;
+        }
+
+        return index;
+    }
+}
@@ -0,0 +1,76 @@
+package frc.robot.common;
+
+import frc.robot.common.robotprovider.Pose2d;
+
+/**
+ * The latest pose, published by a single writer thread and read by any other thread without locking (a sequence lock).
+ * The writer never waits, and a reader retries in the rare case that the pose was being published while it read it, so
+ * it always sees a consistent pose.
+ */
+public class PoseSnapshot
+{
+    // incremented before and after each publish, so it is odd while the pose is being published
+    private volatile long sequence;
+
+    private volatile double x;
+    private volatile double y;
+    private volatile double angle;
+    private volatile double time;
+
+    /**
+     * Initializes a new PoseSnapshot, with a pose at the origin
+     */
+    public PoseSnapshot()
+    {
+        this.sequence = 0L;
+    }
+
+    /**
+     * Publish a new pose (only to be called from the single writer thread)
+     * @param x position, in inches
+     * @param y position, in inches
+     * @param angle in degrees
+     * @param time of the pose, in seconds
+     */
+    public void publish(double x, double y, double angle, double time)
+    {
+        long sequence = this.sequence;
+        this.sequence = sequence + 1L;
+
+        this.x = x;
+        this.y = y;
+        this.angle = angle;
+        this.time = time;
+
+        this.sequence = sequence + 2L;
+    }
+
+    /**
+     * Read the latest pose
+     * @param pose to fill in with the latest pose
+     * @return time of the pose, in seconds
+     */
+    public double read(Pose2d pose)
+    {
+        while (true)
+        {
+            long sequence = this.sequence;
+            if ((sequence & 1L) == 0L)
+            {
+                double x = this.x;
+                double y = this.y;
+                double angle = this.angle;
+                double time = this.time;
+                if (this.sequence == sequence)
+                {
+                    pose.x = x;
+                    pose.y = y;
+                    pose.angle = angle;
+                    return time;
+                }
+            }
+
+            Thread.onSpinWait();
+        }
+    }
+}
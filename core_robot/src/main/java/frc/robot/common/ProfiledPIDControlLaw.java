@@ -0,0 +1,90 @@
+package frc.robot.common;
+
+/**
+ * Motion-profiled PID control law.  Rather than jumping straight to the goal, the setpoint follows a trapezoidal profile
+ * (limited by a max velocity and acceleration) from where the mechanism was when the law started, and the PID law tracks
+ * that profiled setpoint, along with a feed-forward term for the profile's velocity.
+ */
+public class ProfiledPIDControlLaw implements IControlLaw
+{
+    private final double maxVelocity;
+    private final double maxAcceleration;
+    private final double kv;
+    private final PIDControlLaw pid;
+
+    private boolean started;
+    private double profilePosition;
+    private double profileVelocity;
+
+    /**
+     * Initializes a new ProfiledPIDControlLaw
+     * @param maxVelocity max velocity of the profile, in units per second
+     * @param maxAcceleration max acceleration of the profile, in units per second per second
+     * @param kv output per unit of the profile's velocity
+     * @param pid law for tracking the profiled setpoint
+     */
+    public ProfiledPIDControlLaw(double maxVelocity, double maxAcceleration, double kv, PIDControlLaw pid)
+    {
+        this.maxVelocity = maxVelocity;
+        this.maxAcceleration = maxAcceleration;
+        this.kv = kv;
+        this.pid = pid;
+
+        this.started = false;
+        this.profilePosition = 0.0;
+        this.profileVelocity = 0.0;
+    }
+
+    @Override
+    public double calculate(double setpoint, double measuredValue, double dt)
+    {
+        if (!this.started)
+        {
+            this.started = true;
+            this.profilePosition = measuredValue;
+            this.profileVelocity = 0.0;
+        }
+
+        // the fastest that we can be going while still being able to stop at the goal
+        double remaining = setpoint - this.profilePosition;
+        double stoppingVelocity = Math.sqrt(2.0 * this.maxAcceleration * Math.abs(remaining));
+        double desiredVelocity = Math.signum(remaining) * Math.min(this.maxVelocity, stoppingVelocity);
+
+        double maxVelocityChange = this.maxAcceleration * dt;
+        this.profileVelocity += Helpers.EnforceRange(desiredVelocity - this.profileVelocity, -maxVelocityChange, maxVelocityChange);
+        this.profilePosition += this.profileVelocity * dt;
+
+        // don't overshoot the goal
+        if (remaining != 0.0 && Math.signum(setpoint - this.profilePosition) != Math.signum(remaining))
+        {
+            this.profilePosition = setpoint;
+            this.profileVelocity = 0.0;
+        }
+
+        return this.pid.calculate(this.profilePosition, measuredValue, dt) + this.kv * this.profileVelocity;
+    }
+
+    /**
+     * Get where the profile is as of the latest calculation
+     * @return profiled setpoint
+     */
+    public double getProfilePosition()
+    {
+        return this.profilePosition;
+    }
+
+    @Override
+    public double getError()
+    {
+        return this.pid.getError();
+    }
+
+    @Override
+    public void reset()
+    {
+        this.started = false;
+        this.profilePosition = 0.0;
+        this.profileVelocity = 0.0;
+        this.pid.reset();
+    }
+}
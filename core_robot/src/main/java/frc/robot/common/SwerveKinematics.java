@@ -0,0 +1,306 @@
+package frc.robot.common;
+
+/**
+ * Swerve drive kinematics for any number of modules, working on primitive arrays that are owned by the caller so that
+ * nothing is allocated each cycle.
+ *
+ * Conventions (matching DriveTrainMechanism): velocities are "right" and "forward" in inches per second, turn velocity
+ * (omega) is in radians per second and positive counter-clockwise, and module steer angles are in degrees, 0 straight ahead
+ * and increasing counter-clockwise.
+ */
+public class SwerveKinematics
+{
+    private final int moduleCount;
+
+    // the x and y offsets of the swerve modules from the default center of rotation
+    private final double[] moduleOffsetX;
+    private final double[] moduleOffsetY;
+
+    // centroid of the modules, and the sums of the squared offsets of the modules from it (for forward kinematics)
+    private final double moduleCenterX;
+    private final double moduleCenterY;
+    private final double moduleSquaredOffsetX;
+    private final double moduleSquaredOffsetY;
+
+    // the maximum velocity of any module, in inches per second
+    private final double maxVelocity;
+
+    // keep the current steer angle of a module when its velocity is within this delta of zero (or negative to never skip)
+    private final double skipAngleDelta;
+
+    // the robot's yaw, and its cached sine and cosine
+    private double yaw;
+    private double yawSine;
+    private double yawCosine;
+
+    /**
+     * Initializes a new SwerveKinematics
+     * @param moduleOffsetX the x offsets of the swerve modules from the default center of rotation, in inches
+     * @param moduleOffsetY the y offsets of the swerve modules from the default center of rotation, in inches
+     * @param maxVelocity the maximum velocity of any module, in inches per second
+     * @param skipAngleDelta keep the current steer angle of a module when its velocity is within this delta of zero, or a
+     * negative value to always steer
+     */
+    public SwerveKinematics(double[] moduleOffsetX, double[] moduleOffsetY, double maxVelocity, double skipAngleDelta)
+    {
+        if (moduleOffsetX.length == 0 || moduleOffsetX.length != moduleOffsetY.length)
+        {
+            throw new IllegalArgumentException("Expected the same number of x and y module offsets");
+        }
+
+        this.moduleCount = moduleOffsetX.length;
+        this.moduleOffsetX = moduleOffsetX.clone();
+        this.moduleOffsetY = moduleOffsetY.clone();
+        this.maxVelocity = maxVelocity;
+        this.skipAngleDelta = skipAngleDelta;
+
+        double sumX = 0.0;
+        double sumY = 0.0;
+        for (int i = 0; i < this.moduleCount; i++)
+        {
+            sumX += this.moduleOffsetX[i];
+            sumY += this.moduleOffsetY[i];
+        }
+
+        this.moduleCenterX = sumX / this.moduleCount;
+        this.moduleCenterY = sumY / this.moduleCount;
+
+        double squaredOffsetX = 0.0;
+        double squaredOffsetY = 0.0;
+        for (int i = 0; i < this.moduleCount; i++)
+        {
+            double offsetX = this.moduleOffsetX[i] - this.moduleCenterX;
+            double offsetY = this.moduleOffsetY[i] - this.moduleCenterY;
+            squaredOffsetX += offsetX * offsetX;
+            squaredOffsetY += offsetY * offsetY;
+        }
+
+        this.moduleSquaredOffsetX = squaredOffsetX;
+        this.moduleSquaredOffsetY = squaredOffsetY;
+
+        this.yaw = 0.0;
+        this.yawSine = 0.0;
+        this.yawCosine = 1.0;
+    }
+
+    /**
+     * Get the number of swerve modules
+     * @return number of modules
+     */
+    public int getModuleCount()
+    {
+        return this.moduleCount;
+    }
+
+    /**
+     * Set the robot's yaw, used to convert between field-oriented and robot-oriented velocities.  Its sine and cosine are only
+     * re-calculated when it changes.
+     * @param yaw of the robot, in degrees
+     */
+    public void setYaw(double yaw)
+    {
+        if (yaw != this.yaw)
+        {
+            this.yaw = yaw;
+            this.yawSine = Helpers.sind(yaw);
+            this.yawCosine = Helpers.cosd(yaw);
+        }
+    }
+
+    /**
+     * Get the robot-oriented right component of a field-oriented velocity, using the current yaw
+     * @param fieldRight velocity to the right of the field
+     * @param fieldForward velocity toward the far end of the field
+     * @return robot-oriented right velocity
+     */
+    public double getRobotRight(double fieldRight, double fieldForward)
+    {
+        return this.yawCosine * fieldRight + this.yawSine * fieldForward;
+    }
+
+    /**
+     * Get the robot-oriented forward component of a field-oriented velocity, using the current yaw
+     * @param fieldRight velocity to the right of the field
+     * @param fieldForward velocity toward the far end of the field
+     * @return robot-oriented forward velocity
+     */
+    public double getRobotForward(double fieldRight, double fieldForward)
+    {
+        return this.yawCosine * fieldForward - this.yawSine * fieldRight;
+    }
+
+    /**
+     * Get the field-oriented right component of a robot-oriented velocity, using the current yaw
+     * @param robotRight velocity to the robot's right
+     * @param robotForward velocity in the robot's forward direction
+     * @return field-oriented right velocity
+     */
+    public double getFieldRight(double robotRight, double robotForward)
+    {
+        return robotRight * this.yawCosine - robotForward * this.yawSine;
+    }
+
+    /**
+     * Get the field-oriented forward component of a robot-oriented velocity, using the current yaw
+     * @param robotRight velocity to the robot's right
+     * @param robotForward velocity in the robot's forward direction
+     * @return field-oriented forward velocity
+     */
+    public double getFieldForward(double robotRight, double robotForward)
+    {
+        return robotRight * this.yawSine + robotForward * this.yawCosine;
+    }
+
+    /**
+     * Calculate the goals for each module (inverse kinematics) in a single pass, choosing the steer angle closest to each
+     * module's current angle (reversing its drive direction when that is closer) and desaturating the velocities so that no
+     * module exceeds the max velocity.
+     * @param centerVelocityRight robot-oriented velocity of the center of the robot to the right, in inches per second
+     * @param centerVelocityForward robot-oriented velocity of the center of the robot forward, in inches per second
+     * @param omega turn velocity, in radians per second
+     * @param rotationCenterA x offset of the center of rotation from the default one, in inches
+     * @param rotationCenterB y offset of the center of rotation from the default one, in inches
+     * @param currentSteerAngles the current steer angle of each module, in degrees (any value)
+     * @param moduleVelocities buffer to fill with the drive velocity of each module (negative when reversed), in inches per second
+     * @param moduleSteerAngles buffer to fill with the steer angle goal of each module, in degrees, or NaN to keep its angle
+     * @return the scale applied to the velocities to desaturate them (1.0 when no module exceeded the max velocity)
+     */
+    public double calculateModuleGoals(
+        double centerVelocityRight,
+        double centerVelocityForward,
+        double omega,
+        double rotationCenterA,
+        double rotationCenterB,
+        double[] currentSteerAngles,
+        double[] moduleVelocities,
+        double[] moduleSteerAngles)
+    {
+        double maxModuleVelocity = 0.0;
+        for (int i = 0; i < this.moduleCount; i++)
+        {
+            double moduleVelocityRight = centerVelocityRight + omega * (this.moduleOffsetY[i] + rotationCenterB);
+            double moduleVelocityForward = centerVelocityForward - omega * (this.moduleOffsetX[i] + rotationCenterA);
+
+            if (Helpers.WithinDelta(moduleVelocityRight, 0.0, this.skipAngleDelta)
+                && Helpers.WithinDelta(moduleVelocityForward, 0.0, this.skipAngleDelta))
+            {
+                moduleVelocities[i] = 0.0;
+                moduleSteerAngles[i] = Double.NaN;
+                continue;
+            }
+
+            double moduleVelocity = Math.sqrt(moduleVelocityRight * moduleVelocityRight + moduleVelocityForward * moduleVelocityForward);
+            if (maxModuleVelocity < moduleVelocity)
+            {
+                maxModuleVelocity = moduleVelocity;
+            }
+
+            // same as AnglePair.getClosestAngle(angle, current, true), without allocating a pair
+            double currentAngle = currentSteerAngles[i];
+            double difference = Helpers.updateAngleRange(Helpers.atan2d(-moduleVelocityRight, moduleVelocityForward) - currentAngle);
+            if (difference < -90.0)
+            {
+                moduleSteerAngles[i] = currentAngle + difference + 180.0;
+                moduleVelocities[i] = -moduleVelocity;
+            }
+            else if (difference > 90.0)
+            {
+                moduleSteerAngles[i] = currentAngle + difference - 180.0;
+                moduleVelocities[i] = -moduleVelocity;
+            }
+            else
+            {
+                moduleSteerAngles[i] = currentAngle + difference;
+                moduleVelocities[i] = moduleVelocity;
+            }
+        }
+
+        if (maxModuleVelocity <= this.maxVelocity)
+        {
+            return 1.0;
+        }
+
+        // divide by percentage is interchangeable with multiply by inverse-percentage
+        double invPercentage = this.maxVelocity / maxModuleVelocity;
+        for (int i = 0; i < this.moduleCount; i++)
+        {
+            moduleVelocities[i] *= invPercentage;
+        }
+
+        return invPercentage;
+    }
+
+    /**
+     * Calculate the robot-oriented velocity of the robot from the velocity and steer angle of each module (forward
+     * kinematics), as the least-squares fit of a rigid-body motion to the module velocities.  The sine and cosine of each
+     * steer angle are calculated once.
+     * @param moduleVelocities the drive velocity of each module, in inches per second
+     * @param moduleSteerAngles the steer angle of each module, in degrees
+     * @param robotVelocity buffer to fill with the robot's right velocity and forward velocity (in inches per second) and its
+     * turn velocity (in radians per second), in that order
+     */
+    public void calculateRobotVelocity(double[] moduleVelocities, double[] moduleSteerAngles, double[] robotVelocity)
+    {
+        double sumRight = 0.0;
+        double sumForward = 0.0;
+        double sumRightY = 0.0;
+        double sumForwardX = 0.0;
+        for (int i = 0; i < this.moduleCount; i++)
+        {
+            double angle = moduleSteerAngles[i] * Helpers.DEGREES_TO_RADIANS;
+            double right = -Math.sin(angle) * moduleVelocities[i];
+            double forward = Math.cos(angle) * moduleVelocities[i];
+
+            sumRight += right;
+            sumForward += forward;
+            sumRightY += right * (this.moduleOffsetY[i] - this.moduleCenterY);
+            sumForwardX += forward * (this.moduleOffsetX[i] - this.moduleCenterX);
+        }
+
+        // each module's right velocity changes with omega along its y offset, and its forward velocity along its x offset,
+        // so average the estimates of omega from each axis (using one axis when the modules are lined up along the other)
+        double omega;
+        if (this.moduleSquaredOffsetX == 0.0 && this.moduleSquaredOffsetY == 0.0)
+        {
+            omega = 0.0;
+        }
+        else if (this.moduleSquaredOffsetX == 0.0)
+        {
+            omega = sumRightY / this.moduleSquaredOffsetY;
+        }
+        else if (this.moduleSquaredOffsetY == 0.0)
+        {
+            omega = -sumForwardX / this.moduleSquaredOffsetX;
+        }
+        else
+        {
+            omega = (sumRightY / this.moduleSquaredOffsetY - sumForwardX / this.moduleSquaredOffsetX) / 2.0;
+        }
+
+        // the velocity at the default center of rotation, rather than the centroid of the modules
+        robotVelocity[0] = sumRight / this.moduleCount - omega * this.moduleCenterY;
+        robotVelocity[1] = sumForward / this.moduleCount + omega * this.moduleCenterX;
+        robotVelocity[2] = omega;
+    }
+
+    /**
+     * Get the steer angle closest to a module's current angle that points it along the desired angle, in either direction
+     * @param desiredAngle desired angle in degrees (between -180 and 180)
+     * @param currentAngle current angle in degrees (any value)
+     * @return closest steer angle, in degrees
+     */
+    public static double getClosestSteerAngle(double desiredAngle, double currentAngle)
+    {
+        double difference = Helpers.updateAngleRange(desiredAngle - currentAngle);
+        if (difference < -90.0)
+        {
+            return currentAngle + difference + 180.0;
+        }
+        else if (difference > 90.0)
+        {
+            return currentAngle + difference - 180.0;
+        }
+
+        return currentAngle + difference;
+    }
+}
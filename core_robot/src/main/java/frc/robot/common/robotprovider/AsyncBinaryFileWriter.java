@@ -0,0 +1,221 @@
+package frc.robot.common.robotprovider;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import frc.robot.TuningConstants;
+
+/**
+ * Binary file writer that hands records off to a dedicated writer thread so that the robot thread never blocks on file I/O.
+ *
+ * Each call to write() is treated as one complete record.  Records are copied into a bounded, lock-free
+ * single-producer/single-consumer ring buffer as [length (int)][bytes], and the writer thread drains them to the wrapped writer.
+ * If the ring buffer doesn't have room for a record, the whole record is dropped and counted rather than waiting for space.
+ */
+public class AsyncBinaryFileWriter implements IBinaryFileWriter
+{
+    private static final int LENGTH_SIZE = 4;
+
+    private final IBinaryFileWriter wrappedWriter;
+    private final byte[] ring;
+    private final int mask;
+    private final Thread writerThread;
+
+    // positions are ever-increasing byte counts, masked to find the index within the ring
+    private final AtomicLong writePosition; // only updated by the robot thread
+    private final AtomicLong readPosition; // only updated by the writer thread
+
+    private volatile boolean flushRequested;
+    private volatile boolean closeRequested;
+
+    // counters are only updated by the robot thread
+    private long droppedRecords;
+    private long overruns;
+    private boolean overrunning;
+
+    /**
+     * Initializes a new instance of the AsyncBinaryFileWriter class, and starts its writer thread
+     * @param wrappedWriter to write into from the writer thread
+     */
+    public AsyncBinaryFileWriter(IBinaryFileWriter wrappedWriter)
+    {
+        this(wrappedWriter, TuningConstants.LOG_ASYNC_BUFFER_SIZE);
+    }
+
+    /**
+     * Initializes a new instance of the AsyncBinaryFileWriter class, and starts its writer thread
+     * @param wrappedWriter to write into from the writer thread
+     * @param capacity of the ring buffer in bytes (rounded up to a power of 2)
+     */
+    public AsyncBinaryFileWriter(IBinaryFileWriter wrappedWriter, int capacity)
+    {
+        int size = Integer.highestOneBit(Math.max(capacity, 64) - 1) << 1;
+
+        this.wrappedWriter = wrappedWriter;
+        this.ring = new byte[size];
+        this.mask = size - 1;
+        this.writePosition = new AtomicLong(0L);
+        this.readPosition = new AtomicLong(0L);
+
+        this.writerThread = new Thread(this::run, "AsyncBinaryFileWriter");
+        this.writerThread.setDaemon(true);
+        this.writerThread.start();
+    }
+
+    /**
+     * Copy a record into the ring buffer for the writer thread, or drop it if there isn't room.  Never blocks.
+     * @param buffer containing the record
+     * @param offset of the record within the buffer
+     * @param length of the record
+     */
+    @Override
+    public void write(byte[] buffer, int offset, int length)
+    {
+        long position = this.writePosition.get();
+        long available = this.ring.length - (position - this.readPosition.get());
+        if (this.closeRequested || AsyncBinaryFileWriter.LENGTH_SIZE + length > available)
+        {
+            this.droppedRecords++;
+            if (!this.overrunning)
+            {
+                this.overruns++;
+                this.overrunning = true;
+            }
+
+            return;
+        }
+
+        this.overrunning = false;
+
+        this.putInt(position, length);
+        int start = (int)((position + AsyncBinaryFileWriter.LENGTH_SIZE) & this.mask);
+        int firstLength = Math.min(length, this.ring.length - start);
+        System.arraycopy(buffer, offset, this.ring, start, firstLength);
+        if (firstLength < length)
+        {
+            System.arraycopy(buffer, offset + firstLength, this.ring, 0, length - firstLength);
+        }
+
+        // publish the record to the writer thread
+        this.writePosition.lazySet(position + AsyncBinaryFileWriter.LENGTH_SIZE + length);
+    }
+
+    /**
+     * Request that the writer thread flush the wrapped writer once it has caught up.  Never blocks.
+     */
+    @Override
+    public void flush()
+    {
+        this.flushRequested = true;
+        LockSupport.unpark(this.writerThread);
+    }
+
+    /**
+     * Request that the writer thread write out anything remaining, and then close the wrapped writer.  Never blocks.
+     */
+    @Override
+    public void close()
+    {
+        this.closeRequested = true;
+        LockSupport.unpark(this.writerThread);
+    }
+
+    /**
+     * Retrieve the number of records that were dropped because the writer thread had fallen behind
+     * @return number of dropped records
+     */
+    public long getDroppedRecords()
+    {
+        return this.droppedRecords;
+    }
+
+    /**
+     * Retrieve the number of times that the ring buffer filled up (each overrun may drop multiple consecutive records)
+     * @return number of overruns
+     */
+    public long getOverruns()
+    {
+        return this.overruns;
+    }
+
+    private void run()
+    {
+        while (true)
+        {
+            long position = this.readPosition.get();
+            if (position == this.writePosition.get())
+            {
+                // caught up - flush or close if that was requested, otherwise wait for more records
+                boolean closing = this.closeRequested;
+                if (this.flushRequested || closing)
+                {
+                    this.flushRequested = false;
+                    try
+                    {
+                        this.wrappedWriter.flush();
+                    }
+                    catch (IOException e)
+                    {
+                        // best-effort...
+                    }
+                }
+
+                if (closing && position == this.writePosition.get())
+                {
+                    try
+                    {
+                        this.wrappedWriter.close();
+                    }
+                    catch (IOException e)
+                    {
+                        // best-effort...
+                    }
+
+                    return;
+                }
+
+                LockSupport.parkNanos(TuningConstants.LOG_ASYNC_POLL_PERIOD_NANOS);
+                continue;
+            }
+
+            int length = this.getInt(position);
+            int start = (int)((position + AsyncBinaryFileWriter.LENGTH_SIZE) & this.mask);
+            int firstLength = Math.min(length, this.ring.length - start);
+            try
+            {
+                this.wrappedWriter.write(this.ring, start, firstLength);
+                if (firstLength < length)
+                {
+                    this.wrappedWriter.write(this.ring, 0, length - firstLength);
+                }
+            }
+            catch (IOException e)
+            {
+                // best-effort...
+            }
+
+            // release the space back to the robot thread
+            this.readPosition.lazySet(position + AsyncBinaryFileWriter.LENGTH_SIZE + length);
+        }
+    }
+
+    private void putInt(long position, int value)
+    {
+        for (int i = 0; i < AsyncBinaryFileWriter.LENGTH_SIZE; i++)
+        {
+            this.ring[(int)((position + i) & this.mask)] = (byte)(value >>> (8 * i));
+        }
+    }
+
+    private int getInt(long position)
+    {
+        int value = 0;
+        for (int i = 0; i < AsyncBinaryFileWriter.LENGTH_SIZE; i++)
+        {
+            value |= (this.ring[(int)((position + i) & this.mask)] & 0xFF) << (8 * i);
+        }
+
+        return value;
+    }
+}
@@ -0,0 +1,439 @@
+package frc.robot.common.robotprovider;
+
+import java.util.Arrays;
+import java.util.concurrent.locks.LockSupport;
+
+import frc.robot.LoggingKey;
+
+/**
+ * Base class for dashboard loggers that publish in batches, rather than making a dashboard call for every logged value.
+ *
+ * The robot thread only records each value into a per-key slot.  At the end of each cycle (update()), the keys that were
+ * logged are handed off, so that multiple changes to a key between publishes are coalesced into its latest value.
+ * A publisher thread then publishes the keys whose value differs from what it last published, at a fixed rate, so that
+ * dashboard traffic doesn't compete with the robot thread.  If no publish period is provided, publishing happens on the
+ * robot thread during update() instead.
+ */
+public abstract class BatchedDashboardLogger implements ISmartDashboardLogger
+{
+    private static final byte TYPE_NONE = 0;
+    private static final byte TYPE_BOOLEAN = 1;
+    private static final byte TYPE_BOOLEAN_ARRAY = 2;
+    private static final byte TYPE_NUMBER = 3;
+    private static final byte TYPE_BOXED_NUMBER = 4; // a Double, published as a string
+    private static final byte TYPE_POINT = 5; // published as a string
+    private static final byte TYPE_STRING = 6;
+
+    private final LoggingKey[] keys;
+
+    private final Values staging; // only used by the robot thread
+    private final Values pending; // guarded by lock
+    private final Values publishing; // only used by the publisher
+    private final Values published; // only used by the publisher
+    private final Object lock;
+
+    private final Thread publisherThread;
+    private final long publishPeriodNanos;
+
+    /**
+     * Initializes a new instance of the BatchedDashboardLogger class
+     * @param publishPeriodNanos time between each publish in nanoseconds, or 0 to publish on the robot thread during update()
+     */
+    protected BatchedDashboardLogger(long publishPeriodNanos)
+    {
+        this.keys = LoggingKey.values();
+        this.staging = new Values(this.keys.length);
+        this.pending = new Values(this.keys.length);
+        this.publishing = new Values(this.keys.length);
+        this.published = new Values(this.keys.length);
+        this.lock = new Object();
+
+        this.publishPeriodNanos = publishPeriodNanos;
+        if (publishPeriodNanos > 0L)
+        {
+            this.publisherThread = new Thread(this::run, "DashboardPublisher");
+            this.publisherThread.setDaemon(true);
+            this.publisherThread.start();
+        }
+        else
+        {
+            this.publisherThread = null;
+        }
+    }
+
+    /**
+     * Publish a boolean to the dashboard
+     * @param key to write to
+     * @param value to write
+     */
+    protected abstract void publishBoolean(String key, boolean value);
+
+    /**
+     * Publish a boolean array to the dashboard
+     * @param key to write to
+     * @param value to write
+     */
+    protected abstract void publishBooleanArray(String key, boolean[] value);
+
+    /**
+     * Publish a number to the dashboard
+     * @param key to write to
+     * @param value to write
+     */
+    protected abstract void publishNumber(String key, double value);
+
+    /**
+     * Publish a string to the dashboard
+     * @param key to write to
+     * @param value to write
+     */
+    protected abstract void publishString(String key, String value);
+
+    /**
+     * Write a boolean to the smart dashboard
+     * @param key to write to
+     * @param value to write
+     */
+    @Override
+    public void logBoolean(LoggingKey key, boolean value)
+    {
+        int ordinal = key.ordinal();
+        this.staging.types[ordinal] = BatchedDashboardLogger.TYPE_BOOLEAN;
+        this.staging.numbers[ordinal] = value ? 1.0 : 0.0;
+        this.staging.dirty[ordinal] = true;
+    }
+
+    /**
+     * Write a boolean array to the smart dashboard
+     * @param key to write to
+     * @param value to write
+     */
+    @Override
+    public void logBooleanArray(LoggingKey key, boolean[] value)
+    {
+        int ordinal = key.ordinal();
+        this.staging.setBooleanArray(ordinal, value, value == null ? 0 : value.length);
+        this.staging.types[ordinal] = BatchedDashboardLogger.TYPE_BOOLEAN_ARRAY;
+        this.staging.dirty[ordinal] = true;
+    }
+
+    /**
+     * Write a number (double) to the smart dashboard
+     * @param key to write to
+     * @param value to write
+     */
+    @Override
+    public void logNumber(LoggingKey key, double value)
+    {
+        int ordinal = key.ordinal();
+        this.staging.types[ordinal] = BatchedDashboardLogger.TYPE_NUMBER;
+        this.staging.numbers[ordinal] = value;
+        this.staging.dirty[ordinal] = true;
+    }
+
+    /**
+     * Write a number (double) to the smart dashboard
+     * @param key to write to
+     * @param value to write
+     */
+    @Override
+    public void logNumber(LoggingKey key, Double value)
+    {
+        if (value == null)
+        {
+            this.logString(key, "N/A");
+            return;
+        }
+
+        int ordinal = key.ordinal();
+        this.staging.types[ordinal] = BatchedDashboardLogger.TYPE_BOXED_NUMBER;
+        this.staging.numbers[ordinal] = value.doubleValue();
+        this.staging.dirty[ordinal] = true;
+    }
+
+    /**
+     * Write a number (integer) to the smart dashboard
+     * @param key to write to
+     * @param value to write
+     */
+    @Override
+    public void logInteger(LoggingKey key, int value)
+    {
+        this.logNumber(key, (double)value);
+    }
+
+    /**
+     * Write a number (integer) to the smart dashboard
+     * @param key to write to
+     * @param value to write
+     * @param formatString to use
+     */
+    @Override
+    public void logInteger(LoggingKey key, int value, String formatString)
+    {
+        this.logNumber(key, (double)value);
+    }
+
+    /**
+     * Write a point (x,y or N/A) to the smart dashboard
+     * @param key to write to
+     * @param value to write
+     */
+    @Override
+    public void logPoint(LoggingKey key, IPoint value)
+    {
+        if (value == null)
+        {
+            this.logString(key, "N/A");
+            return;
+        }
+
+        int ordinal = key.ordinal();
+        this.staging.types[ordinal] = BatchedDashboardLogger.TYPE_POINT;
+        this.staging.numbers[ordinal] = value.getX();
+        this.staging.otherNumbers[ordinal] = value.getY();
+        this.staging.dirty[ordinal] = true;
+    }
+
+    /**
+     * Write a string to the smart dashboard
+     * @param key to write to
+     * @param value to write
+     */
+    @Override
+    public void logString(LoggingKey key, String value)
+    {
+        if (value == null)
+        {
+            return;
+        }
+
+        int ordinal = key.ordinal();
+        this.staging.types[ordinal] = BatchedDashboardLogger.TYPE_STRING;
+        this.staging.strings[ordinal] = value;
+        this.staging.dirty[ordinal] = true;
+    }
+
+    /**
+     * Update the log, if appropriate..
+     */
+    @Override
+    public void update()
+    {
+        // hand off the latest value of each key that was logged this cycle
+        synchronized (this.lock)
+        {
+            BatchedDashboardLogger.moveDirty(this.staging, this.pending);
+        }
+
+        if (this.publisherThread == null)
+        {
+            this.publish();
+        }
+    }
+
+    /**
+     * Flush the output stream, if appropriate..
+     */
+    @Override
+    public void flush()
+    {
+    }
+
+    /**
+     * Close the output stream, if appropriate..
+     */
+    @Override
+    public void close()
+    {
+        // the dashboard logger is shared across logger refreshes, so the publisher keeps running
+    }
+
+    /**
+     * Publish the values that changed since they were last published
+     */
+    protected void publish()
+    {
+        synchronized (this.lock)
+        {
+            BatchedDashboardLogger.moveDirty(this.pending, this.publishing);
+        }
+
+        for (int ordinal = 0; ordinal < this.keys.length; ordinal++)
+        {
+            if (!this.publishing.dirty[ordinal])
+            {
+                continue;
+            }
+
+            this.publishing.dirty[ordinal] = false;
+            if (this.published.matches(this.publishing, ordinal))
+            {
+                continue;
+            }
+
+            String key = this.keys[ordinal].value;
+            double number = this.publishing.numbers[ordinal];
+            switch (this.publishing.types[ordinal])
+            {
+                case BatchedDashboardLogger.TYPE_BOOLEAN:
+                    this.publishBoolean(key, number != 0.0);
+                    break;
+
+                case BatchedDashboardLogger.TYPE_BOOLEAN_ARRAY:
+                    this.publishBooleanArray(
+                        key,
+                        Arrays.copyOf(this.publishing.booleanArrays[ordinal], this.publishing.booleanArrayLengths[ordinal]));
+                    break;
+
+                case BatchedDashboardLogger.TYPE_NUMBER:
+                    this.publishNumber(key, number);
+                    break;
+
+                case BatchedDashboardLogger.TYPE_BOXED_NUMBER:
+                    this.publishString(key, String.valueOf(number));
+                    break;
+
+                case BatchedDashboardLogger.TYPE_POINT:
+                    this.publishString(key, String.format("(%f, %f)", number, this.publishing.otherNumbers[ordinal]));
+                    break;
+
+                case BatchedDashboardLogger.TYPE_STRING:
+                    this.publishString(key, this.publishing.strings[ordinal]);
+                    break;
+
+                default:
+                    break;
+            }
+
+            this.published.copy(this.publishing, ordinal);
+        }
+    }
+
+    private void run()
+    {
+        while (true)
+        {
+            long start = System.nanoTime();
+            try
+            {
+                this.publish();
+            }
+            catch (RuntimeException ex)
+            {
+                // best-effort...
+            }
+
+            LockSupport.parkNanos(this.publishPeriodNanos - (System.nanoTime() - start));
+        }
+    }
+
+    /**
+     * Move the values that were logged from one set of slots to another, coalescing them with any values already there
+     * @param source to move from
+     * @param destination to move into
+     */
+    private static void moveDirty(Values source, Values destination)
+    {
+        for (int ordinal = 0; ordinal < source.dirty.length; ordinal++)
+        {
+            if (source.dirty[ordinal])
+            {
+                destination.copy(source, ordinal);
+                destination.dirty[ordinal] = true;
+                source.dirty[ordinal] = false;
+            }
+        }
+    }
+
+    /**
+     * Per-key slots holding the latest value for each LoggingKey, indexed by ordinal
+     */
+    private static class Values
+    {
+        private final byte[] types;
+        private final double[] numbers; // numbers, booleans (as 1 or 0), or the x coordinate of points
+        private final double[] otherNumbers; // the y coordinate of points
+        private final String[] strings;
+        private final boolean[][] booleanArrays;
+        private final int[] booleanArrayLengths;
+        private final boolean[] dirty;
+
+        Values(int keyCount)
+        {
+            this.types = new byte[keyCount];
+            this.numbers = new double[keyCount];
+            this.otherNumbers = new double[keyCount];
+            this.strings = new String[keyCount];
+            this.booleanArrays = new boolean[keyCount][];
+            this.booleanArrayLengths = new int[keyCount];
+            this.dirty = new boolean[keyCount];
+        }
+
+        void copy(Values other, int ordinal)
+        {
+            this.types[ordinal] = other.types[ordinal];
+            this.numbers[ordinal] = other.numbers[ordinal];
+            this.otherNumbers[ordinal] = other.otherNumbers[ordinal];
+            this.strings[ordinal] = other.strings[ordinal];
+            if (other.types[ordinal] == BatchedDashboardLogger.TYPE_BOOLEAN_ARRAY)
+            {
+                this.setBooleanArray(ordinal, other.booleanArrays[ordinal], other.booleanArrayLengths[ordinal]);
+            }
+        }
+
+        void setBooleanArray(int ordinal, boolean[] value, int length)
+        {
+            if (this.booleanArrays[ordinal] == null || this.booleanArrays[ordinal].length < length)
+            {
+                this.booleanArrays[ordinal] = new boolean[length];
+            }
+
+            if (length > 0)
+            {
+                System.arraycopy(value, 0, this.booleanArrays[ordinal], 0, length);
+            }
+
+            this.booleanArrayLengths[ordinal] = length;
+        }
+
+        boolean matches(Values other, int ordinal)
+        {
+            byte type = this.types[ordinal];
+            if (type == BatchedDashboardLogger.TYPE_NONE || type != other.types[ordinal])
+            {
+                return false;
+            }
+
+            switch (type)
+            {
+                case BatchedDashboardLogger.TYPE_BOOLEAN_ARRAY:
+                    int length = this.booleanArrayLengths[ordinal];
+                    if (length != other.booleanArrayLengths[ordinal])
+                    {
+                        return false;
+                    }
+
+                    for (int i = 0; i < length; i++)
+                    {
+                        if (this.booleanArrays[ordinal][i] != other.booleanArrays[ordinal][i])
+                        {
+                            return false;
+                        }
+                    }
+
+                    return true;
+
+                case BatchedDashboardLogger.TYPE_STRING:
+                    return this.strings[ordinal].equals(other.strings[ordinal]);
+
+                case BatchedDashboardLogger.TYPE_POINT:
+                    return Double.compare(this.numbers[ordinal], other.numbers[ordinal]) == 0 &&
+                        Double.compare(this.otherNumbers[ordinal], other.otherNumbers[ordinal]) == 0;
+
+                default:
+                    return Double.compare(this.numbers[ordinal], other.numbers[ordinal]) == 0;
+            }
+        }
+    }
+}
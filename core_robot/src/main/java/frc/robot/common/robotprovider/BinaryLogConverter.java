@@ -0,0 +1,251 @@
+package frc.robot.common.robotprovider;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedWriter;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.FileInputStream;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+
+/**
+ * Offline tool to convert a log written by BinaryLogger into the same CSV layout that CSVLogger writes.
+ * The binary log carries its own column names, so this does not depend on the current set of LoggingKeys.
+ * Delta-encoded logs are expanded back into full rows, carrying forward each value until it changes or is cleared.
+ *
+ * Usage: BinaryLogConverter input.bin [output.csv]
+ */
+public class BinaryLogConverter
+{
+    public static void main(String[] args)
+    {
+        if (args.length < 1)
+        {
+            System.err.println("Usage: BinaryLogConverter input.bin [output.csv]");
+            return;
+        }
+
+        String inputFileName = args[0];
+        String outputFileName;
+        if (args.length > 1)
+        {
+            outputFileName = args[1];
+        }
+        else if (inputFileName.endsWith(".bin"))
+        {
+            outputFileName = inputFileName.substring(0, inputFileName.length() - 4) + ".csv";
+        }
+        else
+        {
+            outputFileName = inputFileName + ".csv";
+        }
+
+        try (InputStream input = new BufferedInputStream(new FileInputStream(inputFileName));
+            Writer output = new BufferedWriter(new FileWriter(outputFileName)))
+        {
+            BinaryLogConverter.convert(input, output);
+        }
+        catch (IOException ex)
+        {
+            System.err.println("Encountered exception converting " + inputFileName + ": " + ex.toString());
+        }
+    }
+
+    /**
+     * Convert a binary log into CSV
+     * @param input stream containing the binary log
+     * @param output to write the CSV into
+     * @throws IOException
+     */
+    public static void convert(InputStream input, Writer output) throws IOException
+    {
+        DataInputStream dataInput = new DataInputStream(input);
+        if (dataInput.readInt() != BinaryLogger.MAGIC)
+        {
+            throw new IOException("Not a binary log file");
+        }
+
+        short version = dataInput.readShort();
+        if (version != BinaryLogger.VERSION)
+        {
+            throw new IOException("Unsupported binary log version " + version);
+        }
+
+        short flags = dataInput.readShort();
+        boolean deltaEncoded = (flags & BinaryLogger.FLAG_DELTA) != 0;
+
+        int columnCount = dataInput.readShort();
+        String[] schema = new String[columnCount];
+        HashMap<Integer, Integer> ordinalToColumn = new HashMap<Integer, Integer>();
+        for (int i = 0; i < columnCount; i++)
+        {
+            int ordinal = dataInput.readShort();
+            byte[] name = new byte[dataInput.readShort()];
+            dataInput.readFully(name);
+
+            schema[i] = new String(name, StandardCharsets.UTF_8);
+            ordinalToColumn.put(ordinal, i);
+        }
+
+        output.append(String.join(",", schema));
+        output.append("\r\n");
+
+        ArrayList<String> dictionary = new ArrayList<String>();
+        String[] values = new String[columnCount];
+        while (true)
+        {
+            byte type;
+            try
+            {
+                type = dataInput.readByte();
+            }
+            catch (EOFException ex)
+            {
+                // the end of the file, or a partially-written final entry (e.g. after a brown-out)
+                break;
+            }
+
+            if (type == BinaryLogger.TYPE_ROW_END)
+            {
+                BinaryLogConverter.writeRow(output, values);
+                if (!deltaEncoded)
+                {
+                    Arrays.fill(values, null);
+                }
+
+                continue;
+            }
+
+            if (type == BinaryLogger.TYPE_KEYFRAME)
+            {
+                Arrays.fill(values, null);
+                continue;
+            }
+
+            if (type == BinaryLogger.TYPE_STRING_DEFINITION)
+            {
+                int stringId = dataInput.readInt();
+                byte[] bytes = new byte[dataInput.readInt()];
+                dataInput.readFully(bytes);
+                while (dictionary.size() <= stringId)
+                {
+                    dictionary.add(null);
+                }
+
+                dictionary.set(stringId, new String(bytes, StandardCharsets.UTF_8));
+                continue;
+            }
+
+            Integer column = ordinalToColumn.get((int)dataInput.readShort());
+            String value = BinaryLogConverter.readValue(dataInput, type, dictionary);
+            if (column != null)
+            {
+                values[column] = BinaryLogConverter.escape(value);
+            }
+        }
+
+        output.flush();
+    }
+
+    /**
+     * Read the payload of a value entry and format it the same way that StringLogger would have
+     * @param dataInput to read from
+     * @param type of the entry
+     * @param dictionary of previously-defined strings
+     * @return the formatted value
+     * @throws IOException
+     */
+    static String readValue(DataInputStream dataInput, byte type, ArrayList<String> dictionary) throws IOException
+    {
+        switch (type)
+        {
+            case BinaryLogger.TYPE_BOOLEAN:
+                return String.valueOf(dataInput.readByte() != 0);
+
+            case BinaryLogger.TYPE_BOOLEAN_ARRAY:
+                int length = dataInput.readShort();
+                StringBuilder builder = new StringBuilder();
+                for (int i = 0; i < length; i++)
+                {
+                    if (i > 0)
+                    {
+                        builder.append(",");
+                    }
+
+                    builder.append(String.valueOf(dataInput.readByte() != 0));
+                }
+
+                return builder.toString();
+
+            case BinaryLogger.TYPE_DOUBLE:
+                return String.valueOf(dataInput.readDouble());
+
+            case BinaryLogger.TYPE_INTEGER:
+                return String.valueOf(dataInput.readInt());
+
+            case BinaryLogger.TYPE_FORMATTED_INTEGER:
+                int value = dataInput.readInt();
+                String formatString = dictionary.get(dataInput.readInt());
+                return String.format(formatString, value);
+
+            case BinaryLogger.TYPE_POINT:
+                double x = dataInput.readDouble();
+                double y = dataInput.readDouble();
+                return String.format("(%f, %f)", x, y);
+
+            case BinaryLogger.TYPE_STRING:
+                return dictionary.get(dataInput.readInt());
+
+            case BinaryLogger.TYPE_INLINE_STRING:
+                byte[] bytes = new byte[dataInput.readInt()];
+                dataInput.readFully(bytes);
+                return new String(bytes, StandardCharsets.UTF_8);
+
+            case BinaryLogger.TYPE_NULL:
+                return "null";
+
+            default:
+                throw new IOException("Unknown entry type " + type);
+        }
+    }
+
+    /**
+     * Quote the value if needed, matching CSVLogger
+     * @param value to escape
+     * @return escaped value
+     */
+    static String escape(String value)
+    {
+        if (value.contains("\"") || value.contains("\r") || value.contains("\n"))
+        {
+            value = "\"" + value.replace("\"", "\"\"") + "\"";
+        }
+
+        return value;
+    }
+
+    static void writeRow(Writer output, String[] values) throws IOException
+    {
+        for (int i = 0; i < values.length; i++)
+        {
+            if (i > 0)
+            {
+                output.append(",");
+            }
+
+            String value = values[i];
+            if (value != null)
+            {
+                output.append(value);
+            }
+        }
+
+        output.append("\r\n");
+    }
+}
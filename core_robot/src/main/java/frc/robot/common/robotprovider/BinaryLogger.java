@@ -0,0 +1,701 @@
+package frc.robot.common.robotprovider;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+
+import frc.robot.LoggingKey;
+import frc.robot.TuningConstants;
+
+/**
+ * Logger that writes typed binary records into a preallocated buffer, rather than formatting every value as a string.
+ *
+ * File layout (all values big-endian):
+ *   header: magic (int), version (short), flags (short), column count (short),
+ *           then per-column: ordinal (short), name length (short), name (UTF-8)
+ *   rows:   a series of entries, each starting with a type (byte), terminated by a RowEnd entry
+ * Value entries are followed by the LoggingKey ordinal (short) and then the type-specific payload.
+ * Strings are written once as a StringDefinition entry (id (int), length (int), UTF-8) and referenced by id afterwards.
+ *
+ * With delta encoding, a row only contains the entries whose value changed since the previous row.  A key that is skipped
+ * between the samples of its sampling divisor keeps its previous value, while any other key that isn't logged in a row is
+ * cleared with an empty inline string (which converts to the same empty column that CSVLogger leaves for it).  Every so
+ * often (and after any dropped rows) a Keyframe entry starts a row that contains every current value, so that a reader can
+ * re-synchronize.
+ *
+ * Use BinaryLogConverter to convert the resulting file back into the same CSV layout that CSVLogger produces.
+ *
+ * When writing into an AsyncBinaryFileWriter, each completed row is handed off as a single record so that the
+ * writer thread can drop whole rows (rather than partial entries) if it falls behind.
+ */
+public class BinaryLogger implements ILogger
+{
+    public static final int MAGIC = 0x4952534C; // "IRSL"
+    public static final short VERSION = 3;
+
+    public static final short FLAG_DELTA = 0x1;
+
+    public static final byte TYPE_ROW_END = 0;
+    public static final byte TYPE_BOOLEAN = 1;
+    public static final byte TYPE_BOOLEAN_ARRAY = 2;
+    public static final byte TYPE_DOUBLE = 3;
+    public static final byte TYPE_INTEGER = 4;
+    public static final byte TYPE_FORMATTED_INTEGER = 5;
+    public static final byte TYPE_POINT = 6;
+    public static final byte TYPE_STRING = 7;
+    public static final byte TYPE_INLINE_STRING = 8;
+    public static final byte TYPE_NULL = 9;
+    public static final byte TYPE_STRING_DEFINITION = 10;
+    public static final byte TYPE_KEYFRAME = 11;
+
+    private static final int MAX_DICTIONARY_SIZE = 4096;
+    private static final int ENTRY_HEADER_SIZE = 3; // type (byte) + ordinal (short)
+
+    private final IBinaryFileWriter fileWriter;
+    private final AsyncBinaryFileWriter asyncFileWriter;
+    private final boolean[] inSchema;
+    private final ByteBuffer buffer;
+    private final HashMap<String, Integer> stringDictionary;
+
+    // per-key entries for delta encoding, indexed by LoggingKey ordinal
+    private final boolean deltaEncoding;
+    private final int[] schemaOrdinals;
+    private final ByteBuffer[] currentEntries;
+    private final ByteBuffer[] previousEntries;
+    private final boolean[] logged;
+    private final boolean[] hasPrevious;
+    private final int[] holdRows; // number of rows a key can be skipped for between samples before it is cleared
+    private final int[] rowsSinceLogged;
+
+    private long droppedRecords;
+    private int rowsSinceKeyframe;
+
+    /**
+     * Initializes a new instance of the BinaryLogger class, using the shouldLog LoggingKeys to determine the schema
+     * @param fileWriter to write into
+     * @throws IOException
+     */
+    public BinaryLogger(IBinaryFileWriter fileWriter) throws IOException
+    {
+        this(fileWriter, false, BinaryLogger.getDefaultSchema());
+    }
+
+    /**
+     * Initializes a new instance of the BinaryLogger class, using the shouldLog LoggingKeys to determine the schema
+     * @param fileWriter to write into
+     * @param deltaEncoding whether to only write the values that changed since the previous row
+     * @throws IOException
+     */
+    public BinaryLogger(IBinaryFileWriter fileWriter, boolean deltaEncoding) throws IOException
+    {
+        this(fileWriter, deltaEncoding, null, BinaryLogger.getDefaultSchema());
+    }
+
+    /**
+     * Initializes a new instance of the BinaryLogger class, using the shouldLog LoggingKeys to determine the schema
+     * @param fileWriter to write into
+     * @param deltaEncoding whether to only write the values that changed since the previous row
+     * @param sampleDivisors number of cycles between each logged value, indexed by LoggingKey ordinal (or null if every key
+     * is logged every cycle), so that the value of a key that is skipped between samples is held rather than cleared
+     * @throws IOException
+     */
+    public BinaryLogger(IBinaryFileWriter fileWriter, boolean deltaEncoding, int[] sampleDivisors) throws IOException
+    {
+        this(fileWriter, deltaEncoding, sampleDivisors, BinaryLogger.getDefaultSchema());
+    }
+
+    /**
+     * Initializes a new instance of the BinaryLogger class.
+     * @param fileWriter to write into
+     * @param schema to use for writing
+     * @throws IOException
+     */
+    public BinaryLogger(IBinaryFileWriter fileWriter, LoggingKey... schema) throws IOException
+    {
+        this(fileWriter, false, null, schema);
+    }
+
+    /**
+     * Initializes a new instance of the BinaryLogger class.
+     * @param fileWriter to write into
+     * @param deltaEncoding whether to only write the values that changed since the previous row
+     * @param schema to use for writing
+     * @throws IOException
+     */
+    public BinaryLogger(IBinaryFileWriter fileWriter, boolean deltaEncoding, LoggingKey... schema) throws IOException
+    {
+        this(fileWriter, deltaEncoding, null, schema);
+    }
+
+    /**
+     * Initializes a new instance of the BinaryLogger class.
+     * @param fileWriter to write into
+     * @param deltaEncoding whether to only write the values that changed since the previous row
+     * @param sampleDivisors number of cycles between each logged value, indexed by LoggingKey ordinal (or null if every key
+     * is logged every cycle), so that the value of a key that is skipped between samples is held rather than cleared
+     * @param schema to use for writing
+     * @throws IOException
+     */
+    public BinaryLogger(IBinaryFileWriter fileWriter, boolean deltaEncoding, int[] sampleDivisors, LoggingKey... schema) throws IOException
+    {
+        this.fileWriter = fileWriter;
+        this.asyncFileWriter = fileWriter instanceof AsyncBinaryFileWriter ? (AsyncBinaryFileWriter)fileWriter : null;
+        this.inSchema = new boolean[LoggingKey.values().length];
+        for (LoggingKey key : schema)
+        {
+            this.inSchema[key.ordinal()] = true;
+        }
+
+        this.buffer = ByteBuffer.allocate(TuningConstants.LOG_BINARY_BUFFER_SIZE);
+        this.stringDictionary = new HashMap<String, Integer>();
+
+        this.deltaEncoding = deltaEncoding;
+        if (deltaEncoding)
+        {
+            int keyCount = this.inSchema.length;
+            this.schemaOrdinals = new int[schema.length];
+            this.currentEntries = new ByteBuffer[keyCount];
+            this.previousEntries = new ByteBuffer[keyCount];
+            this.logged = new boolean[keyCount];
+            this.hasPrevious = new boolean[keyCount];
+            this.holdRows = new int[keyCount];
+            this.rowsSinceLogged = new int[keyCount];
+            for (int i = 0; i < schema.length; i++)
+            {
+                int ordinal = schema[i].ordinal();
+                this.schemaOrdinals[i] = ordinal;
+                this.holdRows[ordinal] = sampleDivisors != null ? sampleDivisors[ordinal] : 1;
+                this.currentEntries[ordinal] = ByteBuffer.allocate(BinaryLogger.ENTRY_HEADER_SIZE + 16);
+                this.previousEntries[ordinal] = ByteBuffer.allocate(BinaryLogger.ENTRY_HEADER_SIZE + 16);
+            }
+
+            // start with a keyframe
+            this.rowsSinceKeyframe = TuningConstants.LOG_DELTA_KEYFRAME_INTERVAL;
+        }
+        else
+        {
+            this.schemaOrdinals = null;
+            this.currentEntries = null;
+            this.previousEntries = null;
+            this.logged = null;
+            this.hasPrevious = null;
+            this.holdRows = null;
+            this.rowsSinceLogged = null;
+        }
+
+        this.writeHeader(schema);
+    }
+
+    private static LoggingKey[] getDefaultSchema()
+    {
+        ArrayList<LoggingKey> schema = new ArrayList<LoggingKey>();
+        for (LoggingKey key : LoggingKey.values())
+        {
+            if (key.shouldLog)
+            {
+                schema.add(key);
+            }
+        }
+
+        return schema.toArray(new LoggingKey[schema.size()]);
+    }
+
+    private void writeHeader(LoggingKey[] schema) throws IOException
+    {
+        this.buffer.putInt(BinaryLogger.MAGIC);
+        this.buffer.putShort(BinaryLogger.VERSION);
+        this.buffer.putShort(this.deltaEncoding ? BinaryLogger.FLAG_DELTA : 0);
+        this.buffer.putShort((short)schema.length);
+        for (LoggingKey key : schema)
+        {
+            byte[] name = key.value.getBytes(StandardCharsets.UTF_8);
+            this.ensureCapacity(4 + name.length);
+            this.buffer.putShort((short)key.ordinal());
+            this.buffer.putShort((short)name.length);
+            this.buffer.put(name);
+        }
+
+        this.drain();
+        this.fileWriter.flush();
+    }
+
+    /**
+     * Write a boolean to the log
+     * @param key to write to
+     * @param value to write
+     */
+    @Override
+    public void logBoolean(LoggingKey key, boolean value)
+    {
+        ByteBuffer entry = this.startEntry(key, BinaryLogger.TYPE_BOOLEAN, 1);
+        if (entry != null)
+        {
+            entry.put(value ? (byte)1 : (byte)0);
+        }
+    }
+
+    /**
+     * Write a boolean array to the log
+     * @param key to write to
+     * @param value to write
+     */
+    @Override
+    public void logBooleanArray(LoggingKey key, boolean[] value)
+    {
+        int length = value == null ? 0 : value.length;
+        ByteBuffer entry = this.startEntry(key, BinaryLogger.TYPE_BOOLEAN_ARRAY, 2 + length);
+        if (entry != null)
+        {
+            entry.putShort((short)length);
+            for (int i = 0; i < length; i++)
+            {
+                entry.put(value[i] ? (byte)1 : (byte)0);
+            }
+        }
+    }
+
+    /**
+     * Write a number (double) to the log
+     * @param key to write to
+     * @param value to write
+     */
+    @Override
+    public void logNumber(LoggingKey key, double value)
+    {
+        ByteBuffer entry = this.startEntry(key, BinaryLogger.TYPE_DOUBLE, 8);
+        if (entry != null)
+        {
+            entry.putDouble(value);
+        }
+    }
+
+    /**
+     * Write a number (Double) to the log
+     * @param key to write to
+     * @param value to write
+     */
+    @Override
+    public void logNumber(LoggingKey key, Double value)
+    {
+        if (value == null)
+        {
+            this.startEntry(key, BinaryLogger.TYPE_NULL, 0);
+        }
+        else
+        {
+            this.logNumber(key, value.doubleValue());
+        }
+    }
+
+    /**
+     * Write a number (integer) to the log
+     * @param key to write to
+     * @param value to write
+     */
+    @Override
+    public void logInteger(LoggingKey key, int value)
+    {
+        ByteBuffer entry = this.startEntry(key, BinaryLogger.TYPE_INTEGER, 4);
+        if (entry != null)
+        {
+            entry.putInt(value);
+        }
+    }
+
+    /**
+     * Write a number (integer) to the log
+     * @param key to write to
+     * @param value to write
+     * @param formatString to use
+     */
+    @Override
+    public void logInteger(LoggingKey key, int value, String formatString)
+    {
+        if (!this.inSchema[key.ordinal()])
+        {
+            return;
+        }
+
+        int formatId = this.getStringId(formatString);
+        if (formatId < 0)
+        {
+            // dictionary is full, format it here instead
+            this.logString(key, String.format(formatString, value));
+            return;
+        }
+
+        ByteBuffer entry = this.startEntry(key, BinaryLogger.TYPE_FORMATTED_INTEGER, 8);
+        if (entry != null)
+        {
+            entry.putInt(value);
+            entry.putInt(formatId);
+        }
+    }
+
+    /**
+     * Write a point (x,y or N/A) to the log
+     * @param key to write to
+     * @param value to write
+     */
+    @Override
+    public void logPoint(LoggingKey key, IPoint value)
+    {
+        if (value == null)
+        {
+            this.logString(key, "N/A");
+            return;
+        }
+
+        ByteBuffer entry = this.startEntry(key, BinaryLogger.TYPE_POINT, 16);
+        if (entry != null)
+        {
+            entry.putDouble(value.getX());
+            entry.putDouble(value.getY());
+        }
+    }
+
+    /**
+     * Write a string to the log
+     * @param key to write to
+     * @param value to write
+     */
+    @Override
+    public void logString(LoggingKey key, String value)
+    {
+        if (value == null || !this.inSchema[key.ordinal()])
+        {
+            return;
+        }
+
+        int stringId = this.getStringId(value);
+        if (stringId >= 0)
+        {
+            ByteBuffer entry = this.startEntry(key, BinaryLogger.TYPE_STRING, 4);
+            if (entry != null)
+            {
+                entry.putInt(stringId);
+            }
+        }
+        else
+        {
+            byte[] bytes = this.encode(value, BinaryLogger.ENTRY_HEADER_SIZE + 4);
+            ByteBuffer entry = this.startEntry(key, BinaryLogger.TYPE_INLINE_STRING, 4 + bytes.length);
+            if (entry != null)
+            {
+                entry.putInt(bytes.length);
+                entry.put(bytes);
+            }
+        }
+    }
+
+    /**
+     * Update the log, if appropriate..
+     */
+    @Override
+    public void update()
+    {
+        if (this.asyncFileWriter != null)
+        {
+            this.logInteger(LoggingKey.LoggerDroppedRecords, (int)this.droppedRecords);
+            this.logInteger(LoggingKey.LoggerOverruns, (int)this.asyncFileWriter.getOverruns());
+        }
+
+        if (this.deltaEncoding)
+        {
+            this.writeDeltaEntries();
+        }
+
+        this.ensureCapacity(1);
+        this.buffer.put(BinaryLogger.TYPE_ROW_END);
+
+        if (this.asyncFileWriter != null)
+        {
+            // hand off the completed row as a single record
+            try
+            {
+                this.drain();
+            }
+            catch (IOException e)
+            {
+                // best-effort...
+            }
+
+            long droppedRecords = this.asyncFileWriter.getDroppedRecords();
+            if (droppedRecords != this.droppedRecords)
+            {
+                // a dropped row may have contained string definitions, so re-define any strings we use from now on
+                this.droppedRecords = droppedRecords;
+                this.stringDictionary.clear();
+                if (this.deltaEncoding)
+                {
+                    this.forgetStringEntries();
+                }
+
+                // the reader missed some changes, so start the next row with a keyframe
+                this.rowsSinceKeyframe = TuningConstants.LOG_DELTA_KEYFRAME_INTERVAL;
+            }
+        }
+    }
+
+    /**
+     * Flush the output stream, if appropriate..
+     */
+    @Override
+    public void flush()
+    {
+        try
+        {
+            this.drain();
+            this.fileWriter.flush();
+        }
+        catch (IOException e)
+        {
+            // best-effort...
+        }
+    }
+
+    /**
+     * Close the output stream, if appropriate..
+     */
+    @Override
+    public void close()
+    {
+        try
+        {
+            this.drain();
+            this.fileWriter.close();
+        }
+        catch (IOException e)
+        {
+            // best-effort...
+        }
+    }
+
+    /**
+     * Begin a value entry for the provided key, if it is a part of the schema
+     * @param key to write to
+     * @param type of the entry
+     * @param payloadSize number of bytes that will follow the entry header
+     * @return buffer to write the payload into, or null if this key is skipped
+     */
+    private ByteBuffer startEntry(LoggingKey key, byte type, int payloadSize)
+    {
+        int ordinal = key.ordinal();
+        if (!this.inSchema[ordinal])
+        {
+            return null;
+        }
+
+        ByteBuffer entry;
+        if (this.deltaEncoding)
+        {
+            // hold onto the entry until update(), when we can tell whether it changed since the previous row
+            entry = this.currentEntries[ordinal];
+            if (entry.capacity() < BinaryLogger.ENTRY_HEADER_SIZE + payloadSize)
+            {
+                entry = ByteBuffer.allocate(BinaryLogger.ENTRY_HEADER_SIZE + payloadSize);
+                this.currentEntries[ordinal] = entry;
+            }
+
+            entry.clear();
+            this.logged[ordinal] = true;
+        }
+        else
+        {
+            this.ensureCapacity(BinaryLogger.ENTRY_HEADER_SIZE + payloadSize);
+            entry = this.buffer;
+        }
+
+        entry.put(type);
+        entry.putShort((short)ordinal);
+        return entry;
+    }
+
+    /**
+     * Write the entries that changed since the previous row (or all of them, for a keyframe) into the buffer
+     */
+    private void writeDeltaEntries()
+    {
+        boolean keyframe = this.rowsSinceKeyframe >= TuningConstants.LOG_DELTA_KEYFRAME_INTERVAL;
+        if (keyframe)
+        {
+            this.ensureCapacity(1);
+            this.buffer.put(BinaryLogger.TYPE_KEYFRAME);
+            this.rowsSinceKeyframe = 0;
+        }
+
+        this.rowsSinceKeyframe++;
+        for (int ordinal : this.schemaOrdinals)
+        {
+            if (this.logged[ordinal])
+            {
+                ByteBuffer current = this.currentEntries[ordinal];
+                ByteBuffer previous = this.previousEntries[ordinal];
+                if (keyframe || !this.hasPrevious[ordinal] || !BinaryLogger.entriesMatch(current, previous))
+                {
+                    this.ensureCapacity(current.position());
+                    this.buffer.put(current.array(), 0, current.position());
+                }
+
+                // keep the current entry to compare against on the next row
+                this.previousEntries[ordinal] = current;
+                this.currentEntries[ordinal] = previous;
+                this.hasPrevious[ordinal] = true;
+                this.rowsSinceLogged[ordinal] = 0;
+                this.logged[ordinal] = false;
+            }
+            else if (this.hasPrevious[ordinal])
+            {
+                ByteBuffer previous = this.previousEntries[ordinal];
+                if (++this.rowsSinceLogged[ordinal] < this.holdRows[ordinal] && previous.position() > 0)
+                {
+                    // skipped between samples, so hold its value (repeating it in a keyframe for the reader)
+                    if (keyframe)
+                    {
+                        this.ensureCapacity(previous.position());
+                        this.buffer.put(previous.array(), 0, previous.position());
+                    }
+                }
+                else
+                {
+                    // no longer being logged, so clear it (a keyframe already clears it by leaving it out)
+                    if (!keyframe)
+                    {
+                        this.ensureCapacity(BinaryLogger.ENTRY_HEADER_SIZE + 4);
+                        this.buffer.put(BinaryLogger.TYPE_INLINE_STRING);
+                        this.buffer.putShort((short)ordinal);
+                        this.buffer.putInt(0);
+                    }
+
+                    this.hasPrevious[ordinal] = false;
+                }
+            }
+        }
+    }
+
+    /**
+     * Forget the previous entries that refer to the string dictionary (after it was cleared).  An empty previous entry
+     * never matches the next one, and is cleared rather than held if the key isn't logged.
+     */
+    private void forgetStringEntries()
+    {
+        for (int ordinal : this.schemaOrdinals)
+        {
+            if (this.hasPrevious[ordinal])
+            {
+                ByteBuffer previous = this.previousEntries[ordinal];
+                byte type = previous.get(0);
+                if (type == BinaryLogger.TYPE_STRING || type == BinaryLogger.TYPE_FORMATTED_INTEGER)
+                {
+                    previous.clear();
+                }
+            }
+        }
+    }
+
+    private static boolean entriesMatch(ByteBuffer current, ByteBuffer previous)
+    {
+        int length = current.position();
+        if (length != previous.position())
+        {
+            return false;
+        }
+
+        byte[] currentBytes = current.array();
+        byte[] previousBytes = previous.array();
+        for (int i = 0; i < length; i++)
+        {
+            if (currentBytes[i] != previousBytes[i])
+            {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Find the id for the provided string within the dictionary, adding a definition if it isn't there yet
+     * @param value to look up
+     * @return the id of the string, or -1 if the dictionary is full
+     */
+    private int getStringId(String value)
+    {
+        Integer existingId = this.stringDictionary.get(value);
+        if (existingId != null)
+        {
+            return existingId;
+        }
+
+        int stringId = this.stringDictionary.size();
+        if (stringId >= BinaryLogger.MAX_DICTIONARY_SIZE)
+        {
+            return -1;
+        }
+
+        byte[] bytes = this.encode(value, 9);
+        this.ensureCapacity(9 + bytes.length);
+        this.buffer.put(BinaryLogger.TYPE_STRING_DEFINITION);
+        this.buffer.putInt(stringId);
+        this.buffer.putInt(bytes.length);
+        this.buffer.put(bytes);
+
+        this.stringDictionary.put(value, stringId);
+        return stringId;
+    }
+
+    /**
+     * Encode the string as UTF-8, truncating it if it would not fit within the buffer
+     * @param value to encode
+     * @param overhead number of other bytes that need to fit alongside the string
+     * @return encoded bytes
+     */
+    private byte[] encode(String value, int overhead)
+    {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        int maxLength = this.buffer.capacity() - overhead;
+        if (bytes.length > maxLength)
+        {
+            byte[] truncated = new byte[maxLength];
+            System.arraycopy(bytes, 0, truncated, 0, maxLength);
+            return truncated;
+        }
+
+        return bytes;
+    }
+
+    /**
+     * Make sure that there is enough room in the buffer, writing its contents to the file if there isn't
+     * @param size number of bytes needed
+     */
+    private void ensureCapacity(int size)
+    {
+        if (this.buffer.remaining() < size)
+        {
+            try
+            {
+                this.drain();
+            }
+            catch (IOException e)
+            {
+                // best-effort...
+                this.buffer.clear();
+            }
+        }
+    }
+
+    /**
+     * Write the current contents of the buffer to the file
+     * @throws IOException
+     */
+    private void drain() throws IOException
+    {
+        if (this.buffer.position() > 0)
+        {
+            this.fileWriter.write(this.buffer.array(), 0, this.buffer.position());
+            this.buffer.clear();
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package frc.robot.common.robotprovider;
+
+import java.io.BufferedWriter;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+
+/**
+ * Offline tool to dump the rows held in a BlackBoxLogger file (e.g. after a brown-out or exception) into the same CSV
+ * layout that CSVLogger writes, oldest row first.
+ *
+ * Usage: BlackBoxConverter input.bin [output.csv]
+ */
+public class BlackBoxConverter
+{
+    public static void main(String[] args)
+    {
+        if (args.length < 1)
+        {
+            System.err.println("Usage: BlackBoxConverter input.bin [output.csv]");
+            return;
+        }
+
+        String inputFileName = args[0];
+        String outputFileName;
+        if (args.length > 1)
+        {
+            outputFileName = args[1];
+        }
+        else if (inputFileName.endsWith(".bin"))
+        {
+            outputFileName = inputFileName.substring(0, inputFileName.length() - 4) + ".csv";
+        }
+        else
+        {
+            outputFileName = inputFileName + ".csv";
+        }
+
+        try (Writer output = new BufferedWriter(new FileWriter(outputFileName)))
+        {
+            BlackBoxConverter.convert(ByteBuffer.wrap(Files.readAllBytes(Paths.get(inputFileName))), output);
+        }
+        catch (IOException ex)
+        {
+            System.err.println("Encountered exception converting " + inputFileName + ": " + ex.toString());
+        }
+    }
+
+    /**
+     * Convert the contents of a black box into CSV
+     * @param buffer containing the black box
+     * @param output to write the CSV into
+     * @throws IOException
+     */
+    public static void convert(ByteBuffer buffer, Writer output) throws IOException
+    {
+        if (buffer.getInt(0) != BlackBoxLogger.MAGIC)
+        {
+            throw new IOException("Not a black box file");
+        }
+
+        short version = buffer.getShort(4);
+        if (version != BlackBoxLogger.VERSION)
+        {
+            throw new IOException("Unsupported black box version " + version);
+        }
+
+        int slotCount = buffer.getInt(6);
+        int slotSize = buffer.getInt(10);
+        int dataOffset = buffer.getInt(14);
+        int columnCount = buffer.getShort(18);
+
+        int offset = 20;
+        String[] schema = new String[columnCount];
+        HashMap<Integer, Integer> ordinalToColumn = new HashMap<Integer, Integer>();
+        for (int i = 0; i < columnCount; i++)
+        {
+            int ordinal = buffer.getShort(offset);
+            byte[] name = new byte[buffer.getShort(offset + 2)];
+            buffer.position(offset + 4);
+            buffer.get(name);
+            offset += 4 + name.length;
+
+            schema[i] = new String(name, StandardCharsets.UTF_8);
+            ordinalToColumn.put(ordinal, i);
+        }
+
+        output.append(String.join(",", schema));
+        output.append("\r\n");
+
+        // find the slots that hold a row, and order them from oldest to newest
+        ArrayList<Integer> slotStarts = new ArrayList<Integer>();
+        for (int i = 0; i < slotCount; i++)
+        {
+            int slotStart = dataOffset + i * slotSize;
+            if (slotStart + slotSize <= buffer.limit() && buffer.getLong(slotStart) > 0L)
+            {
+                slotStarts.add(slotStart);
+            }
+        }
+
+        slotStarts.sort((a, b) -> Long.compare(buffer.getLong(a), buffer.getLong(b)));
+
+        ArrayList<String> dictionary = new ArrayList<String>();
+        String[] values = new String[columnCount];
+        byte[] slot = new byte[slotSize];
+        for (int slotStart : slotStarts)
+        {
+            int length = Math.min(buffer.getInt(slotStart + 8), slotSize - BlackBoxLogger.SLOT_HEADER_SIZE);
+            buffer.position(slotStart + BlackBoxLogger.SLOT_HEADER_SIZE);
+            buffer.get(slot, 0, length);
+
+            DataInputStream dataInput = new DataInputStream(new ByteArrayInputStream(slot, 0, length));
+            try
+            {
+                while (true)
+                {
+                    byte type = dataInput.readByte();
+                    Integer column = ordinalToColumn.get((int)dataInput.readShort());
+                    String value = BinaryLogConverter.readValue(dataInput, type, dictionary);
+                    if (column != null)
+                    {
+                        values[column] = BinaryLogConverter.escape(value);
+                    }
+                }
+            }
+            catch (EOFException ex)
+            {
+                // the end of the row
+            }
+
+            BinaryLogConverter.writeRow(output, values);
+            Arrays.fill(values, null);
+        }
+
+        output.flush();
+    }
+}
@@ -0,0 +1,378 @@
+package frc.robot.common.robotprovider;
+
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import frc.robot.LoggingKey;
+
+/**
+ * Logger that records the most recent rows into a fixed-size ring of slots, intended to be a memory-mapped file so that the
+ * operating system persists the last few seconds before a crash without the robot having to flush anything.
+ *
+ * File layout (all values big-endian):
+ *   header: magic (int), version (short), slot count (int), slot size (int), data offset (int), column count (short),
+ *           then per-column: ordinal (short), name length (short), name (UTF-8)
+ *   slots:  starting at the data offset, each slot holds one row: sequence (long), length (int), then entries
+ * Entries use the same layout as BinaryLogger (type (byte), LoggingKey ordinal (short), payload), except that strings are
+ * always written inline so that each slot can be read on its own, and formatted integers are written as plain integers.
+ * Entries that don't fit within the slot are skipped.
+ *
+ * The sequence and length of a slot are updated as the row is written, so that a row that was cut short by an exception
+ * can still be read.  Use BlackBoxConverter to dump the slots into CSV, oldest row first.
+ */
+public class BlackBoxLogger implements ILogger
+{
+    public static final int MAGIC = 0x49525342; // "IRSB"
+    public static final short VERSION = 1;
+    public static final int SLOT_HEADER_SIZE = 12; // sequence (long) + length (int)
+
+    private static final int ENTRY_HEADER_SIZE = 3; // type (byte) + ordinal (short)
+
+    private final ByteBuffer buffer;
+    private final int slotCount;
+    private final int slotSize;
+    private final int dataOffset;
+
+    private long sequence;
+    private int slotStart;
+    private int position;
+    private int slotEnd;
+
+    /**
+     * Initializes a new instance of the BlackBoxLogger class, recording every LoggingKey
+     * @param buffer to write into, typically memory-mapped (see getRequiredSize)
+     * @param slotCount number of rows to hold
+     * @param slotSize maximum size of each row, in bytes
+     */
+    public BlackBoxLogger(ByteBuffer buffer, int slotCount, int slotSize)
+    {
+        this.buffer = buffer;
+        this.slotCount = slotCount;
+        this.slotSize = slotSize;
+        this.dataOffset = BlackBoxLogger.getDataOffset();
+
+        this.writeHeader();
+
+        // clear out any slots from a previous use of the buffer
+        for (int i = 0; i < slotCount; i++)
+        {
+            this.buffer.putLong(this.dataOffset + i * slotSize, 0L);
+        }
+
+        this.sequence = 0L;
+        this.startRow();
+    }
+
+    /**
+     * Calculate the size of the buffer needed to hold the header and slots
+     * @param slotCount number of rows to hold
+     * @param slotSize maximum size of each row, in bytes
+     * @return required size in bytes
+     */
+    public static long getRequiredSize(int slotCount, int slotSize)
+    {
+        return BlackBoxLogger.getDataOffset() + (long)slotCount * slotSize;
+    }
+
+    private static int getDataOffset()
+    {
+        int headerSize = 4 + 2 + 4 + 4 + 4 + 2;
+        for (LoggingKey key : LoggingKey.values())
+        {
+            headerSize += 4 + key.value.getBytes(StandardCharsets.UTF_8).length;
+        }
+
+        // align the slots to 8 bytes
+        return (headerSize + 7) & ~7;
+    }
+
+    private void writeHeader()
+    {
+        LoggingKey[] keys = LoggingKey.values();
+
+        int offset = 0;
+        this.buffer.putInt(offset, BlackBoxLogger.MAGIC);
+        offset += 4;
+        this.buffer.putShort(offset, BlackBoxLogger.VERSION);
+        offset += 2;
+        this.buffer.putInt(offset, this.slotCount);
+        offset += 4;
+        this.buffer.putInt(offset, this.slotSize);
+        offset += 4;
+        this.buffer.putInt(offset, this.dataOffset);
+        offset += 4;
+        this.buffer.putShort(offset, (short)keys.length);
+        offset += 2;
+        for (LoggingKey key : keys)
+        {
+            byte[] name = key.value.getBytes(StandardCharsets.UTF_8);
+            this.buffer.putShort(offset, (short)key.ordinal());
+            offset += 2;
+            this.buffer.putShort(offset, (short)name.length);
+            offset += 2;
+            for (byte b : name)
+            {
+                this.buffer.put(offset++, b);
+            }
+        }
+    }
+
+    /**
+     * Write a boolean to the log
+     * @param key to write to
+     * @param value to write
+     */
+    @Override
+    public void logBoolean(LoggingKey key, boolean value)
+    {
+        if (this.startEntry(key, BinaryLogger.TYPE_BOOLEAN, 1))
+        {
+            this.buffer.put(this.position++, value ? (byte)1 : (byte)0);
+            this.endEntry();
+        }
+    }
+
+    /**
+     * Write a boolean array to the log
+     * @param key to write to
+     * @param value to write
+     */
+    @Override
+    public void logBooleanArray(LoggingKey key, boolean[] value)
+    {
+        int length = value == null ? 0 : value.length;
+        if (this.startEntry(key, BinaryLogger.TYPE_BOOLEAN_ARRAY, 2 + length))
+        {
+            this.buffer.putShort(this.position, (short)length);
+            this.position += 2;
+            for (int i = 0; i < length; i++)
+            {
+                this.buffer.put(this.position++, value[i] ? (byte)1 : (byte)0);
+            }
+
+            this.endEntry();
+        }
+    }
+
+    /**
+     * Write a number (double) to the log
+     * @param key to write to
+     * @param value to write
+     */
+    @Override
+    public void logNumber(LoggingKey key, double value)
+    {
+        if (this.startEntry(key, BinaryLogger.TYPE_DOUBLE, 8))
+        {
+            this.buffer.putDouble(this.position, value);
+            this.position += 8;
+            this.endEntry();
+        }
+    }
+
+    /**
+     * Write a number (Double) to the log
+     * @param key to write to
+     * @param value to write
+     */
+    @Override
+    public void logNumber(LoggingKey key, Double value)
+    {
+        if (value != null)
+        {
+            this.logNumber(key, value.doubleValue());
+        }
+        else if (this.startEntry(key, BinaryLogger.TYPE_NULL, 0))
+        {
+            this.endEntry();
+        }
+    }
+
+    /**
+     * Write a number (integer) to the log
+     * @param key to write to
+     * @param value to write
+     */
+    @Override
+    public void logInteger(LoggingKey key, int value)
+    {
+        if (this.startEntry(key, BinaryLogger.TYPE_INTEGER, 4))
+        {
+            this.buffer.putInt(this.position, value);
+            this.position += 4;
+            this.endEntry();
+        }
+    }
+
+    /**
+     * Write a number (integer) to the log
+     * @param key to write to
+     * @param value to write
+     * @param formatString to use
+     */
+    @Override
+    public void logInteger(LoggingKey key, int value, String formatString)
+    {
+        // there is no string dictionary to hold the format string, and formatting here would allocate on every call,
+        // so just record the value itself
+        this.logInteger(key, value);
+    }
+
+    /**
+     * Write a point (x,y or N/A) to the log
+     * @param key to write to
+     * @param value to write
+     */
+    @Override
+    public void logPoint(LoggingKey key, IPoint value)
+    {
+        if (value == null)
+        {
+            this.logString(key, "N/A");
+        }
+        else if (this.startEntry(key, BinaryLogger.TYPE_POINT, 16))
+        {
+            this.buffer.putDouble(this.position, value.getX());
+            this.buffer.putDouble(this.position + 8, value.getY());
+            this.position += 16;
+            this.endEntry();
+        }
+    }
+
+    /**
+     * Write a string to the log
+     * @param key to write to
+     * @param value to write
+     */
+    @Override
+    public void logString(LoggingKey key, String value)
+    {
+        if (value == null || !this.startEntry(key, BinaryLogger.TYPE_INLINE_STRING, 4))
+        {
+            return;
+        }
+
+        // encode the string directly into the slot, truncating it (e.g. a long exception string) if it doesn't fit
+        int lengthPosition = this.position;
+        this.position += 4;
+        for (int i = 0; i < value.length(); i++)
+        {
+            char c = value.charAt(i);
+            if (c < 0x80)
+            {
+                if (this.position + 1 > this.slotEnd)
+                {
+                    break;
+                }
+
+                this.buffer.put(this.position++, (byte)c);
+            }
+            else if (c < 0x800)
+            {
+                if (this.position + 2 > this.slotEnd)
+                {
+                    break;
+                }
+
+                this.buffer.put(this.position++, (byte)(0xC0 | (c >> 6)));
+                this.buffer.put(this.position++, (byte)(0x80 | (c & 0x3F)));
+            }
+            else if (Character.isSurrogate(c))
+            {
+                if (this.position + 1 > this.slotEnd)
+                {
+                    break;
+                }
+
+                this.buffer.put(this.position++, (byte)'?');
+            }
+            else
+            {
+                if (this.position + 3 > this.slotEnd)
+                {
+                    break;
+                }
+
+                this.buffer.put(this.position++, (byte)(0xE0 | (c >> 12)));
+                this.buffer.put(this.position++, (byte)(0x80 | ((c >> 6) & 0x3F)));
+                this.buffer.put(this.position++, (byte)(0x80 | (c & 0x3F)));
+            }
+        }
+
+        this.buffer.putInt(lengthPosition, this.position - lengthPosition - 4);
+        this.endEntry();
+    }
+
+    /**
+     * Update the log, if appropriate..
+     */
+    @Override
+    public void update()
+    {
+        this.startRow();
+    }
+
+    /**
+     * Flush the output stream, if appropriate..
+     */
+    @Override
+    public void flush()
+    {
+        // the operating system takes care of writing back the memory-mapped file
+    }
+
+    /**
+     * Close the output stream, if appropriate..
+     */
+    @Override
+    public void close()
+    {
+        if (this.buffer instanceof MappedByteBuffer)
+        {
+            ((MappedByteBuffer)this.buffer).force();
+        }
+    }
+
+    /**
+     * Move on to the next slot, overwriting the oldest row
+     */
+    private void startRow()
+    {
+        this.sequence++;
+        this.slotStart = this.dataOffset + (int)((this.sequence - 1) % this.slotCount) * this.slotSize;
+        this.slotEnd = this.slotStart + this.slotSize;
+        this.position = this.slotStart + BlackBoxLogger.SLOT_HEADER_SIZE;
+
+        this.buffer.putInt(this.slotStart + 8, 0);
+        this.buffer.putLong(this.slotStart, this.sequence);
+    }
+
+    /**
+     * Begin a value entry, if it fits within the current slot
+     * @param key to write to
+     * @param type of the entry
+     * @param payloadSize number of bytes that will follow the entry header (at least)
+     * @return true if the entry should be written
+     */
+    private boolean startEntry(LoggingKey key, byte type, int payloadSize)
+    {
+        if (this.position + BlackBoxLogger.ENTRY_HEADER_SIZE + payloadSize > this.slotEnd)
+        {
+            return false;
+        }
+
+        this.buffer.put(this.position, type);
+        this.buffer.putShort(this.position + 1, (short)key.ordinal());
+        this.position += BlackBoxLogger.ENTRY_HEADER_SIZE;
+        return true;
+    }
+
+    /**
+     * Complete a value entry, recording the new length of the row so that it is readable even if the row is cut short
+     */
+    private void endEntry()
+    {
+        this.buffer.putInt(this.slotStart + 8, this.position - this.slotStart - BlackBoxLogger.SLOT_HEADER_SIZE);
+    }
+}
@@ -6,40 +6,64 @@ import java.util.Arrays;
 
 import frc.robot.LoggingKey;
 
-public class CSVLogger extends StringLogger
+/**
+ * Logger that writes one CSV row per update.
+ *
+ * Logged values are kept in per-column primitive slots and are only formatted when the row is written during update(),
+ * directly into a reusable buffer.  Values that need String.format or quoting are cached, and only re-formatted when they
+ * change, so that the steady state doesn't allocate.
+ */
+public class CSVLogger implements ILogger
 {
+    private static final byte TYPE_NONE = 0;
+    private static final byte TYPE_BOOLEAN = 1;
+    private static final byte TYPE_BOOLEAN_ARRAY = 2;
+    private static final byte TYPE_DOUBLE = 3;
+    private static final byte TYPE_INTEGER = 4;
+    private static final byte TYPE_FORMATTED_INTEGER = 5;
+    private static final byte TYPE_POINT = 6;
+    private static final byte TYPE_STRING = 7;
+    private static final byte TYPE_NULL = 8;
+
     private final IFileWriter fileWriter;
     private final ArrayList<String> schema;
+    private final int[] columns; // column index for each LoggingKey ordinal, or -1 if not in the schema
+
+    // per-column slots for the current row
+    private final byte[] types;
+    private final double[] numbers; // double values, or the x coordinate of points
+    private final double[] otherNumbers; // the y coordinate of points
+    private final int[] integers;
+    private final boolean[][] booleanArrays;
+    private final int[] booleanArrayLengths;
+    private final String[] strings; // string values, or integer format strings
+
+    // per-column cache of the last formatted text for values that need String.format or quoting
+    private final byte[] formattedTypes;
+    private final double[] formattedNumbers;
+    private final double[] formattedOtherNumbers;
+    private final int[] formattedIntegers;
+    private final String[] formattedStrings;
+    private final String[] formattedValues;
 
-    private String[] values;
+    private final StringBuilder row;
+    private char[] rowChars;
 
     /**
      * Initializes a new instance of the CSVLogger class, using the shouldLog LoggingKeys to determine the schema
      * @param fileWriter to write into
-     * @throws IOException 
+     * @throws IOException
      */
     public CSVLogger(IFileWriter fileWriter) throws IOException
     {
-        this.fileWriter = fileWriter;
-        LoggingKey[] keys = LoggingKey.values();
-        this.schema = new ArrayList<String>();
-        for (LoggingKey key : keys)
-        {
-            if (key.shouldLog)
-            {
-                this.schema.add(key.value);
-            }
-        }
-
-        this.values = new String[this.schema.size()];
-        this.writeHeader();
+        this(fileWriter, CSVLogger.getDefaultSchema());
     }
 
     /**
      * Initializes a new instance of the CSVLogger class.
      * @param fileWriter to write into
      * @param schema to use for writing
-     * @throws IOException 
+     * @throws IOException
      */
     public CSVLogger(IFileWriter fileWriter, String... schema) throws IOException
     {
@@ -50,10 +74,61 @@ public class CSVLogger extends StringLogger
             this.schema.add(schemaEntry);
         }
 
-        this.values = new String[this.schema.size()];
+        this.columns = CSVLogger.calculateColumns(this.schema);
+
+        int columnCount = this.schema.size();
+        this.types = new byte[columnCount];
+        this.numbers = new double[columnCount];
+        this.otherNumbers = new double[columnCount];
+        this.integers = new int[columnCount];
+        this.booleanArrays = new boolean[columnCount][];
+        this.booleanArrayLengths = new int[columnCount];
+        this.strings = new String[columnCount];
+
+        this.formattedTypes = new byte[columnCount];
+        this.formattedNumbers = new double[columnCount];
+        this.formattedOtherNumbers = new double[columnCount];
+        this.formattedIntegers = new int[columnCount];
+        this.formattedStrings = new String[columnCount];
+        this.formattedValues = new String[columnCount];
+
+        this.row = new StringBuilder(32 * columnCount);
+        this.rowChars = new char[this.row.capacity()];
+
         this.writeHeader();
     }
 
+    private static String[] getDefaultSchema()
+    {
+        ArrayList<String> schema = new ArrayList<String>();
+        for (LoggingKey key : LoggingKey.values())
+        {
+            if (key.shouldLog)
+            {
+                schema.add(key.value);
+            }
+        }
+
+        return schema.toArray(new String[schema.size()]);
+    }
+
+    /**
+     * Calculate the column that each LoggingKey should be written into, so that logging doesn't need to search the schema
+     * @param schema to use for writing
+     * @return array of column indexes, indexed by LoggingKey ordinal (-1 for keys that are not in the schema)
+     */
+    private static int[] calculateColumns(ArrayList<String> schema)
+    {
+        LoggingKey[] keys = LoggingKey.values();
+        int[] columns = new int[keys.length];
+        for (LoggingKey key : keys)
+        {
+            columns[key.ordinal()] = schema.indexOf(key.value);
+        }
+
+        return columns;
+    }
+
     private void writeHeader() throws IOException
     {
         this.fileWriter.append(String.join(",", this.schema));
@@ -62,23 +137,155 @@ public class CSVLogger extends StringLogger
     }
 
     /**
-     * Write a string to the log
+     * Write a boolean to the log
      * @param key to write to
      * @param value to write
      */
     @Override
-    public void logString(LoggingKey key, String value)
+    public void logBoolean(LoggingKey key, boolean value)
+    {
+        int index = this.columns[key.ordinal()];
+        if (index >= 0)
+        {
+            this.types[index] = CSVLogger.TYPE_BOOLEAN;
+            this.integers[index] = value ? 1 : 0;
+        }
+    }
+
+    /**
+     * Write a boolean array to the log
+     * @param key to write to
+     * @param value to write
+     */
+    @Override
+    public void logBooleanArray(LoggingKey key, boolean[] value)
     {
-        int index = this.schema.indexOf(key.value);
+        int index = this.columns[key.ordinal()];
         if (index >= 0)
         {
-            // check if string needs to be quoted
-            if (value.contains("\"") || value.contains("\r") || value.contains("\n"))
+            int length = value == null ? 0 : value.length;
+            if (this.booleanArrays[index] == null || this.booleanArrays[index].length < length)
             {
-                value = "\"" + value.replace("\"", "\"\"") + "\"";
+                this.booleanArrays[index] = new boolean[length];
             }
 
-            this.values[index] = value;
+            if (length > 0)
+            {
+                System.arraycopy(value, 0, this.booleanArrays[index], 0, length);
+            }
+
+            this.types[index] = CSVLogger.TYPE_BOOLEAN_ARRAY;
+            this.booleanArrayLengths[index] = length;
+        }
+    }
+
+    /**
+     * Write a number (double) to the log
+     * @param key to write to
+     * @param value to write
+     */
+    @Override
+    public void logNumber(LoggingKey key, double value)
+    {
+        int index = this.columns[key.ordinal()];
+        if (index >= 0)
+        {
+            this.types[index] = CSVLogger.TYPE_DOUBLE;
+            this.numbers[index] = value;
+        }
+    }
+
+    /**
+     * Write a number (Double) to the log
+     * @param key to write to
+     * @param value to write
+     */
+    @Override
+    public void logNumber(LoggingKey key, Double value)
+    {
+        if (value != null)
+        {
+            this.logNumber(key, value.doubleValue());
+            return;
+        }
+
+        int index = this.columns[key.ordinal()];
+        if (index >= 0)
+        {
+            this.types[index] = CSVLogger.TYPE_NULL;
+        }
+    }
+
+    /**
+     * Write a number (integer) to the log
+     * @param key to write to
+     * @param value to write
+     */
+    @Override
+    public void logInteger(LoggingKey key, int value)
+    {
+        int index = this.columns[key.ordinal()];
+        if (index >= 0)
+        {
+            this.types[index] = CSVLogger.TYPE_INTEGER;
+            this.integers[index] = value;
+        }
+    }
+
+    /**
+     * Write a number (integer) to the log
+     * @param key to write to
+     * @param value to write
+     * @param formatString to use
+     */
+    @Override
+    public void logInteger(LoggingKey key, int value, String formatString)
+    {
+        int index = this.columns[key.ordinal()];
+        if (index >= 0)
+        {
+            this.types[index] = CSVLogger.TYPE_FORMATTED_INTEGER;
+            this.integers[index] = value;
+            this.strings[index] = formatString;
+        }
+    }
+
+    /**
+     * Write a point (x,y or N/A) to the log
+     * @param key to write to
+     * @param value to write
+     */
+    @Override
+    public void logPoint(LoggingKey key, IPoint value)
+    {
+        if (value == null)
+        {
+            this.logString(key, "N/A");
+            return;
+        }
+
+        int index = this.columns[key.ordinal()];
+        if (index >= 0)
+        {
+            this.types[index] = CSVLogger.TYPE_POINT;
+            this.numbers[index] = value.getX();
+            this.otherNumbers[index] = value.getY();
+        }
+    }
+
+    /**
+     * Write a string to the log
+     * @param key to write to
+     * @param value to write
+     */
+    @Override
+    public void logString(LoggingKey key, String value)
+    {
+        int index = this.columns[key.ordinal()];
+        if (index >= 0 && value != null)
+        {
+            this.types[index] = CSVLogger.TYPE_STRING;
+            this.strings[index] = value;
         }
     }
 
@@ -88,31 +295,37 @@ public class CSVLogger extends StringLogger
     @Override
     public void update()
     {
-        try
+        this.row.setLength(0);
+        for (int i = 0; i < this.types.length; i++)
         {
-            for (int i = 0; i < this.schema.size(); i++)
+            if (i > 0)
             {
-                if (i > 0)
-                {
-                    this.fileWriter.append(",");
-                }
-
-                String value = this.values[i];
-                if (value != null)
-                {
-                    this.fileWriter.append(value);
-                }
+                this.row.append(',');
             }
 
-            this.fileWriter.append("\r\n");
+            this.appendValue(i);
+        }
+
+        this.row.append("\r\n");
+
+        int length = this.row.length();
+        if (this.rowChars.length < length)
+        {
+            this.rowChars = new char[this.row.capacity()];
+        }
+
+        this.row.getChars(0, length, this.rowChars, 0);
+        try
+        {
+            this.fileWriter.write(this.rowChars, 0, length);
         }
         catch (IOException e)
         {
             // best-effort...
         }
 
-        // clear the array
-        Arrays.fill(this.values, null);
+        // clear the row
+        Arrays.fill(this.types, CSVLogger.TYPE_NONE);
     }
 
     /**
@@ -130,4 +343,114 @@ public class CSVLogger extends StringLogger
             // best-effort...
         }
     }
+
+    /**
+     * Close the output stream, if appropriate..
+     */
+    @Override
+    public void close()
+    {
+        this.flush();
+    }
+
+    /**
+     * Format the value of the provided column into the current row, matching the output of StringLogger
+     * @param index of the column
+     */
+    private void appendValue(int index)
+    {
+        switch (this.types[index])
+        {
+            case CSVLogger.TYPE_BOOLEAN:
+                this.row.append(this.integers[index] != 0);
+                break;
+
+            case CSVLogger.TYPE_BOOLEAN_ARRAY:
+                boolean[] values = this.booleanArrays[index];
+                for (int i = 0; i < this.booleanArrayLengths[index]; i++)
+                {
+                    if (i > 0)
+                    {
+                        this.row.append(',');
+                    }
+
+                    this.row.append(values[i]);
+                }
+
+                break;
+
+            case CSVLogger.TYPE_DOUBLE:
+                this.row.append(this.numbers[index]);
+                break;
+
+            case CSVLogger.TYPE_INTEGER:
+                this.row.append(this.integers[index]);
+                break;
+
+            case CSVLogger.TYPE_NULL:
+                this.row.append("null");
+                break;
+
+            case CSVLogger.TYPE_FORMATTED_INTEGER:
+            case CSVLogger.TYPE_POINT:
+            case CSVLogger.TYPE_STRING:
+                this.row.append(this.getFormattedValue(index));
+                break;
+
+            default:
+                break;
+        }
+    }
+
+    /**
+     * Get the formatted text for a value that needs String.format or quoting, re-using the previous text if it hasn't changed
+     * @param index of the column
+     * @return formatted text
+     */
+    private String getFormattedValue(int index)
+    {
+        // strings are compared by their contents, as the same text is often logged as a new string each time, and the
+        // coordinates of points by their bits, so that e.g. -0.0 isn't mistaken for 0.0
+        byte type = this.types[index];
+        if (this.formattedValues[index] != null &&
+            this.formattedTypes[index] == type &&
+            (type == CSVLogger.TYPE_POINT || this.strings[index].equals(this.formattedStrings[index])) &&
+            (type != CSVLogger.TYPE_FORMATTED_INTEGER || this.formattedIntegers[index] == this.integers[index]) &&
+            (type != CSVLogger.TYPE_POINT ||
+                (Double.doubleToLongBits(this.formattedNumbers[index]) == Double.doubleToLongBits(this.numbers[index]) &&
+                    Double.doubleToLongBits(this.formattedOtherNumbers[index]) == Double.doubleToLongBits(this.otherNumbers[index]))))
+        {
+            return this.formattedValues[index];
+        }
+
+        String value;
+        switch (type)
+        {
+            case CSVLogger.TYPE_FORMATTED_INTEGER:
+                value = String.format(this.strings[index], this.integers[index]);
+                break;
+
+            case CSVLogger.TYPE_POINT:
+                value = String.format("(%f, %f)", this.numbers[index], this.otherNumbers[index]);
+                break;
+
+            default:
+                value = this.strings[index];
+                break;
+        }
+
+        // check if string needs to be quoted
+        if (value.contains("\"") || value.contains("\r") || value.contains("\n"))
+        {
+            value = "\"" + value.replace("\"", "\"\"") + "\"";
+        }
+
+        this.formattedTypes[index] = type;
+        this.formattedIntegers[index] = this.integers[index];
+        this.formattedNumbers[index] = this.numbers[index];
+        this.formattedOtherNumbers[index] = this.otherNumbers[index];
+        this.formattedStrings[index] = this.strings[index];
+        this.formattedValues[index] = value;
+        return value;
+    }
 }
@@ -0,0 +1,10 @@
+package frc.robot.common.robotprovider;
+
+import java.io.IOException;
+
+public interface IBinaryFileWriter
+{
+    public void write(byte[] buffer, int offset, int length) throws IOException;
+    public void flush() throws IOException;
+    public void close() throws IOException;
+}
@@ -1,6 +1,8 @@
 package frc.robot.common.robotprovider;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.List;
 
 public interface IFile
 {
@@ -9,4 +11,8 @@ public interface IFile
     public long getFreeSpace();
     public void mkdir();
     public IFileWriter openWriter() throws IOException;
+    public IBinaryFileWriter openBinaryWriter() throws IOException;
+    public List<String> readAllLines() throws IOException;
+    public ByteBuffer openMemoryMapped(long size) throws IOException;
+    public ByteBuffer openReadOnlyMemoryMapped() throws IOException;
 }
\ No newline at end of file
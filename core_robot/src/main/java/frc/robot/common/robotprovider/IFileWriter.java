@@ -5,5 +5,6 @@ import java.io.IOException;
 public interface IFileWriter
 {
     public void append(String string) throws IOException;
+    public void write(char[] buffer, int offset, int length) throws IOException;
     public void flush() throws IOException;
 }
\ No newline at end of file
@@ -70,4 +70,9 @@ public interface ILogger
      * Flush the output stream, if appropriate..
      */
     void flush();
+
+    /**
+     * Close the output stream, if appropriate..
+     */
+    void close();
 }
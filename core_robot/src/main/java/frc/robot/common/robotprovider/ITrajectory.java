@@ -4,4 +4,11 @@ public interface ITrajectory
 {
     double getDuration();
     TrajectoryState get(double time);
+
+    /**
+     * Gets the state of the trajectory at the provided time, without allocating a new TrajectoryState
+     * @param time in seconds since start of trajectory
+     * @param state to fill in with the state of the trajectory
+     */
+    void get(double time, TrajectoryState state);
 }
@@ -159,4 +159,16 @@ public class MultiLogger implements ILogger
             logger.flush();
         }
     }
+
+    /**
+     * Close the output stream, if appropriate..
+     */
+    @Override
+    public void close()
+    {
+        for (ILogger logger : this.loggers)
+        {
+            logger.close();
+        }
+    }
 }
@@ -30,21 +30,21 @@ public abstract class StringLogger implements ILogger
     @Override
     public void logBooleanArray(LoggingKey key, boolean[] value)
     {
-        String str = "";
+        StringBuilder builder = new StringBuilder();
         if (value != null)
         {
             for (int i = 0; i < value.length; i++)
             {
                 if (i > 0)
                 {
-                    str += ",";
+                    builder.append(',');
                 }
 
-                str += String.valueOf(value[i]);
+                builder.append(value[i]);
             }
         }
 
-        this.logString(key, str);
+        this.logString(key, builder.toString());
     }
 
     /**
@@ -124,4 +124,12 @@ public abstract class StringLogger implements ILogger
     public void flush()
     {
     }
+
+    /**
+     * Close the output stream, if appropriate..
+     */
+    @Override
+    public void close()
+    {
+    }
 }
@@ -2,12 +2,19 @@ package frc.robot.common.robotprovider;
 
 public class TrajectoryState
 {
-    public final double xPosition; // in inches
-    public final double yPosition; // in inches
-    public final double angle; // in degrees
-    public final double xVelocity; // in inches per second
-    public final double yVelocity; // in inches per second
-    public final double angleVelocity; // in degrees per second
+    public double xPosition; // in inches
+    public double yPosition; // in inches
+    public double angle; // in degrees
+    public double xVelocity; // in inches per second
+    public double yVelocity; // in inches per second
+    public double angleVelocity; // in degrees per second
+
+    /**
+     * Initializes a new TrajectoryState, to be filled in by ITrajectory.get(time, state)
+     */
+    public TrajectoryState()
+    {
+    }
 
     public TrajectoryState(
         double xPosition,
@@ -16,6 +23,26 @@ public class TrajectoryState
         double xVelocity,
         double yVelocity,
         double angleVelocity)
+    {
+        this.set(xPosition, yPosition, angle, xVelocity, yVelocity, angleVelocity);
+    }
+
+    /**
+     * Set all of the values of the state
+     * @param xPosition in inches
+     * @param yPosition in inches
+     * @param angle in degrees
+     * @param xVelocity in inches per second
+     * @param yVelocity in inches per second
+     * @param angleVelocity in degrees per second
+     */
+    public void set(
+        double xPosition,
+        double yPosition,
+        double angle,
+        double xVelocity,
+        double yVelocity,
+        double angleVelocity)
     {
         this.xPosition = xPosition;
         this.yPosition = yPosition;
@@ -24,4 +51,4 @@ public class TrajectoryState
         this.yVelocity = yVelocity;
         this.angleVelocity = angleVelocity;
     }
-}
\ No newline at end of file
+}
@@ -28,7 +28,8 @@ public class AutonomousRoutineSelector
         LoggingManager logger,
         PathManager pathManager,
         SmartDashboardSelectionManager selectionManager,
-        IRobotProvider provider)
+        IRobotProvider provider,
+        IFile pathCacheFile)
     {
         this.logger = logger;
         this.pathManager = pathManager;
@@ -36,7 +37,7 @@ public class AutonomousRoutineSelector
 
         this.driverStation = provider.getDriverStation();
 
-        RoadRunnerTrajectoryGenerator.generateTrajectories(this.pathManager);
+        RoadRunnerTrajectoryGenerator.loadTrajectories(this.pathManager, pathCacheFile, this.logger);
     }
 
     /**
@@ -1,8 +1,12 @@
 package frc.robot.driver;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.util.Arrays;
+import java.util.zip.CRC32;
 
 import com.acmerobotics.roadrunner.geometry.*;
 import com.acmerobotics.roadrunner.trajectory.*;
@@ -10,11 +14,16 @@ import com.acmerobotics.roadrunner.trajectory.constraints.*;
 
 import de.siegmar.fastcsv.writer.CsvWriter;
 import frc.robot.HardwareConstants;
+import frc.robot.LoggingKey;
 import frc.robot.TuningConstants;
 import frc.robot.common.*;
+import frc.robot.common.robotprovider.IFile;
+import frc.robot.common.robotprovider.ILogger;
 import frc.robot.common.robotprovider.ITrajectory;
 import frc.robot.common.robotprovider.TrajectoryState;
+import frc.robot.driver.common.PathCache;
 import frc.robot.driver.common.PathManager;
+import frc.robot.driver.common.SampledTrajectory;
 import frc.robot.driver.common.TrajectoryWrapper;
 
 public class RoadRunnerTrajectoryGenerator
@@ -32,10 +41,21 @@ public class RoadRunnerTrajectoryGenerator
     private static final TrajectoryAccelerationConstraint accelerationConstraint =
             new ProfileAccelerationConstraint(TuningConstants.DRIVETRAIN_MAX_PATH_TRANSLATIONAL_ACCELERATION);
 
-    public static void main(String[] args)
+    public static void main(String[] args) throws IOException
     {
         PathManager pathManager = new PathManager();
         RoadRunnerTrajectoryGenerator.generateTrajectories(pathManager);
+
+        if (args.length > 0)
+        {
+            // write the path cache (the generatePathCache gradle task passes the path of the file to write)
+            ByteBuffer cache = PathCache.write(RoadRunnerTrajectoryGenerator.getDefinitionHash(), TuningConstants.TRAJECTORY_SAMPLE_STEP, pathManager);
+            java.nio.file.Path cachePath = java.nio.file.Path.of(args[0]);
+            Files.createDirectories(cachePath.toAbsolutePath().getParent());
+            Files.write(cachePath, Arrays.copyOfRange(cache.array(), cache.position(), cache.limit()));
+            return;
+        }
+
         ITrajectory trajectory = pathManager.getTrajectory("w2ba-goToPickUpBall2");
 
         try (CsvWriter csvWriter = CsvWriter.builder().build(java.nio.file.Path.of("test.csv"), StandardCharsets.UTF_8))
@@ -62,6 +82,65 @@ public class RoadRunnerTrajectoryGenerator
         }
     }
 
+    /**
+     * Load the paths from the path cache that was deployed with the robot, or generate them if the cache is missing or was
+     * generated from different path definitions
+     * @param pathManager to add the paths to
+     * @param cacheFile to use for the path cache
+     * @param logger to report whether the path cache was used
+     */
+    public static void loadTrajectories(PathManager pathManager, IFile cacheFile, ILogger logger)
+    {
+        cacheFile.open(TuningConstants.PATH_CACHE_FILE);
+        if (!cacheFile.exists())
+        {
+            logger.logString(LoggingKey.AutonomousPathCache, "missing");
+        }
+        else
+        {
+            try
+            {
+                PathCache cache = new PathCache(cacheFile.openReadOnlyMemoryMapped());
+                if (cache.getDefinitionHash() == RoadRunnerTrajectoryGenerator.getDefinitionHash())
+                {
+                    pathManager.setCache(cache);
+                    logger.logString(LoggingKey.AutonomousPathCache, "loaded");
+                    return;
+                }
+
+                logger.logString(LoggingKey.AutonomousPathCache, "outOfDate");
+            }
+            catch (IOException ex)
+            {
+                logger.logString(LoggingKey.AutonomousPathCache, "unreadable: " + ex.toString());
+            }
+        }
+
+        RoadRunnerTrajectoryGenerator.generateTrajectories(pathManager);
+    }
+
+    /**
+     * Get the hash of the path definitions, which identifies the path cache that matches them.  The paths are defined in
+     * this class's code, and the tuning and hardware constants that they use are compiled into it, so the hash is of the
+     * compiled class.
+     * @return hash of the path definitions
+     * @throws IOException if the compiled class can't be read
+     */
+    public static long getDefinitionHash() throws IOException
+    {
+        try (InputStream stream = RoadRunnerTrajectoryGenerator.class.getResourceAsStream("RoadRunnerTrajectoryGenerator.class"))
+        {
+            if (stream == null)
+            {
+                throw new IOException("Couldn't find RoadRunnerTrajectoryGenerator.class");
+            }
+
+            CRC32 crc = new CRC32();
+            crc.update(stream.readAllBytes());
+            return crc.getValue();
+        }
+    }
+
     public static void generateTrajectories(PathManager pathManager)
     {
         // ----------------------------------------- 2022 paths ----------------------------------------- //
@@ -300,7 +379,8 @@ public class RoadRunnerTrajectoryGenerator
     {
         try
         {
-            pathManager.addPath(name, new TrajectoryWrapper(trajectoryBuilder.build()));
+            // sample the path up-front so that following it is a table lookup rather than evaluating the spline and profile
+            pathManager.addPath(name, SampledTrajectory.sample(new TrajectoryWrapper(trajectoryBuilder.build()), TuningConstants.TRAJECTORY_SAMPLE_STEP));
         }
         catch (Exception ex)
         {
@@ -1,18 +1,34 @@
 package frc.robot.driver.common;
 
-import java.util.ArrayList;
-import java.util.Comparator;
-import java.util.HashMap;
-import java.util.List;
+import java.util.Arrays;
 
+import frc.robot.common.LongIntHashMap;
 import frc.robot.driver.*;
 import frc.robot.driver.common.descriptions.*;
-
+import frc.robot.driver.common.states.OperationStateTable;
+
+/**
+ * Verifies that the descriptions in a button map don't overlap.
+ *
+ * Each description is bucketed by a key that packs its input (device, button, POV value and axis) and its shifts into a
+ * long, so descriptions are only compared with the few others that share their input and shifts.
+ *
+ * The verification can also be run at build time by the verifyButtonMap gradle task, so that the robot can skip it on boot
+ * (see TuningConstants.VERIFY_BUTTON_MAP_ON_STARTUP).
+ */
 public class ButtonMapVerifier
 {
+    // the number of bits of each part of the packed keys (device, button, POV value + 1, axis, and then the shifts)
+    private static final int ButtonBits = 8;
+    private static final int PovBits = 10;
+    private static final int AxisBits = 8;
+    private static final int ShiftBits = 8;
+
     public static void main(String[] args)
     {
-        ButtonMapVerifier.Verify(new ButtonMap(), true, true);
+        // the verifyButtonMap gradle task passes "--quiet" so that the mapping isn't printed in every build
+        boolean printMapping = args.length == 0 || !"--quiet".equals(args[0]);
+        ButtonMapVerifier.Verify(new ButtonMap(), true, printMapping);
     }
 
     public static void Verify(IButtonMap buttonMap)
@@ -24,296 +40,200 @@ public class ButtonMapVerifier
     {
         if (failOnError)
         {
+            DigitalOperationDescription[] digitalOperationSchema = buttonMap.getDigitalOperationSchema();
+            AnalogOperationDescription[] analogOperationSchema = buttonMap.getAnalogOperationSchema();
+            MacroOperationDescription[] macroOperationSchema = buttonMap.getMacroOperationSchema();
+            ShiftDescription[] shiftSchema = buttonMap.getShiftSchema();
+
             // verify that there isn't overlap between buttons
-            HashMap<ButtonCombination, HashMap<Shift, List<OperationDescription>>> mapping = new HashMap<ButtonCombination, HashMap<Shift, List<OperationDescription>>>();
-            for (DigitalOperationDescription description : buttonMap.getDigitalOperationSchema())
+            ButtonMapping mapping = new ButtonMapping(
+                (digitalOperationSchema.length + analogOperationSchema.length + macroOperationSchema.length) * Shift.AllShifts.length + shiftSchema.length);
+
+            for (DigitalOperationDescription description : digitalOperationSchema)
             {
-                ButtonCombination button = new ButtonCombination(
-                    description.getUserInputDevice(),
-                    description.getUserInputDeviceButton(),
-                    description.getUserInputDevicePovValue(),
-                    description.getUserInputDeviceAxis());
-
-                HashMap<Shift, List<OperationDescription>> shiftMap;
-                if (!mapping.containsKey(button))
-                {
-                    shiftMap = new HashMap<Shift, List<OperationDescription>>();
-                    mapping.put(button, shiftMap);
-                }
-                else
-                {
-                    shiftMap = mapping.get(button);
-                }
+                mapping.addOperation(description);
+            }
 
-                Shift requiredShifts = description.getRequiredShifts();
-                if (requiredShifts == null)
-                {
-                    for (Shift shift : Shift.AllShifts)
-                    {
-                        if (shiftMap.containsKey(shift))
-                        {
-                            List<OperationDescription> otherDescriptions = shiftMap.get(shift);
-                            for (OperationDescription otherDescription : otherDescriptions)
-                            {
-                                if (ButtonMapVerifier.isOverlappingRange(description, otherDescription))
-                                {
-                                    throw new RuntimeException("Disagreement between " + description.getOperation().toString() + " and " + otherDescription.getOperation().toString());
-                                }
-                            }
-
-                            otherDescriptions.add(description);
-                        }
-                        else
-                        {
-                            List<OperationDescription> otherDescriptions = new ArrayList<OperationDescription>();
-                            otherDescriptions.add(description);
-                            shiftMap.put(shift, otherDescriptions);
-                        }
-                    }
-                }
-                else
-                {
-                    if (shiftMap.containsKey(requiredShifts))
-                    {
-                        List<OperationDescription> otherDescriptions = shiftMap.get(requiredShifts);
-                        for (OperationDescription otherDescription : otherDescriptions)
-                        {
-                            if (ButtonMapVerifier.isOverlappingRange(description, otherDescription))
-                            {
-                                throw new RuntimeException("Disagreement between " + description.getOperation().toString() + " and " + otherDescription.getOperation().toString());
-                            }
-                        }
-
-                        otherDescriptions.add(description);
-                    }
-                    else
-                    {
-                        List<OperationDescription> otherDescriptions = new ArrayList<OperationDescription>();
-                        otherDescriptions.add(description);
-                        shiftMap.put(requiredShifts, otherDescriptions);
-                    }
-                }
+            for (AnalogOperationDescription description : analogOperationSchema)
+            {
+                mapping.addOperation(description);
             }
 
-            for (AnalogOperationDescription description : buttonMap.getAnalogOperationSchema())
+            for (MacroOperationDescription description : macroOperationSchema)
             {
-                ButtonCombination button = new ButtonCombination(
-                    description.getUserInputDevice(),
-                    UserInputDeviceButton.ANALOG_AXIS_RANGE,
-                    -1,
-                    description.getUserInputDeviceAxis());
-
-                HashMap<Shift, List<OperationDescription>> shiftMap;
-                if (!mapping.containsKey(button))
-                {
-                    shiftMap = new HashMap<Shift, List<OperationDescription>>();
-                    mapping.put(button, shiftMap);
-                }
-                else
-                {
-                    shiftMap = mapping.get(button);
-                }
+                mapping.addOperation(description);
+            }
 
-                Shift requiredShifts = description.getRequiredShifts();
-                if (requiredShifts == null)
-                {
-                    for (Shift shift : Shift.AllShifts)
-                    {
-                        if (shiftMap.containsKey(shift))
-                        {
-                            List<OperationDescription> otherDescriptions = shiftMap.get(shift);
-                            for (OperationDescription otherDescription : otherDescriptions)
-                            {
-                                if (ButtonMapVerifier.isOverlappingRange(description, otherDescription))
-                                {
-                                    throw new RuntimeException("Disagreement between " + description.getOperation().toString() + " and " + otherDescription.getOperation().toString());
-                                }
-                            }
-
-                            otherDescriptions.add(description);
-                        }
-                        else
-                        {
-                            List<OperationDescription> otherDescriptions = new ArrayList<OperationDescription>();
-                            otherDescriptions.add(description);
-                            shiftMap.put(shift, otherDescriptions);
-                        }
-                    }
-                }
-                else
-                {
-                    if (shiftMap.containsKey(requiredShifts))
-                    {
-                        List<OperationDescription> otherDescriptions = shiftMap.get(requiredShifts);
-                        for (OperationDescription otherDescription : otherDescriptions)
-                        {
-                            if (ButtonMapVerifier.isOverlappingRange(description, otherDescription))
-                            {
-                                throw new RuntimeException("Disagreement between " + description.getOperation().toString() + " and " + otherDescription.getOperation().toString());
-                            }
-                        }
-
-                        otherDescriptions.add(description);
-                    }
-                    else
-                    {
-                        List<OperationDescription> otherDescriptions = new ArrayList<OperationDescription>();
-                        otherDescriptions.add(description);
-                        shiftMap.put(requiredShifts, otherDescriptions);
-                    }
-                }
+            for (ShiftDescription description : shiftSchema)
+            {
+                mapping.addShift(description);
             }
 
-            for (MacroOperationDescription description : buttonMap.getMacroOperationSchema())
+            ButtonMapVerifier.verifyMacroConflicts(buttonMap);
+
+            if (printMapping)
             {
-                ButtonCombination button = new ButtonCombination(
-                    description.getUserInputDevice(),
-                    description.getUserInputDeviceButton(),
-                    description.getUserInputDevicePovValue(),
-                    description.getUserInputDeviceAxis());
-
-                HashMap<Shift, List<OperationDescription>> shiftMap;
-                if (!mapping.containsKey(button))
-                {
-                    shiftMap = new HashMap<Shift, List<OperationDescription>>();
-                    mapping.put(button, shiftMap);
-                }
-                else
-                {
-                    shiftMap = mapping.get(button);
-                }
+                mapping.print();
+            }
+        }
+    }
 
-                Shift requiredShifts = description.getRequiredShifts();
-                if (requiredShifts == null)
-                {
-                    for (Shift shift : Shift.AllShifts)
-                    {
-                        if (shiftMap.containsKey(shift))
-                        {
-                            List<OperationDescription> otherDescriptions = shiftMap.get(shift);
-                            for (OperationDescription otherDescription : otherDescriptions)
-                            {
-                                if (ButtonMapVerifier.isOverlappingRange(description, otherDescription))
-                                {
-                                    throw new RuntimeException("Disagreement between " + description.getOperation().toString() + " and " + otherDescription.getOperation().toString());
-                                }
-                            }
-
-                            otherDescriptions.add(description);
-                        }
-                        else
-                        {
-                            List<OperationDescription> otherDescriptions = new ArrayList<OperationDescription>();
-                            otherDescriptions.add(description);
-                            shiftMap.put(shift, otherDescriptions);
-                        }
-                    }
-                }
-                else
-                {
-                    if (shiftMap.containsKey(requiredShifts))
-                    {
-                        List<OperationDescription> otherDescriptions = shiftMap.get(requiredShifts);
-                        for (OperationDescription otherDescription : otherDescriptions)
-                        {
-                            if (ButtonMapVerifier.isOverlappingRange(description, otherDescription))
-                            {
-                                throw new RuntimeException("Disagreement between " + description.getOperation().toString() + " and " + otherDescription.getOperation().toString());
-                            }
-                        }
-
-                        otherDescriptions.add(description);
-                    }
-                    else
-                    {
-                        List<OperationDescription> otherDescriptions = new ArrayList<OperationDescription>();
-                        otherDescriptions.add(description);
-                        shiftMap.put(requiredShifts, otherDescriptions);
-                    }
-                }
+    /**
+     * Verify the conflicts between macros (macros that share a cancel operation), as compiled into a MacroConflictGraph:
+     * - a macro shouldn't be cancelled by an operation that is bound to its own input, or it would cancel itself as it starts
+     * - conflicting macros shouldn't be bound to the same input, or they would always cancel each other as they start
+     * @param buttonMap to verify
+     */
+    private static void verifyMacroConflicts(IButtonMap buttonMap)
+    {
+        DigitalOperationDescription[] digitalOperationSchema = buttonMap.getDigitalOperationSchema();
+        AnalogOperationDescription[] analogOperationSchema = buttonMap.getAnalogOperationSchema();
+        OperationStateTable operationStateTable = new OperationStateTable(digitalOperationSchema, analogOperationSchema);
+
+        OperationDescription[] operationDescriptions = new OperationDescription[operationStateTable.getOperationCount()];
+        for (DigitalOperationDescription description : digitalOperationSchema)
+        {
+            operationDescriptions[operationStateTable.getIndex(description.getOperation())] = description;
+        }
+
+        for (AnalogOperationDescription description : analogOperationSchema)
+        {
+            operationDescriptions[operationStateTable.getIndex(description.getOperation())] = description;
+        }
+
+        MacroConflictGraph conflictGraph = new MacroConflictGraph(operationStateTable);
+        MacroOperationDescription[] macroDescriptions = new MacroOperationDescription[MacroOperation.values().length];
+        for (MacroOperationDescription description : buttonMap.getMacroOperationSchema())
+        {
+            MacroOperation macroOperation = (MacroOperation)description.getOperation();
+            macroDescriptions[macroOperation.ordinal()] = description;
+            conflictGraph.setCancelOperations(macroOperation, description.getMacroCancelOperations());
+        }
+
+        for (int i = 0; i < macroDescriptions.length; i++)
+        {
+            MacroOperationDescription description = macroDescriptions[i];
+            if (description == null)
+            {
+                continue;
             }
 
-            for (ShiftDescription description : buttonMap.getShiftSchema())
+            for (int operationIndex : conflictGraph.getCancelOperationIndexes(i))
             {
-                ButtonCombination button = new ButtonCombination(
-                    description.getUserInputDevice(),
-                    description.getUserInputDeviceButton(),
-                    description.getUserInputDevicePovValue(),
-                    AnalogAxis.NONE);
-
-                HashMap<Shift, List<OperationDescription>> shiftMap;
-                if (!mapping.containsKey(button))
-                {
-                    shiftMap = new HashMap<Shift, List<OperationDescription>>();
-                    mapping.put(button, shiftMap);
-                    shiftMap.put(description.getShift(), null);
-                }
-                else
+                OperationDescription operationDescription = operationDescriptions[operationIndex];
+                if (operationDescription != null && ButtonMapVerifier.isSameInput(description, operationDescription))
                 {
-                    shiftMap = mapping.get(button);
-                    for (Shift key : shiftMap.keySet())
-                    {
-                        List<OperationDescription> value = shiftMap.get(key);
-                        if (value == null || value.size() == 0)
-                        {
-                            throw new RuntimeException("conflcit between shift " + description.getShift().toString() + " and " + key.toString());
-                        }
-
-                        throw new RuntimeException("conflict between shift " + description.getShift().toString() + " and operation " + value.get(0).getOperation().toString());
-                    }
+                    throw new RuntimeException("Macro " + description.getOperation().toString() + " is cancelled by its own input, through " + operationDescription.getOperation().toString());
                 }
             }
 
-            if (printMapping)
+            for (long conflicts = conflictGraph.getConflicts(i) >>> i; conflicts != 0L; conflicts &= conflicts - 1L)
             {
-                List<ButtonCombination> buttonCombinationKeys = new ArrayList<ButtonCombination>(mapping.keySet());
-                buttonCombinationKeys.sort(new ButtonCombinationComparator());
-                for (ButtonCombination buttonCombination : buttonCombinationKeys)
+                MacroOperationDescription otherDescription = macroDescriptions[i + Long.numberOfTrailingZeros(conflicts)];
+                if (otherDescription != null && ButtonMapVerifier.isSameInput(description, otherDescription))
                 {
-                    HashMap<Shift, List<OperationDescription>> shiftMap = mapping.get(buttonCombination);
-                    List<Shift> shiftKeys = new ArrayList<Shift>(shiftMap.keySet());
-                    shiftKeys.sort(new ShiftComparator());
-                    for (Shift shift : shiftKeys)
-                    {
-                        String shiftString = "None";
-                        if (shift == Shift.DriverDebug)
-                        {
-                            shiftString = "DriverDebug";
-                        }
-                        else if (shift == Shift.CodriverDebug)
-                        {
-                            shiftString = "CodriverDebug";
-                        }
-                        else if (shift == Shift.Test1Debug)
-                        {
-                            shiftString = "Test1Debug";
-                        }
-                        else if (shift == Shift.Test2Debug)
-                        {
-                            shiftString = "Test2Debug";
-                        }
-
-                        List<OperationDescription> operationDescriptions = shiftMap.get(shift);
-                        if (operationDescriptions == null)
-                        {
-                            continue;
-                        }
-
-                        for (OperationDescription operationDescription : operationDescriptions)
-                        {
-                            System.out.println(
-                                String.format(
-                                    "%s (Shift: %s)  -->  %s",
-                                    buttonCombination.toString(),
-                                    shiftString,
-                                    operationDescription.getOperation().toString()));
-                        }
-                    }
+                    throw new RuntimeException("Conflicting macros " + description.getOperation().toString() + " and " + otherDescription.getOperation().toString() + " are bound to the same input");
                 }
             }
         }
     }
 
+    private static boolean isSameInput(OperationDescription one, OperationDescription two)
+    {
+        return one.getUserInputDevice() != UserInputDevice.None &&
+            ButtonMapVerifier.getCombinationKey(one) == ButtonMapVerifier.getCombinationKey(two) &&
+            ButtonMapVerifier.isOverlappingRange(one, two) &&
+            one.canShareShifts(two);
+    }
+
+    /**
+     * Get the key for the input of a description, packed into a long that sorts in the same order as its ButtonCombination
+     * @param description of the operation
+     * @return packed key of the description's device, button, POV value and axis
+     */
+    private static long getCombinationKey(OperationDescription description)
+    {
+        if (description instanceof AnalogOperationDescription)
+        {
+            return ButtonMapVerifier.getCombinationKey(
+                description.getUserInputDevice(),
+                UserInputDeviceButton.ANALOG_AXIS_RANGE,
+                -1,
+                ((AnalogOperationDescription)description).getUserInputDeviceAxis());
+        }
+
+        if (description instanceof DigitalOperationDescription)
+        {
+            DigitalOperationDescription digitalDescription = (DigitalOperationDescription)description;
+            return ButtonMapVerifier.getCombinationKey(
+                digitalDescription.getUserInputDevice(),
+                digitalDescription.getUserInputDeviceButton(),
+                digitalDescription.getUserInputDevicePovValue(),
+                digitalDescription.getUserInputDeviceAxis());
+        }
+
+        MacroOperationDescription macroDescription = (MacroOperationDescription)description;
+        return ButtonMapVerifier.getCombinationKey(
+            macroDescription.getUserInputDevice(),
+            macroDescription.getUserInputDeviceButton(),
+            macroDescription.getUserInputDevicePovValue(),
+            macroDescription.getUserInputDeviceAxis());
+    }
+
+    private static long getCombinationKey(UserInputDevice device, UserInputDeviceButton button, int pov, AnalogAxis axis)
+    {
+        long key = device.ordinal();
+        key = (key << ButtonMapVerifier.ButtonBits) | button.ordinal();
+        key = (key << ButtonMapVerifier.PovBits) | (pov + 1);
+        key = (key << ButtonMapVerifier.AxisBits) | axis.ordinal();
+        return key;
+    }
+
+    private static long getBucketKey(long combinationKey, Shift shift)
+    {
+        return (combinationKey << ButtonMapVerifier.ShiftBits) | shift.getValue();
+    }
+
+    private static ButtonCombination getButtonCombination(long combinationKey)
+    {
+        int axis = (int)(combinationKey & ((1 << ButtonMapVerifier.AxisBits) - 1));
+        combinationKey >>>= ButtonMapVerifier.AxisBits;
+        int pov = (int)(combinationKey & ((1 << ButtonMapVerifier.PovBits) - 1)) - 1;
+        combinationKey >>>= ButtonMapVerifier.PovBits;
+        int button = (int)(combinationKey & ((1 << ButtonMapVerifier.ButtonBits) - 1));
+        combinationKey >>>= ButtonMapVerifier.ButtonBits;
+        return new ButtonCombination(
+            UserInputDevice.values()[(int)combinationKey],
+            UserInputDeviceButton.values()[button],
+            pov,
+            AnalogAxis.values()[axis]);
+    }
+
+    private static String getShiftString(Shift shift)
+    {
+        if (shift.equals(Shift.DriverDebug))
+        {
+            return "DriverDebug";
+        }
+
+        if (shift.equals(Shift.CodriverDebug))
+        {
+            return "CodriverDebug";
+        }
+
+        if (shift.equals(Shift.Test1Debug))
+        {
+            return "Test1Debug";
+        }
+
+        if (shift.equals(Shift.Test2Debug))
+        {
+            return "Test2Debug";
+        }
+
+        return "None";
+    }
+
     private static boolean isOverlappingRange(OperationDescription one, OperationDescription two)
     {
         return ButtonMapVerifier.isOverlappingRange(one.getUserInputDeviceRangeMin(), one.getUserInputDeviceRangeMax(), two.getUserInputDeviceRangeMin(), two.getUserInputDeviceRangeMax());
@@ -328,46 +248,146 @@ public class ButtonMapVerifier
                 (oneMax >= twoMin && oneMax <= twoMax);
     }
 
-    private static class ButtonCombinationComparator implements Comparator<ButtonCombination>
+    /**
+     * The descriptions of a button map, bucketed by the packed keys of their input and shifts.  Each bucket is a linked list
+     * of the entries with that key, threaded through the nextEntries array.
+     */
+    private static class ButtonMapping
     {
-        @Override
-        public int compare(ButtonCombination o1, ButtonCombination o2)
+        private static final int NoEntry = -1;
+
+        // the number of bits of the entry index in the sort keys that are used to print the mapping
+        private static final int EntryBits = 20;
+
+        // first entry of each bucket, by bucket key
+        private final LongIntHashMap buckets;
+
+        // most recent entry for each input, by combination key
+        private final LongIntHashMap combinations;
+
+        private final long[] entryKeys;
+        private final OperationDescription[] entryDescriptions; // null for shifts
+        private final Shift[] entryShifts;
+        private final int[] nextEntries;
+        private int entryCount;
+
+        ButtonMapping(int maxEntryCount)
         {
-            if (o1 == o2)
+            this.buckets = new LongIntHashMap(maxEntryCount);
+            this.combinations = new LongIntHashMap(maxEntryCount);
+            this.entryKeys = new long[maxEntryCount];
+            this.entryDescriptions = new OperationDescription[maxEntryCount];
+            this.entryShifts = new Shift[maxEntryCount];
+            this.nextEntries = new int[maxEntryCount];
+        }
+
+        /**
+         * Add an operation to the mapping, verifying that it doesn't overlap with other operations on the same input
+         * @param description of the operation
+         */
+        void addOperation(OperationDescription description)
+        {
+            long combinationKey = ButtonMapVerifier.getCombinationKey(description);
+            Shift requiredShifts = description.getRequiredShifts();
+            if (requiredShifts == null)
             {
-                return 0;
+                for (Shift shift : Shift.AllShifts)
+                {
+                    this.addOperation(description, combinationKey, shift);
+                }
+            }
+            else
+            {
+                this.addOperation(description, combinationKey, requiredShifts);
             }
+        }
 
-            if (o1 == null)
+        /**
+         * Add a shift to the mapping, verifying that nothing else is on the same input
+         * @param description of the shift
+         */
+        void addShift(ShiftDescription description)
+        {
+            long combinationKey = ButtonMapVerifier.getCombinationKey(
+                description.getUserInputDevice(),
+                description.getUserInputDeviceButton(),
+                description.getUserInputDevicePovValue(),
+                AnalogAxis.NONE);
+
+            int otherEntry = this.combinations.get(combinationKey, ButtonMapping.NoEntry);
+            if (otherEntry != ButtonMapping.NoEntry)
             {
-                return -1;
+                OperationDescription otherDescription = this.entryDescriptions[otherEntry];
+                if (otherDescription == null)
+                {
+                    throw new RuntimeException("conflict between shift " + description.getShift().toString() + " and " + this.entryShifts[otherEntry].toString());
+                }
+
+                throw new RuntimeException("conflict between shift " + description.getShift().toString() + " and operation " + otherDescription.getOperation().toString());
             }
 
-            return o1.compareTo(o2);
+            this.addEntry(null, combinationKey, description.getShift(), ButtonMapping.NoEntry);
         }
-    }
 
-    private static class ShiftComparator implements Comparator<Shift>
-    {
-        @Override
-        public int compare(Shift o1, Shift o2)
+        /**
+         * Print the operations in the mapping, ordered by their input and then their shifts
+         */
+        void print()
         {
-            if (o1 == o2)
+            // sort by bucket key and then by entry index, to keep the operations of each bucket in the order they were added
+            long[] sortKeys = new long[this.entryCount];
+            int operationCount = 0;
+            for (int entry = 0; entry < this.entryCount; entry++)
             {
-                return 0;
+                if (this.entryDescriptions[entry] != null)
+                {
+                    sortKeys[operationCount++] = (this.entryKeys[entry] << ButtonMapping.EntryBits) | entry;
+                }
             }
 
-            if (o1 == null)
+            Arrays.sort(sortKeys, 0, operationCount);
+            for (int i = 0; i < operationCount; i++)
             {
-                return -1;
+                int entry = (int)(sortKeys[i] & ((1 << ButtonMapping.EntryBits) - 1));
+                System.out.println(
+                    String.format(
+                        "%s (Shift: %s)  -->  %s",
+                        ButtonMapVerifier.getButtonCombination(this.entryKeys[entry] >>> ButtonMapVerifier.ShiftBits).toString(),
+                        ButtonMapVerifier.getShiftString(this.entryShifts[entry]),
+                        this.entryDescriptions[entry].getOperation().toString()));
             }
+        }
 
-            if (o2 == null)
+        private void addOperation(OperationDescription description, long combinationKey, Shift shift)
+        {
+            long bucketKey = ButtonMapVerifier.getBucketKey(combinationKey, shift);
+            int firstEntry = this.buckets.get(bucketKey, ButtonMapping.NoEntry);
+            for (int entry = firstEntry; entry != ButtonMapping.NoEntry; entry = this.nextEntries[entry])
+            {
+                OperationDescription otherDescription = this.entryDescriptions[entry];
+                if (ButtonMapVerifier.isOverlappingRange(description, otherDescription))
+                {
+                    throw new RuntimeException("Disagreement between " + description.getOperation().toString() + " and " + otherDescription.getOperation().toString());
+                }
+            }
+
+            this.buckets.put(bucketKey, this.addEntry(description, combinationKey, shift, firstEntry));
+        }
+
+        private int addEntry(OperationDescription description, long combinationKey, Shift shift, int nextEntry)
+        {
+            int entry = this.entryCount++;
+            if (entry >= 1 << ButtonMapping.EntryBits)
             {
-                return 1;
+                throw new RuntimeException("Too many operations in the button map (" + this.entryCount + ")");
             }
 
-            return o1.getValue() - o2.getValue();
+            this.entryKeys[entry] = ButtonMapVerifier.getBucketKey(combinationKey, shift);
+            this.entryDescriptions[entry] = description;
+            this.entryShifts[entry] = shift;
+            this.nextEntries[entry] = nextEntry;
+            this.combinations.put(combinationKey, entry);
+            return entry;
         }
     }
-}
\ No newline at end of file
+}
@@ -2,15 +2,13 @@ package frc.robot.driver.common;
 
 import java.util.HashMap;
 import java.util.HashSet;
-import java.util.Map;
-import java.util.Set;
 
 import javax.inject.Singleton;
 
 import frc.robot.LoggingKey;
+import frc.robot.SettingsManager;
 import frc.robot.TuningConstants;
 import frc.robot.common.LoggingManager;
-import frc.robot.common.SetHelper;
 import frc.robot.common.robotprovider.*;
 import frc.robot.driver.*;
 import frc.robot.driver.common.descriptions.*;
@@ -26,15 +24,32 @@ import com.google.inject.Injector;
 @Singleton
 public class Driver implements IDriver
 {
-    private final ILogger logger;
+    private static final MacroOperation[] MacroOperations = MacroOperation.values();
+
+    private final LoggingManager logger;
 
     protected final Injector injector;
-    protected final Map<IOperation, OperationState> operationStateMap;
+    protected final OperationStateTable operationStateTable;
 
     private final IJoystick[] joysticks;
+    private final InputBindingTable inputBindings;
+    private final InputFrame inputFrame;
+    private final JoystickRecorder joystickRecorder;
+
+    private final ShiftDescription[] shifts;
+
+    private final MacroScheduler macroScheduler;
 
-    private final Map<Shift, ShiftDescription> shiftMap;
-    private final Map<MacroOperation, IMacroOperationState> macroStateMap;
+    // whether each operation was modified by user input in the current update
+    // (operations are indexed the same as in the operation state table)
+    private final boolean[] modifiedOperations;
+
+    // the most recently logged values, so that the logged strings are only rebuilt when they change
+    private long loggedActiveMacros;
+    private final StringBuilder activeMacrosBuilder;
+    private String activeMacrosString;
+    private int loggedActiveShifts;
+    private String activeShiftsString;
 
     private final AutonomousRoutineSelector routineSelector;
     private IControlTask autonomousTask;
@@ -62,65 +77,53 @@ public class Driver implements IDriver
         AnalogOperationDescription[] analogOperationSchema = buttonMap.getAnalogOperationSchema();
         DigitalOperationDescription[] digitalOperationSchema = buttonMap.getDigitalOperationSchema();
 
-        DigitalOperation[] digitalOperations = DigitalOperation.values();
-        AnalogOperation[] analogOperations = AnalogOperation.values();
-
-        this.operationStateMap = new HashMap<IOperation, OperationState>(analogOperations.length + digitalOperations.length);
         for (DigitalOperationDescription description : digitalOperationSchema)
         {
             devices.add(description.getUserInputDevice());
-            this.operationStateMap.put(description.getOperation(), new DigitalOperationState(description));
-        }
-
-        for (DigitalOperation operation : digitalOperations)
-        {
-            if (!this.operationStateMap.containsKey(operation))
-            {
-                this.operationStateMap.put(
-                    operation,
-                    new DigitalOperationState(new DigitalOperationDescription(operation)));
-            }
         }
 
         for (AnalogOperationDescription description : analogOperationSchema)
         {
             devices.add(description.getUserInputDevice());
-            this.operationStateMap.put(description.getOperation(), new AnalogOperationState(description));
         }
 
-        for (AnalogOperation operation : analogOperations)
-        {
-            if (!this.operationStateMap.containsKey(operation))
-            {
-                this.operationStateMap.put(
-                    operation,
-                    new AnalogOperationState(new AnalogOperationDescription(operation)));
-            }
-        }
+        this.operationStateTable = new OperationStateTable(digitalOperationSchema, analogOperationSchema);
 
         this.routineSelector = injector.getInstance(AutonomousRoutineSelector.class);
 
+        // only keep one description per shift
         ShiftDescription[] shiftSchema = buttonMap.getShiftSchema();
-        this.shiftMap = new HashMap<Shift, ShiftDescription>();
+        HashMap<Shift, ShiftDescription> shiftMap = new HashMap<Shift, ShiftDescription>();
         for (ShiftDescription description : shiftSchema)
         {
-            this.shiftMap.put(description.getShift(), description);
+            shiftMap.put(description.getShift(), description);
         }
 
-        this.macroStateMap = new HashMap<MacroOperation, IMacroOperationState>();
+        this.shifts = shiftMap.values().toArray(new ShiftDescription[shiftMap.size()]);
+
+        this.macroScheduler = new MacroScheduler(this.operationStateTable);
         MacroOperationDescription[] macroSchema = buttonMap.getMacroOperationSchema();
         for (MacroOperationDescription description : macroSchema)
         {
             devices.add(description.getUserInputDevice());
-            this.macroStateMap.put(
+            this.macroScheduler.setMacroState(
                 (MacroOperation)description.getOperation(),
                 new MacroOperationState(
                     description,
-                    this.operationStateMap,
-                    this.injector));
+                    this.operationStateTable,
+                    this.injector),
+                description);
         }
 
-        ButtonMapVerifier.Verify(buttonMap);
+        this.modifiedOperations = new boolean[this.operationStateTable.getOperationCount()];
+        this.activeMacrosBuilder = new StringBuilder();
+        this.activeMacrosString = "";
+        this.activeShiftsString = null;
+
+        if (TuningConstants.VERIFY_BUTTON_MAP_ON_STARTUP)
+        {
+            ButtonMapVerifier.Verify(buttonMap);
+        }
 
         this.joysticks = new IJoystick[UserInputDevice.MaxCount.getId()];
         for (UserInputDevice device : UserInputDevice.values())
@@ -133,6 +136,10 @@ public class Driver implements IDriver
             }
         }
 
+        this.inputBindings = new InputBindingTable(buttonMap);
+        this.inputFrame = new InputFrame();
+        this.joystickRecorder = SettingsManager.getJoystickRecorder(injector);
+
         this.currentMode = RobotMode.Disabled;
 
         // initialize the path manager and load all of the paths
@@ -156,137 +163,69 @@ public class Driver implements IDriver
     {
         this.logger.logString(LoggingKey.DriverMode, this.currentMode.toString());
 
-        // keep track of macros that were running before we checked user input...
-        Set<MacroOperation> previouslyActiveMacroOperations = new HashSet<MacroOperation>();
-        for (MacroOperation macroOperation : this.macroStateMap.keySet())
+        // read the joysticks once, so that the shifts and operations below all check the same inputs...
+        if (this.currentMode != RobotMode.Autonomous)
         {
-            IMacroOperationState macroState = this.macroStateMap.get(macroOperation);
-            if (macroState.getIsActive())
-            {
-                previouslyActiveMacroOperations.add(macroOperation);
-            }
+            this.inputBindings.capture(this.joysticks, this.inputFrame);
+        }
+
+        if (this.joystickRecorder != null)
+        {
+            this.joystickRecorder.recordFrame(this.inputFrame);
         }
 
         // check inputs and update shifts based on it...
-        int shiftIndex = 0;
-        Shift[] activeShiftList = new Shift[this.shiftMap.size()];
-        for (Shift shift : this.shiftMap.keySet())
+        int activeShifts = 0;
+        for (ShiftDescription shiftDescription : this.shifts)
         {
-            ShiftDescription shiftDescription = this.shiftMap.get(shift);
-            if (this.currentMode != RobotMode.Autonomous && shiftDescription.checkInput(this.joysticks))
+            if (this.currentMode != RobotMode.Autonomous && shiftDescription.checkInput(this.inputFrame))
             {
-                activeShiftList[shiftIndex++] = shift;
+                activeShifts |= shiftDescription.getShift().getValue();
             }
         }
 
-        Shift activeShifts = Shift.Union(activeShiftList);
+        this.logger.setDebugLogging(Shift.HasFlag(activeShifts, TuningConstants.LOG_DEBUG_SHIFT));
 
-        // check user inputs for various operations (non-macro) and keep track of:
-        // operations that were interrupted already, and operations that were modified by user input in this update
-        Set<IOperation> modifiedOperations = new HashSet<IOperation>();
-        Set<IOperation> interruptedOperations = new HashSet<IOperation>();
-        for (IOperation operation : this.operationStateMap.keySet())
+        // check user inputs for various operations (non-macro) and keep track of operations that were modified by user input in this update
+        for (int i = 0; i < this.modifiedOperations.length; i++)
         {
-            OperationState opState = this.operationStateMap.get(operation);
-            boolean receivedInput = this.currentMode != RobotMode.Autonomous && opState.checkInput(this.joysticks, activeShifts);
-            if (receivedInput)
-            {
-                modifiedOperations.add(operation);
-            }
-
-            if (this.operationStateMap.get(operation).getIsInterrupted())
-            {
-                interruptedOperations.add(operation);
-            }
+            this.modifiedOperations[i] = this.currentMode != RobotMode.Autonomous && this.operationStateTable.getState(i).checkInput(this.inputFrame, activeShifts);
         }
 
-        // check user inputs for various macro operations
-        // also keep track of modified and active macro operations, and how macro operations and operations link together
-        Set<MacroOperation> activeMacroOperations = new HashSet<MacroOperation>();
-        Map<IOperation, Set<MacroOperation>> activeMacroOperationMap = new HashMap<IOperation, Set<MacroOperation>>();
-        for (MacroOperation macroOperation : this.macroStateMap.keySet())
+        // check user inputs for various macro operations, arbitrate between them and run them
+        this.macroScheduler.update(this.inputFrame, activeShifts, this.currentMode != RobotMode.Autonomous, this.modifiedOperations);
+
+        // only rebuild the logged strings when they change
+        long activeMacros = this.macroScheduler.getActiveMacros();
+        if (activeMacros != this.loggedActiveMacros)
         {
-            IMacroOperationState macroState = this.macroStateMap.get(macroOperation);
-            if (this.currentMode != RobotMode.Autonomous)
-            {
-                macroState.checkInput(this.joysticks, activeShifts);
-            }
+            this.loggedActiveMacros = activeMacros;
 
-            if (macroState.getIsActive())
+            this.activeMacrosBuilder.setLength(0);
+            for (MacroOperation macroOperation : Driver.MacroOperations)
             {
-                activeMacroOperations.add(macroOperation);
-
-                for (IOperation affectedOperation : macroState.getMacroCancelOperations())
+                if ((activeMacros & MacroConflictGraph.getBit(macroOperation)) != 0L)
                 {
-                    Set<MacroOperation> relevantMacroOperations = activeMacroOperationMap.get(affectedOperation);
-                    if (relevantMacroOperations == null)
+                    if (this.activeMacrosBuilder.length() > 0)
                     {
-                        relevantMacroOperations = new HashSet<MacroOperation>();
-                        activeMacroOperationMap.put(affectedOperation, relevantMacroOperations);
+                        this.activeMacrosBuilder.append(", ");
                     }
 
-                    relevantMacroOperations.add(macroOperation);
+                    this.activeMacrosBuilder.append(macroOperation.toString());
                 }
             }
-        }
 
-        // Determine the list of macro operations to cancel.  Only keep macros that:
-        // 1. have not been usurped by a user action
-        // 2. have not been usurped by a new macro (i.e. that was started in this round)
-        // 3. are new macros that do not overlap with other new macros
-        Set<MacroOperation> macroOperationsToCancel = new HashSet<MacroOperation>();
-        for (IOperation operation : activeMacroOperationMap.keySet())
-        {
-            Set<MacroOperation> relevantMacroOperations = activeMacroOperationMap.get(operation);
-            if (modifiedOperations.contains(operation))
-            {
-                // disobeys rule #1:
-                // (macro usurped by user action)
-                macroOperationsToCancel.addAll(relevantMacroOperations);
-            }
-            else if (relevantMacroOperations.size() > 1)
-            {
-                Set<MacroOperation> newRelevantMacroOperations = SetHelper.<MacroOperation>RelativeComplement(previouslyActiveMacroOperations, relevantMacroOperations);
-                if (newRelevantMacroOperations.size() > 1)
-                {
-                    // disobeys rule #3:
-                    // (there are 2 or more active macros that weren't previously active)
-                    macroOperationsToCancel.addAll(relevantMacroOperations);
-                }
-                else
-                {
-                    // some disobey rule #2 (remove only those that were previously active, and not the 1 that is newly active...)
-                    macroOperationsToCancel.addAll(SetHelper.<MacroOperation>RelativeComplement(newRelevantMacroOperations, relevantMacroOperations));
-                }
-            }
-        }
-
-        // cancel macros that didn't follow the rules list above
-        for (MacroOperation macroOperationToCancel : macroOperationsToCancel)
-        {
-            this.macroStateMap.get(macroOperationToCancel).setIsInterrupted(true);
-            activeMacroOperations.remove(macroOperationToCancel);
+            this.activeMacrosString = this.activeMacrosBuilder.toString();
         }
 
-        // first, run all of the inactive macros (to clear any old interrupts)...
-        Set<MacroOperation> inactiveMacroOperations = SetHelper.<MacroOperation>RelativeComplement(activeMacroOperations, this.macroStateMap.keySet());
-        for (MacroOperation macroOperation : inactiveMacroOperations)
+        if (this.activeShiftsString == null || activeShifts != this.loggedActiveShifts)
         {
-            this.macroStateMap.get(macroOperation).run();
+            this.loggedActiveShifts = activeShifts;
+            this.activeShiftsString = Integer.toString(activeShifts);
         }
 
-        // second, run all of the active macros (which could add interrupts that were cleared in the previous phase)...
-        // while we're doing that, grab the names of the macros for logging
-        int i = 0;
-        String[] macroStrings = new String[activeMacroOperations.size()];
-        for (MacroOperation macroOperation : activeMacroOperations)
-        {
-            macroStrings[i++] = macroOperation.toString();
-            this.macroStateMap.get(macroOperation).run();
-        }
-
-        this.logger.logString(LoggingKey.DriverActiveMacros, String.join(", ", macroStrings));
-        this.logger.logString(LoggingKey.DriverActiveShifts, activeShifts.toString());
+        this.logger.logString(LoggingKey.DriverActiveMacros, this.activeMacrosString);
+        this.logger.logString(LoggingKey.DriverActiveShifts, this.activeShiftsString);
     }
 
     /**
@@ -297,21 +236,20 @@ public class Driver implements IDriver
     {
         this.currentMode = RobotMode.Disabled;
 
-        if (this.macroStateMap.containsKey(MacroOperation.AutonomousRoutine))
-        {
-            this.macroStateMap.remove(MacroOperation.AutonomousRoutine);
-        }
+        this.macroScheduler.setMacroState(MacroOperation.AutonomousRoutine, null, null);
 
         // cancel all interruption of buttons:
-        for (OperationState state : this.operationStateMap.values())
+        for (int i = 0; i < this.operationStateTable.getOperationCount(); i++)
         {
-            state.setIsInterrupted(false);
+            this.operationStateTable.getState(i).setIsInterrupted(false);
         }
 
         // cancel all ongoing macros:
-        for (IMacroOperationState macroOperationState : this.macroStateMap.values())
+        this.macroScheduler.cancelAll();
+
+        if (this.joystickRecorder != null)
         {
-            macroOperationState.cancel();
+            this.joystickRecorder.recordStop();
         }
     }
 
@@ -322,14 +260,19 @@ public class Driver implements IDriver
     public void startMode(RobotMode mode)
     {
         this.currentMode = mode;
+        if (this.joystickRecorder != null)
+        {
+            this.joystickRecorder.recordStartMode(mode);
+        }
 
         this.autonomousTask = this.routineSelector.selectRoutine(mode);
         if (this.autonomousTask != null)
         {
-            this.autonomousTask.initialize(this.operationStateMap, injector);
-            this.macroStateMap.put(
+            this.autonomousTask.initialize(this.operationStateTable, injector);
+            this.macroScheduler.setMacroState(
                 MacroOperation.AutonomousRoutine,
-                new AutonomousOperationState(this.autonomousTask, this.operationStateMap));
+                new AutonomousOperationState(this.autonomousTask, this.operationStateTable),
+                null);
         }
     }
 
@@ -340,19 +283,7 @@ public class Driver implements IDriver
      */
     public boolean getDigital(DigitalOperation digitalOperation)
     {
-        OperationState state = this.operationStateMap.get(digitalOperation);
-        if (!(state instanceof DigitalOperationState))
-        {
-            if (TuningConstants.THROW_EXCEPTIONS)
-            {
-                throw new RuntimeException("not a digital operation!");
-            }
-
-            return false;
-        }
-
-        DigitalOperationState digitalState = (DigitalOperationState)state;
-        return digitalState.getState();
+        return this.operationStateTable.getDigital(digitalOperation);
     }
 
     /**
@@ -362,19 +293,7 @@ public class Driver implements IDriver
      */
     public double getAnalog(AnalogOperation analogOperation)
     {
-        OperationState state = this.operationStateMap.get(analogOperation);
-        if (!(state instanceof AnalogOperationState))
-        {
-            if (TuningConstants.THROW_EXCEPTIONS)
-            {
-                throw new RuntimeException("not an analog operation!");
-            }
-
-            return 0.0;
-        }
-
-        AnalogOperationState analogState = (AnalogOperationState)state;
-        return analogState.getState();
+        return this.operationStateTable.getAnalog(analogOperation);
     }
 
     /**
@@ -1,9 +1,6 @@
 package frc.robot.driver.common;
 
-import java.util.Map;
-
-import frc.robot.driver.IOperation;
-import frc.robot.driver.common.states.OperationState;
+import frc.robot.driver.common.states.OperationStateTable;
 
 import com.google.inject.Injector;
 
@@ -14,11 +11,11 @@ import com.google.inject.Injector;
 public interface IControlTask
 {
     /**
-     * Initialize the task with the mapping of operations to states
-     * @param operationStateMap indicating the mapping of an operation to its current state
+     * Initialize the task with the states of the operations
+     * @param operationStateTable holding the current state of each operation
      * @param injector used to retrieve components to utilize for making any decisions
      */
-    public void initialize(Map<IOperation, OperationState> operationStateMap, Injector injector);
+    public void initialize(OperationStateTable operationStateTable, Injector injector);
 
     /**
      * Begin the current task.
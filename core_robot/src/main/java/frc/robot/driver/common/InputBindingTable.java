@@ -0,0 +1,173 @@
+package frc.robot.driver.common;
+
+import frc.robot.common.robotprovider.IJoystick;
+import frc.robot.driver.common.descriptions.*;
+
+/**
+ * The joystick inputs that the button map is bound to, compiled once from the shift and operation descriptions.
+ * Capturing a frame reads each bound axis, button and POV once per device, regardless of how many shifts and operations
+ * share it, and skips the inputs that nothing is bound to.
+ */
+public class InputBindingTable
+{
+    // indexed by user input device id
+    private final int[][] axes;
+    private final int[][] buttons;
+    private final boolean[] povs;
+
+    /**
+     * Initializes a new InputBindingTable from the descriptions in a button map
+     * @param buttonMap containing the shift and operation descriptions
+     */
+    public InputBindingTable(IButtonMap buttonMap)
+    {
+        this(
+            buttonMap.getShiftSchema(),
+            buttonMap.getDigitalOperationSchema(),
+            buttonMap.getAnalogOperationSchema(),
+            buttonMap.getMacroOperationSchema());
+    }
+
+    /**
+     * Initializes a new InputBindingTable
+     * @param shiftSchema descriptions of shifts
+     * @param digitalOperationSchema descriptions of digital operations
+     * @param analogOperationSchema descriptions of analog operations
+     * @param macroOperationSchema descriptions of macro operations
+     */
+    public InputBindingTable(
+        ShiftDescription[] shiftSchema,
+        DigitalOperationDescription[] digitalOperationSchema,
+        AnalogOperationDescription[] analogOperationSchema,
+        MacroOperationDescription[] macroOperationSchema)
+    {
+        int deviceCount = UserInputDevice.MaxCount.getId();
+        boolean[][] boundAxes = new boolean[deviceCount][InputFrame.AXIS_COUNT];
+        int[] boundButtons = new int[deviceCount];
+        this.povs = new boolean[deviceCount];
+
+        for (ShiftDescription description : shiftSchema)
+        {
+            this.bind(boundAxes, boundButtons, description.getUserInputDevice(), description.getUserInputDeviceButton(), description.getUserInputDeviceAxis());
+        }
+
+        for (DigitalOperationDescription description : digitalOperationSchema)
+        {
+            this.bind(boundAxes, boundButtons, description.getUserInputDevice(), description.getUserInputDeviceButton(), description.getUserInputDeviceAxis());
+        }
+
+        for (AnalogOperationDescription description : analogOperationSchema)
+        {
+            this.bind(boundAxes, boundButtons, description.getUserInputDevice(), UserInputDeviceButton.NONE, description.getUserInputDeviceAxis());
+            this.bind(boundAxes, boundButtons, description.getUserInputDevice(), UserInputDeviceButton.NONE, description.getUserInputDeviceSecondaryAxis());
+        }
+
+        for (MacroOperationDescription description : macroOperationSchema)
+        {
+            this.bind(boundAxes, boundButtons, description.getUserInputDevice(), description.getUserInputDeviceButton(), description.getUserInputDeviceAxis());
+        }
+
+        // flatten the bound inputs into lists of what to read from each device
+        this.axes = new int[deviceCount][];
+        this.buttons = new int[deviceCount][];
+        for (int id = 0; id < deviceCount; id++)
+        {
+            int axisCount = 0;
+            for (int axis = 0; axis < InputFrame.AXIS_COUNT; axis++)
+            {
+                if (boundAxes[id][axis])
+                {
+                    axisCount++;
+                }
+            }
+
+            this.axes[id] = new int[axisCount];
+            axisCount = 0;
+            for (int axis = 0; axis < InputFrame.AXIS_COUNT; axis++)
+            {
+                if (boundAxes[id][axis])
+                {
+                    this.axes[id][axisCount++] = axis;
+                }
+            }
+
+            this.buttons[id] = new int[Integer.bitCount(boundButtons[id])];
+            int buttonCount = 0;
+            for (int button = 0; button < Integer.SIZE; button++)
+            {
+                if ((boundButtons[id] & (1 << button)) != 0)
+                {
+                    this.buttons[id][buttonCount++] = button;
+                }
+            }
+        }
+    }
+
+    /**
+     * Read the bound inputs from each joystick into the frame
+     * @param joysticks indexed by user input device id (null for devices that aren't used)
+     * @param frame to fill in
+     */
+    public void capture(IJoystick[] joysticks, InputFrame frame)
+    {
+        for (int id = 0; id < this.axes.length; id++)
+        {
+            IJoystick joystick = id < joysticks.length ? joysticks[id] : null;
+            if (joystick == null || !joystick.isConnected())
+            {
+                frame.setConnected(id, false);
+                continue;
+            }
+
+            frame.setConnected(id, true);
+
+            int[] deviceAxes = this.axes[id];
+            for (int i = 0; i < deviceAxes.length; i++)
+            {
+                frame.setAxis(id, deviceAxes[i], joystick.getAxis(deviceAxes[i]));
+            }
+
+            int pressedButtons = 0;
+            int[] deviceButtons = this.buttons[id];
+            for (int i = 0; i < deviceButtons.length; i++)
+            {
+                if (joystick.getRawButton(deviceButtons[i]))
+                {
+                    pressedButtons |= 1 << deviceButtons[i];
+                }
+            }
+
+            frame.setButtons(id, pressedButtons);
+
+            if (this.povs[id])
+            {
+                frame.setPOV(id, joystick.getPOV());
+            }
+        }
+    }
+
+    private void bind(boolean[][] boundAxes, int[] boundButtons, UserInputDevice device, UserInputDeviceButton button, AnalogAxis axis)
+    {
+        if (device == null || device == UserInputDevice.None || device == UserInputDevice.MaxCount)
+        {
+            return;
+        }
+
+        int id = device.getId();
+        if (button == UserInputDeviceButton.POV)
+        {
+            this.povs[id] = true;
+        }
+        else if (button == UserInputDeviceButton.ANALOG_AXIS_RANGE || button == UserInputDeviceButton.NONE || button == null)
+        {
+            if (axis != null && axis != AnalogAxis.NONE)
+            {
+                boundAxes[id][axis.Value] = true;
+            }
+        }
+        else
+        {
+            boundButtons[id] |= InputFrame.getButtonBit(button);
+        }
+    }
+}
@@ -0,0 +1,217 @@
+package frc.robot.driver.common;
+
+import frc.robot.driver.common.descriptions.UserInputDevice;
+
+/**
+ * Snapshot of the joystick inputs for a single cycle, indexed by user input device id.
+ * Filled in by an InputBindingTable once per cycle, so that operations that share a joystick read primitive values
+ * instead of each polling the joystick again.  The frame also tracks which inputs changed since the previous capture,
+ * so that macros can be woken only on an edge.
+ */
+public class InputFrame
+{
+    static final int AXIS_COUNT = InputFrame.getAxisCount();
+
+    private final boolean[] connected;
+    private final double[][] axes;
+    private final int[] buttons;
+    private final int[] povs;
+
+    // which inputs changed in the most recent capture
+    private final boolean[] connectionChanged;
+    private final boolean[][] axisChanged;
+    private final int[] changedButtons;
+    private final boolean[] povChanged;
+
+    /**
+     * Initializes a new InputFrame, with every device disconnected
+     */
+    public InputFrame()
+    {
+        int deviceCount = UserInputDevice.MaxCount.getId();
+        this.connected = new boolean[deviceCount];
+        this.axes = new double[deviceCount][InputFrame.AXIS_COUNT];
+        this.buttons = new int[deviceCount];
+        this.povs = new int[deviceCount];
+        this.connectionChanged = new boolean[deviceCount];
+        this.axisChanged = new boolean[deviceCount][InputFrame.AXIS_COUNT];
+        this.changedButtons = new int[deviceCount];
+        this.povChanged = new boolean[deviceCount];
+        for (int i = 0; i < deviceCount; i++)
+        {
+            this.povs[i] = -1;
+        }
+    }
+
+    /**
+     * Gets a value indicating whether the device was plugged in when the frame was captured
+     * @param device to check
+     * @return true if connected, otherwise false
+     */
+    public boolean isConnected(UserInputDevice device)
+    {
+        int id = device.getId();
+        return id >= 0 && id < this.connected.length && this.connected[id];
+    }
+
+    /**
+     * Get the value of an analog axis when the frame was captured
+     * @param device to check
+     * @param axis representing which stick/axis
+     * @return 0.0 if at origin point, otherwise -1.0 if full reverse or 1.0 if full forward
+     */
+    public double getAxis(UserInputDevice device, AnalogAxis axis)
+    {
+        return this.axes[device.getId()][axis.Value];
+    }
+
+    /**
+     * Get whether a button was pressed when the frame was captured
+     * @param device to check
+     * @param button representing which button
+     * @return true if pressed, otherwise false
+     */
+    public boolean getButton(UserInputDevice device, UserInputDeviceButton button)
+    {
+        return (this.buttons[device.getId()] & InputFrame.getButtonBit(button)) != 0;
+    }
+
+    /**
+     * Get the POV (d-pad) value when the frame was captured
+     * @param device to check
+     * @return -1 if unpressed, otherwise a value indicating the direction
+     */
+    public int getPOV(UserInputDevice device)
+    {
+        return this.povs[device.getId()];
+    }
+
+    /**
+     * Get whether an analog axis changed value (or its device was connected or disconnected) in the most recent capture
+     * @param device to check
+     * @param axis representing which stick/axis
+     * @return true if changed, otherwise false
+     */
+    public boolean hasAxisChanged(UserInputDevice device, AnalogAxis axis)
+    {
+        int id = device.getId();
+        if (id < 0 || id >= this.connected.length)
+        {
+            return false;
+        }
+
+        return this.connectionChanged[id] || this.axisChanged[id][axis.Value];
+    }
+
+    /**
+     * Get whether a button was pressed or released (or its device was connected or disconnected) in the most recent capture
+     * @param device to check
+     * @param button representing which button
+     * @return true if changed, otherwise false
+     */
+    public boolean hasButtonChanged(UserInputDevice device, UserInputDeviceButton button)
+    {
+        int id = device.getId();
+        if (id < 0 || id >= this.connected.length)
+        {
+            return false;
+        }
+
+        return this.connectionChanged[id] || (this.changedButtons[id] & InputFrame.getButtonBit(button)) != 0;
+    }
+
+    /**
+     * Get whether the POV (d-pad) changed direction (or its device was connected or disconnected) in the most recent capture
+     * @param device to check
+     * @return true if changed, otherwise false
+     */
+    public boolean hasPOVChanged(UserInputDevice device)
+    {
+        int id = device.getId();
+        if (id < 0 || id >= this.connected.length)
+        {
+            return false;
+        }
+
+        return this.connectionChanged[id] || this.povChanged[id];
+    }
+
+    boolean isConnected(int deviceId)
+    {
+        return this.connected[deviceId];
+    }
+
+    double getAxis(int deviceId, int axis)
+    {
+        return this.axes[deviceId][axis];
+    }
+
+    int getButtons(int deviceId)
+    {
+        return this.buttons[deviceId];
+    }
+
+    int getPOV(int deviceId)
+    {
+        return this.povs[deviceId];
+    }
+
+    void setConnected(int deviceId, boolean connected)
+    {
+        this.connectionChanged[deviceId] = this.connected[deviceId] != connected;
+        this.connected[deviceId] = connected;
+        this.changedButtons[deviceId] = 0;
+        this.povChanged[deviceId] = false;
+        for (int i = 0; i < InputFrame.AXIS_COUNT; i++)
+        {
+            this.axisChanged[deviceId][i] = false;
+        }
+
+        if (!connected)
+        {
+            this.buttons[deviceId] = 0;
+            this.povs[deviceId] = -1;
+            for (int i = 0; i < InputFrame.AXIS_COUNT; i++)
+            {
+                this.axes[deviceId][i] = 0.0;
+            }
+        }
+    }
+
+    void setAxis(int deviceId, int axis, double value)
+    {
+        this.axisChanged[deviceId][axis] = this.axes[deviceId][axis] != value;
+        this.axes[deviceId][axis] = value;
+    }
+
+    void setButtons(int deviceId, int buttons)
+    {
+        this.changedButtons[deviceId] = this.buttons[deviceId] ^ buttons;
+        this.buttons[deviceId] = buttons;
+    }
+
+    void setPOV(int deviceId, int pov)
+    {
+        this.povChanged[deviceId] = this.povs[deviceId] != pov;
+        this.povs[deviceId] = pov;
+    }
+
+    static int getButtonBit(UserInputDeviceButton button)
+    {
+        return 1 << button.Value;
+    }
+
+    private static int getAxisCount()
+    {
+        int count = 0;
+        for (AnalogAxis axis : AnalogAxis.values())
+        {
+            if (axis.Value >= count)
+            {
+                count = axis.Value + 1;
+            }
+        }
+
+        return count;
+    }
+}
@@ -0,0 +1,236 @@
+package frc.robot.driver.common;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import frc.robot.TuningConstants;
+import frc.robot.common.robotprovider.IBinaryFileWriter;
+import frc.robot.common.robotprovider.RobotMode;
+import frc.robot.driver.common.descriptions.UserInputDevice;
+
+/**
+ * Recorder that writes the joystick inputs the driver saw each cycle into a compact binary file, so that the session can be
+ * replayed headlessly (and deterministically) with JoystickReplay.
+ *
+ * File layout (all values big-endian):
+ *   header:  magic (int), version (short), device count (short), axis count (short)
+ *   records: a type (byte), followed by a type-specific payload:
+ *     UnchangedFrame: nothing (no device changed since the previous frame)
+ *     Frame:          mask of the devices that changed since the previous frame (byte), then for each changed device (in
+ *                     id order): connected (byte), buttons (int), POV (short), mask of the axes that changed (short), and
+ *                     then each changed axis (double)
+ *     StartMode:      RobotMode ordinal (byte)
+ *     Stop:           nothing
+ * Every device starts out disconnected, with no buttons pressed, the POV unpressed and each axis at 0.0.
+ *
+ * Only the inputs that are bound in the button map are captured into the frame, so only those are recorded.
+ */
+public class JoystickRecorder
+{
+    public static final int MAGIC = 0x4952534A; // "IRSJ"
+    public static final short VERSION = 1;
+
+    public static final byte TYPE_UNCHANGED_FRAME = 0;
+    public static final byte TYPE_FRAME = 1;
+    public static final byte TYPE_START_MODE = 2;
+    public static final byte TYPE_STOP = 3;
+
+    static final int DEVICE_COUNT = UserInputDevice.MaxCount.getId();
+    private static final int MAX_DEVICE_SIZE = 1 + 4 + 2 + 2 + 8 * InputFrame.AXIS_COUNT;
+
+    private final IBinaryFileWriter fileWriter;
+    private final ByteBuffer buffer;
+
+    // the most recently recorded state of each device, indexed by user input device id
+    private final boolean[] connected;
+    private final double[][] axes;
+    private final int[] buttons;
+    private final int[] povs;
+
+    /**
+     * Initializes a new instance of the JoystickRecorder class
+     * @param fileWriter to write into
+     * @throws IOException
+     */
+    public JoystickRecorder(IBinaryFileWriter fileWriter) throws IOException
+    {
+        this.fileWriter = fileWriter;
+        this.buffer = ByteBuffer.allocate(TuningConstants.LOG_BINARY_BUFFER_SIZE);
+
+        this.connected = new boolean[JoystickRecorder.DEVICE_COUNT];
+        this.axes = new double[JoystickRecorder.DEVICE_COUNT][InputFrame.AXIS_COUNT];
+        this.buttons = new int[JoystickRecorder.DEVICE_COUNT];
+        this.povs = new int[JoystickRecorder.DEVICE_COUNT];
+        for (int i = 0; i < JoystickRecorder.DEVICE_COUNT; i++)
+        {
+            this.povs[i] = -1;
+        }
+
+        this.buffer.putInt(JoystickRecorder.MAGIC);
+        this.buffer.putShort(JoystickRecorder.VERSION);
+        this.buffer.putShort((short)JoystickRecorder.DEVICE_COUNT);
+        this.buffer.putShort((short)InputFrame.AXIS_COUNT);
+        this.drain();
+        this.fileWriter.flush();
+    }
+
+    /**
+     * Record the inputs for the current cycle
+     * @param frame of joystick inputs that the driver checked in this cycle
+     */
+    public void recordFrame(InputFrame frame)
+    {
+        int changedDevices = 0;
+        int changedDeviceCount = 0;
+        for (int id = 0; id < JoystickRecorder.DEVICE_COUNT; id++)
+        {
+            if (this.hasChanged(frame, id))
+            {
+                changedDevices |= 1 << id;
+                changedDeviceCount++;
+            }
+        }
+
+        if (changedDevices == 0)
+        {
+            this.ensureCapacity(1);
+            this.buffer.put(JoystickRecorder.TYPE_UNCHANGED_FRAME);
+            return;
+        }
+
+        this.ensureCapacity(2 + changedDeviceCount * JoystickRecorder.MAX_DEVICE_SIZE);
+        this.buffer.put(JoystickRecorder.TYPE_FRAME);
+        this.buffer.put((byte)changedDevices);
+        for (int id = 0; id < JoystickRecorder.DEVICE_COUNT; id++)
+        {
+            if ((changedDevices & (1 << id)) == 0)
+            {
+                continue;
+            }
+
+            this.connected[id] = frame.isConnected(id);
+            this.buttons[id] = frame.getButtons(id);
+            this.povs[id] = frame.getPOV(id);
+            this.buffer.put(this.connected[id] ? (byte)1 : (byte)0);
+            this.buffer.putInt(this.buttons[id]);
+            this.buffer.putShort((short)this.povs[id]);
+
+            int changedAxes = 0;
+            for (int axis = 0; axis < InputFrame.AXIS_COUNT; axis++)
+            {
+                if (frame.getAxis(id, axis) != this.axes[id][axis])
+                {
+                    changedAxes |= 1 << axis;
+                }
+            }
+
+            this.buffer.putShort((short)changedAxes);
+            for (int axis = 0; axis < InputFrame.AXIS_COUNT; axis++)
+            {
+                if ((changedAxes & (1 << axis)) != 0)
+                {
+                    this.axes[id][axis] = frame.getAxis(id, axis);
+                    this.buffer.putDouble(this.axes[id][axis]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Record that the driver started a mode
+     * @param mode that is starting
+     */
+    public void recordStartMode(RobotMode mode)
+    {
+        this.ensureCapacity(2);
+        this.buffer.put(JoystickRecorder.TYPE_START_MODE);
+        this.buffer.put((byte)mode.ordinal());
+    }
+
+    /**
+     * Record that the driver stopped, and write everything recorded so far to the file
+     */
+    public void recordStop()
+    {
+        this.ensureCapacity(1);
+        this.buffer.put(JoystickRecorder.TYPE_STOP);
+        this.flush();
+    }
+
+    /**
+     * Write everything recorded so far to the file
+     */
+    public void flush()
+    {
+        try
+        {
+            this.drain();
+            this.fileWriter.flush();
+        }
+        catch (IOException e)
+        {
+            // best-effort...
+        }
+    }
+
+    /**
+     * Close the file
+     */
+    public void close()
+    {
+        try
+        {
+            this.drain();
+            this.fileWriter.close();
+        }
+        catch (IOException e)
+        {
+            // best-effort...
+        }
+    }
+
+    private boolean hasChanged(InputFrame frame, int id)
+    {
+        if (frame.isConnected(id) != this.connected[id] ||
+            frame.getButtons(id) != this.buttons[id] ||
+            frame.getPOV(id) != this.povs[id])
+        {
+            return true;
+        }
+
+        for (int axis = 0; axis < InputFrame.AXIS_COUNT; axis++)
+        {
+            if (frame.getAxis(id, axis) != this.axes[id][axis])
+            {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    private void ensureCapacity(int size)
+    {
+        if (this.buffer.remaining() < size)
+        {
+            try
+            {
+                this.drain();
+            }
+            catch (IOException e)
+            {
+                // best-effort...
+                this.buffer.clear();
+            }
+        }
+    }
+
+    private void drain() throws IOException
+    {
+        if (this.buffer.position() > 0)
+        {
+            this.fileWriter.write(this.buffer.array(), 0, this.buffer.position());
+            this.buffer.clear();
+        }
+    }
+}
@@ -0,0 +1,225 @@
+package frc.robot.driver.common;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+
+import frc.robot.common.robotprovider.IJoystick;
+import frc.robot.common.robotprovider.JoystickRumbleType;
+import frc.robot.common.robotprovider.RobotMode;
+
+/**
+ * Replays a file written by JoystickRecorder, one record at a time, through a set of joysticks that can be handed to the
+ * driver in place of the real ones.  The caller is responsible for running a cycle (or starting/stopping the driver) for
+ * each record, so a recording can be replayed as fast as the CPU allows.
+ */
+public class JoystickReplay
+{
+    public static final byte TYPE_END = -1;
+
+    private static final RobotMode[] RobotModes = RobotMode.values();
+
+    private final ByteBuffer buffer;
+    private final int dataStart;
+    private final ReplayJoystick[] joysticks;
+
+    private RobotMode mode;
+
+    /**
+     * Initializes a new instance of the JoystickReplay class
+     * @param buffer containing the recording
+     * @throws IOException if the buffer doesn't contain a recording that matches the current devices and axes
+     */
+    public JoystickReplay(ByteBuffer buffer) throws IOException
+    {
+        this.buffer = buffer;
+
+        try
+        {
+            if (buffer.getInt() != JoystickRecorder.MAGIC)
+            {
+                throw new IOException("Not a joystick recording");
+            }
+
+            short version = buffer.getShort();
+            if (version != JoystickRecorder.VERSION)
+            {
+                throw new IOException("Unsupported joystick recording version " + version);
+            }
+
+            if (buffer.getShort() != JoystickRecorder.DEVICE_COUNT || buffer.getShort() != InputFrame.AXIS_COUNT)
+            {
+                throw new IOException("Joystick recording doesn't match the current user input devices");
+            }
+        }
+        catch (BufferUnderflowException ex)
+        {
+            throw new IOException("Joystick recording is missing its header");
+        }
+
+        this.dataStart = buffer.position();
+        this.joysticks = new ReplayJoystick[JoystickRecorder.DEVICE_COUNT];
+        for (int i = 0; i < this.joysticks.length; i++)
+        {
+            this.joysticks[i] = new ReplayJoystick();
+        }
+
+        this.mode = RobotMode.Disabled;
+    }
+
+    /**
+     * Get the joystick that replays the inputs of a user input device
+     * @param id of the user input device
+     * @return joystick for that device
+     */
+    public IJoystick getJoystick(int id)
+    {
+        return this.joysticks[id];
+    }
+
+    /**
+     * Get the mode that was most recently started
+     * @return the mode from the most recent StartMode record
+     */
+    public RobotMode getMode()
+    {
+        return this.mode;
+    }
+
+    /**
+     * Read the next record, updating the joysticks for a frame and the mode for a StartMode record
+     * @return the type of the record (one of the JoystickRecorder types), or TYPE_END at the end of the recording
+     */
+    public byte next()
+    {
+        if (!this.buffer.hasRemaining())
+        {
+            return JoystickReplay.TYPE_END;
+        }
+
+        try
+        {
+            byte type = this.buffer.get();
+            switch (type)
+            {
+                case JoystickRecorder.TYPE_UNCHANGED_FRAME:
+                case JoystickRecorder.TYPE_STOP:
+                    return type;
+
+                case JoystickRecorder.TYPE_FRAME:
+                    this.readFrame();
+                    return type;
+
+                case JoystickRecorder.TYPE_START_MODE:
+                    this.mode = JoystickReplay.RobotModes[this.buffer.get()];
+                    return type;
+
+                default:
+                    // corrupt recording
+                    return JoystickReplay.TYPE_END;
+            }
+        }
+        catch (BufferUnderflowException ex)
+        {
+            // a partially-written final record (e.g. after a brown-out)
+            return JoystickReplay.TYPE_END;
+        }
+    }
+
+    /**
+     * Go back to the start of the recording, with every device disconnected
+     */
+    public void rewind()
+    {
+        this.buffer.position(this.dataStart);
+        for (ReplayJoystick joystick : this.joysticks)
+        {
+            joystick.reset();
+        }
+
+        this.mode = RobotMode.Disabled;
+    }
+
+    private void readFrame()
+    {
+        int changedDevices = this.buffer.get();
+        for (int id = 0; id < this.joysticks.length; id++)
+        {
+            if ((changedDevices & (1 << id)) == 0)
+            {
+                continue;
+            }
+
+            ReplayJoystick joystick = this.joysticks[id];
+            joystick.connected = this.buffer.get() != 0;
+            joystick.buttons = this.buffer.getInt();
+            joystick.pov = this.buffer.getShort();
+
+            int changedAxes = this.buffer.getShort();
+            for (int axis = 0; axis < InputFrame.AXIS_COUNT; axis++)
+            {
+                if ((changedAxes & (1 << axis)) != 0)
+                {
+                    joystick.axes[axis] = this.buffer.getDouble();
+                }
+            }
+        }
+    }
+
+    /**
+     * Joystick that reports the most recently replayed inputs of a device
+     */
+    private static class ReplayJoystick implements IJoystick
+    {
+        private final double[] axes;
+        private boolean connected;
+        private int buttons;
+        private int pov;
+
+        ReplayJoystick()
+        {
+            this.axes = new double[InputFrame.AXIS_COUNT];
+            this.reset();
+        }
+
+        void reset()
+        {
+            this.connected = false;
+            this.buttons = 0;
+            this.pov = -1;
+            for (int i = 0; i < this.axes.length; i++)
+            {
+                this.axes[i] = 0.0;
+            }
+        }
+
+        @Override
+        public boolean isConnected()
+        {
+            return this.connected;
+        }
+
+        @Override
+        public double getAxis(int relevantAxis)
+        {
+            return this.axes[relevantAxis];
+        }
+
+        @Override
+        public int getPOV()
+        {
+            return this.pov;
+        }
+
+        @Override
+        public boolean getRawButton(int value)
+        {
+            return (this.buttons & (1 << value)) != 0;
+        }
+
+        @Override
+        public void setRumble(JoystickRumbleType type, double value)
+        {
+        }
+    }
+}
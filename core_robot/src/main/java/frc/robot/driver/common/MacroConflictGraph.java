@@ -0,0 +1,146 @@
+package frc.robot.driver.common;
+
+import java.util.Arrays;
+
+import frc.robot.driver.IOperation;
+import frc.robot.driver.MacroOperation;
+import frc.robot.driver.common.states.OperationStateTable;
+
+/**
+ * The static conflicts between macros, compiled once from the operations that cancel each macro (rather than rediscovered
+ * from the active macros every cycle).  Two macros conflict when they share a cancel operation.  Sets of macros are
+ * represented as masks with one bit per MacroOperation ordinal, so that arbitrating between the active macros is a few
+ * bitwise operations.
+ */
+public class MacroConflictGraph
+{
+    private static final int MacroOperationCount = MacroOperation.values().length;
+
+    private final OperationStateTable operationStateTable;
+
+    // the operation state table indexes of the cancel operations of each macro, indexed by MacroOperation ordinal (null for
+    // macros that aren't in the graph)
+    private final int[][] cancelOperationIndexes;
+
+    // the macros that conflict with each macro, indexed by MacroOperation ordinal
+    private final long[] conflicts;
+
+    // the macros that are cancelled by each operation, indexed the same as in the operation state table
+    private final long[] cancellingMacros;
+
+    /**
+     * Initializes a new MacroConflictGraph, without any macros
+     * @param operationStateTable with the operations that macros are cancelled by
+     */
+    public MacroConflictGraph(OperationStateTable operationStateTable)
+    {
+        if (MacroConflictGraph.MacroOperationCount > Long.SIZE)
+        {
+            throw new RuntimeException("Too many macro operations for a conflict mask (" + MacroConflictGraph.MacroOperationCount + ")");
+        }
+
+        this.operationStateTable = operationStateTable;
+        this.cancelOperationIndexes = new int[MacroConflictGraph.MacroOperationCount][];
+        this.conflicts = new long[MacroConflictGraph.MacroOperationCount];
+        this.cancellingMacros = new long[operationStateTable.getOperationCount()];
+    }
+
+    /**
+     * Get the bit that represents a macro within a mask
+     * @param macroOperation to get the bit for
+     * @return mask with only that macro's bit set
+     */
+    public static long getBit(MacroOperation macroOperation)
+    {
+        return 1L << macroOperation.ordinal();
+    }
+
+    /**
+     * Set the operations that cancel a macro, updating its conflicts with the other macros in the graph
+     * @param macroOperation to set
+     * @param cancelOperations that cancel the macro, or null to remove the macro from the graph
+     */
+    public void setCancelOperations(MacroOperation macroOperation, IOperation[] cancelOperations)
+    {
+        int ordinal = macroOperation.ordinal();
+        long bit = MacroConflictGraph.getBit(macroOperation);
+
+        // remove the macro's previous edges...
+        if (this.cancelOperationIndexes[ordinal] != null)
+        {
+            for (int operationIndex : this.cancelOperationIndexes[ordinal])
+            {
+                this.cancellingMacros[operationIndex] &= ~bit;
+            }
+
+            for (int i = 0; i < this.conflicts.length; i++)
+            {
+                this.conflicts[i] &= ~bit;
+            }
+
+            this.conflicts[ordinal] = 0L;
+            this.cancelOperationIndexes[ordinal] = null;
+        }
+
+        if (cancelOperations == null)
+        {
+            return;
+        }
+
+        // ...and add the new ones (ignoring operations that aren't in the operation state table)
+        int[] operationIndexes = new int[cancelOperations.length];
+        int operationCount = 0;
+        long conflicts = 0L;
+        for (IOperation operation : cancelOperations)
+        {
+            int operationIndex = this.operationStateTable.getIndex(operation);
+            if (operationIndex >= 0 && (this.cancellingMacros[operationIndex] & bit) == 0L)
+            {
+                operationIndexes[operationCount++] = operationIndex;
+                conflicts |= this.cancellingMacros[operationIndex];
+                this.cancellingMacros[operationIndex] |= bit;
+            }
+        }
+
+        this.cancelOperationIndexes[ordinal] = Arrays.copyOf(operationIndexes, operationCount);
+        this.conflicts[ordinal] = conflicts;
+        for (int i = 0; i < this.conflicts.length; i++)
+        {
+            if ((conflicts & (1L << i)) != 0L)
+            {
+                this.conflicts[i] |= bit;
+            }
+        }
+    }
+
+    /**
+     * Get the macros that share a cancel operation with a macro
+     * @param ordinal of the MacroOperation
+     * @return mask of the conflicting macros
+     */
+    public long getConflicts(int ordinal)
+    {
+        return this.conflicts[ordinal];
+    }
+
+    /**
+     * Get the macros that are cancelled by an operation
+     * @param operationIndex of the operation within the operation state table
+     * @return mask of the macros cancelled by the operation
+     */
+    public long getCancellingMacros(int operationIndex)
+    {
+        return this.cancellingMacros[operationIndex];
+    }
+
+    /**
+     * Get the operations that cancel a macro
+     * @param ordinal of the MacroOperation
+     * @return operation state table indexes of the cancel operations (don't modify the array), or null if the macro isn't
+     * in the graph
+     */
+    public int[] getCancelOperationIndexes(int ordinal)
+    {
+        return this.cancelOperationIndexes[ordinal];
+    }
+}
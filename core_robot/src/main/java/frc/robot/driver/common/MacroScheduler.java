@@ -0,0 +1,292 @@
+package frc.robot.driver.common;
+
+import frc.robot.driver.MacroOperation;
+import frc.robot.driver.common.descriptions.MacroOperationDescription;
+import frc.robot.driver.common.descriptions.UserInputDevice;
+import frc.robot.driver.common.states.IMacroOperationState;
+import frc.robot.driver.common.states.OperationStateTable;
+
+/**
+ * Schedules the macro operations for the driver, arbitrating between macros that affect the same operations.
+ *
+ * Rather than checking and running every macro every cycle, the scheduler keeps the set of macros that are active and the
+ * set of macros that are running (those that may still own a task).  An idle macro is only woken to check its input when
+ * its button has an edge, the active shifts change, or its state was cleared since it last checked its input.  Only
+ * active and running macros are run.
+ *
+ * The conflicts between macros are compiled into a MacroConflictGraph when each macro is set, so sets of macros are kept
+ * as masks with one bit per MacroOperation ordinal.
+ */
+public class MacroScheduler
+{
+    private static final MacroOperation[] MacroOperations = MacroOperation.values();
+
+    private final MacroConflictGraph conflictGraph;
+
+    // macro states and descriptions, indexed by MacroOperation ordinal (null for macros that aren't scheduled)
+    private final IMacroOperationState[] macroStates;
+    private final MacroOperationDescription[] macroDescriptions;
+
+    // macros that need to check their input even without an edge, because their state was changed or cleared
+    private final boolean[] wake;
+    private int lastActiveShifts;
+
+    // macros that were active after they were last run (these may still own a task)
+    private long runningMacros;
+
+    // macros that were active during the most recent update
+    private long activeMacros;
+
+    /**
+     * Initializes a new MacroScheduler, without any macros
+     * @param operationStateTable with the operations that macros affect
+     */
+    public MacroScheduler(OperationStateTable operationStateTable)
+    {
+        this.conflictGraph = new MacroConflictGraph(operationStateTable);
+
+        this.macroStates = new IMacroOperationState[MacroScheduler.MacroOperations.length];
+        this.macroDescriptions = new MacroOperationDescription[MacroScheduler.MacroOperations.length];
+        this.wake = new boolean[MacroScheduler.MacroOperations.length];
+    }
+
+    /**
+     * Set the state of a macro operation, cancelling the state that it replaces
+     * @param macroOperation to set
+     * @param macroState state of the macro, or null to stop scheduling the macro
+     * @param description of the macro's user input, or null if the macro doesn't take user input
+     */
+    public void setMacroState(MacroOperation macroOperation, IMacroOperationState macroState, MacroOperationDescription description)
+    {
+        int ordinal = macroOperation.ordinal();
+        IMacroOperationState previousState = this.macroStates[ordinal];
+        if (previousState != null && previousState != macroState)
+        {
+            // stop whatever the replaced state was running (e.g. the autonomous routine when the robot is disabled)
+            previousState.cancel();
+        }
+
+        this.macroStates[ordinal] = macroState;
+        this.macroDescriptions[ordinal] = description;
+        this.wake[ordinal] = true;
+        this.conflictGraph.setCancelOperations(macroOperation, macroState != null ? macroState.getMacroCancelOperations() : null);
+
+        long bit = MacroConflictGraph.getBit(macroOperation);
+        if (macroState != null && macroState.getIsActive())
+        {
+            this.runningMacros |= bit;
+        }
+        else
+        {
+            this.runningMacros &= ~bit;
+            this.activeMacros &= ~bit;
+        }
+    }
+
+    /**
+     * Get the state of a macro operation
+     * @param macroOperation to get
+     * @return the state of the macro, or null if it isn't scheduled
+     */
+    public IMacroOperationState getMacroState(MacroOperation macroOperation)
+    {
+        return this.macroStates[macroOperation.ordinal()];
+    }
+
+    /**
+     * Get the macros that were active during the most recent update
+     * @return mask of the active macro operations (see MacroConflictGraph.getBit)
+     */
+    public long getActiveMacros()
+    {
+        return this.activeMacros;
+    }
+
+    /**
+     * Get whether a macro was active during the most recent update
+     * @param macroOperation to check
+     * @return true if active, otherwise false
+     */
+    public boolean isActive(MacroOperation macroOperation)
+    {
+        return (this.activeMacros & MacroConflictGraph.getBit(macroOperation)) != 0L;
+    }
+
+    /**
+     * Cancel all of the macros, and wake them so they check their input in the next update
+     */
+    public void cancelAll()
+    {
+        for (int i = 0; i < this.macroStates.length; i++)
+        {
+            IMacroOperationState macroState = this.macroStates[i];
+            if (macroState != null)
+            {
+                macroState.cancel();
+            }
+
+            this.wake[i] = true;
+        }
+
+        this.runningMacros = 0L;
+        this.activeMacros = 0L;
+    }
+
+    /**
+     * Check the input of woken macros, cancel macros that conflict with user input or other macros, and run the active
+     * and running macros
+     * @param frame of joystick inputs to check the macros against
+     * @param activeShifts mask of the active shifts
+     * @param checkInput whether to check user input (false during autonomous)
+     * @param modifiedOperations whether each operation was modified by user input in this update
+     */
+    public void update(InputFrame frame, int activeShifts, boolean checkInput, boolean[] modifiedOperations)
+    {
+        // keep track of macros that were running before we checked user input...
+        long previouslyActiveMacros = this.runningMacros;
+
+        // check user inputs for the macros that have been woken...
+        boolean shiftsChanged = activeShifts != this.lastActiveShifts;
+        if (checkInput)
+        {
+            this.lastActiveShifts = activeShifts;
+        }
+
+        long activeMacros = 0L;
+        for (int i = 0; i < this.macroStates.length; i++)
+        {
+            IMacroOperationState macroState = this.macroStates[i];
+            if (macroState == null)
+            {
+                continue;
+            }
+
+            boolean previouslyActive = (previouslyActiveMacros & (1L << i)) != 0L;
+            if (checkInput &&
+                (previouslyActive || shiftsChanged || this.wake[i] || this.hasInputChanged(frame, this.macroDescriptions[i])))
+            {
+                this.wake[i] = false;
+                macroState.checkInput(frame, activeShifts);
+            }
+            else if (!previouslyActive)
+            {
+                // without an edge, an idle macro stays idle
+                continue;
+            }
+
+            if (macroState.getIsActive())
+            {
+                activeMacros |= 1L << i;
+            }
+        }
+
+        // Determine the list of macro operations to cancel.  Only keep macros that:
+        // 1. have not been usurped by a user action
+        // 2. have not been usurped by a new macro (i.e. that was started in this round)
+        // 3. are new macros that do not overlap with other new macros
+        long macrosToCancel = 0L;
+        if (activeMacros != 0L)
+        {
+            long newMacros = activeMacros & ~previouslyActiveMacros;
+            for (long remaining = activeMacros; remaining != 0L; remaining &= remaining - 1L)
+            {
+                int ordinal = Long.numberOfTrailingZeros(remaining);
+                long bit = 1L << ordinal;
+
+                int[] cancelOperationIndexes = this.conflictGraph.getCancelOperationIndexes(ordinal);
+                for (int i = 0; i < cancelOperationIndexes.length; i++)
+                {
+                    if (modifiedOperations[cancelOperationIndexes[i]])
+                    {
+                        // disobeys rule #1:
+                        // (macro usurped by user action)
+                        macrosToCancel |= bit;
+                        break;
+                    }
+                }
+
+                long activeConflicts = this.conflictGraph.getConflicts(ordinal) & activeMacros;
+                if ((previouslyActiveMacros & bit) != 0L)
+                {
+                    if (activeConflicts != 0L)
+                    {
+                        // disobeys rule #2:
+                        // (previously active macro that shares an operation with another active macro)
+                        macrosToCancel |= bit;
+                    }
+                }
+                else if ((activeConflicts & newMacros) != 0L)
+                {
+                    // disobeys rule #3:
+                    // (new macro that shares an operation with another new macro)
+                    macrosToCancel |= bit;
+                }
+            }
+        }
+
+        // cancel macros that didn't follow the rules list above
+        for (long remaining = macrosToCancel; remaining != 0L; remaining &= remaining - 1L)
+        {
+            int ordinal = Long.numberOfTrailingZeros(remaining);
+            this.macroStates[ordinal].setIsInterrupted(true);
+            this.wake[ordinal] = true;
+        }
+
+        activeMacros &= ~macrosToCancel;
+        this.activeMacros = activeMacros;
+
+        // first, run the macros that are no longer active (to stop their tasks and clear any old interrupts)...
+        // (idle macros that weren't running or cancelled don't own a task, so running them would do nothing)
+        this.runningMacros = 0L;
+        for (long remaining = (previouslyActiveMacros | macrosToCancel) & ~activeMacros; remaining != 0L; remaining &= remaining - 1L)
+        {
+            this.run(Long.numberOfTrailingZeros(remaining));
+        }
+
+        // second, run all of the active macros (which could add interrupts that were cleared in the previous phase)...
+        for (long remaining = activeMacros; remaining != 0L; remaining &= remaining - 1L)
+        {
+            this.run(Long.numberOfTrailingZeros(remaining));
+        }
+    }
+
+    private void run(int ordinal)
+    {
+        IMacroOperationState macroState = this.macroStates[ordinal];
+        macroState.run();
+
+        // running may end the task and clear the macro's state
+        this.wake[ordinal] = true;
+        if (macroState.getIsActive())
+        {
+            this.runningMacros |= 1L << ordinal;
+        }
+    }
+
+    private boolean hasInputChanged(InputFrame frame, MacroOperationDescription description)
+    {
+        if (description == null)
+        {
+            return true;
+        }
+
+        UserInputDevice device = description.getUserInputDevice();
+        UserInputDeviceButton button = description.getUserInputDeviceButton();
+        if (button == UserInputDeviceButton.POV)
+        {
+            return frame.hasPOVChanged(device);
+        }
+
+        if (button == UserInputDeviceButton.ANALOG_AXIS_RANGE)
+        {
+            return frame.hasAxisChanged(device, description.getUserInputDeviceAxis());
+        }
+
+        if (button == UserInputDeviceButton.NONE)
+        {
+            return false;
+        }
+
+        return frame.hasButtonChanged(device, button);
+    }
+}
@@ -0,0 +1,200 @@
+package frc.robot.driver.common;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+
+import frc.robot.common.robotprovider.ITrajectory;
+
+/**
+ * Reads and writes the path cache, a compact binary file with the sampled states of each path so that the paths don't need
+ * to be generated on the robot.  The cache is written at build time (see RoadRunnerTrajectoryGenerator.main) and deployed
+ * with the robot, and each path is only decoded from it the first time that it is used.
+ *
+ * Format (big-endian):
+ * - header: magic (int), version (int), hash of the path definitions (long), sample step (double), path count (int)
+ * - index, for each path: name length (short), name (UTF-8), offset of its samples (int), sample count (int), duration (double)
+ * - samples, for each path: sample count * (x, y, angle, x velocity, y velocity, angle velocity) (floats)
+ */
+public class PathCache
+{
+    static final int MAGIC = 0x49525350; // "IRSP"
+    static final int VERSION = 1;
+
+    private final ByteBuffer buffer;
+    private final long definitionHash;
+    private final double sampleStep;
+    private final HashMap<String, Integer> indexOffsets;
+
+    /**
+     * Initializes a new PathCache, reading its header and index
+     * @param buffer containing the path cache (e.g. memory-mapped from the file)
+     * @throws IOException if the buffer doesn't contain a path cache
+     */
+    public PathCache(ByteBuffer buffer) throws IOException
+    {
+        this.buffer = buffer;
+        this.indexOffsets = new HashMap<String, Integer>();
+
+        try
+        {
+            int position = 0;
+            if (buffer.getInt(position) != PathCache.MAGIC)
+            {
+                throw new IOException("Not a path cache");
+            }
+
+            position += Integer.BYTES;
+            int version = buffer.getInt(position);
+            if (version != PathCache.VERSION)
+            {
+                throw new IOException("Unsupported path cache version " + version);
+            }
+
+            position += Integer.BYTES;
+            this.definitionHash = buffer.getLong(position);
+            position += Long.BYTES;
+            this.sampleStep = buffer.getDouble(position);
+            position += Double.BYTES;
+            int pathCount = buffer.getInt(position);
+            position += Integer.BYTES;
+
+            ByteBuffer names = buffer.duplicate();
+            for (int i = 0; i < pathCount; i++)
+            {
+                int nameLength = buffer.getShort(position);
+                position += Short.BYTES;
+
+                byte[] name = new byte[nameLength];
+                names.position(position);
+                names.get(name);
+                position += nameLength;
+
+                this.indexOffsets.put(new String(name, StandardCharsets.UTF_8), position);
+                position += Integer.BYTES + Integer.BYTES + Double.BYTES;
+            }
+        }
+        catch (IndexOutOfBoundsException | BufferUnderflowException ex)
+        {
+            throw new IOException("Truncated path cache", ex);
+        }
+    }
+
+    /**
+     * Get the hash of the path definitions that the cache was generated from
+     * @return hash of the path definitions
+     */
+    public long getDefinitionHash()
+    {
+        return this.definitionHash;
+    }
+
+    /**
+     * Get whether the cache contains a path
+     * @param name of the path
+     * @return true if the cache contains the path, otherwise false
+     */
+    public boolean containsPath(String name)
+    {
+        return this.indexOffsets.containsKey(name);
+    }
+
+    /**
+     * Decode a path from the cache
+     * @param name of the path
+     * @return the sampled path, or null if the cache doesn't contain it (or it is truncated)
+     */
+    public ITrajectory getTrajectory(String name)
+    {
+        Integer indexOffset = this.indexOffsets.get(name);
+        if (indexOffset == null)
+        {
+            return null;
+        }
+
+        try
+        {
+            int position = indexOffset;
+            int samplesOffset = this.buffer.getInt(position);
+            position += Integer.BYTES;
+            int sampleCount = this.buffer.getInt(position);
+            position += Integer.BYTES;
+            double duration = this.buffer.getDouble(position);
+
+            double[] samples = new double[sampleCount * SampledTrajectory.VALUE_COUNT];
+            for (int i = 0; i < samples.length; i++)
+            {
+                samples[i] = this.buffer.getFloat(samplesOffset + i * Float.BYTES);
+            }
+
+            return new SampledTrajectory(duration, this.sampleStep, samples);
+        }
+        catch (IndexOutOfBoundsException | IllegalArgumentException ex)
+        {
+            return null;
+        }
+    }
+
+    /**
+     * Write a path cache with all of the paths in a PathManager
+     * @param definitionHash hash of the path definitions that the paths were generated from
+     * @param sampleStep time between the samples, in seconds
+     * @param pathManager with the paths to write
+     * @return buffer containing the path cache, from its start to its limit
+     */
+    public static ByteBuffer write(long definitionHash, double sampleStep, PathManager pathManager)
+    {
+        List<String> names = new ArrayList<String>(pathManager.getPathNames());
+        Collections.sort(names);
+
+        byte[][] encodedNames = new byte[names.size()][];
+        SampledTrajectory[] trajectories = new SampledTrajectory[names.size()];
+        int indexSize = 0;
+        int samplesSize = 0;
+        for (int i = 0; i < names.size(); i++)
+        {
+            encodedNames[i] = names.get(i).getBytes(StandardCharsets.UTF_8);
+            trajectories[i] = SampledTrajectory.sample(pathManager.getTrajectory(names.get(i)), sampleStep);
+            indexSize += Short.BYTES + encodedNames[i].length + Integer.BYTES + Integer.BYTES + Double.BYTES;
+            samplesSize += trajectories[i].getSampleCount() * SampledTrajectory.VALUE_COUNT * Float.BYTES;
+        }
+
+        int headerSize = Integer.BYTES + Integer.BYTES + Long.BYTES + Double.BYTES + Integer.BYTES;
+        ByteBuffer buffer = ByteBuffer.allocate(headerSize + indexSize + samplesSize);
+        buffer.putInt(PathCache.MAGIC);
+        buffer.putInt(PathCache.VERSION);
+        buffer.putLong(definitionHash);
+        buffer.putDouble(sampleStep);
+        buffer.putInt(names.size());
+
+        int samplesOffset = headerSize + indexSize;
+        for (int i = 0; i < names.size(); i++)
+        {
+            buffer.putShort((short)encodedNames[i].length);
+            buffer.put(encodedNames[i]);
+            buffer.putInt(samplesOffset);
+            buffer.putInt(trajectories[i].getSampleCount());
+            buffer.putDouble(trajectories[i].getDuration());
+            samplesOffset += trajectories[i].getSampleCount() * SampledTrajectory.VALUE_COUNT * Float.BYTES;
+        }
+
+        for (SampledTrajectory trajectory : trajectories)
+        {
+            for (int i = 0; i < trajectory.getSampleCount(); i++)
+            {
+                for (int value = 0; value < SampledTrajectory.VALUE_COUNT; value++)
+                {
+                    buffer.putFloat((float)trajectory.getSampleValue(i, value));
+                }
+            }
+        }
+
+        buffer.flip();
+        return buffer;
+    }
+}
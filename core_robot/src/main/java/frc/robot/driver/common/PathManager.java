@@ -1,6 +1,8 @@
 package frc.robot.driver.common;
 
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Set;
 
 import com.google.inject.Inject;
 import com.google.inject.Singleton;
@@ -11,6 +13,7 @@ import frc.robot.common.robotprovider.ITrajectory;
 public class PathManager
 {
     private HashMap<String, ITrajectory> map;
+    private PathCache cache;
 
     /**
      * Initializes a new PathManager
@@ -23,11 +26,40 @@ public class PathManager
 
     public ITrajectory getTrajectory(String name)
     {
-        return map.getOrDefault(name, null);
+        ITrajectory trajectory = this.map.getOrDefault(name, null);
+        if (trajectory == null && this.cache != null)
+        {
+            // decode the path from the cache the first time that it is used
+            trajectory = this.cache.getTrajectory(name);
+            if (trajectory != null)
+            {
+                this.map.put(name, trajectory);
+            }
+        }
+
+        return trajectory;
     }
 
     public void addPath(String name, ITrajectory path)
     {
-        map.put(name, path);
+        this.map.put(name, path);
+    }
+
+    /**
+     * Set the path cache to load paths from (when they haven't been added directly)
+     * @param cache of sampled paths
+     */
+    public void setCache(PathCache cache)
+    {
+        this.cache = cache;
+    }
+
+    /**
+     * Get the names of the paths that have been added (not including those that are only in the cache)
+     * @return set of path names
+     */
+    public Set<String> getPathNames()
+    {
+        return new HashSet<String>(this.map.keySet());
     }
 }
@@ -0,0 +1,205 @@
+package frc.robot.driver.common;
+
+import frc.robot.common.robotprovider.ITrajectory;
+import frc.robot.common.robotprovider.TrajectoryState;
+
+/**
+ * A trajectory that has been sampled at a fixed time step, so that its state can be looked up by index and linearly
+ * interpolated between the samples rather than evaluated from its splines and motion profile.
+ */
+public class SampledTrajectory implements ITrajectory
+{
+    // the values of each sample, in order
+    static final int X_POSITION = 0;
+    static final int Y_POSITION = 1;
+    static final int ANGLE = 2;
+    static final int X_VELOCITY = 3;
+    static final int Y_VELOCITY = 4;
+    static final int ANGLE_VELOCITY = 5;
+    static final int VALUE_COUNT = 6;
+
+    private final double duration;
+    private final double sampleStep;
+    private final int sampleCount;
+
+    // the values of the samples, VALUE_COUNT per sample, at times 0, sampleStep, 2 * sampleStep, ... (the last sample is at duration)
+    private final double[] samples;
+
+    /**
+     * Initializes a new SampledTrajectory
+     * @param duration of the trajectory, in seconds
+     * @param sampleStep time between the samples, in seconds
+     * @param samples values of the samples, VALUE_COUNT per sample
+     */
+    SampledTrajectory(double duration, double sampleStep, double[] samples)
+    {
+        if (samples.length < SampledTrajectory.VALUE_COUNT || samples.length % SampledTrajectory.VALUE_COUNT != 0)
+        {
+            throw new IllegalArgumentException("Expected a whole number of samples, but got " + samples.length + " values");
+        }
+
+        this.duration = duration;
+        this.sampleStep = sampleStep;
+        this.sampleCount = samples.length / SampledTrajectory.VALUE_COUNT;
+        this.samples = samples;
+    }
+
+    /**
+     * Sample a trajectory at a fixed time step
+     * @param trajectory to sample
+     * @param sampleStep time between the samples, in seconds
+     * @return sampled version of the trajectory
+     */
+    public static SampledTrajectory sample(ITrajectory trajectory, double sampleStep)
+    {
+        double duration = trajectory.getDuration();
+        int sampleCount = SampledTrajectory.getSampleCount(duration, sampleStep);
+        double[] samples = new double[sampleCount * SampledTrajectory.VALUE_COUNT];
+        TrajectoryState state = new TrajectoryState();
+        for (int i = 0; i < sampleCount; i++)
+        {
+            trajectory.get(Math.min(i * sampleStep, duration), state);
+            int offset = i * SampledTrajectory.VALUE_COUNT;
+            samples[offset + SampledTrajectory.X_POSITION] = state.xPosition;
+            samples[offset + SampledTrajectory.Y_POSITION] = state.yPosition;
+            samples[offset + SampledTrajectory.ANGLE] = state.angle;
+            samples[offset + SampledTrajectory.X_VELOCITY] = state.xVelocity;
+            samples[offset + SampledTrajectory.Y_VELOCITY] = state.yVelocity;
+            samples[offset + SampledTrajectory.ANGLE_VELOCITY] = state.angleVelocity;
+        }
+
+        return new SampledTrajectory(duration, sampleStep, samples);
+    }
+
+    /**
+     * Get the number of samples needed to cover a trajectory, including one at its end
+     * @param duration of the trajectory, in seconds
+     * @param sampleStep time between the samples, in seconds
+     * @return number of samples
+     */
+    static int getSampleCount(double duration, double sampleStep)
+    {
+        return (int)Math.ceil(duration / sampleStep) + 1;
+    }
+
+    @Override
+    public double getDuration()
+    {
+        return this.duration;
+    }
+
+    /**
+     * Gets the state of the trajectory at the provided time, interpolated between the nearest samples
+     * @param time in seconds since start of trajectory
+     */
+    @Override
+    public TrajectoryState get(double time)
+    {
+        TrajectoryState state = new TrajectoryState();
+        this.get(time, state);
+        return state;
+    }
+
+    /**
+     * Gets the state of the trajectory at the provided time, interpolated between the nearest samples
+     * @param time in seconds since start of trajectory
+     * @param state to fill in with the state of the trajectory
+     */
+    @Override
+    public void get(double time, TrajectoryState state)
+    {
+        if (this.sampleCount == 1 || time <= 0.0)
+        {
+            this.getSample(0, state);
+            return;
+        }
+
+        if (time >= this.duration)
+        {
+            this.getSample(this.sampleCount - 1, state);
+            return;
+        }
+
+        int index = Math.min((int)(time / this.sampleStep), this.sampleCount - 2);
+        double startTime = index * this.sampleStep;
+        double endTime = Math.min(startTime + this.sampleStep, this.duration);
+        double ratio = (time - startTime) / (endTime - startTime);
+
+        int offset = index * SampledTrajectory.VALUE_COUNT;
+        int nextOffset = offset + SampledTrajectory.VALUE_COUNT;
+        state.set(
+            this.interpolate(offset, nextOffset, SampledTrajectory.X_POSITION, ratio),
+            this.interpolate(offset, nextOffset, SampledTrajectory.Y_POSITION, ratio),
+            this.interpolateAngle(offset, nextOffset, ratio),
+            this.interpolate(offset, nextOffset, SampledTrajectory.X_VELOCITY, ratio),
+            this.interpolate(offset, nextOffset, SampledTrajectory.Y_VELOCITY, ratio),
+            this.interpolate(offset, nextOffset, SampledTrajectory.ANGLE_VELOCITY, ratio));
+    }
+
+    /**
+     * Get the number of samples
+     * @return number of samples, including the one at the end of the trajectory
+     */
+    int getSampleCount()
+    {
+        return this.sampleCount;
+    }
+
+    /**
+     * Get one value of a sample
+     * @param index of the sample
+     * @param value to get (e.g. X_POSITION)
+     * @return the value
+     */
+    double getSampleValue(int index, int value)
+    {
+        return this.samples[index * SampledTrajectory.VALUE_COUNT + value];
+    }
+
+    private void getSample(int index, TrajectoryState state)
+    {
+        int offset = index * SampledTrajectory.VALUE_COUNT;
+        state.set(
+            this.samples[offset + SampledTrajectory.X_POSITION],
+            this.samples[offset + SampledTrajectory.Y_POSITION],
+            this.samples[offset + SampledTrajectory.ANGLE],
+            this.samples[offset + SampledTrajectory.X_VELOCITY],
+            this.samples[offset + SampledTrajectory.Y_VELOCITY],
+            this.samples[offset + SampledTrajectory.ANGLE_VELOCITY]);
+    }
+
+    private double interpolate(int offset, int nextOffset, int value, double ratio)
+    {
+        double start = this.samples[offset + value];
+        return start + (this.samples[nextOffset + value] - start) * ratio;
+    }
+
+    private double interpolateAngle(int offset, int nextOffset, double ratio)
+    {
+        double start = this.samples[offset + SampledTrajectory.ANGLE];
+        double end = this.samples[nextOffset + SampledTrajectory.ANGLE];
+        double difference = end - start;
+        if (difference <= 180.0 && difference >= -180.0)
+        {
+            return start + difference * ratio;
+        }
+
+        // the angle wrapped around between the samples, so interpolate the short way around, staying continuous with the
+        // nearer sample
+        if (difference > 180.0)
+        {
+            difference -= 360.0;
+        }
+        else
+        {
+            difference += 360.0;
+        }
+
+        if (ratio < 0.5)
+        {
+            return start + difference * ratio;
+        }
+
+        return end - difference * (1.0 - ratio);
+    }
+}
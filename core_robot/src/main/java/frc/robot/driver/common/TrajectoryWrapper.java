@@ -28,10 +28,23 @@ public class TrajectoryWrapper implements ITrajectory
      */
     @Override
     public TrajectoryState get(double time)
+    {
+        TrajectoryState state = new TrajectoryState();
+        this.get(time, state);
+        return state;
+    }
+
+    /**
+     * Gets the current state of the trajectory at the provided time
+     * @param time in seconds since start of trajectory
+     * @param state to fill in with the state of the trajectory
+     */
+    @Override
+    public void get(double time, TrajectoryState state)
     {
         Pose2d pose = this.wrappedTrajectory.get(time);
         Pose2d vel = this.wrappedTrajectory.velocity(time);
-        return new TrajectoryState(
+        state.set(
             pose.getX(),
             pose.getY(),
             pose.getHeading() * Helpers.RADIANS_TO_DEGREES,
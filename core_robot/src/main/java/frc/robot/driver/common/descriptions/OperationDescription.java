@@ -18,6 +18,10 @@ public abstract class OperationDescription
     private final double userInputDeviceRangeMin;
     private final double userInputDeviceRangeMax;
 
+    // shift masks, so that checking the active shifts doesn't allocate (0 when the operation isn't shift-gated)
+    private final int relevantShiftMask;
+    private final int requiredShiftMask;
+
     protected OperationDescription(IOperation operation, OperationType type, UserInputDevice userInputDevice, double userInputDeviceRangeMin, double userInputDeviceRangeMax, Shift relevantShifts, Shift requiredShifts)
     {
         this.operation = operation;
@@ -27,6 +31,8 @@ public abstract class OperationDescription
         this.userInputDeviceRangeMax = userInputDeviceRangeMax;
         this.relevantShifts = relevantShifts;
         this.requiredShifts = requiredShifts;
+        this.relevantShiftMask = relevantShifts != null && requiredShifts != null ? relevantShifts.getValue() : 0;
+        this.requiredShiftMask = relevantShifts != null && requiredShifts != null ? requiredShifts.getValue() : 0;
 
         if (TuningConstants.THROW_EXCEPTIONS)
         {
@@ -79,4 +85,24 @@ public abstract class OperationDescription
     {
         return this.userInputDeviceRangeMax;
     }
+
+    /**
+     * Check whether the operation should take user input given the currently active shifts
+     * @param activeShifts mask of the active shifts
+     * @return true if exactly the required shifts are active among the relevant shifts
+     */
+    public boolean checkShifts(int activeShifts)
+    {
+        return (activeShifts & this.relevantShiftMask) == this.requiredShiftMask;
+    }
+
+    /**
+     * Check whether there are active shifts for which both this and another operation take user input
+     * @param other operation to check
+     * @return true if the required shifts of the two operations agree on the shifts that are relevant to both
+     */
+    public boolean canShareShifts(OperationDescription other)
+    {
+        return (this.relevantShiftMask & other.relevantShiftMask & (this.requiredShiftMask ^ other.requiredShiftMask)) == 0;
+    }
 }
@@ -1,9 +1,9 @@
 package frc.robot.driver.common.descriptions;
 
 import frc.robot.TuningConstants;
-import frc.robot.common.robotprovider.IJoystick;
 import frc.robot.driver.Shift;
 import frc.robot.driver.common.AnalogAxis;
+import frc.robot.driver.common.InputFrame;
 import frc.robot.driver.common.UserInputDeviceButton;
 
 public class ShiftDescription
@@ -74,16 +74,15 @@ public class ShiftDescription
         return this.userInputDevicePovValue;
     }
 
-    public boolean checkInput(IJoystick[] joysticks)
+    public AnalogAxis getUserInputDeviceAxis()
     {
-        UserInputDevice userInputDevice = this.getUserInputDevice();
-        IJoystick relevantJoystick = null;
-        if (userInputDevice != UserInputDevice.None)
-        {
-            relevantJoystick = joysticks[userInputDevice.getId()];
-        }
+        return this.userInputDeviceAxis;
+    }
 
-        if (relevantJoystick == null || !relevantJoystick.isConnected())
+    public boolean checkInput(InputFrame frame)
+    {
+        UserInputDevice userInputDevice = this.getUserInputDevice();
+        if (!frame.isConnected(userInputDevice))
         {
             if (!TuningConstants.EXPECT_UNUSED_JOYSTICKS && TuningConstants.THROW_EXCEPTIONS)
             {
@@ -93,23 +92,23 @@ public class ShiftDescription
             return false;
         }
 
-        // find the appropriate button and grab the value from the relevant joystick
+        // find the appropriate button and grab the value from the captured inputs
         UserInputDeviceButton relevantButton = this.getUserInputDeviceButton();
 
         if (relevantButton == UserInputDeviceButton.POV)
         {
-            return relevantJoystick.getPOV() == this.getUserInputDevicePovValue();
+            return frame.getPOV(userInputDevice) == this.getUserInputDevicePovValue();
         }
         else if (relevantButton == UserInputDeviceButton.ANALOG_AXIS_RANGE)
         {
-            double value = relevantJoystick.getAxis(this.userInputDeviceAxis.Value);
+            double value = frame.getAxis(userInputDevice, this.userInputDeviceAxis);
             return
                 value >= this.userInputDeviceAxisRangeMin &&
                 value <= this.userInputDeviceAxisRangeMax;
         }
         else if (relevantButton != UserInputDeviceButton.NONE)
         {
-            return relevantJoystick.getRawButton(relevantButton.Value);
+            return frame.getButton(userInputDevice, relevantButton);
         }
         else
         {
@@ -2,9 +2,9 @@ package frc.robot.driver.common.states;
 
 import frc.robot.TuningConstants;
 import frc.robot.common.Helpers;
-import frc.robot.common.robotprovider.IJoystick;
-import frc.robot.driver.Shift;
+import frc.robot.driver.AnalogOperation;
 import frc.robot.driver.common.AnalogAxis;
+import frc.robot.driver.common.InputFrame;
 import frc.robot.driver.common.descriptions.AnalogOperationDescription;
 import frc.robot.driver.common.descriptions.UserInputDevice;
 
@@ -14,18 +14,15 @@ import frc.robot.driver.common.descriptions.UserInputDevice;
  */
 public class AnalogOperationState extends OperationState
 {
-    private double currentValue;
-    private boolean isInterrupted;
-    private double interruptValue;
+    private final OperationStateTable table;
+    private final int ordinal;
 
-    public AnalogOperationState(AnalogOperationDescription description)
+    AnalogOperationState(AnalogOperationDescription description, OperationStateTable table)
     {
         super(description);
 
-        double defaultValue = description.getDefaultValue();
-        this.currentValue = defaultValue;
-        this.isInterrupted = false;
-        this.interruptValue = defaultValue;
+        this.table = table;
+        this.ordinal = ((AnalogOperation)description.getOperation()).ordinal();
     }
 
     /**
@@ -35,11 +32,7 @@ public class AnalogOperationState extends OperationState
     @Override
     public void setIsInterrupted(boolean enable)
     {
-        this.isInterrupted = enable;
-        if (!enable)
-        {
-            this.interruptValue = ((AnalogOperationDescription)this.getDescription()).getDefaultValue();
-        }
+        this.table.setAnalogInterrupted(this.ordinal, enable);
     }
 
     /**
@@ -49,17 +42,17 @@ public class AnalogOperationState extends OperationState
     @Override
     public boolean getIsInterrupted()
     {
-        return this.isInterrupted;
+        return this.table.getAnalogInterrupted(this.ordinal);
     }
 
     /**
      * Checks whether the operation state should change based on the joysticks and active stifts. 
-     * @param joysticks to update from
-     * @param activeShifts to update from
+     * @param frame of joystick inputs to update from
+     * @param activeShifts mask of the active shifts to update from
      * @return true if there was any active user input that triggered a state change
      */
     @Override
-    public boolean checkInput(IJoystick[] joysticks, Shift activeShifts)
+    public boolean checkInput(InputFrame frame, int activeShifts)
     {
         AnalogOperationDescription description = (AnalogOperationDescription)this.getDescription();
 
@@ -69,27 +62,20 @@ public class AnalogOperationState extends OperationState
             return false;
         }
 
-        Shift relevantShifts = description.getRelevantShifts();
-        Shift requiredShifts = description.getRequiredShifts();
-        if (relevantShifts != null && requiredShifts != null)
+        if (!description.checkShifts(activeShifts))
         {
-            Shift relevantActiveShifts = Shift.Intersect(relevantShifts, activeShifts);
-            if (!relevantActiveShifts.equals(requiredShifts))
-            {
-                this.currentValue = description.getDefaultValue();
-                return false;
-            }
+            this.table.setAnalogInput(this.ordinal, description.getDefaultValue());
+            return false;
         }
 
-        IJoystick relevantJoystick = joysticks[userInputDevice.getId()];
-        if (relevantJoystick == null || !relevantJoystick.isConnected())
+        if (!frame.isConnected(userInputDevice))
         {
             if (!TuningConstants.EXPECT_UNUSED_JOYSTICKS && TuningConstants.THROW_EXCEPTIONS)
             {
                 throw new RuntimeException("Unexpected user input device " + userInputDevice.toString());
             }
 
-            this.currentValue = description.getDefaultValue();
+            this.table.setAnalogInput(this.ordinal, description.getDefaultValue());
             return false;
         }
 
@@ -99,8 +85,8 @@ public class AnalogOperationState extends OperationState
             return false;
         }
 
-        double oldValue = this.currentValue;
-        double newValue = relevantJoystick.getAxis(relevantAxis.Value);
+        double oldValue = this.table.getAnalogInput(this.ordinal);
+        double newValue = frame.getAxis(userInputDevice, relevantAxis);
         if (description.getShouldInvert())
         {
             newValue *= -1.0;
@@ -109,7 +95,7 @@ public class AnalogOperationState extends OperationState
         AnalogAxis secondaryAxis = description.getUserInputDeviceSecondaryAxis();
         if (secondaryAxis != null && secondaryAxis != AnalogAxis.NONE)
         {
-            double secondaryValue = relevantJoystick.getAxis(secondaryAxis.Value);
+            double secondaryValue = frame.getAxis(userInputDevice, secondaryAxis);
             if (description.getShouldInvertSecondary())
             {
                 secondaryValue *= -1.0;
@@ -118,7 +104,7 @@ public class AnalogOperationState extends OperationState
             // don't adjust for dead zone, simply check for having both within dead zone
             if (this.withinDeadZone(newValue, secondaryValue, description.getDeadZoneMin(), description.getDeadZoneMax(), description.getUseSquaredMagnitudeForDeadZone()))
             {
-                this.currentValue = description.getDefaultValue();
+                this.table.setAnalogInput(this.ordinal, description.getDefaultValue());
                 return false;
             }
 
@@ -130,7 +116,7 @@ public class AnalogOperationState extends OperationState
                     throw new RuntimeException("No result calculator provided!");
                 }
 
-                this.currentValue = description.getDefaultValue();
+                this.table.setAnalogInput(this.ordinal, description.getDefaultValue());
                 return false;
             }
 
@@ -141,23 +127,18 @@ public class AnalogOperationState extends OperationState
             newValue = this.adjustForDeadZone(newValue, description.getDeadZoneMin(), description.getDeadZoneMax(), description.getDefaultValue(), description.getMultiplier());
         }
 
-        this.currentValue = newValue;
-        return this.currentValue != oldValue;
+        this.table.setAnalogInput(this.ordinal, newValue);
+        return newValue != oldValue;
     }
 
     public double getState()
     {
-        if (this.isInterrupted)
-        {
-            return this.interruptValue;
-        }
-
-        return this.currentValue;
+        return this.table.getAnalog((AnalogOperation)this.getDescription().getOperation());
     }
 
     public void setInterruptState(double value)
     {
-        if (!this.isInterrupted)
+        if (!this.getIsInterrupted())
         {
             if (TuningConstants.THROW_EXCEPTIONS)
             {
@@ -165,7 +146,7 @@ public class AnalogOperationState extends OperationState
             }
         }
 
-        this.interruptValue = value;
+        this.table.setAnalogInterruptValue(this.ordinal, value);
     }
 
     /**
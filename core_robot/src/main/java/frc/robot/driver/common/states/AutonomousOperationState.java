@@ -1,12 +1,8 @@
 package frc.robot.driver.common.states;
 
-import java.util.Map;
-import java.util.Set;
-
-import frc.robot.common.robotprovider.IJoystick;
 import frc.robot.driver.IOperation;
-import frc.robot.driver.Shift;
 import frc.robot.driver.common.IControlTask;
+import frc.robot.driver.common.InputFrame;
 
 /**
  * The state of the current autonomous operation.
@@ -14,7 +10,7 @@ import frc.robot.driver.common.IControlTask;
  */
 public class AutonomousOperationState extends OperationState implements IMacroOperationState
 {
-    private final Map<IOperation, OperationState> operationStateMap;
+    private final OperationStateTable operationStateTable;
 
     private IControlTask task;
 
@@ -25,11 +21,11 @@ public class AutonomousOperationState extends OperationState implements IMacroOp
 
     public AutonomousOperationState(
         IControlTask task,
-        Map<IOperation, OperationState> operationStateMap)
+        OperationStateTable operationStateTable)
     {
         super(null);
 
-        this.operationStateMap = operationStateMap;
+        this.operationStateTable = operationStateTable;
         this.task = task;
 
         this.hasBegun = false;
@@ -60,12 +56,12 @@ public class AutonomousOperationState extends OperationState implements IMacroOp
 
     /**
      * Checks whether the operation state should change based on the joysticks and active stifts. 
-     * @param joysticks to update from
-     * @param activeShifts to update from
+     * @param frame of joystick inputs to update from
+     * @param activeShifts mask of the active shifts to update from
      * @return true if there was any active user input that triggered a state change
      */
     @Override
-    public boolean checkInput(IJoystick[] joysticks, Shift activeShifts)
+    public boolean checkInput(InputFrame frame, int activeShifts)
     {
         return false;
     }
@@ -77,9 +73,8 @@ public class AutonomousOperationState extends OperationState implements IMacroOp
 
     public IOperation[] getAffectedOperations()
     {
-        Set<IOperation> keys = this.operationStateMap.keySet();
-        IOperation[] keyArray = new IOperation[keys.size()];
-        return (IOperation[])keys.toArray(keyArray);
+        // the autonomous routine affects every operation
+        return this.operationStateTable.getOperations();
     }
 
     public boolean getIsActive()
@@ -93,7 +88,7 @@ public class AutonomousOperationState extends OperationState implements IMacroOp
         {
             for (IOperation operation : this.getAffectedOperations())
             {
-                this.operationStateMap.get(operation).setIsInterrupted(false);
+                this.operationStateTable.setIsInterrupted(operation, false);
             }
 
             this.shouldEnd = false;
@@ -112,7 +107,7 @@ public class AutonomousOperationState extends OperationState implements IMacroOp
 
                 for (IOperation operation : this.getAffectedOperations())
                 {
-                    this.operationStateMap.get(operation).setIsInterrupted(false);
+                    this.operationStateTable.setIsInterrupted(operation, false);
                 }
 
                 return;
@@ -122,7 +117,7 @@ public class AutonomousOperationState extends OperationState implements IMacroOp
             {
                 for (IOperation operation : this.getAffectedOperations())
                 {
-                    this.operationStateMap.get(operation).setIsInterrupted(true);
+                    this.operationStateTable.setIsInterrupted(operation, true);
                 }
 
                 // if we haven't begun, begin
@@ -155,13 +150,18 @@ public class AutonomousOperationState extends OperationState implements IMacroOp
 
     public void cancel()
     {
+        // only stop the task if it is still running (it has already been ended or stopped otherwise)
+        if (this.task != null && this.hasBegun && !this.hasEnded && !this.shouldEnd)
+        {
+            this.task.stop();
+        }
+
         this.hasEnded = true;
-        this.task.stop();
         this.task = null;
 
         for (IOperation operation : this.getAffectedOperations())
         {
-            this.operationStateMap.get(operation).setIsInterrupted(false);
+            this.operationStateTable.setIsInterrupted(operation, false);
         }
     }
 }
@@ -1,8 +1,8 @@
 package frc.robot.driver.common.states;
 
 import frc.robot.TuningConstants;
-import frc.robot.common.robotprovider.IJoystick;
-import frc.robot.driver.Shift;
+import frc.robot.driver.DigitalOperation;
+import frc.robot.driver.common.InputFrame;
 import frc.robot.driver.common.UserInputDeviceButton;
 import frc.robot.driver.common.buttons.ClickButton;
 import frc.robot.driver.common.buttons.IButton;
@@ -18,15 +18,15 @@ import frc.robot.driver.common.descriptions.UserInputDevice;
 public class DigitalOperationState extends OperationState
 {
     private final IButton button;
-    private boolean isInterrupted;
-    private boolean interruptValue;
+    private final OperationStateTable table;
+    private final int ordinal;
 
-    public DigitalOperationState(DigitalOperationDescription description)
+    DigitalOperationState(DigitalOperationDescription description, OperationStateTable table)
     {
         super(description);
 
-        this.isInterrupted = false;
-        this.interruptValue = false;
+        this.table = table;
+        this.ordinal = ((DigitalOperation)description.getOperation()).ordinal();
         switch (description.getButtonType())
         {
             case Simple:
@@ -59,11 +59,7 @@ public class DigitalOperationState extends OperationState
     @Override
     public void setIsInterrupted(boolean enable)
     {
-        this.isInterrupted = enable;
-        if (!enable)
-        {
-            this.interruptValue = false;
-        }
+        this.table.setDigitalInterrupted(this.ordinal, enable);
     }
 
     /**
@@ -73,17 +69,17 @@ public class DigitalOperationState extends OperationState
     @Override
     public boolean getIsInterrupted()
     {
-        return this.isInterrupted;
+        return this.table.getDigitalInterrupted(this.ordinal);
     }
 
     /**
      * Checks whether the operation state should change based on the joysticks and active stifts. 
-     * @param joysticks to update from
-     * @param activeShifts to update from
+     * @param frame of joystick inputs to update from
+     * @param activeShifts mask of the active shifts to update from
      * @return true if there was any active user input that triggered a state change
      */
     @Override
-    public boolean checkInput(IJoystick[] joysticks, Shift activeShifts)
+    public boolean checkInput(InputFrame frame, int activeShifts)
     {
         DigitalOperationDescription description = (DigitalOperationDescription)this.getDescription();
 
@@ -93,20 +89,13 @@ public class DigitalOperationState extends OperationState
             return false;
         }
 
-        Shift relevantShifts = description.getRelevantShifts();
-        Shift requiredShifts = description.getRequiredShifts();
-        if (relevantShifts != null && requiredShifts != null)
+        if (!description.checkShifts(activeShifts))
         {
-            Shift relevantActiveShifts = Shift.Intersect(relevantShifts, activeShifts);
-            if (!relevantActiveShifts.equals(requiredShifts))
-            {
-                this.button.updateState(false);
-                return false;
-            }
+            this.updateState(false);
+            return false;
         }
 
-        IJoystick relevantJoystick = joysticks[userInputDevice.getId()];
-        if (relevantJoystick == null || !relevantJoystick.isConnected())
+        if (!frame.isConnected(userInputDevice))
         {
             if (!TuningConstants.EXPECT_UNUSED_JOYSTICKS && TuningConstants.THROW_EXCEPTIONS)
             {
@@ -116,46 +105,41 @@ public class DigitalOperationState extends OperationState
             return false;
         }
 
-        // find the appropriate button and grab the value from the relevant joystick
+        // find the appropriate button and grab the value from the captured inputs
         boolean buttonPressed;
         UserInputDeviceButton relevantButton = description.getUserInputDeviceButton();
         if (relevantButton == UserInputDeviceButton.POV)
         {
-            buttonPressed = relevantJoystick.getPOV() == description.getUserInputDevicePovValue();
+            buttonPressed = frame.getPOV(userInputDevice) == description.getUserInputDevicePovValue();
         }
         else if (relevantButton == UserInputDeviceButton.ANALOG_AXIS_RANGE)
         {
-            double value = relevantJoystick.getAxis(description.getUserInputDeviceAxis().Value);
+            double value = frame.getAxis(userInputDevice, description.getUserInputDeviceAxis());
             buttonPressed =
                 value >= description.getUserInputDeviceRangeMin() &&
                 value <= description.getUserInputDeviceRangeMax();
         }
         else if (relevantButton != UserInputDeviceButton.NONE)
         {
-            buttonPressed = relevantJoystick.getRawButton(relevantButton.Value);
+            buttonPressed = frame.getButton(userInputDevice, relevantButton);
         }
         else
         {
             buttonPressed = false;
         }
 
-        this.button.updateState(buttonPressed);
+        this.updateState(buttonPressed);
         return buttonPressed;
     }
 
     public boolean getState()
     {
-        if (this.isInterrupted)
-        {
-            return this.interruptValue;
-        }
-
-        return this.button.isActivated();
+        return this.table.getDigital((DigitalOperation)this.getDescription().getOperation());
     }
 
     public void setInterruptState(boolean value)
     {
-        if (!this.isInterrupted)
+        if (!this.getIsInterrupted())
         {
             if (TuningConstants.THROW_EXCEPTIONS)
             {
@@ -163,6 +147,12 @@ public class DigitalOperationState extends OperationState
             }
         }
 
-        this.interruptValue = value;
+        this.table.setDigitalInterruptValue(this.ordinal, value);
+    }
+
+    private void updateState(boolean buttonPressed)
+    {
+        this.button.updateState(buttonPressed);
+        this.table.setDigitalInput(this.ordinal, this.button.isActivated());
     }
 }
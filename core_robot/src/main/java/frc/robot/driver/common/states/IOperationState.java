@@ -1,7 +1,6 @@
 package frc.robot.driver.common.states;
 
-import frc.robot.common.robotprovider.IJoystick;
-import frc.robot.driver.Shift;
+import frc.robot.driver.common.InputFrame;
 
 /**
  * The state of a current operation.
@@ -23,9 +22,9 @@ public interface IOperationState
 
     /**
      * Checks whether the operation state should change based on the joysticks and active stifts. 
-     * @param joysticks to update from
-     * @param activeShifts to update from
+     * @param frame of joystick inputs to update from
+     * @param activeShifts mask of the active shifts to update from
      * @return true if there was any active user input that triggered a state change
      */
-    public boolean checkInput(IJoystick[] joysticks, Shift activeShifts);
+    public boolean checkInput(InputFrame frame, int activeShifts);
 }
\ No newline at end of file
@@ -1,12 +1,9 @@
 package frc.robot.driver.common.states;
 
-import java.util.Map;
-
 import frc.robot.TuningConstants;
-import frc.robot.common.robotprovider.IJoystick;
 import frc.robot.driver.IOperation;
-import frc.robot.driver.Shift;
 import frc.robot.driver.common.IControlTask;
+import frc.robot.driver.common.InputFrame;
 import frc.robot.driver.common.UserInputDeviceButton;
 import frc.robot.driver.common.buttons.ClickButton;
 import frc.robot.driver.common.buttons.IButton;
@@ -24,19 +21,19 @@ import com.google.inject.Injector;
 public class MacroOperationState extends OperationState implements IMacroOperationState
 {
     private final IButton button;
-    private final Map<IOperation, OperationState> operationStateMap;
+    private final OperationStateTable operationStateTable;
     private final Injector injector;
 
     private IControlTask task;
 
     public MacroOperationState(
         MacroOperationDescription description,
-        Map<IOperation, OperationState> operationStateMap,
+        OperationStateTable operationStateTable,
         Injector injector)
     {
         super(description);
 
-        this.operationStateMap = operationStateMap;
+        this.operationStateTable = operationStateTable;
         this.injector = injector;
 
         switch (description.getButtonType())
@@ -92,12 +89,12 @@ public class MacroOperationState extends OperationState implements IMacroOperati
 
     /**
      * Checks whether the operation state should change based on the joysticks and active stifts. 
-     * @param joysticks to update from
-     * @param activeShifts to update from
+     * @param frame of joystick inputs to update from
+     * @param activeShifts mask of the active shifts to update from
      * @return true if there was any active user input that triggered a state change
      */
     @Override
-    public boolean checkInput(IJoystick[] joysticks, Shift activeShifts)
+    public boolean checkInput(InputFrame frame, int activeShifts)
     {
         MacroOperationDescription description = (MacroOperationDescription)this.getDescription();
 
@@ -107,20 +104,13 @@ public class MacroOperationState extends OperationState implements IMacroOperati
             return false;
         }
 
-        Shift relevantShifts = description.getRelevantShifts();
-        Shift requiredShifts = description.getRequiredShifts();
-        if (relevantShifts != null && requiredShifts != null)
+        if (!description.checkShifts(activeShifts))
         {
-            Shift relevantActiveShifts = Shift.Intersect(relevantShifts, activeShifts);
-            if (!relevantActiveShifts.equals(requiredShifts))
-            {
-                this.button.updateState(false);
-                return false;
-            }
+            this.button.updateState(false);
+            return false;
         }
 
-        IJoystick relevantJoystick = joysticks[userInputDevice.getId()];
-        if (relevantJoystick == null || !relevantJoystick.isConnected())
+        if (!frame.isConnected(userInputDevice))
         {
             if (!TuningConstants.EXPECT_UNUSED_JOYSTICKS && TuningConstants.THROW_EXCEPTIONS)
             {
@@ -130,23 +120,23 @@ public class MacroOperationState extends OperationState implements IMacroOperati
             return false;
         }
 
-        // find the appropriate button and grab the value from the relevant joystick
+        // find the appropriate button and grab the value from the captured inputs
         boolean buttonPressed;
         UserInputDeviceButton relevantButton = description.getUserInputDeviceButton();
         if (relevantButton == UserInputDeviceButton.POV)
         {
-            buttonPressed = relevantJoystick.getPOV() == description.getUserInputDevicePovValue();
+            buttonPressed = frame.getPOV(userInputDevice) == description.getUserInputDevicePovValue();
         }
         else if (relevantButton == UserInputDeviceButton.ANALOG_AXIS_RANGE)
         {
-            double value = relevantJoystick.getAxis(description.getUserInputDeviceAxis().Value);
+            double value = frame.getAxis(userInputDevice, description.getUserInputDeviceAxis());
             buttonPressed =
                 value >= description.getUserInputDeviceRangeMin() &&
                 value <= description.getUserInputDeviceRangeMax();
         }
         else if (relevantButton != UserInputDeviceButton.NONE)
         {
-            buttonPressed = relevantJoystick.getRawButton(relevantButton.Value);
+            buttonPressed = frame.getButton(userInputDevice, relevantButton);
         }
         else
         {
@@ -180,12 +170,12 @@ public class MacroOperationState extends OperationState implements IMacroOperati
             {
                 for (IOperation operation : this.getAffectedOperations())
                 {
-                    this.operationStateMap.get(operation).setIsInterrupted(true);
+                    this.operationStateTable.setIsInterrupted(operation, true);
                 }
 
                 // start task
                 this.task = ((MacroOperationDescription)this.getDescription()).constructTask();
-                this.task.initialize(this.operationStateMap, this.injector);
+                this.task.initialize(this.operationStateTable, this.injector);
                 this.task.begin();
             }
 
@@ -210,7 +200,7 @@ public class MacroOperationState extends OperationState implements IMacroOperati
                 {
                     for (IOperation operation : this.getAffectedOperations())
                     {
-                        this.operationStateMap.get(operation).setIsInterrupted(false);
+                        this.operationStateTable.setIsInterrupted(operation, false);
                     }
                 }
             }
@@ -227,14 +217,20 @@ public class MacroOperationState extends OperationState implements IMacroOperati
 
             for (IOperation operation : this.getAffectedOperations())
             {
-                this.operationStateMap.get(operation).setIsInterrupted(false);
+                this.operationStateTable.setIsInterrupted(operation, false);
             }
         }
     }
 
     public void cancel()
     {
-        this.task = null;
+        if (this.task != null)
+        {
+            // stop the task so that it can clean up (e.g. release its controllers)
+            this.task.stop();
+            this.task = null;
+        }
+
         this.button.clearState();
     }
 }
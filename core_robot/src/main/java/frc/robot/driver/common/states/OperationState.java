@@ -1,8 +1,7 @@
 package frc.robot.driver.common.states;
 
 import frc.robot.TuningConstants;
-import frc.robot.common.robotprovider.IJoystick;
-import frc.robot.driver.Shift;
+import frc.robot.driver.common.InputFrame;
 import frc.robot.driver.common.descriptions.AnalogOperationDescription;
 import frc.robot.driver.common.descriptions.DigitalOperationDescription;
 import frc.robot.driver.common.descriptions.OperationDescription;
@@ -39,26 +38,27 @@ public abstract class OperationState implements IOperationState
 
     /**
      * Checks whether the operation state should change based on the joysticks and component sensors. 
-     * @param joysticks to update from
-     * @param activeShifts to update from
+     * @param frame of joystick inputs to update from
+     * @param activeShifts mask of the active shifts to update from
      * @return true if there was any active user input that triggered a state change
      */
-    public abstract boolean checkInput(IJoystick[] joysticks, Shift activeShifts);
+    public abstract boolean checkInput(InputFrame frame, int activeShifts);
 
     /**
      * Create the state corresponding to the description
      * @param description to use for creating the state
+     * @param table holding the values of the state
      * @return state corresponding to the description
      */
-    public static OperationState createFromDescription(OperationDescription description)
+    public static OperationState createFromDescription(OperationDescription description, OperationStateTable table)
     {
         if (description instanceof AnalogOperationDescription)
         {
-            return new AnalogOperationState((AnalogOperationDescription)description);
+            return new AnalogOperationState((AnalogOperationDescription)description, table);
         }
         else if (description instanceof DigitalOperationDescription)
         {
-            return new DigitalOperationState((DigitalOperationDescription)description);
+            return new DigitalOperationState((DigitalOperationDescription)description, table);
         }
 
         if (TuningConstants.THROW_EXCEPTIONS)
@@ -0,0 +1,299 @@
+package frc.robot.driver.common.states;
+
+import frc.robot.driver.AnalogOperation;
+import frc.robot.driver.DigitalOperation;
+import frc.robot.driver.IOperation;
+import frc.robot.driver.common.descriptions.AnalogOperationDescription;
+import frc.robot.driver.common.descriptions.DigitalOperationDescription;
+
+/**
+ * The states of every analog and digital operation, indexed by operation ordinal.
+ * The values that mechanisms read are kept in primitive arrays alongside the values from user input and the interrupt
+ * values from macros, so reading an operation is a single array load.
+ */
+public class OperationStateTable
+{
+    private static final DigitalOperation[] DigitalOperations = DigitalOperation.values();
+    private static final AnalogOperation[] AnalogOperations = AnalogOperation.values();
+
+    private final DigitalOperationState[] digitalStates;
+    private final AnalogOperationState[] analogStates;
+    private final IOperation[] operations;
+
+    // current value (interrupt value while interrupted, otherwise input value)
+    private final boolean[] digitalValues;
+    private final boolean[] digitalInputValues;
+    private final boolean[] digitalInterruptValues;
+    private final boolean[] digitalInterrupted;
+
+    private final double[] analogValues;
+    private final double[] analogInputValues;
+    private final double[] analogInterruptValues;
+    private final double[] analogDefaultValues;
+    private final boolean[] analogInterrupted;
+
+    /**
+     * Initializes a new OperationStateTable, with states for every analog and digital operation
+     * @param digitalOperationSchema descriptions of digital operations (operations without a description are unbound)
+     * @param analogOperationSchema descriptions of analog operations (operations without a description are unbound)
+     */
+    public OperationStateTable(DigitalOperationDescription[] digitalOperationSchema, AnalogOperationDescription[] analogOperationSchema)
+    {
+        int digitalCount = OperationStateTable.DigitalOperations.length;
+        int analogCount = OperationStateTable.AnalogOperations.length;
+
+        this.digitalValues = new boolean[digitalCount];
+        this.digitalInputValues = new boolean[digitalCount];
+        this.digitalInterruptValues = new boolean[digitalCount];
+        this.digitalInterrupted = new boolean[digitalCount];
+
+        this.analogValues = new double[analogCount];
+        this.analogInputValues = new double[analogCount];
+        this.analogInterruptValues = new double[analogCount];
+        this.analogDefaultValues = new double[analogCount];
+        this.analogInterrupted = new boolean[analogCount];
+
+        DigitalOperationDescription[] digitalDescriptions = new DigitalOperationDescription[digitalCount];
+        for (DigitalOperationDescription description : digitalOperationSchema)
+        {
+            digitalDescriptions[((DigitalOperation)description.getOperation()).ordinal()] = description;
+        }
+
+        AnalogOperationDescription[] analogDescriptions = new AnalogOperationDescription[analogCount];
+        for (AnalogOperationDescription description : analogOperationSchema)
+        {
+            analogDescriptions[((AnalogOperation)description.getOperation()).ordinal()] = description;
+        }
+
+        this.operations = new IOperation[digitalCount + analogCount];
+        this.digitalStates = new DigitalOperationState[digitalCount];
+        for (int i = 0; i < digitalCount; i++)
+        {
+            DigitalOperation operation = OperationStateTable.DigitalOperations[i];
+            DigitalOperationDescription description = digitalDescriptions[i];
+            if (description == null)
+            {
+                description = new DigitalOperationDescription(operation);
+            }
+
+            this.operations[i] = operation;
+            this.digitalStates[i] = new DigitalOperationState(description, this);
+        }
+
+        this.analogStates = new AnalogOperationState[analogCount];
+        for (int i = 0; i < analogCount; i++)
+        {
+            AnalogOperation operation = OperationStateTable.AnalogOperations[i];
+            AnalogOperationDescription description = analogDescriptions[i];
+            if (description == null)
+            {
+                description = new AnalogOperationDescription(operation);
+            }
+
+            double defaultValue = description.getDefaultValue();
+            this.analogValues[i] = defaultValue;
+            this.analogInputValues[i] = defaultValue;
+            this.analogInterruptValues[i] = defaultValue;
+            this.analogDefaultValues[i] = defaultValue;
+
+            this.operations[digitalCount + i] = operation;
+            this.analogStates[i] = new AnalogOperationState(description, this);
+        }
+    }
+
+    /**
+     * Get the number of analog and digital operations
+     * @return number of operations
+     */
+    public int getOperationCount()
+    {
+        return this.operations.length;
+    }
+
+    /**
+     * Get every analog and digital operation (don't modify the array)
+     * @return operations, indexed the same as getIndex
+     */
+    public IOperation[] getOperations()
+    {
+        return this.operations;
+    }
+
+    /**
+     * Get the index of an operation, with digital operations first followed by analog operations
+     * @param operation to look for
+     * @return index of the operation, or -1 if it isn't an analog or digital operation
+     */
+    public int getIndex(IOperation operation)
+    {
+        if (operation instanceof DigitalOperation)
+        {
+            return ((DigitalOperation)operation).ordinal();
+        }
+
+        if (operation instanceof AnalogOperation)
+        {
+            return this.digitalStates.length + ((AnalogOperation)operation).ordinal();
+        }
+
+        return -1;
+    }
+
+    /**
+     * Get the state of an operation by index
+     * @param index of the operation (see getIndex)
+     * @return the state of the operation
+     */
+    public OperationState getState(int index)
+    {
+        if (index < this.digitalStates.length)
+        {
+            return this.digitalStates[index];
+        }
+
+        return this.analogStates[index - this.digitalStates.length];
+    }
+
+    /**
+     * Get the state of an operation
+     * @param operation to get
+     * @return the state of the operation, or null if it isn't an analog or digital operation
+     */
+    public OperationState getState(IOperation operation)
+    {
+        int index = this.getIndex(operation);
+        if (index < 0)
+        {
+            return null;
+        }
+
+        return this.getState(index);
+    }
+
+    /**
+     * Get the state of a digital operation
+     * @param operation to get
+     * @return the state of the operation
+     */
+    public DigitalOperationState getDigitalState(DigitalOperation operation)
+    {
+        return this.digitalStates[operation.ordinal()];
+    }
+
+    /**
+     * Get the state of an analog operation
+     * @param operation to get
+     * @return the state of the operation
+     */
+    public AnalogOperationState getAnalogState(AnalogOperation operation)
+    {
+        return this.analogStates[operation.ordinal()];
+    }
+
+    /**
+     * Get the current value of a digital operation
+     * @param operation to get
+     * @return the interrupt value while interrupted, otherwise the value from user input
+     */
+    public boolean getDigital(DigitalOperation operation)
+    {
+        return this.digitalValues[operation.ordinal()];
+    }
+
+    /**
+     * Get the current value of an analog operation
+     * @param operation to get
+     * @return the interrupt value while interrupted, otherwise the value from user input
+     */
+    public double getAnalog(AnalogOperation operation)
+    {
+        return this.analogValues[operation.ordinal()];
+    }
+
+    /**
+     * Sets whether an operation is being interrupted by a macro
+     * @param operation to update
+     * @param enable value of true indicates that we are interrupted
+     */
+    public void setIsInterrupted(IOperation operation, boolean enable)
+    {
+        OperationState state = this.getState(operation);
+        if (state != null)
+        {
+            state.setIsInterrupted(enable);
+        }
+    }
+
+    boolean getDigitalInterrupted(int ordinal)
+    {
+        return this.digitalInterrupted[ordinal];
+    }
+
+    void setDigitalInterrupted(int ordinal, boolean enable)
+    {
+        this.digitalInterrupted[ordinal] = enable;
+        if (!enable)
+        {
+            this.digitalInterruptValues[ordinal] = false;
+        }
+
+        this.digitalValues[ordinal] = enable ? this.digitalInterruptValues[ordinal] : this.digitalInputValues[ordinal];
+    }
+
+    void setDigitalInput(int ordinal, boolean value)
+    {
+        this.digitalInputValues[ordinal] = value;
+        if (!this.digitalInterrupted[ordinal])
+        {
+            this.digitalValues[ordinal] = value;
+        }
+    }
+
+    void setDigitalInterruptValue(int ordinal, boolean value)
+    {
+        this.digitalInterruptValues[ordinal] = value;
+        if (this.digitalInterrupted[ordinal])
+        {
+            this.digitalValues[ordinal] = value;
+        }
+    }
+
+    boolean getAnalogInterrupted(int ordinal)
+    {
+        return this.analogInterrupted[ordinal];
+    }
+
+    double getAnalogInput(int ordinal)
+    {
+        return this.analogInputValues[ordinal];
+    }
+
+    void setAnalogInterrupted(int ordinal, boolean enable)
+    {
+        this.analogInterrupted[ordinal] = enable;
+        if (!enable)
+        {
+            this.analogInterruptValues[ordinal] = this.analogDefaultValues[ordinal];
+        }
+
+        this.analogValues[ordinal] = enable ? this.analogInterruptValues[ordinal] : this.analogInputValues[ordinal];
+    }
+
+    void setAnalogInput(int ordinal, double value)
+    {
+        this.analogInputValues[ordinal] = value;
+        if (!this.analogInterrupted[ordinal])
+        {
+            this.analogValues[ordinal] = value;
+        }
+    }
+
+    void setAnalogInterruptValue(int ordinal, double value)
+    {
+        this.analogInterruptValues[ordinal] = value;
+        if (this.analogInterrupted[ordinal])
+        {
+            this.analogValues[ordinal] = value;
+        }
+    }
+}
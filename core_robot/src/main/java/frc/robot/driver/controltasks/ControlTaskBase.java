@@ -1,29 +1,25 @@
 package frc.robot.driver.controltasks;
 
-import java.util.Map;
-
 import frc.robot.driver.*;
 import frc.robot.driver.common.*;
-import frc.robot.driver.common.states.AnalogOperationState;
-import frc.robot.driver.common.states.DigitalOperationState;
-import frc.robot.driver.common.states.OperationState;
+import frc.robot.driver.common.states.OperationStateTable;
 
 import com.google.inject.Injector;
 
 public abstract class ControlTaskBase implements IControlTask
 {
-    private Map<IOperation, OperationState> operationStateMap;
+    private OperationStateTable operationStateTable;
     private Injector injector;
 
     /**
-     * Initialize the task with the mapping of operations to states
-     * @param operationStateMap indicating the mapping of an operation to its current state
+     * Initialize the task with the states of the operations
+     * @param operationStateTable holding the current state of each operation
      * @param components to utilize for making any decisions
      */
     @Override
-    public void initialize(Map<IOperation, OperationState> operationStateMap, Injector injector)
+    public void initialize(OperationStateTable operationStateTable, Injector injector)
     {
-        this.operationStateMap = operationStateMap;
+        this.operationStateTable = operationStateTable;
         this.injector = injector;
     }
 
@@ -74,8 +70,7 @@ public abstract class ControlTaskBase implements IControlTask
      */
     protected void setAnalogOperationState(AnalogOperation operation, double value)
     {
-        OperationState operationState = this.operationStateMap.get(operation);
-        ((AnalogOperationState)operationState).setInterruptState(value);
+        this.operationStateTable.getAnalogState(operation).setInterruptState(value);
     }
 
     /**
@@ -85,8 +80,7 @@ public abstract class ControlTaskBase implements IControlTask
      */
     protected void setDigitalOperationState(DigitalOperation operation, boolean value)
     {
-        OperationState operationState = this.operationStateMap.get(operation);
-        ((DigitalOperationState)operationState).setInterruptState(value);
+        this.operationStateTable.getDigitalState(operation).setInterruptState(value);
     }
 
     /**
@@ -96,8 +90,7 @@ public abstract class ControlTaskBase implements IControlTask
      */
     protected double getAnalogOperationState(AnalogOperation operation)
     {
-        OperationState operationState = this.operationStateMap.get(operation);
-        return ((AnalogOperationState)operationState).getState();
+        return this.operationStateTable.getAnalog(operation);
     }
 
     /**
@@ -107,8 +100,7 @@ public abstract class ControlTaskBase implements IControlTask
      */
     protected boolean getDigitalOperationState(DigitalOperation operation)
     {
-        OperationState operationState = this.operationStateMap.get(operation);
-        return ((DigitalOperationState)operationState).getState();
+        return this.operationStateTable.getDigital(operation);
     }
 
     /**
@@ -121,11 +113,11 @@ public abstract class ControlTaskBase implements IControlTask
     }
 
     /**
-     * Gets the Operation State Map
-     * @return the operation state map
+     * Gets the Operation State Table
+     * @return the operation state table
      */
-    protected Map<IOperation, OperationState> getOperationStateMap()
+    protected OperationStateTable getOperationStateTable()
     {
-        return this.operationStateMap;
+        return this.operationStateTable;
     }
 }
@@ -1,12 +1,10 @@
 package frc.robot.driver.controltasks;
 
 import java.util.LinkedList;
-import java.util.Map;
 import java.util.Queue;
 
-import frc.robot.driver.IOperation;
 import frc.robot.driver.common.IControlTask;
-import frc.robot.driver.common.states.OperationState;
+import frc.robot.driver.common.states.OperationStateTable;
 
 import com.google.inject.Injector;
 
@@ -46,7 +44,7 @@ public abstract class DecisionSequentialTask extends ControlTaskBase
 
         if (this.isInitialized)
         {
-            task.initialize(this.getOperationStateMap(), this.getInjector());
+            task.initialize(this.getOperationStateTable(), this.getInjector());
         }
     }
 
@@ -58,17 +56,17 @@ public abstract class DecisionSequentialTask extends ControlTaskBase
     }
 
     /**
-     * Initialize the task with the mapping of operations to states
-     * @param operationStateMap indicating the mapping of an operation to its current state
+     * Initialize the task with the states of the operations
+     * @param operationStateTable holding the current state of each operation
      * @param injector used to retrieve the components to utilize for making any decisions
      */
     @Override
-    public void initialize(Map<IOperation, OperationState> operationStateMap, Injector injector)
+    public void initialize(OperationStateTable operationStateTable, Injector injector)
     {
-        super.initialize(operationStateMap, injector);
+        super.initialize(operationStateTable, injector);
         for (IControlTask task : this.orderedTasks)
         {
-            task.initialize(operationStateMap, injector);
+            task.initialize(operationStateTable, injector);
         }
 
         this.isInitialized = true;
@@ -25,6 +25,7 @@ public class FollowPathTask extends ControlTaskBase
     private double startTime;
     private double trajectoryDuration;
     private ITrajectory trajectory;
+    private final TrajectoryState state;
     private Pose2d initialPose;
 
     /**
@@ -43,6 +44,7 @@ public class FollowPathTask extends ControlTaskBase
         this.pathName = pathName;
         this.fromCurrentPose = fromCurrentPose;
         this.maintainInitialAngle = maintainInitialAngle;
+        this.state = new TrajectoryState();
     }
 
     /**
@@ -77,7 +79,8 @@ public class FollowPathTask extends ControlTaskBase
     @Override
     public void update()
     {
-        TrajectoryState state = this.trajectory.get(this.timer.get() - this.startTime);
+        TrajectoryState state = this.state;
+        this.trajectory.get(this.timer.get() - this.startTime, state);
         this.setAnalogOperationState(AnalogOperation.DriveTrainPathXGoal, state.xPosition + this.initialPose.x);
         this.setAnalogOperationState(AnalogOperation.DriveTrainPathYGoal, state.yPosition + this.initialPose.y);
         this.setAnalogOperationState(AnalogOperation.DriveTrainTurnAngleGoal, state.angle);
@@ -1,8 +1,11 @@
 package frc.robot.driver.controltasks;
 
+import frc.robot.LoggingKey;
 import frc.robot.TuningConstants;
-import frc.robot.common.PIDHandler;
-import frc.robot.common.robotprovider.ITimer;
+import frc.robot.common.Controller;
+import frc.robot.common.ControllerManager;
+import frc.robot.common.IControlLaw;
+import frc.robot.common.PIDControlLaw;
 import frc.robot.driver.*;
 
 public abstract class VisionAdvanceAndCenterTaskBase extends VisionCenteringTask
@@ -10,7 +13,7 @@ public abstract class VisionAdvanceAndCenterTaskBase extends VisionCenteringTask
     private final boolean useFastMode;
     private final boolean verifyAngle;
 
-    private PIDHandler forwardPIDHandler;
+    private Controller forwardController;
 
     /**
     * Initializes a new VisionAdvanceAndCenterTaskBase
@@ -21,7 +24,7 @@ public abstract class VisionAdvanceAndCenterTaskBase extends VisionCenteringTask
 
         this.useFastMode = useFastMode;
         this.verifyAngle = verifyAngle;
-        this.forwardPIDHandler = null;
+        this.forwardController = null;
     }
 
     /**
@@ -31,30 +34,35 @@ public abstract class VisionAdvanceAndCenterTaskBase extends VisionCenteringTask
     public void begin()
     {
         super.begin();
+
+        IControlLaw forwardLaw;
         if (this.useFastMode)
         {
-            this.forwardPIDHandler = new PIDHandler(
+            forwardLaw = new PIDControlLaw(
                 TuningConstants.VISION_FAST_ADVANCING_PID_KP,
                 TuningConstants.VISION_FAST_ADVANCING_PID_KI,
                 TuningConstants.VISION_FAST_ADVANCING_PID_KD,
                 TuningConstants.VISION_FAST_ADVANCING_PID_KF,
                 TuningConstants.VISION_FAST_ADVANCING_PID_KS,
                 TuningConstants.VISION_FAST_ADVANCING_PID_MIN,
-                TuningConstants.VISION_FAST_ADVANCING_PID_MAX,
-                this.getInjector().getInstance(ITimer.class));
+                TuningConstants.VISION_FAST_ADVANCING_PID_MAX);
         }
         else
         {
-            this.forwardPIDHandler = new PIDHandler(
+            forwardLaw = new PIDControlLaw(
                 TuningConstants.VISION_ADVANCING_PID_KP,
                 TuningConstants.VISION_ADVANCING_PID_KI,
                 TuningConstants.VISION_ADVANCING_PID_KD,
                 TuningConstants.VISION_ADVANCING_PID_KF,
                 TuningConstants.VISION_ADVANCING_PID_KS,
                 TuningConstants.VISION_ADVANCING_PID_MIN,
-                TuningConstants.VISION_ADVANCING_PID_MAX,
-                this.getInjector().getInstance(ITimer.class));
+                TuningConstants.VISION_ADVANCING_PID_MAX);
         }
+
+        this.forwardController = this.getInjector().getInstance(ControllerManager.class).register(
+            forwardLaw,
+            LoggingKey.VisionForwardError,
+            LoggingKey.VisionForwardOutput);
     }
 
     @Override
@@ -65,7 +73,7 @@ public abstract class VisionAdvanceAndCenterTaskBase extends VisionCenteringTask
         if (currentDistance != null)
         {
             double desiredDistance = this.getDesiredDistance(currentDistance);
-            double forwardSpeed = -this.forwardPIDHandler.calculatePosition(desiredDistance, currentDistance);
+            double forwardSpeed = -this.forwardController.calculate(desiredDistance, currentDistance);
             this.setAnalogOperationState(
                 AnalogOperation.DriveTrainMoveForward,
                 forwardSpeed);
@@ -76,6 +84,12 @@ public abstract class VisionAdvanceAndCenterTaskBase extends VisionCenteringTask
     public void end()
     {
         super.end();
+        if (this.forwardController != null)
+        {
+            this.forwardController.release();
+            this.forwardController = null;
+        }
+
         this.setAnalogOperationState(AnalogOperation.DriveTrainMoveForward, 0.0);
     }
 
@@ -98,17 +112,16 @@ public abstract class VisionAdvanceAndCenterTaskBase extends VisionCenteringTask
     }
 
     @Override
-    protected PIDHandler createTurnHandler()
+    protected IControlLaw createTurnLaw()
     {
-        return new PIDHandler(
+        return new PIDControlLaw(
             TuningConstants.VISION_MOVING_CENTERING_PID_KP,
             TuningConstants.VISION_MOVING_CENTERING_PID_KI,
             TuningConstants.VISION_MOVING_CENTERING_PID_KD,
             TuningConstants.VISION_MOVING_CENTERING_PID_KF,
             TuningConstants.VISION_MOVING_CENTERING_PID_KS,
             TuningConstants.VISION_MOVING_CENTERING_PID_MIN,
-            TuningConstants.VISION_MOVING_CENTERING_PID_MAX,
-            this.getInjector().getInstance(ITimer.class));
+            TuningConstants.VISION_MOVING_CENTERING_PID_MAX);
     }
 
     protected abstract double getDesiredDistance(double currentDistance);
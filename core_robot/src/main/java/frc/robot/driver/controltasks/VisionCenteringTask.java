@@ -1,7 +1,11 @@
 package frc.robot.driver.controltasks;
 
+import frc.robot.LoggingKey;
 import frc.robot.TuningConstants;
-import frc.robot.common.PIDHandler;
+import frc.robot.common.Controller;
+import frc.robot.common.ControllerManager;
+import frc.robot.common.IControlLaw;
+import frc.robot.common.PIDControlLaw;
 import frc.robot.common.robotprovider.ITimer;
 import frc.robot.driver.AnalogOperation;
 import frc.robot.driver.DigitalOperation;
@@ -20,7 +24,7 @@ public class VisionCenteringTask extends ControlTaskBase
 
     private OffboardVisionManager visionManager;
     private ITimer timer;
-    private PIDHandler turnPidHandler;
+    private Controller turnController;
 
     private Double centeredTime;
 
@@ -57,7 +61,7 @@ public class VisionCenteringTask extends ControlTaskBase
         this.gamePiece = gamePiece;
         this.bestEffort = bestEffort;
 
-        this.turnPidHandler = null;
+        this.turnController = null;
         this.centeredTime = null;
 
         this.noCenterCount = 0;
@@ -70,7 +74,10 @@ public class VisionCenteringTask extends ControlTaskBase
     public void begin()
     {
         this.visionManager = this.getInjector().getInstance(OffboardVisionManager.class);
-        this.turnPidHandler = this.createTurnHandler();
+        this.turnController = this.getInjector().getInstance(ControllerManager.class).register(
+            this.createTurnLaw(),
+            LoggingKey.VisionTurnError,
+            LoggingKey.VisionTurnOutput);
 
         if (this.useTime)
         {
@@ -94,7 +101,7 @@ public class VisionCenteringTask extends ControlTaskBase
         Double currentMeasuredAngle = this.getHorizontalAngle();
         if (currentMeasuredAngle != null)
         {
-            double turnSpeed = this.turnPidHandler.calculatePosition(0.0, currentMeasuredAngle);
+            double turnSpeed = this.turnController.calculate(0.0, currentMeasuredAngle);
             this.setAnalogOperationState(
                 AnalogOperation.DriveTrainTurnSpeed,
                 turnSpeed);
@@ -107,6 +114,12 @@ public class VisionCenteringTask extends ControlTaskBase
     @Override
     public void end()
     {
+        if (this.turnController != null)
+        {
+            this.turnController.release();
+            this.turnController = null;
+        }
+
         this.setAnalogOperationState(AnalogOperation.DriveTrainTurnSpeed, 0.0);
 
         this.setDigitalOperationState(DigitalOperation.VisionDisableStream, false);
@@ -224,16 +237,15 @@ public class VisionCenteringTask extends ControlTaskBase
         return angle;
     }
 
-    protected PIDHandler createTurnHandler()
+    protected IControlLaw createTurnLaw()
     {
-        return new PIDHandler(
+        return new PIDControlLaw(
             TuningConstants.VISION_STATIONARY_CENTERING_PID_KP,
             TuningConstants.VISION_STATIONARY_CENTERING_PID_KI,
             TuningConstants.VISION_STATIONARY_CENTERING_PID_KD,
             TuningConstants.VISION_STATIONARY_CENTERING_PID_KF,
             TuningConstants.VISION_STATIONARY_CENTERING_PID_KS,
             TuningConstants.VISION_STATIONARY_CENTERING_PID_MIN,
-            TuningConstants.VISION_STATIONARY_CENTERING_PID_MAX,
-            this.getInjector().getInstance(ITimer.class));
+            TuningConstants.VISION_STATIONARY_CENTERING_PID_MAX);
     }
 }
\ No newline at end of file
@@ -57,16 +57,19 @@ public class DriveTrainMechanism implements IMechanism
 
     private final PigeonManager imuManager;
     private final PowerManager powerManager;
+    private final ControllerManager controllerManager;
 
     private final ITalonFX[] steerMotors;
     private final ITalonFX[] driveMotors;
     private final ICANCoder[] absoluteEncoders;
 
-    private final PIDHandler omegaPID;
-    private final boolean[] isDirectionSwapped;
-    private final PIDHandler pathOmegaPID;
-    private final PIDHandler pathXOffsetPID;
-    private final PIDHandler pathYOffsetPID;
+    private final SwerveKinematics kinematics;
+    private final DriveTrainOdometry odometry;
+
+    private final Controller omegaController;
+    private final Controller pathOmegaController;
+    private final Controller pathXOffsetController;
+    private final Controller pathYOffsetController;
     private final int[] driveSlotIds;
 
     private final double[] driveVelocities;
@@ -78,7 +81,15 @@ public class DriveTrainMechanism implements IMechanism
     private final double[] steerErrors;
     private final double[] encoderAngles;
 
-    private final Setpoint[] result;
+    // buffers for the kinematics calculations
+    private final double[] currentSteerAngles;
+    private final double[] moduleVelocities;
+    private final double[] moduleSteerAngles;
+
+    // the goals for each module (steer setpoints are NaN when the module should keep its current angle)
+    private final TalonXControlMode[] driveControlModes;
+    private final double[] driveSetpoints;
+    private final double[] steerSetpoints;
 
     private boolean firstRun;
 
@@ -88,10 +99,15 @@ public class DriveTrainMechanism implements IMechanism
     private double desiredYaw;
 
     private double time;
-    private double angle;
-    private double xPosition;
-    private double yPosition;
-    private double deltaT;
+
+    // the pose from the odometry as of this cycle's readSensors
+    private final Pose2d odometryPose;
+
+    // recent poses, for finding where the robot was at an earlier time (e.g. when a camera frame was captured)
+    private final PoseHistory poseHistory;
+
+    // the robot-oriented velocity from the modules as of this cycle's readSensors (right, forward and omega)
+    private final double[] robotVelocity;
 
     private double robotYaw;
 
@@ -102,6 +118,7 @@ public class DriveTrainMechanism implements IMechanism
         IRobotProvider provider,
         PigeonManager imuManager,
         PowerManager powerManager,
+        ControllerManager controllerManager,
         ITimer timer)
     {
         this.driver = driver;
@@ -110,6 +127,7 @@ public class DriveTrainMechanism implements IMechanism
 
         this.imuManager = imuManager;
         this.powerManager = powerManager;
+        this.controllerManager = controllerManager;
 
         this.steerMotors = new ITalonFX[DriveTrainMechanism.NUM_MODULES];
         this.driveMotors = new ITalonFX[DriveTrainMechanism.NUM_MODULES];
@@ -246,7 +264,7 @@ public class DriveTrainMechanism implements IMechanism
                 TuningConstants.DRIVETRAIN_STEER_SUPPLY_TRIGGER_CURRENT,
                 TuningConstants.DRIVETRAIN_STEER_SUPPLY_TRIGGER_DURATION);
             this.steerMotors[i].setFeedbackFramePeriod(TuningConstants.DRIVETRAIN_SENSOR_FRAME_PERIOD_MS);
-            this.steerMotors[i].setFeedbackFramePeriod(TuningConstants.DRIVETRAIN_PID_FRAME_PERIOD_MS);
+            this.steerMotors[i].setPIDFFramePeriod(TuningConstants.DRIVETRAIN_PID_FRAME_PERIOD_MS);
             if (TuningConstants.DRIVETRAIN_STEER_MOTORS_USE_MOTION_MAGIC)
             {
                 this.steerMotors[i].setControlMode(TalonXControlMode.MotionMagicPosition);
@@ -271,59 +289,82 @@ public class DriveTrainMechanism implements IMechanism
         this.steerErrors = new double[DriveTrainMechanism.NUM_MODULES];
         this.encoderAngles = new double[DriveTrainMechanism.NUM_MODULES];
 
-        this.isDirectionSwapped = new boolean[DriveTrainMechanism.NUM_MODULES];
         this.driveSlotIds = new int[DriveTrainMechanism.NUM_MODULES];
 
-        this.omegaPID = new PIDHandler(
-            TuningConstants.DRIVETRAIN_OMEGA_POSITION_PID_KP,
-            TuningConstants.DRIVETRAIN_OMEGA_POSITION_PID_KI,
-            TuningConstants.DRIVETRAIN_OMEGA_POSITION_PID_KD,
-            TuningConstants.DRIVETRAIN_OMEGA_POSITION_PID_KF,
-            TuningConstants.DRIVETRAIN_OMEGA_POSITION_PID_KS,
-            TuningConstants.DRIVETRAIN_OMEGA_MIN_OUTPUT,
-            TuningConstants.DRIVETRAIN_OMEGA_MAX_OUTPUT,
-            this.timer);
-
-        this.pathOmegaPID = new PIDHandler(
-            TuningConstants.DRIVETRAIN_PATH_OMEGA_POSITION_PID_KP,
-            TuningConstants.DRIVETRAIN_PATH_OMEGA_POSITION_PID_KI,
-            TuningConstants.DRIVETRAIN_PATH_OMEGA_POSITION_PID_KD,
-            TuningConstants.DRIVETRAIN_PATH_OMEGA_POSITION_PID_KF,
-            TuningConstants.DRIVETRAIN_PATH_OMEGA_POSITION_PID_KS,
-            TuningConstants.DRIVETRAIN_PATH_OMEGA_MIN_OUTPUT,
-            TuningConstants.DRIVETRAIN_PATH_OMEGA_MAX_OUTPUT,
-            this.timer);
-
-        this.pathXOffsetPID = new PIDHandler(
-            TuningConstants.DRIVETRAIN_PATH_X_POSITION_PID_KP,
-            TuningConstants.DRIVETRAIN_PATH_X_POSITION_PID_KI,
-            TuningConstants.DRIVETRAIN_PATH_X_POSITION_PID_KD,
-            TuningConstants.DRIVETRAIN_PATH_X_POSITION_PID_KF,
-            TuningConstants.DRIVETRAIN_PATH_X_POSITION_PID_KS,
-            TuningConstants.DRIVETRAIN_PATH_X_MIN_OUTPUT,
-            TuningConstants.DRIVETRAIN_PATH_X_MAX_OUTPUT,
-            this.timer);
-
-        this.pathYOffsetPID = new PIDHandler(
-            TuningConstants.DRIVETRAIN_PATH_Y_POSITION_PID_KP,
-            TuningConstants.DRIVETRAIN_PATH_Y_POSITION_PID_KI,
-            TuningConstants.DRIVETRAIN_PATH_Y_POSITION_PID_KD,
-            TuningConstants.DRIVETRAIN_PATH_Y_POSITION_PID_KF,
-            TuningConstants.DRIVETRAIN_PATH_Y_POSITION_PID_KS,
-            TuningConstants.DRIVETRAIN_PATH_Y_MIN_OUTPUT,
-            TuningConstants.DRIVETRAIN_PATH_Y_MAX_OUTPUT,
-            this.timer);
-
-        this.result = new Setpoint[DriveTrainMechanism.NUM_MODULES];
-        for (int i = 0; i < DriveTrainMechanism.NUM_MODULES; i++)
-        {
-            this.result[i] = new Setpoint();
-        }
+        this.omegaController = controllerManager.register(
+            new PIDControlLaw(
+                TuningConstants.DRIVETRAIN_OMEGA_POSITION_PID_KP,
+                TuningConstants.DRIVETRAIN_OMEGA_POSITION_PID_KI,
+                TuningConstants.DRIVETRAIN_OMEGA_POSITION_PID_KD,
+                TuningConstants.DRIVETRAIN_OMEGA_POSITION_PID_KF,
+                TuningConstants.DRIVETRAIN_OMEGA_POSITION_PID_KS,
+                TuningConstants.DRIVETRAIN_OMEGA_MIN_OUTPUT,
+                TuningConstants.DRIVETRAIN_OMEGA_MAX_OUTPUT),
+            LoggingKey.DriveTrainOmegaError,
+            LoggingKey.DriveTrainOmegaOutput);
+
+        this.pathOmegaController = controllerManager.register(
+            new PIDControlLaw(
+                TuningConstants.DRIVETRAIN_PATH_OMEGA_POSITION_PID_KP,
+                TuningConstants.DRIVETRAIN_PATH_OMEGA_POSITION_PID_KI,
+                TuningConstants.DRIVETRAIN_PATH_OMEGA_POSITION_PID_KD,
+                TuningConstants.DRIVETRAIN_PATH_OMEGA_POSITION_PID_KF,
+                TuningConstants.DRIVETRAIN_PATH_OMEGA_POSITION_PID_KS,
+                TuningConstants.DRIVETRAIN_PATH_OMEGA_MIN_OUTPUT,
+                TuningConstants.DRIVETRAIN_PATH_OMEGA_MAX_OUTPUT),
+            LoggingKey.DriveTrainPathOmegaError,
+            LoggingKey.DriveTrainPathOmegaOutput);
+
+        this.pathXOffsetController = controllerManager.register(
+            new PIDControlLaw(
+                TuningConstants.DRIVETRAIN_PATH_X_POSITION_PID_KP,
+                TuningConstants.DRIVETRAIN_PATH_X_POSITION_PID_KI,
+                TuningConstants.DRIVETRAIN_PATH_X_POSITION_PID_KD,
+                TuningConstants.DRIVETRAIN_PATH_X_POSITION_PID_KF,
+                TuningConstants.DRIVETRAIN_PATH_X_POSITION_PID_KS,
+                TuningConstants.DRIVETRAIN_PATH_X_MIN_OUTPUT,
+                TuningConstants.DRIVETRAIN_PATH_X_MAX_OUTPUT),
+            LoggingKey.DriveTrainPathXOffsetError,
+            LoggingKey.DriveTrainPathXOffsetOutput);
+
+        this.pathYOffsetController = controllerManager.register(
+            new PIDControlLaw(
+                TuningConstants.DRIVETRAIN_PATH_Y_POSITION_PID_KP,
+                TuningConstants.DRIVETRAIN_PATH_Y_POSITION_PID_KI,
+                TuningConstants.DRIVETRAIN_PATH_Y_POSITION_PID_KD,
+                TuningConstants.DRIVETRAIN_PATH_Y_POSITION_PID_KF,
+                TuningConstants.DRIVETRAIN_PATH_Y_POSITION_PID_KS,
+                TuningConstants.DRIVETRAIN_PATH_Y_MIN_OUTPUT,
+                TuningConstants.DRIVETRAIN_PATH_Y_MAX_OUTPUT),
+            LoggingKey.DriveTrainPathYOffsetError,
+            LoggingKey.DriveTrainPathYOffsetOutput);
+
+        this.kinematics = new SwerveKinematics(
+            this.moduleOffsetX,
+            this.moduleOffsetY,
+            TuningConstants.DRIVETRAIN_MAX_VELOCITY,
+            TuningConstants.DRIVETRAIN_SKIP_ANGLE_ON_ZERO_VELOCITY ? TuningConstants.DRIVETRAIN_SKIP_ANGLE_ON_ZERO_DELTA : -1.0);
+
+        this.currentSteerAngles = new double[DriveTrainMechanism.NUM_MODULES];
+        this.moduleVelocities = new double[DriveTrainMechanism.NUM_MODULES];
+        this.moduleSteerAngles = new double[DriveTrainMechanism.NUM_MODULES];
+
+        this.driveControlModes = new TalonXControlMode[DriveTrainMechanism.NUM_MODULES];
+        this.driveSetpoints = new double[DriveTrainMechanism.NUM_MODULES];
+        this.steerSetpoints = new double[DriveTrainMechanism.NUM_MODULES];
+
+        this.odometry = new DriveTrainOdometry(
+            this.driveMotors,
+            this.steerMotors,
+            this.imuManager,
+            this.timer,
+            new SwerveKinematics(this.moduleOffsetX, this.moduleOffsetY, TuningConstants.DRIVETRAIN_MAX_VELOCITY, -1.0),
+            TuningConstants.DRIVETRAIN_USE_ODOMETRY ? TuningConstants.DRIVETRAIN_ODOMETRY_PERIOD_NANOS : 0L);
 
         this.time = 0.0;
-        this.angle = 0.0;
-        this.xPosition = 0.0;
-        this.yPosition = 0.0;
+        this.odometryPose = new Pose2d(0.0, 0.0, 0.0);
+        this.robotVelocity = new double[3];
+        this.poseHistory = new PoseHistory(TuningConstants.DRIVETRAIN_POSE_HISTORY_LENGTH);
 
         this.firstRun = TuningConstants.DRIVETRAIN_RESET_ON_ROBOT_START;
         this.fieldOriented = TuningConstants.DRIVETRAIN_FIELD_ORIENTED_ON_ROBOT_START;
@@ -355,25 +396,31 @@ public class DriveTrainMechanism implements IMechanism
             this.logger.logNumber(DriveTrainMechanism.ENCODER_ANGLE_LOGGING_KEYS[i], this.encoderAngles[i]);
         }
 
-        double prevYaw = this.robotYaw;
-        double prevTime = this.time;
+        // (moduleVelocities is only a scratch buffer until the module goals are calculated in update)
+        for (int i = 0; i < DriveTrainMechanism.NUM_MODULES; i++)
+        {
+            this.moduleVelocities[i] = HardwareConstants.DRIVETRAIN_DRIVE_MOTOR_VELOCITY_TO_INCHES_PER_SECOND * this.driveVelocities[i];
+        }
+
+        this.kinematics.calculateRobotVelocity(this.moduleVelocities, this.steerAngles, this.robotVelocity);
+
         this.robotYaw = this.imuManager.getAngle();
         this.time = this.timer.get();
 
-        this.deltaT = this.time - prevTime;
-        if (this.deltaT <= 0.0)
+        if (TuningConstants.DRIVETRAIN_USE_ODOMETRY)
         {
-            // keep this positive...
-            this.deltaT = 0.001;
-        }
+            this.odometry.update(this.time, this.robotYaw, this.driveVelocities, this.steerAngles);
+            double poseTime = this.odometry.getPose(this.odometryPose);
+            this.poseHistory.add(poseTime, this.odometryPose.x, this.odometryPose.y, this.odometryPose.angle);
 
-        if (TuningConstants.DRIVETRAIN_USE_ODOMETRY)
+            this.logger.logNumber(LoggingKey.DriveTrainXPosition, this.odometryPose.x);
+            this.logger.logNumber(LoggingKey.DriveTrainYPosition, this.odometryPose.y);
+            this.logger.logNumber(LoggingKey.DriveTrainAngle, this.odometry.getIntegratedAngle());
+        }
+        else
         {
-            double deltaImuYaw = (this.robotYaw - prevYaw) / this.deltaT;
-            this.calculateOdometry(deltaImuYaw);
-            this.logger.logNumber(LoggingKey.DriveTrainXPosition, this.xPosition);
-            this.logger.logNumber(LoggingKey.DriveTrainYPosition, this.yPosition);
-            this.logger.logNumber(LoggingKey.DriveTrainAngle, this.angle);
+            // without odometry, only the yaw is known
+            this.poseHistory.add(this.time, 0.0, 0.0, this.robotYaw);
         }
     }
 
@@ -412,13 +459,13 @@ public class DriveTrainMechanism implements IMechanism
         {
             this.robotYaw = this.imuManager.getAngle();
             this.desiredYaw = this.robotYaw;
-            this.angle = 0.0;
+            this.odometry.resetAngle(0.0);
         }
 
         double startingAngle = this.driver.getAnalog(AnalogOperation.PositionStartingAngle);
         if (startingAngle != TuningConstants.PERRY_THE_PLATYPUS)
         {
-            this.angle = startingAngle;
+            this.odometry.resetAngle(startingAngle);
         }
 
         if (this.firstRun || this.driver.getDigital(DigitalOperation.DriveTrainReset))
@@ -441,24 +488,12 @@ public class DriveTrainMechanism implements IMechanism
         this.calculateSetpoints(useFieldOriented);
         for (int i = 0; i < DriveTrainMechanism.NUM_MODULES; i++)
         {
-            Setpoint current = this.result[i];
-            Double steerSetpoint = current.angle;
-            Double driveVelocitySetpoint = current.driveVelocity;
-            Double drivePositionSetpoint = current.drivePosition;
-
-            TalonXControlMode driveControlMode = TalonXControlMode.Disabled;
+            double steerSetpoint = this.steerSetpoints[i];
+            TalonXControlMode driveControlMode = this.driveControlModes[i];
+            double driveSetpoint = driveControlMode != TalonXControlMode.Disabled ? this.driveSetpoints[i] : 0.0;
             int driveDesiredPidSlotId = DriveTrainMechanism.defaultPidSlotId;
-            double driveSetpoint = 0.0;
-            if (driveVelocitySetpoint != null)
-            {
-                driveSetpoint = driveVelocitySetpoint;
-                driveControlMode = TalonXControlMode.Velocity;
-                driveDesiredPidSlotId = DriveTrainMechanism.defaultPidSlotId;
-            }
-            else if (drivePositionSetpoint != null)
+            if (driveControlMode == TalonXControlMode.Position)
             {
-                driveSetpoint = drivePositionSetpoint;
-                driveControlMode = TalonXControlMode.Position;
                 driveDesiredPidSlotId = DriveTrainMechanism.secondaryPidSlotId;
             }
 
@@ -479,7 +514,7 @@ public class DriveTrainMechanism implements IMechanism
                 this.driveMotors[i].stop();
             }
 
-            if (steerSetpoint != null)
+            if (!Double.isNaN(steerSetpoint))
             {
                 this.logger.logNumber(DriveTrainMechanism.STEER_GOAL_LOGGING_KEYS[i], steerSetpoint);
                 this.steerMotors[i].set(steerSetpoint);
@@ -490,18 +525,30 @@ public class DriveTrainMechanism implements IMechanism
     @Override
     public void stop()
     {
-        this.omegaPID.reset();
-        this.pathOmegaPID.reset();
-        this.pathXOffsetPID.reset();
-        this.pathYOffsetPID.reset();
+        this.omegaController.reset();
+        this.pathOmegaController.reset();
+        this.pathXOffsetController.reset();
+        this.pathYOffsetController.reset();
         for (int i = 0; i < DriveTrainMechanism.NUM_MODULES; i++)
         {
             this.driveMotors[i].stop();
             this.steerMotors[i].stop();
         }
 
-        this.xPosition = 0.0;
-        this.yPosition = 0.0;
+        // integrate on the robot thread until started again, so the odometry doesn't keep sampling while disabled
+        this.odometry.stop();
+        this.odometry.resetPosition(0.0, 0.0);
+        this.odometryPose.x = 0.0;
+        this.odometryPose.y = 0.0;
+    }
+
+    @Override
+    public void start()
+    {
+        if (TuningConstants.DRIVETRAIN_USE_ODOMETRY)
+        {
+            this.odometry.start();
+        }
     }
 
     public double[] getModuleTurnInPlaceAngles()
@@ -526,9 +573,37 @@ public class DriveTrainMechanism implements IMechanism
             };
     }
 
+    /**
+     * Get the history of recent poses (recorded each cycle, as of readSensors), where the angle is the IMU's yaw
+     * @return the pose history
+     */
+    public PoseHistory getPoseHistory()
+    {
+        return this.poseHistory;
+    }
+
+    /**
+     * Get the robot-oriented velocity measured from the modules (as of readSensors)
+     * @param robotVelocity to fill in with the velocity to the right and forward (in inches per second) and the
+     * angular velocity (in radians per second, counter-clockwise)
+     */
+    public void getRobotVelocity(double[] robotVelocity)
+    {
+        robotVelocity[0] = this.robotVelocity[0];
+        robotVelocity[1] = this.robotVelocity[1];
+        robotVelocity[2] = this.robotVelocity[2];
+    }
+
     public Pose2d getPose()
     {
-        return new Pose2d(this.xPosition, this.yPosition, this.robotYaw);
+        Pose2d pose = new Pose2d(0.0, 0.0, this.robotYaw);
+        if (TuningConstants.DRIVETRAIN_USE_ODOMETRY)
+        {
+            // the latest pose from the odometry, which may be newer than this cycle's when it is on its own thread
+            this.odometry.getPose(pose);
+        }
+
+        return pose;
     }
 
     private void calculateSetpoints(boolean useFieldOriented)
@@ -538,23 +613,19 @@ public class DriveTrainMechanism implements IMechanism
         {
             for (int i = 0; i < DriveTrainMechanism.NUM_MODULES; i++)
             {
-                this.result[i].driveVelocity = null;
                 if (maintainPositionMode)
                 {
-                    this.result[i].drivePosition = this.driver.getAnalog(DriveTrainMechanism.DRIVE_SETPOINT_OPERATIONS[i]);
+                    this.driveControlModes[i] = TalonXControlMode.Position;
+                    this.driveSetpoints[i] = this.driver.getAnalog(DriveTrainMechanism.DRIVE_SETPOINT_OPERATIONS[i]);
                 }
                 else
                 {
-                    this.result[i].drivePosition = null;
+                    this.driveControlModes[i] = TalonXControlMode.Disabled;
                 }
 
                 double moduleSteerPositionGoal = this.driver.getAnalog(DriveTrainMechanism.STEER_SETPOINT_OPERATIONS[i]);
                 double currentAngle = this.steerPositions[i] * HardwareConstants.DRIVETRAIN_STEER_TICK_DISTANCE;
-                AnglePair anglePair = AnglePair.getClosestAngle(moduleSteerPositionGoal, currentAngle, true);
-                moduleSteerPositionGoal = anglePair.getAngle() * TuningConstants.DRIVETRAIN_STEER_MOTOR_POSITION_PID_KS;
-                this.isDirectionSwapped[i] = anglePair.getSwapDirection();
-
-                this.result[i].angle = moduleSteerPositionGoal;
+                this.steerSetpoints[i] = SwerveKinematics.getClosestSteerAngle(moduleSteerPositionGoal, currentAngle) * TuningConstants.DRIVETRAIN_STEER_MOTOR_POSITION_PID_KS;
             }
 
             return;
@@ -588,23 +659,27 @@ public class DriveTrainMechanism implements IMechanism
             omega = angleVelocityGoal * Helpers.DEGREES_TO_RADIANS;
             if (useFieldOriented)
             {
-                // add correction for x/y drift
-                xVelocityGoal += this.pathXOffsetPID.calculatePosition(xGoal, this.xPosition);
-                yVelocityGoal += this.pathYOffsetPID.calculatePosition(yGoal, this.yPosition);
+                AnglePair anglePair = AnglePair.getClosestAngle(angleGoal + angleReference, this.robotYaw, false);
+                this.desiredYaw = anglePair.getAngle();
 
                 this.logger.logNumber(LoggingKey.DriveTrainXPositionGoal, xGoal);
                 this.logger.logNumber(LoggingKey.DriveTrainYPositionGoal, yGoal);
+                this.logger.logNumber(LoggingKey.DriveTrainDesiredAngle, this.desiredYaw);
 
-                // convert velocity to be robot-oriented
-                centerVelocityRight = -Helpers.cosd(this.robotYaw) * yVelocityGoal + Helpers.sind(this.robotYaw) * xVelocityGoal;
-                centerVelocityForward = Helpers.cosd(this.robotYaw) * xVelocityGoal + Helpers.sind(this.robotYaw) * yVelocityGoal;
+                // evaluate the corrections for x/y drift and angle drift together
+                this.pathXOffsetController.setInputs(xGoal, this.odometryPose.x);
+                this.pathYOffsetController.setInputs(yGoal, this.odometryPose.y);
+                this.pathOmegaController.setInputs(this.desiredYaw, this.robotYaw);
+                this.controllerManager.evaluate();
 
-                // add correction for angle drift
-                AnglePair anglePair = AnglePair.getClosestAngle(angleGoal + angleReference, this.robotYaw, false);
-                this.desiredYaw = anglePair.getAngle();
+                xVelocityGoal += this.pathXOffsetController.getOutput();
+                yVelocityGoal += this.pathYOffsetController.getOutput();
+                omega += this.pathOmegaController.getOutput();
 
-                this.logger.logNumber(LoggingKey.DriveTrainDesiredAngle, this.desiredYaw);
-                omega += this.pathOmegaPID.calculatePosition(this.desiredYaw, this.robotYaw);
+                // convert velocity to be robot-oriented (field-oriented "right" is -y)
+                this.kinematics.setYaw(this.robotYaw);
+                centerVelocityRight = this.kinematics.getRobotRight(-yVelocityGoal, xVelocityGoal);
+                centerVelocityForward = this.kinematics.getRobotForward(-yVelocityGoal, xVelocityGoal);
             }
             else
             {
@@ -624,8 +699,9 @@ public class DriveTrainMechanism implements IMechanism
 
             if (useFieldOriented)
             {
-                centerVelocityRight = Helpers.cosd(this.robotYaw) * centerVelocityRightRaw + Helpers.sind(this.robotYaw) * centerVelocityForwardRaw;
-                centerVelocityForward = Helpers.cosd(this.robotYaw) * centerVelocityForwardRaw - Helpers.sind(this.robotYaw) * centerVelocityRightRaw;
+                this.kinematics.setYaw(this.robotYaw);
+                centerVelocityRight = this.kinematics.getRobotRight(centerVelocityRightRaw, centerVelocityForwardRaw);
+                centerVelocityForward = this.kinematics.getRobotForward(centerVelocityRightRaw, centerVelocityForwardRaw);
             }
             else
             {
@@ -694,7 +770,7 @@ public class DriveTrainMechanism implements IMechanism
                     else
                     {
                         this.logger.logNumber(LoggingKey.DriveTrainDesiredAngle, this.desiredYaw);
-                        omega = this.omegaPID.calculatePosition(this.desiredYaw, this.robotYaw);
+                        omega = this.omegaController.calculate(this.desiredYaw, this.robotYaw);
                     }
                 }
                 else
@@ -704,59 +780,23 @@ public class DriveTrainMechanism implements IMechanism
             }
         }
 
-        double maxModuleDriveVelocityGoal = 0.0;
         for (int i = 0; i < DriveTrainMechanism.NUM_MODULES; i++)
         {
-            double moduleVelocityRight = centerVelocityRight + omega * (this.moduleOffsetY[i] + rotationCenterB);
-            double moduleVelocityForward = centerVelocityForward - omega * (this.moduleOffsetX[i] + rotationCenterA);
-
-            Double moduleSteerPositionGoal;
-            double moduleDriveVelocityGoal;
-            if (TuningConstants.DRIVETRAIN_SKIP_ANGLE_ON_ZERO_VELOCITY
-                    && Helpers.WithinDelta(moduleVelocityRight, 0.0, TuningConstants.DRIVETRAIN_SKIP_ANGLE_ON_ZERO_DELTA)
-                    && Helpers.WithinDelta(moduleVelocityForward, 0.0, TuningConstants.DRIVETRAIN_SKIP_ANGLE_ON_ZERO_DELTA))
-            {
-                moduleDriveVelocityGoal = 0.0;
-                moduleSteerPositionGoal = null;
-            }
-            else
-            {
-                moduleDriveVelocityGoal = Math.sqrt(moduleVelocityRight * moduleVelocityRight + moduleVelocityForward * moduleVelocityForward);
-
-                moduleSteerPositionGoal = Helpers.atan2d(-moduleVelocityRight, moduleVelocityForward);
-                double currentAngle = this.steerPositions[i] * HardwareConstants.DRIVETRAIN_STEER_TICK_DISTANCE;
-                AnglePair anglePair = AnglePair.getClosestAngle(moduleSteerPositionGoal, currentAngle, true);
-                moduleSteerPositionGoal = anglePair.getAngle() * TuningConstants.DRIVETRAIN_STEER_MOTOR_POSITION_PID_KS;
-                this.isDirectionSwapped[i] = anglePair.getSwapDirection();
-
-                if (maxModuleDriveVelocityGoal < moduleDriveVelocityGoal)
-                {
-                    maxModuleDriveVelocityGoal = moduleDriveVelocityGoal;
-                }
-
-                moduleDriveVelocityGoal *= HardwareConstants.DRIVETRAIN_DRIVE_INCHES_PER_SECOND_TO_MOTOR_VELOCITY;
-                if (this.isDirectionSwapped[i])
-                {
-                    moduleDriveVelocityGoal *= -1.0;
-                }
-            }
-
-            this.result[i].driveVelocity = moduleDriveVelocityGoal;
-            this.result[i].drivePosition = null;
-            this.result[i].angle = moduleSteerPositionGoal;
-        }
-
-        // rescale velocities based on max velocity percentage, if max velocity is exceeded for any module
-        if (maxModuleDriveVelocityGoal > TuningConstants.DRIVETRAIN_MAX_VELOCITY)
-        {
-            // divide by percentage is interchangeable with multiply by inverse-percentage
-            double invPercentage = TuningConstants.DRIVETRAIN_MAX_VELOCITY / maxModuleDriveVelocityGoal;
-            for (int i = 0; i < DriveTrainMechanism.NUM_MODULES; i++)
-            {
-                this.result[i].driveVelocity *= invPercentage;
-            }
+            this.currentSteerAngles[i] = this.steerPositions[i] * HardwareConstants.DRIVETRAIN_STEER_TICK_DISTANCE;
         }
 
+        // calculate the (desaturated) velocity and closest steer angle of each module
+        this.kinematics.calculateModuleGoals(
+            centerVelocityRight,
+            centerVelocityForward,
+            omega,
+            rotationCenterA,
+            rotationCenterB,
+            this.currentSteerAngles,
+            this.moduleVelocities,
+            this.moduleSteerAngles);
+
+        double velocityMultiplier = HardwareConstants.DRIVETRAIN_DRIVE_INCHES_PER_SECOND_TO_MOTOR_VELOCITY;
         if (TuningConstants.DRIVETRAIN_USE_OVERCURRENT_ADJUSTMENT)
         {
             CurrentLimiting value = this.powerManager.getCurrentLimitingValue();
@@ -772,70 +812,15 @@ public class DriveTrainMechanism implements IMechanism
                     currentLimitingMultiplier = TuningConstants.DRIVETRAIN_OVERCURRENT_HIGH_ADJUSTMENT;
                 }
 
-                for (int i = 0; i < DriveTrainMechanism.NUM_MODULES; i++)
-                {
-                    this.result[i].driveVelocity *= currentLimitingMultiplier;
-                }
+                velocityMultiplier *= currentLimitingMultiplier;
             }
         }
-    }
-
-    private void calculateOdometry(double deltaImuYaw)
-    {
-        // double imuOmega = deltaImuYaw / this.deltaT; // in degrees
-        double rightRobotVelocity;
-        double forwardRobotVelocity;
-
-        // calculate our right and forward velocities using an average of our various velocities and the angle.
-        double rightRobotVelocity1 = -Helpers.sind(this.steerAngles[0]) * HardwareConstants.DRIVETRAIN_DRIVE_MOTOR_VELOCITY_TO_INCHES_PER_SECOND * this.driveVelocities[0];
-        double rightRobotVelocity2 = -Helpers.sind(this.steerAngles[1]) * HardwareConstants.DRIVETRAIN_DRIVE_MOTOR_VELOCITY_TO_INCHES_PER_SECOND * this.driveVelocities[1];
-        double rightRobotVelocity3 = -Helpers.sind(this.steerAngles[2]) * HardwareConstants.DRIVETRAIN_DRIVE_MOTOR_VELOCITY_TO_INCHES_PER_SECOND * this.driveVelocities[2];
-        double rightRobotVelocity4 = -Helpers.sind(this.steerAngles[3]) * HardwareConstants.DRIVETRAIN_DRIVE_MOTOR_VELOCITY_TO_INCHES_PER_SECOND * this.driveVelocities[3];
-
-        double forwardRobotVelocity1 = Helpers.cosd(this.steerAngles[0]) * HardwareConstants.DRIVETRAIN_DRIVE_MOTOR_VELOCITY_TO_INCHES_PER_SECOND * this.driveVelocities[0];
-        double forwardRobotVelocity2 = Helpers.cosd(this.steerAngles[1]) * HardwareConstants.DRIVETRAIN_DRIVE_MOTOR_VELOCITY_TO_INCHES_PER_SECOND * this.driveVelocities[1];
-        double forwardRobotVelocity3 = Helpers.cosd(this.steerAngles[2]) * HardwareConstants.DRIVETRAIN_DRIVE_MOTOR_VELOCITY_TO_INCHES_PER_SECOND * this.driveVelocities[2];
-        double forwardRobotVelocity4 = Helpers.cosd(this.steerAngles[3]) * HardwareConstants.DRIVETRAIN_DRIVE_MOTOR_VELOCITY_TO_INCHES_PER_SECOND * this.driveVelocities[3];
-
-        // rightRobotVelocity = (rightRobotVelocity1 + rightRobotVelocity2 + rightRobotVelocity3 + rightRobotVelocity4) / 4.0;
-        // forwardRobotVelocity = (forwardRobotVelocity1 + forwardRobotVelocity2 + forwardRobotVelocity3 + forwardRobotVelocity4) / 4.0;
-
-        double a = 0.5 * (-rightRobotVelocity3 - rightRobotVelocity4);
-        double b = 0.5 * (-rightRobotVelocity1 - rightRobotVelocity2);
-        double c = 0.5 * (forwardRobotVelocity1 + forwardRobotVelocity4);
-        double d = 0.5 * (forwardRobotVelocity2 + forwardRobotVelocity3);
-
-        double omegaRadians1 = (b - a) / HardwareConstants.DRIVETRAIN_VERTICAL_WHEEL_SEPERATION_DISTANCE;
-        double omegaRadians2 = (c - d) / HardwareConstants.DRIVETRAIN_HORIZONTAL_WHEEL_SEPERATION_DISTANCE;
-        double omegaRadians = (omegaRadians1 + omegaRadians2) / 2.0;
-
-        double rightRobotVelocityA = omegaRadians * HardwareConstants.DRIVETRAIN_HORIZONTAL_WHEEL_CENTER_DISTANCE + a;
-        double rightRobotVelocityB = -omegaRadians * HardwareConstants.DRIVETRAIN_HORIZONTAL_WHEEL_CENTER_DISTANCE + b;
-        rightRobotVelocity = -(rightRobotVelocityA + rightRobotVelocityB) / 2.0;
-
-        double forwardRobotVelocityA = omegaRadians * HardwareConstants.DRIVETRAIN_VERTICAL_WHEEL_CENTER_DISTANCE + c;
-        double forwardRobotVelocityB = -omegaRadians * HardwareConstants.DRIVETRAIN_VERTICAL_WHEEL_CENTER_DISTANCE + d;
-        forwardRobotVelocity = (forwardRobotVelocityA + forwardRobotVelocityB) / 2.0;
-
-        this.angle += omegaRadians * Helpers.RADIANS_TO_DEGREES * this.deltaT;
-
-        double rightFieldVelocity = rightRobotVelocity * Helpers.cosd(this.robotYaw) - forwardRobotVelocity * Helpers.sind(this.robotYaw);
-        double forwardFieldVelocity = rightRobotVelocity * Helpers.sind(this.robotYaw) + forwardRobotVelocity * Helpers.cosd(this.robotYaw);
-        this.xPosition += forwardFieldVelocity * this.deltaT;
-        this.yPosition -= rightFieldVelocity * this.deltaT;
-    }
 
-    /**
-     * Basic structure to hold an angle/drive pair
-     */
-    private class Setpoint
-    {
-        public Double angle;
-        public Double driveVelocity;
-        public Double drivePosition;
-
-        public Setpoint()
+        for (int i = 0; i < DriveTrainMechanism.NUM_MODULES; i++)
         {
+            this.driveControlModes[i] = TalonXControlMode.Velocity;
+            this.driveSetpoints[i] = this.moduleVelocities[i] * velocityMultiplier;
+            this.steerSetpoints[i] = this.moduleSteerAngles[i] * TuningConstants.DRIVETRAIN_STEER_MOTOR_POSITION_PID_KS;
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,319 @@
+package frc.robot.mechanisms;
+
+import java.util.concurrent.locks.LockSupport;
+
+import frc.robot.HardwareConstants;
+import frc.robot.common.Helpers;
+import frc.robot.common.PoseSnapshot;
+import frc.robot.common.SwerveKinematics;
+import frc.robot.common.robotprovider.ITalonFX;
+import frc.robot.common.robotprovider.ITimer;
+import frc.robot.common.robotprovider.Pose2d;
+
+/**
+ * Odometry for the swerve drivetrain, integrating its pose from the module velocities and steer angles and the IMU's yaw.
+ *
+ * With a period, the odometry runs on its own thread between start and stop (while the robot is enabled), sampling the
+ * sensors at a higher rate than the robot thread so that it doesn't drift as much while following fast paths.  Otherwise
+ * (and whenever the thread isn't running, such as in tests and replays), the robot thread integrates the sensor values that
+ * it read each cycle.  Either way, there is a single writer, which publishes the latest pose through a PoseSnapshot so that
+ * the robot thread never blocks on the odometry thread.  Resets from the robot thread are applied by the writer the next
+ * time that it integrates.
+ */
+public class DriveTrainOdometry
+{
+    // changes in yaw larger than this between two samples must be from the IMU being reset, rather than the robot turning
+    private static final double MAX_YAW_CHANGE = Math.PI / 2.0;
+
+    private final ITalonFX[] driveMotors;
+    private final ITalonFX[] steerMotors;
+    private final PigeonManager imuManager;
+    private final ITimer timer;
+    private final SwerveKinematics kinematics;
+
+    private final PoseSnapshot snapshot;
+    private final long periodNanos;
+
+    // only used by the robot thread
+    private Thread odometryThread;
+    private volatile boolean running;
+
+    // only used by the writer
+    private final double[] driveVelocities;
+    private final double[] steerAngles;
+    private final double[] moduleVelocities;
+    private final double[] robotVelocity;
+    private final double[] ypr_deg;
+
+    private boolean initialized;
+    private double time;
+    private double yaw;
+    private double xPosition;
+    private double yPosition;
+    private double angle;
+
+    // requested by the robot thread, applied by the writer
+    private volatile boolean positionResetRequested;
+    private volatile double resetXPosition;
+    private volatile double resetYPosition;
+    private volatile boolean angleResetRequested;
+    private volatile double resetAngle;
+
+    // the angle integrated from the module velocities (rather than the IMU), published by the writer
+    private volatile double integratedAngle;
+
+    /**
+     * Initializes a new DriveTrainOdometry
+     * @param driveMotors the drive motor of each module
+     * @param steerMotors the steer motor of each module
+     * @param imuManager for reading the yaw
+     * @param timer for the time of each sample
+     * @param kinematics for the modules (only used by the odometry)
+     * @param periodNanos time between each sample on the odometry thread once started, or 0 to always integrate on the robot thread
+     */
+    public DriveTrainOdometry(
+        ITalonFX[] driveMotors,
+        ITalonFX[] steerMotors,
+        PigeonManager imuManager,
+        ITimer timer,
+        SwerveKinematics kinematics,
+        long periodNanos)
+    {
+        this.driveMotors = driveMotors;
+        this.steerMotors = steerMotors;
+        this.imuManager = imuManager;
+        this.timer = timer;
+        this.kinematics = kinematics;
+
+        int moduleCount = kinematics.getModuleCount();
+        this.driveVelocities = new double[moduleCount];
+        this.steerAngles = new double[moduleCount];
+        this.moduleVelocities = new double[moduleCount];
+        this.robotVelocity = new double[3];
+        this.ypr_deg = new double[3];
+
+        this.snapshot = new PoseSnapshot();
+        this.initialized = false;
+
+        this.periodNanos = periodNanos;
+        this.odometryThread = null;
+        this.running = false;
+    }
+
+    /**
+     * Start sampling the sensors on the odometry thread (if there is a period and it isn't already running)
+     */
+    public void start()
+    {
+        if (this.periodNanos <= 0L || this.odometryThread != null)
+        {
+            return;
+        }
+
+        this.running = true;
+        this.odometryThread = new Thread(this::run, "DriveTrainOdometry");
+        this.odometryThread.setDaemon(true);
+        this.odometryThread.start();
+    }
+
+    /**
+     * Stop the odometry thread (if it is running) and wait for it to finish, so that the robot thread integrates the pose
+     * from then on
+     */
+    public void stop()
+    {
+        if (this.odometryThread == null)
+        {
+            return;
+        }
+
+        this.running = false;
+        this.odometryThread.interrupt();
+        try
+        {
+            this.odometryThread.join();
+        }
+        catch (InterruptedException ex)
+        {
+            Thread.currentThread().interrupt();
+        }
+
+        this.odometryThread = null;
+    }
+
+    /**
+     * Integrate the pose with the values that the robot thread read this cycle (only when the odometry thread isn't running)
+     * @param time of the sensor values, in seconds
+     * @param yaw of the robot, in degrees
+     * @param driveVelocities the velocity of each drive motor, in motor velocity units
+     * @param steerAngles the steer angle of each module, in degrees
+     */
+    public void update(double time, double yaw, double[] driveVelocities, double[] steerAngles)
+    {
+        if (this.odometryThread == null)
+        {
+            this.integrate(time, yaw, driveVelocities, steerAngles);
+        }
+    }
+
+    /**
+     * Read the latest pose, where the angle is the IMU's yaw
+     * @param pose to fill in with the latest pose
+     * @return time of the pose, in seconds
+     */
+    public double getPose(Pose2d pose)
+    {
+        return this.snapshot.read(pose);
+    }
+
+    /**
+     * Retrieve the angle integrated from the module velocities (rather than read from the IMU)
+     * @return the integrated angle, in degrees
+     */
+    public double getIntegratedAngle()
+    {
+        return this.integratedAngle;
+    }
+
+    /**
+     * Reset the position, the next time that the pose is integrated
+     * @param xPosition new x position, in inches
+     * @param yPosition new y position, in inches
+     */
+    public void resetPosition(double xPosition, double yPosition)
+    {
+        this.resetXPosition = xPosition;
+        this.resetYPosition = yPosition;
+        this.positionResetRequested = true;
+    }
+
+    /**
+     * Reset the integrated angle, the next time that the pose is integrated
+     * @param angle new integrated angle, in degrees
+     */
+    public void resetAngle(double angle)
+    {
+        this.resetAngle = angle;
+        this.angleResetRequested = true;
+    }
+
+    /**
+     * Integrate the pose from one sample of the sensor values, along the arc that the robot followed since the previous
+     * sample (assuming constant velocities in between), and publish it
+     * @param time of the sample, in seconds
+     * @param yaw of the robot, in degrees
+     * @param driveVelocities the velocity of each drive motor, in motor velocity units
+     * @param steerAngles the steer angle of each module, in degrees
+     */
+    void integrate(double time, double yaw, double[] driveVelocities, double[] steerAngles)
+    {
+        if (this.positionResetRequested)
+        {
+            this.positionResetRequested = false;
+            this.xPosition = this.resetXPosition;
+            this.yPosition = this.resetYPosition;
+        }
+
+        if (this.angleResetRequested)
+        {
+            this.angleResetRequested = false;
+            this.angle = this.resetAngle;
+
+            // the IMU's yaw is reset at the same time, so don't treat its jump as the robot turning
+            this.yaw = yaw;
+        }
+
+        if (!this.initialized)
+        {
+            this.initialized = true;
+            this.time = time;
+            this.yaw = yaw;
+            this.publish();
+            return;
+        }
+
+        double deltaT = time - this.time;
+        if (deltaT <= 0.0)
+        {
+            // keep this positive...
+            deltaT = 0.001;
+        }
+
+        for (int i = 0; i < this.moduleVelocities.length; i++)
+        {
+            this.moduleVelocities[i] = HardwareConstants.DRIVETRAIN_DRIVE_MOTOR_VELOCITY_TO_INCHES_PER_SECOND * driveVelocities[i];
+        }
+
+        this.kinematics.calculateRobotVelocity(this.moduleVelocities, steerAngles, this.robotVelocity);
+        this.angle += this.robotVelocity[2] * Helpers.RADIANS_TO_DEGREES * deltaT;
+
+        // the robot-oriented twist since the previous sample, turning by the change in the IMU's yaw
+        double forwardDistance = this.robotVelocity[1] * deltaT;
+        double leftDistance = -this.robotVelocity[0] * deltaT;
+        double deltaYaw = (yaw - this.yaw) * Helpers.DEGREES_TO_RADIANS;
+        if (Math.abs(deltaYaw) > DriveTrainOdometry.MAX_YAW_CHANGE)
+        {
+            deltaYaw = 0.0;
+        }
+
+        // follow the arc of the twist (using the Taylor series when barely turning, to avoid dividing by ~0)
+        double sineRatio;
+        double cosineRatio;
+        if (Math.abs(deltaYaw) < 1e-9)
+        {
+            sineRatio = 1.0 - deltaYaw * deltaYaw / 6.0;
+            cosineRatio = deltaYaw / 2.0;
+        }
+        else
+        {
+            sineRatio = Math.sin(deltaYaw) / deltaYaw;
+            cosineRatio = (1.0 - Math.cos(deltaYaw)) / deltaYaw;
+        }
+
+        double arcForward = forwardDistance * sineRatio - leftDistance * cosineRatio;
+        double arcLeft = forwardDistance * cosineRatio + leftDistance * sineRatio;
+
+        // convert to be field-oriented, from the yaw at the start of the arc
+        this.kinematics.setYaw(this.yaw);
+        this.xPosition += this.kinematics.getFieldForward(-arcLeft, arcForward);
+        this.yPosition -= this.kinematics.getFieldRight(-arcLeft, arcForward);
+
+        this.time = time;
+        this.yaw = yaw;
+        this.publish();
+    }
+
+    private void publish()
+    {
+        this.integratedAngle = this.angle;
+        this.snapshot.publish(this.xPosition, this.yPosition, this.yaw, this.time);
+    }
+
+    private void run()
+    {
+        long nextSampleNanos = System.nanoTime();
+        while (this.running)
+        {
+            for (int i = 0; i < this.driveVelocities.length; i++)
+            {
+                this.driveVelocities[i] = this.driveMotors[i].getVelocity();
+                this.steerAngles[i] = Helpers.updateAngleRange(this.steerMotors[i].getPosition() * HardwareConstants.DRIVETRAIN_STEER_TICK_DISTANCE);
+            }
+
+            double yaw = this.imuManager.sampleAngle(this.ypr_deg);
+            this.integrate(this.timer.get(), yaw, this.driveVelocities, this.steerAngles);
+
+            nextSampleNanos += this.periodNanos;
+            long remainingNanos = nextSampleNanos - System.nanoTime();
+            if (remainingNanos > 0L)
+            {
+                LockSupport.parkNanos(remainingNanos);
+            }
+            else
+            {
+                // fell behind, so don't try to catch up with a burst of samples
+                nextSampleNanos = System.nanoTime();
+            }
+        }
+    }
+}
@@ -11,6 +11,13 @@ import com.google.inject.Singleton;
 
 /**
  * Offboard Vision manager.
+ *
+ * The vision results are as of when the camera frame was captured, which can be several cycles ago.  The time of each frame
+ * is estimated from when its heartbeat arrives, and each result is projected from where the robot was at that time (from
+ * the drivetrain's pose history) to where it is now, so that tasks don't chase stale measurements while the robot moves.
+ * Results from a frame that is older than the pose history are dropped, as there's no way to tell where they are now.
+ * The vision target's results as of when the frame was captured are also kept, for consumers that handle the latency
+ * themselves (e.g. the pose estimator).
  */
 @Singleton
 public class OffboardVisionManager implements IMechanism
@@ -18,39 +25,59 @@ public class OffboardVisionManager implements IMechanism
     private final IDriver driver;
     private final ILogger logger;
 
+    private final DriveTrainMechanism driveTrain;
+
     private final IDriverStation driverStation;
     private final INetworkTableProvider networkTable;
 
+    private final Pose2d capturePose;
+    private final Pose2d currentPose;
+
     private Double vDistance;
     private Double vAngle;
+    private Double vRawDistance;
+    private Double vRawAngle;
     private Double gDistance;
     private Double gAngle;
 
     private int missedHeartbeats;
     private double prevHeartbeat;
+    private double captureTime;
+
+    // results of projectTarget
+    private double projectedDistance;
+    private double projectedAngle;
 
     /**
      * Initializes a new OffboardVisionManager
      * @param driver for obtaining operations
      * @param logger for logging to smart dashboard
      * @param provider for obtaining electronics objects
+     * @param driveTrain for the history of where the robot was
      */
     @Inject
-    public OffboardVisionManager(IDriver driver, LoggingManager logger, IRobotProvider provider)
+    public OffboardVisionManager(IDriver driver, LoggingManager logger, IRobotProvider provider, DriveTrainMechanism driveTrain)
     {
         this.driver = driver;
         this.logger = logger;
+        this.driveTrain = driveTrain;
 
         this.driverStation = provider.getDriverStation();
         this.networkTable = provider.getNetworkTableProvider();
 
         this.vDistance = null;
         this.vAngle = null;
+        this.vRawDistance = null;
+        this.vRawAngle = null;
         this.gDistance = null;
         this.gAngle = null;
 
         this.missedHeartbeats = 0;
         this.prevHeartbeat = 0.0;
+        this.captureTime = Double.NaN;
+
+        this.capturePose = new Pose2d(0.0, 0.0, 0.0);
+        this.currentPose = new Pose2d(0.0, 0.0, 0.0);
     }
 
     /**
@@ -64,10 +91,15 @@ public class OffboardVisionManager implements IMechanism
         this.gDistance = this.networkTable.getSmartDashboardNumber("g.distance");
         this.gAngle = this.networkTable.getSmartDashboardNumber("g.horizontalAngle");
 
+        PoseHistory poseHistory = this.driveTrain.getPoseHistory();
         double newHeartbeat = this.networkTable.getSmartDashboardNumber("v.heartbeat");
         if (this.prevHeartbeat != newHeartbeat)
         {
+            this.prevHeartbeat = newHeartbeat;
             this.missedHeartbeats = 0;
+
+            // a new frame's results have arrived since the previous cycle
+            this.captureTime = poseHistory.getLatestTime() - TuningConstants.VISION_CAPTURE_LATENCY;
         }
         else
         {
@@ -92,8 +124,44 @@ public class OffboardVisionManager implements IMechanism
             this.gAngle = null;
         }
 
+        this.vRawDistance = this.vDistance;
+        this.vRawAngle = this.vAngle;
+
+        // project the results from where the robot was when the frame was captured to where it is now
+        if (TuningConstants.VISION_LATENCY_COMPENSATION
+            && (this.vDistance != null || this.gDistance != null))
+        {
+            if (poseHistory.getPose(this.captureTime, this.capturePose)
+                && poseHistory.getPose(poseHistory.getLatestTime(), this.currentPose))
+            {
+                if (this.vDistance != null)
+                {
+                    this.projectTarget(this.vDistance, this.vAngle);
+                    this.vDistance = this.projectedDistance;
+                    this.vAngle = this.projectedAngle;
+                }
+
+                if (this.gDistance != null)
+                {
+                    this.projectTarget(this.gDistance, this.gAngle);
+                    this.gDistance = this.projectedDistance;
+                    this.gAngle = this.projectedAngle;
+                }
+            }
+            else
+            {
+                // the frame is older than the pose history, so we can't tell where the robot was when it was captured
+                this.vDistance = null;
+                this.vAngle = null;
+                this.gDistance = null;
+                this.gAngle = null;
+            }
+        }
+
         this.logger.logNumber(LoggingKey.OffboardVisionTargetDistance, this.vDistance);
         this.logger.logNumber(LoggingKey.OffboardVisionTargetHorizontalAngle, this.vAngle);
+        this.logger.logNumber(LoggingKey.OffboardVisionTargetRawDistance, this.vRawDistance);
+        this.logger.logNumber(LoggingKey.OffboardVisionTargetRawHorizontalAngle, this.vRawAngle);
         this.logger.logNumber(LoggingKey.OffboardVisionGamePieceDistance, this.gDistance);
         this.logger.logNumber(LoggingKey.OffboardVisionGamePieceHorizontalAngle, this.gAngle);
     }
@@ -149,6 +217,35 @@ public class OffboardVisionManager implements IMechanism
         return this.vDistance;
     }
 
+    /**
+     * Get the angle to the vision target from where the robot was when the latest frame was captured (not projected to
+     * where the robot is now)
+     * @return angle in degrees (positive is clockwise), or null if the target wasn't found
+     */
+    public Double getRawVisionTargetHorizontalAngle()
+    {
+        return this.vRawAngle;
+    }
+
+    /**
+     * Get the distance to the vision target from where the robot was when the latest frame was captured (not projected to
+     * where the robot is now)
+     * @return distance in inches, or null if the target wasn't found
+     */
+    public Double getRawVisionTargetDistance()
+    {
+        return this.vRawDistance;
+    }
+
+    /**
+     * Get the estimated time that the latest frame was captured, which changes whenever a new frame's results arrive
+     * @return capture time of the latest frame, in seconds, or NaN before the first frame
+     */
+    public double getVisionCaptureTime()
+    {
+        return this.captureTime;
+    }
+
     public Double getGamePieceHorizontalAngle()
     {
         return this.gAngle;
@@ -159,6 +256,29 @@ public class OffboardVisionManager implements IMechanism
         return this.gDistance;
     }
 
+    /**
+     * Project a target from where the robot was when the frame was captured to where it is now
+     * @param distance to the target from the capture pose, in inches
+     * @param angle to the target from the capture pose, in degrees (positive is clockwise)
+     */
+    private void projectTarget(double distance, double angle)
+    {
+        // the target's position on the field, using the heading when the frame was captured
+        double bearing = this.capturePose.angle - angle;
+        double offsetX = this.capturePose.x + distance * Helpers.cosd(bearing) - this.currentPose.x;
+        double offsetY = this.capturePose.y + distance * Helpers.sind(bearing) - this.currentPose.y;
+
+        this.projectedDistance = Math.sqrt(offsetX * offsetX + offsetY * offsetY);
+        if (this.projectedDistance == 0.0)
+        {
+            this.projectedAngle = angle;
+        }
+        else
+        {
+            this.projectedAngle = Helpers.updateAngleRange(this.currentPose.angle - Helpers.atan2d(offsetY, offsetX));
+        }
+    }
+
     private boolean isRedTeam()
     {
         Alliance currentAlliance = this.driverStation.getAlliance();
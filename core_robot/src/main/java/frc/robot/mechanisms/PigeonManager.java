@@ -30,7 +30,7 @@ public class PigeonManager implements IMechanism
     private double pitch;
     private double roll;
 
-    private double startYaw;
+    private volatile double startYaw; // also read by the odometry thread
 
     /**
      * Initializes a new PigeonManager
@@ -127,6 +127,18 @@ public class PigeonManager implements IMechanism
         return this.yaw + this.startYaw;
     }
 
+    /**
+     * Read the current angle (counter-clockwise) directly from the IMU, rather than as of this cycle's readSensors, so that
+     * the odometry thread can sample it more often
+     * @param ypr_deg array (owned by the caller) to read the yaw, pitch and roll into
+     * @return the current angle in degrees
+     */
+    public double sampleAngle(double[] ypr_deg)
+    {
+        this.pigeon.getYawPitchRoll(ypr_deg);
+        return ypr_deg[0] + this.startYaw;
+    }
+
     /**
      * reset the position manager so it considers the current location to be "0"
      * @param resetStartAngle - whether to reset the start angle as well
@@ -0,0 +1,209 @@
+package frc.robot.mechanisms;
+
+import frc.robot.*;
+import frc.robot.common.*;
+import frc.robot.common.robotprovider.*;
+import frc.robot.driver.*;
+import frc.robot.driver.common.*;
+
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+
+/**
+ * Pose estimator manager.
+ *
+ * Each cycle, moves the estimate of the pose with the modules' velocity and the Pigeon's change in yaw (or the modules'
+ * rotation, when the Pigeon isn't connected), and then corrects it with the vision target whenever a new frame arrives.
+ * Each sighting is used as it was measured, and applied to the estimate as of when its frame was captured (rather than
+ * using the results that OffboardVisionManager has already projected to where the robot is now), so that the camera's
+ * latency is only accounted for once.
+ *
+ * The estimate is only logged for now - no tasks or mechanisms use it yet - so that it can be checked against matches
+ * (see PoseEstimatorReplay) before anything relies on it.
+ */
+@Singleton
+public class PoseEstimatorManager implements IMechanism
+{
+    // changes in yaw larger than this between two cycles must be from the Pigeon being reset, rather than the robot turning
+    private static final double MAX_YAW_CHANGE = 90.0;
+
+    private final IDriver driver;
+    private final ILogger logger;
+    private final ITimer timer;
+
+    private final PigeonManager imuManager;
+    private final DriveTrainMechanism driveTrain;
+    private final OffboardVisionManager visionManager;
+
+    private final PoseEstimator estimator;
+    private final PoseEstimatorHistory history;
+    private final double[] robotVelocity;
+
+    private boolean initialized;
+    private boolean positionResetRequested;
+    private boolean angleResetRequested;
+
+    private double time;
+    private double yaw;
+    private double visionCaptureTime;
+
+    /**
+     * Initializes a new PoseEstimatorManager
+     * @param driver for obtaining operations
+     * @param logger for logging to smart dashboard
+     * @param timer for the time of each cycle
+     * @param imuManager for the yaw
+     * @param driveTrain for the modules' velocity
+     * @param visionManager for the vision target
+     */
+    @Inject
+    public PoseEstimatorManager(
+        IDriver driver,
+        LoggingManager logger,
+        ITimer timer,
+        PigeonManager imuManager,
+        DriveTrainMechanism driveTrain,
+        OffboardVisionManager visionManager)
+    {
+        this.driver = driver;
+        this.logger = logger;
+        this.timer = timer;
+
+        this.imuManager = imuManager;
+        this.driveTrain = driveTrain;
+        this.visionManager = visionManager;
+
+        this.estimator = new PoseEstimator(
+            TuningConstants.POSE_ESTIMATOR_TRANSLATION_NOISE,
+            TuningConstants.POSE_ESTIMATOR_TRANSLATION_DRIFT,
+            TuningConstants.POSE_ESTIMATOR_GYRO_NOISE,
+            TuningConstants.POSE_ESTIMATOR_GYRO_DRIFT,
+            TuningConstants.POSE_ESTIMATOR_WHEEL_ROTATION_NOISE,
+            TuningConstants.POSE_ESTIMATOR_VISION_DISTANCE_NOISE,
+            TuningConstants.POSE_ESTIMATOR_VISION_ANGLE_NOISE,
+            TuningConstants.POSE_ESTIMATOR_VISION_GATE,
+            TuningConstants.POSE_ESTIMATOR_VISION_MAX_REJECTED);
+        this.history = new PoseEstimatorHistory(this.estimator, TuningConstants.POSE_ESTIMATOR_HISTORY_LENGTH);
+
+        this.robotVelocity = new double[3];
+
+        this.initialized = false;
+        this.positionResetRequested = false;
+        this.angleResetRequested = false;
+
+        this.time = 0.0;
+        this.yaw = 0.0;
+        this.visionCaptureTime = Double.NaN;
+    }
+
+    /**
+     * read all of the sensors for the mechanism that we will use in macros/autonomous mode and record their values
+     */
+    @Override
+    public void readSensors()
+    {
+        if (!TuningConstants.POSE_ESTIMATOR_ENABLED)
+        {
+            return;
+        }
+
+        double time = this.timer.get();
+        double yaw = this.imuManager.getAngle();
+        boolean fromGyro = this.imuManager.getIsConnected();
+        this.driveTrain.getRobotVelocity(this.robotVelocity);
+
+        if (!this.initialized || this.positionResetRequested)
+        {
+            this.initialized = true;
+            this.positionResetRequested = false;
+            this.angleResetRequested = false;
+            this.history.reset(time, 0.0, 0.0, yaw);
+        }
+        else if (this.angleResetRequested)
+        {
+            // the Pigeon was reset, so start over from its new yaw
+            this.angleResetRequested = false;
+            this.history.reset(time, this.estimator.getX(), this.estimator.getY(), yaw);
+        }
+        else
+        {
+            double deltaT = time - this.time;
+            if (deltaT > 0.0)
+            {
+                double deltaAngle = yaw - this.yaw;
+                if (!fromGyro || Math.abs(deltaAngle) > PoseEstimatorManager.MAX_YAW_CHANGE)
+                {
+                    fromGyro = false;
+                    deltaAngle = this.robotVelocity[2] * Helpers.RADIANS_TO_DEGREES * deltaT;
+                }
+
+                this.history.predict(time, this.robotVelocity[1], -this.robotVelocity[0], deltaAngle, fromGyro);
+            }
+        }
+
+        this.time = time;
+        this.yaw = yaw;
+
+        // only use each frame once, when its results first arrive
+        double visionCaptureTime = this.visionManager.getVisionCaptureTime();
+        Double visionDistance = this.visionManager.getRawVisionTargetDistance();
+        Double visionAngle = this.visionManager.getRawVisionTargetHorizontalAngle();
+        boolean visionAccepted = false;
+        if (visionCaptureTime != this.visionCaptureTime && !Double.isNaN(visionCaptureTime))
+        {
+            this.visionCaptureTime = visionCaptureTime;
+            if (visionDistance != null && visionAngle != null)
+            {
+                visionAccepted = this.history.updateTarget(visionCaptureTime, visionDistance, visionAngle);
+            }
+        }
+
+        this.logger.logNumber(LoggingKey.PoseEstimatorXPosition, this.estimator.getX());
+        this.logger.logNumber(LoggingKey.PoseEstimatorYPosition, this.estimator.getY());
+        this.logger.logNumber(LoggingKey.PoseEstimatorAngle, this.estimator.getAngle());
+        this.logger.logBoolean(LoggingKey.PoseEstimatorHasTarget, this.estimator.hasTarget());
+        this.logger.logBoolean(LoggingKey.PoseEstimatorVisionAccepted, visionAccepted);
+    }
+
+    /**
+     * calculate the various outputs to use based on the inputs and apply them to the outputs for the relevant mechanism
+     */
+    @Override
+    public void update()
+    {
+        // the Pigeon is reset in its update, so its new yaw is read in the next cycle
+        if (this.driver.getDigital(DigitalOperation.PositionResetFieldOrientation)
+            || this.driver.getAnalog(AnalogOperation.PositionStartingAngle) != 0.0)
+        {
+            this.angleResetRequested = true;
+        }
+    }
+
+    /**
+     * stop the relevant component
+     */
+    @Override
+    public void stop()
+    {
+        // the drivetrain's odometry starts over from the origin, so do the same
+        this.positionResetRequested = true;
+    }
+
+    /**
+     * Get the estimated pose (as of readSensors)
+     * @param pose to fill in with the estimated pose, where the angle is in degrees
+     */
+    public void getPose(Pose2d pose)
+    {
+        this.estimator.getPose(pose);
+    }
+
+    /**
+     * Get whether the vision target is part of the estimate
+     * @return true if the target has been seen since the estimate was reset
+     */
+    public boolean hasTarget()
+    {
+        return this.estimator.hasTarget();
+    }
+}
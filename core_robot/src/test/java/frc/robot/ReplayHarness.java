@@ -0,0 +1,578 @@
+package frc.robot;
+
+import static org.mockito.Mockito.mock;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Random;
+
+import javax.inject.Singleton;
+
+import com.google.inject.AbstractModule;
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+import com.google.inject.Provides;
+
+import frc.robot.common.LoggingManager;
+import frc.robot.common.MechanismManager;
+import frc.robot.common.robotprovider.*;
+import frc.robot.driver.ButtonMap;
+import frc.robot.driver.common.*;
+import frc.robot.driver.common.descriptions.UserInputDevice;
+
+/**
+ * Headless harness that runs the Driver and the active mechanisms (against mock hardware) the same way that CoreRobot does,
+ * with a fake timer that advances by one loop duration per cycle, so that a session can be run as fast as the CPU allows.
+ *
+ * The joysticks are either replayed from a recording (see JoystickRecorder), or provided by the caller.
+ */
+public class ReplayHarness
+{
+    private final JoystickReplay replay;
+    private final ReplayTimer timer;
+    private final Driver driver;
+    private final MechanismManager mechanisms;
+
+    private int cycles;
+
+    /**
+     * Initializes a new ReplayHarness that replays a recording
+     * @param replay of the recorded joystick inputs
+     */
+    public ReplayHarness(JoystickReplay replay)
+    {
+        this(replay, ReplayHarness.getReplayJoysticks(replay));
+    }
+
+    /**
+     * Initializes a new ReplayHarness driven by the caller's joysticks
+     * @param joysticks indexed by user input device id
+     */
+    public ReplayHarness(IJoystick[] joysticks)
+    {
+        this(null, joysticks);
+    }
+
+    private ReplayHarness(JoystickReplay replay, IJoystick[] joysticks)
+    {
+        this.replay = replay;
+        this.timer = new ReplayTimer();
+
+        Injector injector = Guice.createInjector(new ReplayModule(new ReplayProvider(joysticks), this.timer));
+        this.driver = injector.getInstance(Driver.class);
+        this.mechanisms = injector.getInstance(MechanismManager.class);
+    }
+
+    /**
+     * Replay a recording copied off of the robot's USB stick, as fast as possible
+     * @param args the path of the recording
+     * @throws IOException
+     */
+    public static void main(String[] args) throws IOException
+    {
+        if (args.length < 1)
+        {
+            System.err.println("Usage: ReplayHarness recording.joy");
+            return;
+        }
+
+        ReplayHarness harness = new ReplayHarness(new JoystickReplay(ByteBuffer.wrap(Files.readAllBytes(Paths.get(args[0])))));
+
+        long start = System.nanoTime();
+        int cycles = harness.run();
+        long duration = System.nanoTime() - start;
+        System.out.println(String.format("Replayed %1$d cycles in %2$.1fms (%3$.2fus per cycle)", cycles, duration / 1000000.0, cycles == 0 ? 0.0 : duration / 1000.0 / cycles));
+    }
+
+    /**
+     * Record a teleop session from scripted joysticks, the same way that the Driver records its inputs
+     * @param seed for the scripted joysticks
+     * @param cycleCount number of cycles in the session
+     * @return the recording
+     * @throws IOException
+     */
+    public static ByteBuffer recordTeleop(long seed, int cycleCount) throws IOException
+    {
+        ScriptedJoystick[] joysticks = ReplayHarness.getScriptedJoysticks(seed);
+        InputBindingTable inputBindings = new InputBindingTable(new ButtonMap());
+        InputFrame frame = new InputFrame();
+
+        ByteArrayFileWriter fileWriter = new ByteArrayFileWriter();
+        JoystickRecorder recorder = new JoystickRecorder(fileWriter);
+        recorder.recordStartMode(RobotMode.Teleop);
+        for (int i = 0; i < cycleCount; i++)
+        {
+            for (ScriptedJoystick joystick : joysticks)
+            {
+                joystick.advance();
+            }
+
+            inputBindings.capture(joysticks, frame);
+            recorder.recordFrame(frame);
+        }
+
+        recorder.recordStop();
+        recorder.close();
+        return ByteBuffer.wrap(fileWriter.stream.toByteArray());
+    }
+
+    /**
+     * Create a scripted joystick for each user input device
+     * @param seed for the scripted joysticks
+     * @return joysticks indexed by user input device id
+     */
+    public static ScriptedJoystick[] getScriptedJoysticks(long seed)
+    {
+        ScriptedJoystick[] joysticks = new ScriptedJoystick[UserInputDevice.MaxCount.getId()];
+        for (int i = 0; i < joysticks.length; i++)
+        {
+            joysticks[i] = new ScriptedJoystick(seed * 31 + i);
+        }
+
+        return joysticks;
+    }
+
+    /**
+     * Get the driver being run by the harness
+     * @return the driver
+     */
+    public Driver getDriver()
+    {
+        return this.driver;
+    }
+
+    /**
+     * Get the number of cycles that have been run
+     * @return number of cycles
+     */
+    public int getCycles()
+    {
+        return this.cycles;
+    }
+
+    /**
+     * Start a mode, as CoreRobot does when the robot is enabled (except that the mechanisms' background work, such as the
+     * odometry thread, isn't started, so that everything runs on this thread and replays are deterministic)
+     * @param mode to start
+     */
+    public void startMode(RobotMode mode)
+    {
+        this.driver.startMode(mode);
+        this.timer.start();
+    }
+
+    /**
+     * Run a single cycle, as CoreRobot does in each periodic call
+     */
+    public void cycle()
+    {
+        this.mechanisms.readSensors();
+        this.driver.update();
+        this.mechanisms.update();
+
+        this.timer.advance(TuningConstants.LOOP_DURATION);
+        this.cycles++;
+    }
+
+    /**
+     * Stop the driver and the mechanisms, as CoreRobot does when the robot is disabled
+     */
+    public void stop()
+    {
+        this.timer.stop();
+        this.timer.reset();
+        this.driver.stop();
+        this.mechanisms.stop();
+    }
+
+    /**
+     * Replay records until a cycle has been run
+     * @return true if a cycle was run, or false at the end of the recording
+     */
+    public boolean step()
+    {
+        while (true)
+        {
+            switch (this.replay.next())
+            {
+                case JoystickRecorder.TYPE_UNCHANGED_FRAME:
+                case JoystickRecorder.TYPE_FRAME:
+                    this.cycle();
+                    return true;
+
+                case JoystickRecorder.TYPE_START_MODE:
+                    this.startMode(this.replay.getMode());
+                    break;
+
+                case JoystickRecorder.TYPE_STOP:
+                    this.stop();
+                    break;
+
+                default:
+                    return false;
+            }
+        }
+    }
+
+    /**
+     * Replay the rest of the recording
+     * @return the number of cycles that were run
+     */
+    public int run()
+    {
+        int start = this.cycles;
+        while (this.step())
+        {
+        }
+
+        return this.cycles - start;
+    }
+
+    /**
+     * Go back to the start of the recording
+     */
+    public void rewind()
+    {
+        this.replay.rewind();
+    }
+
+    private static IJoystick[] getReplayJoysticks(JoystickReplay replay)
+    {
+        IJoystick[] joysticks = new IJoystick[UserInputDevice.MaxCount.getId()];
+        for (int i = 0; i < joysticks.length; i++)
+        {
+            joysticks[i] = replay.getJoystick(i);
+        }
+
+        return joysticks;
+    }
+
+    /**
+     * Joystick that randomly moves its sticks, presses and releases buttons and changes its POV, based on a seed
+     */
+    public static class ScriptedJoystick implements IJoystick
+    {
+        private static final int[] POVS = new int[] { -1, 0, 90, 180, 270 };
+
+        private final Random random;
+        private final double[] axes;
+        private int buttons;
+        private int pov;
+
+        ScriptedJoystick(long seed)
+        {
+            this.random = new Random(seed);
+            this.axes = new double[8];
+            this.pov = -1;
+        }
+
+        /**
+         * Move on to the next cycle
+         */
+        public void advance()
+        {
+            for (int i = 0; i < this.axes.length; i++)
+            {
+                if (this.random.nextInt(50) == 0)
+                {
+                    // let go of the stick
+                    this.axes[i] = 0.0;
+                }
+                else if (this.random.nextInt(4) == 0)
+                {
+                    this.axes[i] = Math.max(-1.0, Math.min(1.0, this.axes[i] + (this.random.nextDouble() - 0.5) * 0.2));
+                }
+            }
+
+            for (int i = 1; i <= 12; i++)
+            {
+                if (this.random.nextInt(40) == 0)
+                {
+                    this.buttons ^= 1 << i;
+                }
+            }
+
+            if (this.random.nextInt(100) == 0)
+            {
+                this.pov = ScriptedJoystick.POVS[this.random.nextInt(ScriptedJoystick.POVS.length)];
+            }
+        }
+
+        @Override
+        public boolean isConnected()
+        {
+            return true;
+        }
+
+        @Override
+        public double getAxis(int relevantAxis)
+        {
+            return this.axes[relevantAxis];
+        }
+
+        @Override
+        public int getPOV()
+        {
+            return this.pov;
+        }
+
+        @Override
+        public boolean getRawButton(int value)
+        {
+            return (this.buttons & (1 << value)) != 0;
+        }
+
+        @Override
+        public void setRumble(JoystickRumbleType type, double value)
+        {
+        }
+    }
+
+    private static class ReplayModule extends AbstractModule
+    {
+        private final ReplayProvider provider;
+        private final ReplayTimer timer;
+
+        ReplayModule(ReplayProvider provider, ReplayTimer timer)
+        {
+            this.provider = provider;
+            this.timer = timer;
+        }
+
+        @Override
+        protected void configure()
+        {
+            this.bind(IDriver.class).to(Driver.class);
+            this.bind(IRobotProvider.class).toInstance(this.provider);
+            this.bind(ITimer.class).toInstance(this.timer);
+            this.bind(IButtonMap.class).to(ButtonMap.class);
+            this.bind(IFile.class).toInstance(mock(IFile.class));
+            this.bind(LoggingManager.class).toInstance(new LoggingManager(new NullLogger()));
+        }
+
+        @Singleton
+        @Provides
+        public MechanismManager getMechanismManager(Injector injector)
+        {
+            return new MechanismManager(SettingsManager.getActiveMechanisms(injector));
+        }
+    }
+
+    /**
+     * Provider for the mock hardware, with the harness's joysticks and a driver station that is always in a match
+     */
+    private static class ReplayProvider extends TestProvider
+    {
+        private final IJoystick[] joysticks;
+        private final IDriverStation driverStation;
+        private final INetworkTableProvider networkTableProvider;
+
+        ReplayProvider(IJoystick[] joysticks)
+        {
+            this.joysticks = joysticks;
+            this.driverStation = new ReplayDriverStation();
+            this.networkTableProvider = new ReplayNetworkTableProvider();
+            this.setPigeon2(mock(IPigeon2.class));
+        }
+
+        @Override
+        public IJoystick getJoystick(int port)
+        {
+            return this.joysticks[port];
+        }
+
+        @Override
+        public IDriverStation getDriverStation()
+        {
+            return this.driverStation;
+        }
+
+        @Override
+        public INetworkTableProvider getNetworkTableProvider()
+        {
+            return this.networkTableProvider;
+        }
+    }
+
+    private static class ReplayTimer implements ITimer
+    {
+        private double currentTime;
+        private boolean running;
+
+        @Override
+        public void start()
+        {
+            this.running = true;
+        }
+
+        @Override
+        public void stop()
+        {
+            this.running = false;
+        }
+
+        @Override
+        public double get()
+        {
+            return this.currentTime;
+        }
+
+        @Override
+        public void reset()
+        {
+            this.currentTime = 0.0;
+        }
+
+        void advance(double duration)
+        {
+            if (this.running)
+            {
+                this.currentTime += duration;
+            }
+        }
+    }
+
+    private static class ReplayDriverStation implements IDriverStation
+    {
+        @Override
+        public String getEventName()
+        {
+            return "Replay";
+        }
+
+        @Override
+        public Alliance getAlliance()
+        {
+            return Alliance.Red;
+        }
+
+        @Override
+        public int getLocation()
+        {
+            return 1;
+        }
+
+        @Override
+        public int getMatchNumber()
+        {
+            return 1;
+        }
+
+        @Override
+        public MatchType getMatchType()
+        {
+            return MatchType.Practice;
+        }
+
+        @Override
+        public int getReplayNumber()
+        {
+            return 0;
+        }
+
+        @Override
+        public double getMatchTime()
+        {
+            return 0.0;
+        }
+
+        @Override
+        public RobotMode getMode()
+        {
+            return RobotMode.Teleop;
+        }
+
+        @Override
+        public String getGameSpecificMessage()
+        {
+            return "";
+        }
+    }
+
+    private static class ReplayNetworkTableProvider implements INetworkTableProvider
+    {
+        @Override
+        public INetworkTableEntry getNumberSlider(String title, double initialValue)
+        {
+            return defaultValue -> initialValue;
+        }
+
+        @Override
+        public <V> ISendableChooser<V> getSendableChooser()
+        {
+            return new ReplaySendableChooser<V>();
+        }
+
+        @Override
+        public <V> void addChooser(String name, ISendableChooser<V> chooser)
+        {
+        }
+
+        @Override
+        public double getSmartDashboardNumber(String key)
+        {
+            return 0.0;
+        }
+
+        @Override
+        public boolean getSmartDashboardBoolean(String key)
+        {
+            return false;
+        }
+
+        @Override
+        public String getSmartDashboardString(String key)
+        {
+            return null;
+        }
+    }
+
+    /**
+     * Chooser that always selects its default
+     */
+    private static class ReplaySendableChooser<V> implements ISendableChooser<V>
+    {
+        private V selected;
+
+        @Override
+        public void addDefault(String name, V object)
+        {
+            this.selected = object;
+        }
+
+        @Override
+        public void addObject(String name, V object)
+        {
+        }
+
+        @Override
+        public V getSelected()
+        {
+            return this.selected;
+        }
+    }
+
+    private static class ByteArrayFileWriter implements IBinaryFileWriter
+    {
+        private final ByteArrayOutputStream stream = new ByteArrayOutputStream();
+
+        @Override
+        public void write(byte[] buffer, int offset, int length)
+        {
+            this.stream.write(buffer, offset, length);
+        }
+
+        @Override
+        public void flush()
+        {
+        }
+
+        @Override
+        public void close()
+        {
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package frc.robot;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.util.ArrayList;
+
+import org.junit.jupiter.api.Test;
+
+import frc.robot.common.robotprovider.RobotMode;
+import frc.robot.driver.AnalogOperation;
+import frc.robot.driver.DigitalOperation;
+import frc.robot.driver.common.Driver;
+import frc.robot.driver.common.JoystickReplay;
+
+public class ReplayHarnessTests
+{
+    private static final int CYCLES = 1500;
+
+    @Test
+    public void verifyReplayMatchesLiveSession() throws IOException
+    {
+        // run a session live from the scripted joysticks...
+        ReplayHarness.ScriptedJoystick[] joysticks = ReplayHarness.getScriptedJoysticks(1318);
+        ReplayHarness live = new ReplayHarness(joysticks);
+        ArrayList<double[]> liveValues = new ArrayList<double[]>();
+        live.startMode(RobotMode.Teleop);
+        for (int i = 0; i < ReplayHarnessTests.CYCLES; i++)
+        {
+            for (ReplayHarness.ScriptedJoystick joystick : joysticks)
+            {
+                joystick.advance();
+            }
+
+            live.cycle();
+            liveValues.add(ReplayHarnessTests.getOperationValues(live.getDriver()));
+        }
+
+        live.stop();
+
+        // ...and then replay a recording of the same session, twice
+        JoystickReplay replay = new JoystickReplay(ReplayHarness.recordTeleop(1318, ReplayHarnessTests.CYCLES));
+        ReplayHarness harness = new ReplayHarness(replay);
+        for (int run = 0; run < 2; run++)
+        {
+            harness.rewind();
+            for (int i = 0; i < ReplayHarnessTests.CYCLES; i++)
+            {
+                harness.step();
+                double[] expected = liveValues.get(i);
+                double[] actual = ReplayHarnessTests.getOperationValues(harness.getDriver());
+                for (int j = 0; j < expected.length; j++)
+                {
+                    assertEquals(expected[j], actual[j], 0.0, "cycle " + i + ", operation " + j);
+                }
+            }
+
+            assertEquals(0, harness.run());
+        }
+
+        assertEquals(2 * ReplayHarnessTests.CYCLES, harness.getCycles());
+    }
+
+    private static double[] getOperationValues(Driver driver)
+    {
+        DigitalOperation[] digitalOperations = DigitalOperation.values();
+        AnalogOperation[] analogOperations = AnalogOperation.values();
+        double[] values = new double[digitalOperations.length + analogOperations.length];
+        for (int i = 0; i < digitalOperations.length; i++)
+        {
+            values[i] = driver.getDigital(digitalOperations[i]) ? 1.0 : 0.0;
+        }
+
+        for (int i = 0; i < analogOperations.length; i++)
+        {
+            values[digitalOperations.length + i] = driver.getAnalog(analogOperations[i]);
+        }
+
+        return values;
+    }
+}
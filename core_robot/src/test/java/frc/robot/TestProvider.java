@@ -11,6 +11,7 @@ public class TestProvider implements IRobotProvider
     private INavx mockNavx;
     private IPigeonIMU mockPigeon;
     private IPigeon2 mockPigeon2;
+    private INetworkTableProvider mockNetworkTableProvider;
     private HashMap<Integer, IAnalogInput> analogInputMap = new HashMap<Integer, IAnalogInput>();
     private HashMap<Integer, IDigitalInput> digitalInputMap = new HashMap<Integer, IDigitalInput>();
     private HashMap<Integer, IDigitalOutput> digitalOutputMap = new HashMap<Integer, IDigitalOutput>();
@@ -373,7 +374,7 @@ public class TestProvider implements IRobotProvider
     @Override
     public INetworkTableProvider getNetworkTableProvider()
     {
-        return null;
+        return this.mockNetworkTableProvider;
     }
 
     @Override
@@ -533,4 +534,9 @@ public class TestProvider implements IRobotProvider
     {
         this.mockPigeon2 = value;
     }
+
+    public void setNetworkTableProvider(INetworkTableProvider value)
+    {
+        this.mockNetworkTableProvider = value;
+    }
 }
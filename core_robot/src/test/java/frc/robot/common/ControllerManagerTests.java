@@ -0,0 +1,174 @@
+package frc.robot.common;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import frc.robot.common.robotprovider.ITimer;
+import frc.robot.common.robotprovider.NullLogger;
+
+public class ControllerManagerTests
+{
+    @Test
+    public void verifyPIDMatchesPIDHandler()
+    {
+        MockTimer timer = new MockTimer();
+        ControllerManager manager = new ControllerManager(new LoggingManager(new NullLogger()), timer);
+        PIDHandler handler = new PIDHandler(0.05, 0.002, 0.01, 0.1, 0.5, -1.0, 1.0, timer);
+        Controller controller = manager.register(new PIDControlLaw(0.05, 0.002, 0.01, 0.1, 0.5, -1.0, 1.0));
+
+        double measuredValue = 0.0;
+        for (int i = 0; i < 200; i++)
+        {
+            // alternate between full and short cycles, so that some calculations are skipped
+            timer.increment(i % 3 == 0 ? 0.005 : 0.02);
+            manager.readSensors();
+
+            double setpoint = i < 100 ? 20.0 : -5.0;
+            double expected = handler.calculatePosition(setpoint, measuredValue);
+            assertEquals(expected, controller.calculate(setpoint, measuredValue), 0.0);
+            assertEquals(handler.getError(), controller.getLaw().getError(), 0.0);
+
+            measuredValue += 10.0 * expected;
+        }
+    }
+
+    @Test
+    public void verifyBatchedEvaluation()
+    {
+        MockTimer timer = new MockTimer();
+        ControllerManager manager = new ControllerManager(new LoggingManager(new NullLogger()), timer);
+        Controller immediate = manager.register(new PIDControlLaw(0.1, 0.01, 0.02, 0.0, 0.0, null, null));
+        Controller batched = manager.register(new PIDControlLaw(0.1, 0.01, 0.02, 0.0, 0.0, null, null));
+        Controller idle = manager.register(new PIDControlLaw(0.1, 0.01, 0.02, 0.0, 0.0, null, null));
+        assertEquals(3, manager.getControllerCount());
+
+        for (int i = 0; i < 50; i++)
+        {
+            timer.increment(0.02);
+            manager.readSensors();
+
+            // the timer moving on within the cycle doesn't change the time step that the controllers use
+            timer.increment(0.003);
+
+            double measuredValue = Math.sin(0.1 * i);
+            batched.setInputs(3.0, measuredValue);
+            double expected = immediate.calculate(3.0, measuredValue);
+            manager.update();
+
+            assertEquals(expected, batched.getOutput(), 0.0);
+            assertEquals(0.0, idle.getOutput(), 0.0);
+        }
+
+        // released controllers are no longer evaluated
+        immediate.release();
+        assertEquals(2, manager.getControllerCount());
+
+        double output = immediate.getOutput();
+        timer.increment(0.02);
+        manager.readSensors();
+        immediate.setInputs(3.0, 0.0);
+        manager.update();
+        assertEquals(output, immediate.getOutput(), 0.0);
+
+        // resetting starts over from the current cycle
+        batched.reset();
+        assertEquals(0.0, batched.getOutput(), 0.0);
+        batched.setInputs(3.0, 0.0);
+        manager.update();
+        assertEquals(0.0, batched.getOutput(), 0.0);
+    }
+
+    @Test
+    public void verifyFeedforward()
+    {
+        FeedforwardControlLaw law = new FeedforwardControlLaw(0.05, 0.01, 0.0002, -1.0, 1.0);
+
+        // no acceleration on the first calculation
+        assertEquals(0.05 + 0.01 * 20.0, law.calculate(20.0, 15.0, 0.02), 1e-9);
+        assertEquals(5.0, law.getError(), 1e-9);
+
+        assertEquals(0.05 + 0.01 * 30.0 + 0.0002 * 500.0, law.calculate(30.0, 25.0, 0.02), 1e-9);
+        assertEquals(-0.05 - 0.01 * 10.0 - 0.0002 * 2000.0, law.calculate(-10.0, 0.0, 0.02), 1e-9);
+        assertEquals(-1.0, law.calculate(-100.0, 0.0, 0.02), 0.0);
+
+        // after a reset, there's no acceleration again
+        law.reset();
+        assertEquals(0.05 + 0.01 * 10.0, law.calculate(10.0, 10.0, 0.02), 1e-9);
+        assertEquals(0.0, law.getError(), 0.0);
+    }
+
+    @Test
+    public void verifyProfiledPID()
+    {
+        double maxVelocity = 50.0;
+        double maxAcceleration = 100.0;
+        ProfiledPIDControlLaw law = new ProfiledPIDControlLaw(maxVelocity, maxAcceleration, 0.0, new PIDControlLaw(0.0, 0.0, 0.0, 0.0, 0.0, null, null));
+
+        double measuredValue = 10.0;
+        double prevPosition = measuredValue;
+        double prevVelocity = 0.0;
+        for (int i = 0; i < 200; i++)
+        {
+            law.calculate(110.0, measuredValue, 0.02);
+
+            double position = law.getProfilePosition();
+            double velocity = (position - prevPosition) / 0.02;
+            assertTrue(velocity <= maxVelocity + 1e-9, "velocity " + velocity);
+            assertTrue(position <= 110.0);
+            if (position < 110.0)
+            {
+                assertTrue(Math.abs(velocity - prevVelocity) <= maxAcceleration * 0.02 + 1e-9, "acceleration " + (velocity - prevVelocity) / 0.02);
+            }
+
+            measuredValue = position;
+            prevPosition = position;
+            prevVelocity = velocity;
+        }
+
+        assertEquals(110.0, law.getProfilePosition(), 0.0);
+
+        // the profile starts over from the measured value after a reset
+        law.reset();
+        law.calculate(0.0, 50.0, 0.02);
+        assertTrue(law.getProfilePosition() < 50.0 && law.getProfilePosition() > 49.0);
+    }
+
+    private static class MockTimer implements ITimer
+    {
+        private double currentTime;
+
+        MockTimer()
+        {
+            this.currentTime = 0.0;
+        }
+
+        @Override
+        public void start()
+        {
+        }
+
+        @Override
+        public void stop()
+        {
+        }
+
+        @Override
+        public double get()
+        {
+            return this.currentTime;
+        }
+
+        @Override
+        public void reset()
+        {
+            this.currentTime = 0.0;
+        }
+
+        public void increment(double value)
+        {
+            this.currentTime += value;
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package frc.robot.common;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+
+import org.junit.jupiter.api.Test;
+
+import frc.robot.LoggingKey;
+import frc.robot.common.robotprovider.*;
+
+public class LoggingManagerTests
+{
+    private static final int WARMUP_CYCLES = 50000; // long enough for the JIT to settle, as deoptimization can allocate
+    private static final int MEASURED_CYCLES = 1000;
+    private static final int MEASURED_ATTEMPTS = 5;
+
+    @Test
+    public void verifyNoSteadyStateAllocation() throws IOException
+    {
+        LoggingManager logger =
+            new LoggingManager(
+                new MultiLogger(
+                    new CSVLogger(new NullFileWriter()),
+                    new BinaryLogger(new NullBinaryFileWriter()),
+                    new BinaryLogger(new NullBinaryFileWriter(), true),
+                    new BlackBoxLogger(ByteBuffer.allocate((int)BlackBoxLogger.getRequiredSize(500, 4096)), 500, 4096),
+                    new NullLogger(),
+                    new NullDashboardLogger()));
+
+        com.sun.management.ThreadMXBean threadBean = (com.sun.management.ThreadMXBean)ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+
+        for (int cycle = 0; cycle < LoggingManagerTests.WARMUP_CYCLES; cycle++)
+        {
+            LoggingManagerTests.logTeleopCycle(logger, cycle);
+        }
+
+        // account for any allocations made by measuring itself
+        long overheadStart = threadBean.getThreadAllocatedBytes(threadId);
+        long overheadEnd = threadBean.getThreadAllocatedBytes(threadId);
+
+        // background threads (e.g. from other tests) can cause a rare deoptimization that allocates, so measure a few times
+        // and take the smallest - allocating while logging would make every measurement non-zero
+        long minimumAllocated = Long.MAX_VALUE;
+        int cycle = LoggingManagerTests.WARMUP_CYCLES;
+        for (int attempt = 0; attempt < LoggingManagerTests.MEASURED_ATTEMPTS; attempt++)
+        {
+            long start = threadBean.getThreadAllocatedBytes(threadId);
+            for (int i = 0; i < LoggingManagerTests.MEASURED_CYCLES; i++)
+            {
+                LoggingManagerTests.logTeleopCycle(logger, cycle++);
+            }
+
+            long end = threadBean.getThreadAllocatedBytes(threadId);
+            minimumAllocated = Math.min(minimumAllocated, (end - start) - (overheadEnd - overheadStart));
+        }
+
+        assertEquals(0L, minimumAllocated, "expected no allocations while logging");
+    }
+
+    /**
+     * Log a representative set of values, similar to what the mechanisms log each cycle during teleop
+     * @param logger to log into
+     * @param cycle number
+     */
+    private static void logTeleopCycle(LoggingManager logger, int cycle)
+    {
+        logger.logString(LoggingKey.RobotState, "Teleop");
+        logger.logNumber(LoggingKey.RobotTime, cycle * 0.02);
+        logger.logString(LoggingKey.DriverMode, "Teleop");
+        logger.logInteger(LoggingKey.OffboardVisionMissedHeartbeats, cycle % 10);
+        logger.logBoolean(LoggingKey.OffboardVisionEnableVision, cycle % 500 < 250);
+        logger.logNumber(LoggingKey.OffboardVisionEnableProcessing, 0.0);
+        logger.logNumber(LoggingKey.PigeonYaw, cycle * 0.1);
+        logger.logNumber(LoggingKey.DriveTrainXPosition, cycle * 0.37);
+        logger.logNumber(LoggingKey.DriveTrainYPosition, -cycle * 0.11);
+        logger.logBoolean(LoggingKey.DriveTrainFieldOriented, true);
+        logger.logNumber(LoggingKey.CargoFlywheelVelocity, 18000.0 + (cycle % 100));
+        logger.logBoolean(LoggingKey.CargoFeederBeamBroken, cycle % 50 == 0);
+        logger.update();
+
+        if (cycle % 25 == 0)
+        {
+            logger.flush();
+        }
+    }
+
+    private static class NullFileWriter implements IFileWriter
+    {
+        public void append(String string)
+        {
+        }
+
+        public void write(char[] buffer, int offset, int length)
+        {
+        }
+
+        public void flush()
+        {
+        }
+    }
+
+    private static class NullDashboardLogger extends BatchedDashboardLogger
+    {
+        NullDashboardLogger()
+        {
+            super(1000000L);
+        }
+
+        protected void publishBoolean(String key, boolean value)
+        {
+        }
+
+        protected void publishBooleanArray(String key, boolean[] value)
+        {
+        }
+
+        protected void publishNumber(String key, double value)
+        {
+        }
+
+        protected void publishString(String key, String value)
+        {
+        }
+    }
+
+    private static class NullBinaryFileWriter implements IBinaryFileWriter
+    {
+        public void write(byte[] buffer, int offset, int length)
+        {
+        }
+
+        public void flush()
+        {
+        }
+
+        public void close()
+        {
+        }
+    }
+}
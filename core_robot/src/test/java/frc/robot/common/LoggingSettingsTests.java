@@ -0,0 +1,55 @@
+package frc.robot.common;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+
+import frc.robot.LoggingKey;
+
+public class LoggingSettingsTests
+{
+    @Test
+    public void verifyDefaultsFollowLoggingKeys()
+    {
+        LoggingSettings settings = new LoggingSettings();
+        for (LoggingKey key : LoggingKey.values())
+        {
+            assertTrue(key.sampleDivisor >= 1, "expected a positive sample divisor for " + key.value);
+            assertEquals(key.sampleDivisor, settings.getSampleDivisor(key));
+            assertEquals(key.priority, settings.getPriority(key));
+        }
+    }
+
+    @Test
+    public void verifyShouldLog()
+    {
+        LoggingSettings settings = new LoggingSettings();
+        settings.load(
+            Arrays.asList(
+                "# comment",
+                "",
+                "power.curr, 5",
+                "dt.steer_ang1,2,Debug",
+                "r.time,10,Critical",
+                "not.a.key,3",
+                "power.battV,0",
+                "power.currFltAvg,1,Unknown"));
+
+        assertEquals(5, settings.getSampleDivisor(LoggingKey.PowerCurrent));
+        assertEquals(LoggingPriority.Debug, settings.getPriority(LoggingKey.DriveTrainSteerAngle1));
+        assertEquals(LoggingKey.PowerBatteryVoltage.sampleDivisor, settings.getSampleDivisor(LoggingKey.PowerBatteryVoltage));
+        assertEquals(LoggingKey.PowerCurrentFloatingAverage.priority, settings.getPriority(LoggingKey.PowerCurrentFloatingAverage));
+
+        for (long cycle = 0; cycle < 20; cycle++)
+        {
+            assertEquals(cycle % 5 == 0, settings.shouldLog(LoggingKey.PowerCurrent, cycle, false));
+            assertFalse(settings.shouldLog(LoggingKey.DriveTrainSteerAngle1, cycle, false));
+            assertEquals(cycle % 2 == 0, settings.shouldLog(LoggingKey.DriveTrainSteerAngle1, cycle, true));
+            assertTrue(settings.shouldLog(LoggingKey.RobotTime, cycle, false));
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package frc.robot.common;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class LongIntHashMapTests
+{
+    @Test
+    public void checkPutAndGet()
+    {
+        LongIntHashMap map = new LongIntHashMap();
+        Assertions.assertEquals(0, map.size());
+        Assertions.assertFalse(map.containsKey(0L));
+        Assertions.assertEquals(-1, map.get(0L, -1));
+
+        map.put(0L, 5);
+        map.put(Long.MIN_VALUE, 6);
+        map.put(Long.MAX_VALUE, 7);
+        Assertions.assertEquals(3, map.size());
+        Assertions.assertTrue(map.containsKey(0L));
+        Assertions.assertEquals(5, map.get(0L, -1));
+        Assertions.assertEquals(6, map.get(Long.MIN_VALUE, -1));
+        Assertions.assertEquals(7, map.get(Long.MAX_VALUE, -1));
+        Assertions.assertEquals(-1, map.get(1L, -1));
+
+        // replace an existing value
+        map.put(0L, 8);
+        Assertions.assertEquals(3, map.size());
+        Assertions.assertEquals(8, map.get(0L, -1));
+    }
+
+    @Test
+    public void checkGrow()
+    {
+        LongIntHashMap map = new LongIntHashMap(1);
+        for (int i = 0; i < 1000; i++)
+        {
+            // keys that only differ in their high bits
+            map.put(((long)i) << 40, i);
+        }
+
+        Assertions.assertEquals(1000, map.size());
+        for (int i = 0; i < 1000; i++)
+        {
+            Assertions.assertEquals(i, map.get(((long)i) << 40, -1));
+        }
+
+        Assertions.assertFalse(map.containsKey(1000L << 40));
+    }
+}
@@ -0,0 +1,118 @@
+package frc.robot.common;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+
+public class LoopOverrunWatchdogTests
+{
+    @Test
+    public void verifyBlameAndStreaks()
+    {
+        MechanismManager mechanisms = new MechanismManager(Arrays.asList(new FastMechanism(), new SlowMechanism()));
+        LoopTimings loopTimings = new LoopTimings(mechanisms);
+        LoopOverrunWatchdog watchdog = new LoopOverrunWatchdog(loopTimings, mechanisms, 20000000L, 4);
+
+        // within budget
+        LoopOverrunWatchdogTests.recordCycle(loopTimings, mechanisms, 1000000L, 1000000L, 2000000L, 5000000L, 1000000L);
+        assertFalse(watchdog.check());
+        assertEquals(0, watchdog.getOverrunCount());
+
+        // mechanisms are slowest, and SlowMechanism is the slowest of those
+        LoopOverrunWatchdogTests.recordCycle(loopTimings, mechanisms, 1000000L, 1000000L, 2000000L, 22000000L, 1000000L);
+        assertTrue(watchdog.check());
+        assertEquals("SlowMechanism.update", watchdog.getBlame());
+
+        // logger is slowest
+        LoopOverrunWatchdogTests.recordCycle(loopTimings, mechanisms, 1000000L, 1000000L, 1000000L, 1000000L, 20000000L);
+        assertTrue(watchdog.check());
+        assertEquals("Logger", watchdog.getBlame());
+        assertEquals(2, watchdog.getCurrentStreak());
+
+        LoopOverrunWatchdogTests.recordCycle(loopTimings, mechanisms, 1000000L, 1000000L, 1000000L, 1000000L, 1000000L);
+        assertFalse(watchdog.check());
+        assertEquals(0, watchdog.getCurrentStreak());
+
+        // readSensors is slowest, and FastMechanism is the slowest of those
+        LoopOverrunWatchdogTests.recordCycle(loopTimings, mechanisms, 19000000L, 1000000L, 1000000L, 1000000L, 1000000L);
+        assertTrue(watchdog.check());
+        assertEquals("FastMechanism.readSensors", watchdog.getBlame());
+
+        assertEquals(3, watchdog.getOverrunCount());
+        assertEquals(2, watchdog.getStreakCount());
+        assertEquals(2, watchdog.getLongestStreak());
+        assertEquals(3, watchdog.getRecentOverrunCount());
+
+        // the first overrun falls out of the window
+        LoopOverrunWatchdogTests.recordCycle(loopTimings, mechanisms, 1000000L, 1000000L, 1000000L, 1000000L, 1000000L);
+        assertFalse(watchdog.check());
+        assertEquals(2, watchdog.getRecentOverrunCount());
+
+        watchdog.reset();
+        assertEquals(0, watchdog.getOverrunCount());
+        assertEquals(0, watchdog.getRecentOverrunCount());
+        assertEquals("", watchdog.getBlame());
+    }
+
+    private static void recordCycle(
+        LoopTimings loopTimings,
+        MechanismManager mechanisms,
+        long fastReadSensorsNanos,
+        long slowReadSensorsNanos,
+        long fastUpdateNanos,
+        long slowUpdateNanos,
+        long loggerNanos)
+    {
+        long readSensorsNanos = fastReadSensorsNanos + slowReadSensorsNanos;
+        long mechanismsNanos = fastUpdateNanos + slowUpdateNanos;
+        mechanisms.getReadSensorsTiming(0).record(fastReadSensorsNanos);
+        mechanisms.getReadSensorsTiming(1).record(slowReadSensorsNanos);
+        mechanisms.getUpdateTiming(0).record(fastUpdateNanos);
+        mechanisms.getUpdateTiming(1).record(slowUpdateNanos);
+        loopTimings.record(LoopTimings.LoopPhase.ReadSensors, readSensorsNanos);
+        loopTimings.record(LoopTimings.LoopPhase.Driver, 100000L);
+        loopTimings.record(LoopTimings.LoopPhase.Mechanisms, mechanismsNanos);
+        loopTimings.record(LoopTimings.LoopPhase.Logger, loggerNanos);
+        loopTimings.record(LoopTimings.LoopPhase.Total, readSensorsNanos + 100000L + mechanismsNanos + loggerNanos);
+    }
+
+    private static class FastMechanism implements IMechanism
+    {
+        @Override
+        public void readSensors()
+        {
+        }
+
+        @Override
+        public void update()
+        {
+        }
+
+        @Override
+        public void stop()
+        {
+        }
+    }
+
+    private static class SlowMechanism implements IMechanism
+    {
+        @Override
+        public void readSensors()
+        {
+        }
+
+        @Override
+        public void update()
+        {
+        }
+
+        @Override
+        public void stop()
+        {
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package frc.robot.common;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+public class LoopTimingHistogramTests
+{
+    @Test
+    public void verifyPercentiles()
+    {
+        LoopTimingHistogram histogram = new LoopTimingHistogram(1000L, 100);
+        assertEquals(0L, histogram.getPercentileNanos(0.5));
+        assertEquals(0L, histogram.getMeanNanos());
+
+        // 1us, 2us, ..., 100us
+        for (int i = 1; i <= 100; i++)
+        {
+            histogram.record(i * 1000L - 500L);
+        }
+
+        assertEquals(100L, histogram.getCount());
+        assertEquals(99500L, histogram.getLastNanos());
+        assertEquals(99500L, histogram.getMaxNanos());
+        assertEquals(50000L, histogram.getMeanNanos());
+        assertEquals(50000L, histogram.getPercentileNanos(0.5));
+        assertEquals(99000L, histogram.getPercentileNanos(0.99));
+        assertEquals(99500L, histogram.getPercentileNanos(1.0));
+        assertEquals(1000L, histogram.getPercentileNanos(0.0));
+
+        // beyond the last bucket
+        histogram.record(5000000L);
+        assertEquals(5000000L, histogram.getMaxNanos());
+        assertEquals(5000000L, histogram.getPercentileNanos(1.0));
+
+        histogram.reset();
+        assertEquals(0L, histogram.getCount());
+        assertEquals(0L, histogram.getMaxNanos());
+        assertEquals(0L, histogram.getPercentileNanos(0.99));
+    }
+}
@@ -0,0 +1,314 @@
+package frc.robot.common;
+
+import java.io.BufferedReader;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.Reader;
+
+import frc.robot.HardwareConstants;
+import frc.robot.LoggingKey;
+import frc.robot.TuningConstants;
+
+/**
+ * Replays the sensor values from a robot log (as CSV, e.g. converted by BinaryLogConverter) through a PoseEstimator, the
+ * same way that PoseEstimatorManager runs it each cycle (applying each sighting as of when its frame was captured).
+ *
+ * The log needs the time, the drive velocities, the steer angles, the Pigeon's yaw and the vision target's raw distance,
+ * raw angle and missed heartbeats.  Some of those aren't logged by default (or not every cycle), so enable them in the logging
+ * settings before recording a match to replay.  Sensor values that are missing from a row are carried forward from the
+ * previous row, while a missing (or null) vision target means that it wasn't seen.
+ */
+public class PoseEstimatorReplay
+{
+    private static final LoggingKey[] DRIVE_VELOCITY_KEYS =
+    {
+        LoggingKey.DriveTrainDriveVelocity1,
+        LoggingKey.DriveTrainDriveVelocity2,
+        LoggingKey.DriveTrainDriveVelocity3,
+        LoggingKey.DriveTrainDriveVelocity4,
+    };
+
+    private static final LoggingKey[] STEER_ANGLE_KEYS =
+    {
+        LoggingKey.DriveTrainSteerAngle1,
+        LoggingKey.DriveTrainSteerAngle2,
+        LoggingKey.DriveTrainSteerAngle3,
+        LoggingKey.DriveTrainSteerAngle4,
+    };
+
+    /**
+     * The keys that need to be in the log to replay it
+     */
+    public static final LoggingKey[] SCHEMA =
+    {
+        LoggingKey.RobotTime,
+        LoggingKey.DriveTrainDriveVelocity1,
+        LoggingKey.DriveTrainDriveVelocity2,
+        LoggingKey.DriveTrainDriveVelocity3,
+        LoggingKey.DriveTrainDriveVelocity4,
+        LoggingKey.DriveTrainSteerAngle1,
+        LoggingKey.DriveTrainSteerAngle2,
+        LoggingKey.DriveTrainSteerAngle3,
+        LoggingKey.DriveTrainSteerAngle4,
+        LoggingKey.PigeonYaw,
+        LoggingKey.PigeonStartingYaw,
+        LoggingKey.OffboardVisionTargetRawDistance,
+        LoggingKey.OffboardVisionTargetRawHorizontalAngle,
+        LoggingKey.OffboardVisionMissedHeartbeats,
+    };
+
+    private final BufferedReader reader;
+    private final PoseEstimator estimator;
+    private final PoseEstimatorHistory history;
+    private final SwerveKinematics kinematics;
+    private final boolean useVision;
+
+    private final int timeColumn;
+    private final int[] driveVelocityColumns;
+    private final int[] steerAngleColumns;
+    private final int yawColumn;
+    private final int startingYawColumn;
+    private final int distanceColumn;
+    private final int angleColumn;
+    private final int missedHeartbeatsColumn;
+
+    private final double[] driveVelocities;
+    private final double[] steerAngles;
+    private final double[] moduleVelocities;
+    private final double[] robotVelocity;
+
+    private boolean initialized;
+    private double time;
+    private double yaw;
+    private double pigeonYaw;
+    private double startingYaw;
+    private int rows;
+    private int acceptedSightings;
+
+    /**
+     * Initializes a new PoseEstimatorReplay
+     * @param reader of the CSV log, starting with its header
+     * @param estimator to replay the log through
+     * @param useVision whether to correct the estimate with the vision target (or only dead-reckon)
+     * @throws IOException
+     */
+    public PoseEstimatorReplay(Reader reader, PoseEstimator estimator, boolean useVision) throws IOException
+    {
+        this.reader = new BufferedReader(reader);
+        this.estimator = estimator;
+        this.history = new PoseEstimatorHistory(estimator, TuningConstants.POSE_ESTIMATOR_HISTORY_LENGTH);
+        this.kinematics = PoseEstimatorReplay.createKinematics();
+        this.useVision = useVision;
+
+        String header = this.reader.readLine();
+        if (header == null)
+        {
+            throw new IOException("Expected a CSV header");
+        }
+
+        String[] columnNames = header.split(",", -1);
+        this.timeColumn = PoseEstimatorReplay.getColumn(columnNames, LoggingKey.RobotTime);
+        this.driveVelocityColumns = new int[PoseEstimatorReplay.DRIVE_VELOCITY_KEYS.length];
+        this.steerAngleColumns = new int[PoseEstimatorReplay.STEER_ANGLE_KEYS.length];
+        for (int i = 0; i < this.driveVelocityColumns.length; i++)
+        {
+            this.driveVelocityColumns[i] = PoseEstimatorReplay.getColumn(columnNames, PoseEstimatorReplay.DRIVE_VELOCITY_KEYS[i]);
+            this.steerAngleColumns[i] = PoseEstimatorReplay.getColumn(columnNames, PoseEstimatorReplay.STEER_ANGLE_KEYS[i]);
+        }
+
+        this.yawColumn = PoseEstimatorReplay.getColumn(columnNames, LoggingKey.PigeonYaw);
+        this.startingYawColumn = PoseEstimatorReplay.getColumn(columnNames, LoggingKey.PigeonStartingYaw);
+        this.distanceColumn = PoseEstimatorReplay.getColumn(columnNames, LoggingKey.OffboardVisionTargetRawDistance);
+        this.angleColumn = PoseEstimatorReplay.getColumn(columnNames, LoggingKey.OffboardVisionTargetRawHorizontalAngle);
+        this.missedHeartbeatsColumn = PoseEstimatorReplay.getColumn(columnNames, LoggingKey.OffboardVisionMissedHeartbeats);
+
+        int moduleCount = this.kinematics.getModuleCount();
+        this.driveVelocities = new double[moduleCount];
+        this.steerAngles = new double[moduleCount];
+        this.moduleVelocities = new double[moduleCount];
+        this.robotVelocity = new double[3];
+    }
+
+    /**
+     * Replay a CSV log, printing the estimated pose for each row
+     * @param args the path of the CSV log
+     * @throws IOException
+     */
+    public static void main(String[] args) throws IOException
+    {
+        if (args.length < 1)
+        {
+            System.err.println("Usage: PoseEstimatorReplay log.csv");
+            return;
+        }
+
+        try (FileReader reader = new FileReader(args[0]))
+        {
+            PoseEstimator estimator = PoseEstimatorReplay.createEstimator();
+            PoseEstimatorReplay replay = new PoseEstimatorReplay(reader, estimator, true);
+            System.out.println("time,x,y,angle,has_target");
+            while (replay.step())
+            {
+                System.out.println(
+                    String.format(
+                        "%1$.3f,%2$.2f,%3$.2f,%4$.2f,%5$b",
+                        replay.getTime(),
+                        estimator.getX(),
+                        estimator.getY(),
+                        estimator.getAngle(),
+                        estimator.hasTarget()));
+            }
+
+            System.err.println(String.format("Replayed %1$d rows, using %2$d sightings of the vision target", replay.getRows(), replay.getAcceptedSightings()));
+        }
+    }
+
+    /**
+     * Create an estimator with the robot's settings
+     * @return a new estimator
+     */
+    public static PoseEstimator createEstimator()
+    {
+        return new PoseEstimator(
+            TuningConstants.POSE_ESTIMATOR_TRANSLATION_NOISE,
+            TuningConstants.POSE_ESTIMATOR_TRANSLATION_DRIFT,
+            TuningConstants.POSE_ESTIMATOR_GYRO_NOISE,
+            TuningConstants.POSE_ESTIMATOR_GYRO_DRIFT,
+            TuningConstants.POSE_ESTIMATOR_WHEEL_ROTATION_NOISE,
+            TuningConstants.POSE_ESTIMATOR_VISION_DISTANCE_NOISE,
+            TuningConstants.POSE_ESTIMATOR_VISION_ANGLE_NOISE,
+            TuningConstants.POSE_ESTIMATOR_VISION_GATE,
+            TuningConstants.POSE_ESTIMATOR_VISION_MAX_REJECTED);
+    }
+
+    /**
+     * Create kinematics for the robot's modules
+     * @return new kinematics
+     */
+    public static SwerveKinematics createKinematics()
+    {
+        return new SwerveKinematics(
+            new double[]
+            {
+                -HardwareConstants.DRIVETRAIN_HORIZONTAL_WHEEL_CENTER_DISTANCE,
+                HardwareConstants.DRIVETRAIN_HORIZONTAL_WHEEL_CENTER_DISTANCE,
+                HardwareConstants.DRIVETRAIN_HORIZONTAL_WHEEL_CENTER_DISTANCE,
+                -HardwareConstants.DRIVETRAIN_HORIZONTAL_WHEEL_CENTER_DISTANCE,
+            },
+            new double[]
+            {
+                -HardwareConstants.DRIVETRAIN_VERTICAL_WHEEL_CENTER_DISTANCE,
+                -HardwareConstants.DRIVETRAIN_VERTICAL_WHEEL_CENTER_DISTANCE,
+                HardwareConstants.DRIVETRAIN_VERTICAL_WHEEL_CENTER_DISTANCE,
+                HardwareConstants.DRIVETRAIN_VERTICAL_WHEEL_CENTER_DISTANCE,
+            },
+            TuningConstants.DRIVETRAIN_MAX_VELOCITY,
+            -1.0);
+    }
+
+    /**
+     * Replay the next row of the log
+     * @return true if a row was replayed, or false at the end of the log
+     * @throws IOException
+     */
+    public boolean step() throws IOException
+    {
+        String line = this.reader.readLine();
+        if (line == null || line.isEmpty())
+        {
+            return false;
+        }
+
+        String[] values = line.split(",", -1);
+        double time = PoseEstimatorReplay.getValue(values, this.timeColumn, this.time);
+        for (int i = 0; i < this.driveVelocities.length; i++)
+        {
+            this.driveVelocities[i] = PoseEstimatorReplay.getValue(values, this.driveVelocityColumns[i], this.driveVelocities[i]);
+            this.steerAngles[i] = PoseEstimatorReplay.getValue(values, this.steerAngleColumns[i], this.steerAngles[i]);
+            this.moduleVelocities[i] = HardwareConstants.DRIVETRAIN_DRIVE_MOTOR_VELOCITY_TO_INCHES_PER_SECOND * this.driveVelocities[i];
+        }
+
+        this.pigeonYaw = PoseEstimatorReplay.getValue(values, this.yawColumn, this.pigeonYaw);
+        this.startingYaw = PoseEstimatorReplay.getValue(values, this.startingYawColumn, this.startingYaw);
+        double yaw = this.pigeonYaw + this.startingYaw;
+
+        this.kinematics.calculateRobotVelocity(this.moduleVelocities, this.steerAngles, this.robotVelocity);
+        if (!this.initialized)
+        {
+            this.initialized = true;
+            this.history.reset(time, 0.0, 0.0, yaw);
+        }
+        else if (time > this.time)
+        {
+            this.history.predict(time, this.robotVelocity[1], -this.robotVelocity[0], yaw - this.yaw, true);
+        }
+
+        this.time = time;
+        this.yaw = yaw;
+
+        // a new frame's results arrived when the heartbeat changed, and it was captured a little before that
+        double distance = PoseEstimatorReplay.getValue(values, this.distanceColumn, Double.NaN);
+        double angle = PoseEstimatorReplay.getValue(values, this.angleColumn, Double.NaN);
+        double missedHeartbeats = PoseEstimatorReplay.getValue(values, this.missedHeartbeatsColumn, Double.NaN);
+        if (this.useVision && missedHeartbeats == 0.0 && !Double.isNaN(distance) && !Double.isNaN(angle))
+        {
+            if (this.history.updateTarget(time - TuningConstants.VISION_CAPTURE_LATENCY, distance, angle))
+            {
+                this.acceptedSightings++;
+            }
+        }
+
+        this.rows++;
+        return true;
+    }
+
+    /**
+     * Get the time of the latest row that was replayed
+     * @return time, in seconds
+     */
+    public double getTime()
+    {
+        return this.time;
+    }
+
+    /**
+     * Get the number of rows that have been replayed
+     * @return number of rows
+     */
+    public int getRows()
+    {
+        return this.rows;
+    }
+
+    /**
+     * Get the number of sightings of the vision target that the estimator used
+     * @return number of sightings
+     */
+    public int getAcceptedSightings()
+    {
+        return this.acceptedSightings;
+    }
+
+    private static int getColumn(String[] columnNames, LoggingKey key) throws IOException
+    {
+        for (int i = 0; i < columnNames.length; i++)
+        {
+            if (columnNames[i].equals(key.value))
+            {
+                return i;
+            }
+        }
+
+        throw new IOException("Expected the log to have a " + key.value + " column");
+    }
+
+    private static double getValue(String[] values, int column, double defaultValue)
+    {
+        if (column >= values.length || values[column].isEmpty() || values[column].equals("null"))
+        {
+            return defaultValue;
+        }
+
+        return Double.parseDouble(values[column]);
+    }
+}
@@ -0,0 +1,311 @@
+package frc.robot.common;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Random;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import frc.robot.HardwareConstants;
+import frc.robot.LoggingKey;
+import frc.robot.TuningConstants;
+import frc.robot.common.robotprovider.*;
+
+public class PoseEstimatorTests
+{
+    private static final double TARGET_X = 400.0;
+    private static final double TARGET_Y = 30.0;
+    private static final double CAMERA_HALF_FIELD_OF_VIEW = 35.0;
+
+    @Test
+    public void checkSightingCorrectsPose()
+    {
+        PoseEstimator estimator = PoseEstimatorReplay.createEstimator();
+        Pose2d target = new Pose2d(0.0, 0.0, 0.0);
+        Assertions.assertFalse(estimator.getTarget(target));
+
+        // the first sighting adds the target where it was seen, 100 inches away and 30 degrees to the left
+        Assertions.assertTrue(estimator.updateTarget(100.0, -30.0));
+        Assertions.assertTrue(estimator.getTarget(target));
+        Assertions.assertEquals(100.0 * Helpers.cosd(30.0), target.x, 1e-9);
+        Assertions.assertEquals(100.0 * Helpers.sind(30.0), target.y, 1e-9);
+
+        // seeing it again from the same spot only makes us more sure of where it is
+        for (int i = 0; i < 20; i++)
+        {
+            Assertions.assertTrue(estimator.updateTarget(100.0, -30.0));
+        }
+
+        Assertions.assertTrue(estimator.getTarget(target));
+        Assertions.assertEquals(100.0 * Helpers.cosd(30.0), target.x, 1e-9);
+        Assertions.assertEquals(100.0 * Helpers.sind(30.0), target.y, 1e-9);
+        Assertions.assertEquals(0.0, estimator.getX(), 1e-9);
+
+        // the odometry thinks that the robot drove 50 inches forward, but the target says that it only drove 40
+        for (int i = 0; i < 50; i++)
+        {
+            estimator.predict(0.02, 50.0, 0.0, 0.0, true);
+        }
+
+        double expectedDistance = Math.hypot(target.x - 50.0, target.y);
+        double actualDistance = Math.hypot(target.x - 40.0, target.y);
+        Assertions.assertEquals(50.0, estimator.getX(), 1e-9);
+        Assertions.assertTrue(actualDistance - expectedDistance > 5.0);
+
+        double varianceBefore = estimator.getPositionVariance();
+        double actualAngle = -Helpers.atan2d(target.y, target.x - 40.0);
+        Assertions.assertTrue(estimator.updateTarget(actualDistance, actualAngle));
+        Assertions.assertTrue(estimator.getX() < 45.0, "expected the sighting to pull the robot back, but it is at " + estimator.getX());
+        Assertions.assertTrue(estimator.getPositionVariance() < varianceBefore);
+
+        // a sighting that is wildly off (e.g. a reflection) is ignored
+        double x = estimator.getX();
+        Assertions.assertFalse(estimator.updateTarget(actualDistance + 100.0, actualAngle));
+        Assertions.assertEquals(x, estimator.getX(), 0.0);
+
+        // resetting the pose forgets the target
+        estimator.reset(0.0, 0.0, 0.0);
+        Assertions.assertFalse(estimator.hasTarget());
+    }
+
+    @Test
+    public void checkDelayedSightingIsAppliedWhenCaptured()
+    {
+        // apply a sighting as it happens...
+        PoseEstimator expected = PoseEstimatorReplay.createEstimator();
+        Assertions.assertTrue(expected.updateTarget(100.0, -30.0));
+
+        // ...and the same sighting after its results arrived a few cycles later
+        PoseEstimatorHistory history = new PoseEstimatorHistory(PoseEstimatorReplay.createEstimator(), 10);
+        history.reset(0.0, 0.0, 0.0, 0.0);
+        Assertions.assertTrue(history.updateTarget(0.0, 100.0, -30.0));
+
+        for (int i = 1; i <= 20; i++)
+        {
+            expected.predict(0.02, 50.0, 10.0, 1.0, true);
+            history.predict(i * 0.02, 50.0, 10.0, 1.0, true);
+            if (i == 12)
+            {
+                Assertions.assertTrue(expected.updateTarget(90.0, -25.0));
+            }
+        }
+
+        Assertions.assertTrue(history.updateTarget(12 * 0.02, 90.0, -25.0));
+
+        PoseEstimator actual = history.getEstimator();
+        Assertions.assertEquals(expected.getX(), actual.getX(), 1e-9);
+        Assertions.assertEquals(expected.getY(), actual.getY(), 1e-9);
+        Assertions.assertEquals(expected.getAngle(), actual.getAngle(), 1e-9);
+        Assertions.assertEquals(expected.getPositionVariance(), actual.getPositionVariance(), 1e-9);
+
+        // a sighting from before the history is ignored
+        Assertions.assertFalse(history.updateTarget(0.0, 90.0, -25.0));
+        Assertions.assertEquals(expected.getX(), actual.getX(), 1e-9);
+    }
+
+    @Test
+    public void checkReplayedMatchLog() throws IOException
+    {
+        // write a log of a (simulated) match through the robot's logger, the same as it would be recorded on the robot
+        ArrayList<double[]> truePoses = new ArrayList<double[]>();
+        String csv = PoseEstimatorTests.recordMatchLog(1318, 1000, truePoses);
+
+        // dead reckoning drifts, as the wheels slip...
+        PoseEstimator deadReckoning = PoseEstimatorReplay.createEstimator();
+        double deadReckoningError = PoseEstimatorTests.replay(csv, deadReckoning, false, truePoses, null);
+
+        // ...but the vision target keeps the estimate close to where the robot really is
+        PoseEstimator estimator = PoseEstimatorReplay.createEstimator();
+        double[] maxError = new double[1];
+        double error = PoseEstimatorTests.replay(csv, estimator, true, truePoses, maxError);
+
+        Assertions.assertTrue(deadReckoningError > 30.0, "expected the dead reckoning to drift, but its error is " + deadReckoningError);
+        Assertions.assertTrue(error < 6.0, "expected the estimate to stay close, but its error is " + error);
+        Assertions.assertTrue(maxError[0] < 12.0, "expected the estimate to stay close, but its error reached " + maxError[0]);
+    }
+
+    /**
+     * Replay a log through an estimator
+     * @param csv log to replay
+     * @param estimator to replay through
+     * @param useVision whether to use the vision target
+     * @param truePoses where the robot really was in each row
+     * @param maxError to fill in with the largest position error over the second half of the log (or null)
+     * @return the position error at the end of the log
+     */
+    private static double replay(String csv, PoseEstimator estimator, boolean useVision, ArrayList<double[]> truePoses, double[] maxError) throws IOException
+    {
+        PoseEstimatorReplay replay = new PoseEstimatorReplay(new StringReader(csv), estimator, useVision);
+        double error = 0.0;
+        int row = 0;
+        while (replay.step())
+        {
+            double[] truePose = truePoses.get(row);
+            error = Math.hypot(estimator.getX() - truePose[0], estimator.getY() - truePose[1]);
+            Assertions.assertEquals(truePose[2], estimator.getAngle(), 1.0);
+            if (maxError != null && row >= truePoses.size() / 2)
+            {
+                maxError[0] = Math.max(maxError[0], error);
+            }
+
+            row++;
+        }
+
+        Assertions.assertEquals(truePoses.size(), row);
+        if (useVision)
+        {
+            Assertions.assertTrue(replay.getAcceptedSightings() > 0);
+        }
+
+        return error;
+    }
+
+    /**
+     * Simulate the robot driving back and forth in front of the vision target, and log its sensors as CSV (through the
+     * binary logger and the converter, so that the log is in the same form as one from the robot).  The wheels slip (the
+     * modules report 6% too fast, along with a sideways drift), the Pigeon is a little noisy, and the camera sees the target
+     * at ~16 Hz when it is in view (with its results arriving VISION_CAPTURE_LATENCY after the frame was captured), with the
+     * occasional reflection.
+     */
+    private static String recordMatchLog(long seed, int cycles, ArrayList<double[]> truePoses) throws IOException
+    {
+        Random random = new Random(seed);
+        SwerveKinematics kinematics = PoseEstimatorReplay.createKinematics();
+        double[] steerAngles = new double[kinematics.getModuleCount()];
+        double[] moduleVelocities = new double[kinematics.getModuleCount()];
+        double[] moduleSteerAngles = new double[kinematics.getModuleCount()];
+
+        ByteArrayFileWriter fileWriter = new ByteArrayFileWriter();
+        ILogger logger = new BinaryLogger(fileWriter, true, PoseEstimatorReplay.SCHEMA);
+
+        double x = 0.0;
+        double y = 0.0;
+        double angle = 0.0;
+        int missedHeartbeats = 0;
+        int frames = 0;
+        int latencyCycles = (int)Math.round(TuningConstants.VISION_CAPTURE_LATENCY / 0.02);
+        for (int cycle = 0; cycle < cycles; cycle++)
+        {
+            double time = cycle * 0.02;
+
+            // integrate the true pose since the previous cycle
+            if (cycle > 0)
+            {
+                for (int i = 0; i < 20; i++)
+                {
+                    double substepTime = time - 0.02 + i * 0.001;
+                    double forward = PoseEstimatorTests.getForwardVelocity(substepTime);
+                    double left = PoseEstimatorTests.getLeftVelocity(substepTime);
+                    x += (forward * Math.cos(angle) - left * Math.sin(angle)) * 0.001;
+                    y += (forward * Math.sin(angle) + left * Math.cos(angle)) * 0.001;
+                    angle += PoseEstimatorTests.getOmega(substepTime) * 0.001;
+                }
+            }
+
+            truePoses.add(new double[] { x, y, angle * Helpers.RADIANS_TO_DEGREES });
+
+            // the modules measure a bit more than how far the robot really went
+            double measuredForward = 1.06 * PoseEstimatorTests.getForwardVelocity(time);
+            double measuredLeft = PoseEstimatorTests.getLeftVelocity(time) + 3.0;
+            kinematics.calculateModuleGoals(-measuredLeft, measuredForward, PoseEstimatorTests.getOmega(time), 0.0, 0.0, steerAngles, moduleVelocities, moduleSteerAngles);
+            for (int i = 0; i < steerAngles.length; i++)
+            {
+                if (!Double.isNaN(moduleSteerAngles[i]))
+                {
+                    steerAngles[i] = moduleSteerAngles[i];
+                }
+            }
+
+            logger.logNumber(LoggingKey.RobotTime, time);
+            logger.logNumber(LoggingKey.DriveTrainDriveVelocity1, moduleVelocities[0] / HardwareConstants.DRIVETRAIN_DRIVE_MOTOR_VELOCITY_TO_INCHES_PER_SECOND);
+            logger.logNumber(LoggingKey.DriveTrainDriveVelocity2, moduleVelocities[1] / HardwareConstants.DRIVETRAIN_DRIVE_MOTOR_VELOCITY_TO_INCHES_PER_SECOND);
+            logger.logNumber(LoggingKey.DriveTrainDriveVelocity3, moduleVelocities[2] / HardwareConstants.DRIVETRAIN_DRIVE_MOTOR_VELOCITY_TO_INCHES_PER_SECOND);
+            logger.logNumber(LoggingKey.DriveTrainDriveVelocity4, moduleVelocities[3] / HardwareConstants.DRIVETRAIN_DRIVE_MOTOR_VELOCITY_TO_INCHES_PER_SECOND);
+            logger.logNumber(LoggingKey.DriveTrainSteerAngle1, Helpers.updateAngleRange(steerAngles[0]));
+            logger.logNumber(LoggingKey.DriveTrainSteerAngle2, Helpers.updateAngleRange(steerAngles[1]));
+            logger.logNumber(LoggingKey.DriveTrainSteerAngle3, Helpers.updateAngleRange(steerAngles[2]));
+            logger.logNumber(LoggingKey.DriveTrainSteerAngle4, Helpers.updateAngleRange(steerAngles[3]));
+            logger.logNumber(LoggingKey.PigeonYaw, angle * Helpers.RADIANS_TO_DEGREES + random.nextGaussian() * 0.01);
+            logger.logNumber(LoggingKey.PigeonStartingYaw, 0.0);
+
+            // a new frame every third cycle, which was captured a few cycles before its results arrive
+            Double distance = null;
+            Double targetAngle = null;
+            if (cycle % 3 == 0 && cycle >= latencyCycles)
+            {
+                missedHeartbeats = 0;
+                frames++;
+
+                double[] capturePose = truePoses.get(cycle - latencyCycles);
+                double offsetX = PoseEstimatorTests.TARGET_X - capturePose[0];
+                double offsetY = PoseEstimatorTests.TARGET_Y - capturePose[1];
+                double trueAngle = Helpers.updateAngleRange(capturePose[2] - Helpers.atan2d(offsetY, offsetX));
+                if (Math.abs(trueAngle) < PoseEstimatorTests.CAMERA_HALF_FIELD_OF_VIEW)
+                {
+                    distance = Math.hypot(offsetX, offsetY) * (1.0 + random.nextGaussian() * 0.01);
+                    targetAngle = trueAngle + random.nextGaussian() * 0.5;
+                    if (frames % 25 == 0)
+                    {
+                        distance += 80.0;
+                    }
+                }
+            }
+            else
+            {
+                missedHeartbeats++;
+            }
+
+            logger.logNumber(LoggingKey.OffboardVisionTargetRawDistance, distance);
+            logger.logNumber(LoggingKey.OffboardVisionTargetRawHorizontalAngle, targetAngle);
+            logger.logNumber(LoggingKey.OffboardVisionMissedHeartbeats, missedHeartbeats);
+            logger.update();
+        }
+
+        logger.flush();
+
+        StringWriter csvWriter = new StringWriter();
+        BinaryLogConverter.convert(new ByteArrayInputStream(fileWriter.stream.toByteArray()), csvWriter);
+        return csvWriter.toString();
+    }
+
+    private static double getForwardVelocity(double time)
+    {
+        return 60.0 * Math.sin(0.5 * time);
+    }
+
+    private static double getLeftVelocity(double time)
+    {
+        return 20.0 * Math.sin(0.6 * time);
+    }
+
+    private static double getOmega(double time)
+    {
+        return 0.2 * Math.cos(0.31 * time);
+    }
+
+    private static class ByteArrayFileWriter implements IBinaryFileWriter
+    {
+        private final ByteArrayOutputStream stream = new ByteArrayOutputStream();
+
+        @Override
+        public void write(byte[] buffer, int offset, int length)
+        {
+            this.stream.write(buffer, offset, length);
+        }
+
+        @Override
+        public void flush()
+        {
+        }
+
+        @Override
+        public void close()
+        {
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package frc.robot.common;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import frc.robot.common.robotprovider.Pose2d;
+
+public class PoseHistoryTests
+{
+    @Test
+    public void checkInterpolation()
+    {
+        PoseHistory history = new PoseHistory(4);
+        Pose2d pose = new Pose2d(0.0, 0.0, 0.0);
+        Assertions.assertFalse(history.getPose(1.0, pose));
+        Assertions.assertTrue(Double.isNaN(history.getLatestTime()));
+
+        history.add(1.0, 0.0, 0.0, 0.0);
+        history.add(1.02, 2.0, -4.0, 10.0);
+        history.add(1.02, 100.0, 100.0, 100.0); // same time as the latest, so ignored
+        history.add(1.04, 4.0, -8.0, 20.0);
+        Assertions.assertEquals(3, history.size());
+        Assertions.assertEquals(1.04, history.getLatestTime(), 0.0);
+
+        Assertions.assertTrue(history.getPose(1.01, pose));
+        Assertions.assertEquals(1.0, pose.x, 1e-9);
+        Assertions.assertEquals(-2.0, pose.y, 1e-9);
+        Assertions.assertEquals(5.0, pose.angle, 1e-9);
+
+        Assertions.assertTrue(history.getPose(1.02, pose));
+        Assertions.assertEquals(2.0, pose.x, 1e-9);
+
+        // times after the latest pose give the latest pose, and times before the oldest aren't covered
+        Assertions.assertTrue(history.getPose(2.0, pose));
+        Assertions.assertEquals(4.0, pose.x, 0.0);
+        Assertions.assertEquals(20.0, pose.angle, 0.0);
+        Assertions.assertFalse(history.getPose(0.99, pose));
+        Assertions.assertFalse(history.getPose(Double.NaN, pose));
+    }
+
+    @Test
+    public void checkWrapAround()
+    {
+        PoseHistory history = new PoseHistory(4);
+        Pose2d pose = new Pose2d(0.0, 0.0, 0.0);
+        for (int i = 0; i < 10; i++)
+        {
+            history.add(i, i * 10.0, 0.0, -i);
+        }
+
+        // only the latest 4 poses are kept
+        Assertions.assertEquals(4, history.size());
+        Assertions.assertFalse(history.getPose(5.5, pose));
+        for (double time = 6.0; time <= 9.0; time += 0.25)
+        {
+            Assertions.assertTrue(history.getPose(time, pose));
+            Assertions.assertEquals(time * 10.0, pose.x, 1e-9);
+            Assertions.assertEquals(-time, pose.angle, 1e-9);
+        }
+
+        // a pose from before the latest (e.g. the timer was reset) starts over
+        history.add(0.5, 1.0, 2.0, 3.0);
+        Assertions.assertEquals(1, history.size());
+        Assertions.assertTrue(history.getPose(0.5, pose));
+        Assertions.assertEquals(1.0, pose.x, 0.0);
+        Assertions.assertFalse(history.getPose(0.4, pose));
+    }
+}
@@ -0,0 +1,56 @@
+package frc.robot.common;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import frc.robot.common.robotprovider.Pose2d;
+
+public class PoseSnapshotTests
+{
+    @Test
+    public void checkPublishAndRead()
+    {
+        PoseSnapshot snapshot = new PoseSnapshot();
+        Pose2d pose = new Pose2d(1.0, 2.0, 3.0);
+        Assertions.assertEquals(0.0, snapshot.read(pose), 0.0);
+        Assertions.assertEquals(0.0, pose.x, 0.0);
+        Assertions.assertEquals(0.0, pose.y, 0.0);
+        Assertions.assertEquals(0.0, pose.angle, 0.0);
+
+        snapshot.publish(4.0, 5.0, 6.0, 7.0);
+        Assertions.assertEquals(7.0, snapshot.read(pose), 0.0);
+        Assertions.assertEquals(4.0, pose.x, 0.0);
+        Assertions.assertEquals(5.0, pose.y, 0.0);
+        Assertions.assertEquals(6.0, pose.angle, 0.0);
+    }
+
+    @Test
+    public void checkConsistentWhileWriting() throws InterruptedException
+    {
+        PoseSnapshot snapshot = new PoseSnapshot();
+        Thread writer = new Thread(() ->
+        {
+            for (int i = 1; i <= 1000000; i++)
+            {
+                snapshot.publish(i, 2.0 * i, 3.0 * i, i);
+            }
+        });
+
+        writer.start();
+
+        // the reader never sees part of one pose and part of another
+        Pose2d pose = new Pose2d(0.0, 0.0, 0.0);
+        double previousTime = 0.0;
+        while (previousTime < 1000000.0)
+        {
+            double time = snapshot.read(pose);
+            Assertions.assertEquals(time, pose.x, 0.0);
+            Assertions.assertEquals(2.0 * time, pose.y, 0.0);
+            Assertions.assertEquals(3.0 * time, pose.angle, 0.0);
+            Assertions.assertTrue(time >= previousTime);
+            previousTime = time;
+        }
+
+        writer.join();
+    }
+}
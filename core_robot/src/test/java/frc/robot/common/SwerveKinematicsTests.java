@@ -0,0 +1,218 @@
+package frc.robot.common;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import frc.robot.HardwareConstants;
+import frc.robot.TuningConstants;
+
+public class SwerveKinematicsTests
+{
+    private static final double[] MODULE_OFFSET_X =
+        new double[]
+        {
+            -HardwareConstants.DRIVETRAIN_HORIZONTAL_WHEEL_CENTER_DISTANCE, // module 1 (front-right)
+            HardwareConstants.DRIVETRAIN_HORIZONTAL_WHEEL_CENTER_DISTANCE, // module 2 (front-left)
+            HardwareConstants.DRIVETRAIN_HORIZONTAL_WHEEL_CENTER_DISTANCE, // module 3 (back-left)
+            -HardwareConstants.DRIVETRAIN_HORIZONTAL_WHEEL_CENTER_DISTANCE, // module 4 (back-right)
+        };
+
+    private static final double[] MODULE_OFFSET_Y =
+        new double[]
+        {
+            -HardwareConstants.DRIVETRAIN_VERTICAL_WHEEL_CENTER_DISTANCE, // module 1 (front-right)
+            -HardwareConstants.DRIVETRAIN_VERTICAL_WHEEL_CENTER_DISTANCE, // module 2 (front-left)
+            HardwareConstants.DRIVETRAIN_VERTICAL_WHEEL_CENTER_DISTANCE, // module 3 (back-left)
+            HardwareConstants.DRIVETRAIN_VERTICAL_WHEEL_CENTER_DISTANCE, // module 4 (back-right)
+        };
+
+    private static final double MAX_VELOCITY = 100.0;
+    private static final double SKIP_DELTA = 0.001;
+
+    @Test
+    public void checkModuleGoalsMatchUnrolled()
+    {
+        SwerveKinematics kinematics = new SwerveKinematics(SwerveKinematicsTests.MODULE_OFFSET_X, SwerveKinematicsTests.MODULE_OFFSET_Y, SwerveKinematicsTests.MAX_VELOCITY, SwerveKinematicsTests.SKIP_DELTA);
+        double[] currentSteerAngles = new double[4];
+        double[] moduleVelocities = new double[4];
+        double[] moduleSteerAngles = new double[4];
+
+        Random random = new Random(1318);
+        for (int iteration = 0; iteration < 1000; iteration++)
+        {
+            double right = (random.nextDouble() - 0.5) * 200.0;
+            double forward = (random.nextDouble() - 0.5) * 200.0;
+            double omega = (random.nextDouble() - 0.5) * 10.0;
+            double rotationCenterA = iteration % 2 == 0 ? 0.0 : (random.nextDouble() - 0.5) * 20.0;
+            double rotationCenterB = iteration % 2 == 0 ? 0.0 : (random.nextDouble() - 0.5) * 20.0;
+            for (int i = 0; i < 4; i++)
+            {
+                currentSteerAngles[i] = (random.nextDouble() - 0.5) * 1440.0;
+            }
+
+            double scale = kinematics.calculateModuleGoals(right, forward, omega, rotationCenterA, rotationCenterB, currentSteerAngles, moduleVelocities, moduleSteerAngles);
+
+            // the calculation from DriveTrainMechanism, before it used SwerveKinematics
+            double maxModuleVelocity = 0.0;
+            double[] expectedVelocities = new double[4];
+            for (int i = 0; i < 4; i++)
+            {
+                double moduleVelocityRight = right + omega * (SwerveKinematicsTests.MODULE_OFFSET_Y[i] + rotationCenterB);
+                double moduleVelocityForward = forward - omega * (SwerveKinematicsTests.MODULE_OFFSET_X[i] + rotationCenterA);
+
+                double moduleVelocity = Math.sqrt(moduleVelocityRight * moduleVelocityRight + moduleVelocityForward * moduleVelocityForward);
+                AnglePair anglePair = AnglePair.getClosestAngle(Helpers.atan2d(-moduleVelocityRight, moduleVelocityForward), currentSteerAngles[i], true);
+                Assertions.assertEquals(anglePair.getAngle(), moduleSteerAngles[i], 0.0);
+
+                maxModuleVelocity = Math.max(maxModuleVelocity, moduleVelocity);
+                expectedVelocities[i] = anglePair.getSwapDirection() ? -moduleVelocity : moduleVelocity;
+            }
+
+            double expectedScale = 1.0;
+            if (maxModuleVelocity > SwerveKinematicsTests.MAX_VELOCITY)
+            {
+                expectedScale = SwerveKinematicsTests.MAX_VELOCITY / maxModuleVelocity;
+            }
+
+            Assertions.assertEquals(expectedScale, scale, 0.0);
+            for (int i = 0; i < 4; i++)
+            {
+                Assertions.assertEquals(expectedVelocities[i] * expectedScale, moduleVelocities[i], 0.0);
+                Assertions.assertTrue(Math.abs(moduleVelocities[i]) <= SwerveKinematicsTests.MAX_VELOCITY + 1e-9);
+            }
+        }
+    }
+
+    @Test
+    public void checkModuleGoalsSkipAngle()
+    {
+        SwerveKinematics kinematics = new SwerveKinematics(SwerveKinematicsTests.MODULE_OFFSET_X, SwerveKinematicsTests.MODULE_OFFSET_Y, SwerveKinematicsTests.MAX_VELOCITY, SwerveKinematicsTests.SKIP_DELTA);
+        double[] currentSteerAngles = new double[] { 10.0, 20.0, 30.0, 40.0 };
+        double[] moduleVelocities = new double[4];
+        double[] moduleSteerAngles = new double[4];
+
+        Assertions.assertEquals(1.0, kinematics.calculateModuleGoals(0.0, 0.0, 0.0, 0.0, 0.0, currentSteerAngles, moduleVelocities, moduleSteerAngles), 0.0);
+        for (int i = 0; i < 4; i++)
+        {
+            Assertions.assertEquals(0.0, moduleVelocities[i], 0.0);
+            Assertions.assertTrue(Double.isNaN(moduleSteerAngles[i]));
+        }
+
+        // with a negative delta, the modules are always steered
+        kinematics = new SwerveKinematics(SwerveKinematicsTests.MODULE_OFFSET_X, SwerveKinematicsTests.MODULE_OFFSET_Y, SwerveKinematicsTests.MAX_VELOCITY, -1.0);
+        kinematics.calculateModuleGoals(0.0, 0.0, 0.0, 0.0, 0.0, currentSteerAngles, moduleVelocities, moduleSteerAngles);
+        for (int i = 0; i < 4; i++)
+        {
+            Assertions.assertEquals(0.0, moduleVelocities[i], 0.0);
+            Assertions.assertEquals(0.0, moduleSteerAngles[i], 1e-9);
+        }
+    }
+
+    @Test
+    public void checkRobotVelocityMatchesUnrolled()
+    {
+        SwerveKinematics kinematics = new SwerveKinematics(SwerveKinematicsTests.MODULE_OFFSET_X, SwerveKinematicsTests.MODULE_OFFSET_Y, SwerveKinematicsTests.MAX_VELOCITY, SwerveKinematicsTests.SKIP_DELTA);
+        double[] moduleVelocities = new double[4];
+        double[] moduleSteerAngles = new double[4];
+        double[] robotVelocity = new double[3];
+
+        Random random = new Random(1318);
+        for (int iteration = 0; iteration < 1000; iteration++)
+        {
+            for (int i = 0; i < 4; i++)
+            {
+                moduleVelocities[i] = (random.nextDouble() - 0.5) * 200.0;
+                moduleSteerAngles[i] = (random.nextDouble() - 0.5) * 360.0;
+            }
+
+            kinematics.calculateRobotVelocity(moduleVelocities, moduleSteerAngles, robotVelocity);
+
+            // the calculation from DriveTrainMechanism, before it used SwerveKinematics
+            double[] right = new double[4];
+            double[] forward = new double[4];
+            for (int i = 0; i < 4; i++)
+            {
+                right[i] = -Helpers.sind(moduleSteerAngles[i]) * moduleVelocities[i];
+                forward[i] = Helpers.cosd(moduleSteerAngles[i]) * moduleVelocities[i];
+            }
+
+            double a = 0.5 * (-right[2] - right[3]);
+            double b = 0.5 * (-right[0] - right[1]);
+            double c = 0.5 * (forward[0] + forward[3]);
+            double d = 0.5 * (forward[1] + forward[2]);
+
+            double omegaRadians1 = (b - a) / HardwareConstants.DRIVETRAIN_VERTICAL_WHEEL_SEPERATION_DISTANCE;
+            double omegaRadians2 = (c - d) / HardwareConstants.DRIVETRAIN_HORIZONTAL_WHEEL_SEPERATION_DISTANCE;
+            double omegaRadians = (omegaRadians1 + omegaRadians2) / 2.0;
+
+            double rightRobotVelocityA = omegaRadians * HardwareConstants.DRIVETRAIN_HORIZONTAL_WHEEL_CENTER_DISTANCE + a;
+            double rightRobotVelocityB = -omegaRadians * HardwareConstants.DRIVETRAIN_HORIZONTAL_WHEEL_CENTER_DISTANCE + b;
+            double rightRobotVelocity = -(rightRobotVelocityA + rightRobotVelocityB) / 2.0;
+
+            double forwardRobotVelocityA = omegaRadians * HardwareConstants.DRIVETRAIN_VERTICAL_WHEEL_CENTER_DISTANCE + c;
+            double forwardRobotVelocityB = -omegaRadians * HardwareConstants.DRIVETRAIN_VERTICAL_WHEEL_CENTER_DISTANCE + d;
+            double forwardRobotVelocity = (forwardRobotVelocityA + forwardRobotVelocityB) / 2.0;
+
+            Assertions.assertEquals(rightRobotVelocity, robotVelocity[0], 1e-9);
+            Assertions.assertEquals(forwardRobotVelocity, robotVelocity[1], 1e-9);
+            Assertions.assertEquals(omegaRadians, robotVelocity[2], 1e-12);
+        }
+    }
+
+    @Test
+    public void checkRoundTrip()
+    {
+        // three modules, not centered on the default center of rotation
+        SwerveKinematics kinematics = new SwerveKinematics(new double[] { 0.0, 10.0, 20.0 }, new double[] { 5.0, -10.0, 15.0 }, 1000.0, SwerveKinematicsTests.SKIP_DELTA);
+        Assertions.assertEquals(3, kinematics.getModuleCount());
+
+        double[] moduleVelocities = new double[3];
+        double[] moduleSteerAngles = new double[3];
+        double[] robotVelocity = new double[3];
+
+        kinematics.calculateModuleGoals(12.0, -30.0, 1.5, 0.0, 0.0, new double[] { 0.0, 720.0, -400.0 }, moduleVelocities, moduleSteerAngles);
+        kinematics.calculateRobotVelocity(moduleVelocities, moduleSteerAngles, robotVelocity);
+        Assertions.assertEquals(12.0, robotVelocity[0], 1e-9);
+        Assertions.assertEquals(-30.0, robotVelocity[1], 1e-9);
+        Assertions.assertEquals(1.5, robotVelocity[2], 1e-9);
+    }
+
+    @Test
+    public void checkFieldOrientation()
+    {
+        SwerveKinematics kinematics = new SwerveKinematics(SwerveKinematicsTests.MODULE_OFFSET_X, SwerveKinematicsTests.MODULE_OFFSET_Y, TuningConstants.DRIVETRAIN_MAX_VELOCITY, SwerveKinematicsTests.SKIP_DELTA);
+        Assertions.assertEquals(3.0, kinematics.getRobotRight(3.0, 4.0), 0.0);
+        Assertions.assertEquals(4.0, kinematics.getRobotForward(3.0, 4.0), 0.0);
+
+        for (double yaw = -720.0; yaw <= 720.0; yaw += 7.5)
+        {
+            kinematics.setYaw(yaw);
+
+            // the conversions from DriveTrainMechanism, before it used SwerveKinematics
+            Assertions.assertEquals(Helpers.cosd(yaw) * 3.0 + Helpers.sind(yaw) * 4.0, kinematics.getRobotRight(3.0, 4.0), 0.0);
+            Assertions.assertEquals(Helpers.cosd(yaw) * 4.0 - Helpers.sind(yaw) * 3.0, kinematics.getRobotForward(3.0, 4.0), 0.0);
+            Assertions.assertEquals(3.0 * Helpers.cosd(yaw) - 4.0 * Helpers.sind(yaw), kinematics.getFieldRight(3.0, 4.0), 0.0);
+            Assertions.assertEquals(3.0 * Helpers.sind(yaw) + 4.0 * Helpers.cosd(yaw), kinematics.getFieldForward(3.0, 4.0), 0.0);
+
+            // converting to robot-oriented and back gives the original velocity
+            double robotRight = kinematics.getRobotRight(3.0, 4.0);
+            double robotForward = kinematics.getRobotForward(3.0, 4.0);
+            Assertions.assertEquals(3.0, kinematics.getFieldRight(robotRight, robotForward), 1e-9);
+            Assertions.assertEquals(4.0, kinematics.getFieldForward(robotRight, robotForward), 1e-9);
+        }
+    }
+
+    @Test
+    public void checkClosestSteerAngle()
+    {
+        for (double current = -720.0; current <= 720.0; current += 15.0)
+        {
+            for (double desired = -180.0; desired <= 180.0; desired += 10.0)
+            {
+                Assertions.assertEquals(AnglePair.getClosestAngle(desired, current, true).getAngle(), SwerveKinematics.getClosestSteerAngle(desired, current), 0.0);
+            }
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package frc.robot.common.robotprovider;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+
+import frc.robot.LoggingKey;
+
+public class BatchedDashboardLoggerTests
+{
+    @Test
+    public void verifyOnlyChangesArePublished()
+    {
+        RecordingDashboardLogger logger = new RecordingDashboardLogger(0L);
+
+        logger.logNumber(LoggingKey.PigeonYaw, 1.0);
+        logger.logNumber(LoggingKey.PigeonYaw, 2.0); // coalesced with the previous value
+        logger.logBoolean(LoggingKey.CargoFeederBeamBroken, true);
+        logger.logString(LoggingKey.RobotState, "Teleop");
+        logger.logNumber(LoggingKey.DriveTrainXPosition, (Double)null);
+        logger.logInteger(LoggingKey.OffboardVisionMissedHeartbeats, 3);
+        logger.logBooleanArray(LoggingKey.DriveTrainFieldOriented, new boolean[] { true, false });
+        logger.update();
+
+        assertEquals(6, logger.published.size());
+        assertTrue(logger.published.contains("pigeon.yaw=2.0"));
+        assertTrue(logger.published.contains("cg.feeder_tb_broken=true"));
+        assertTrue(logger.published.contains("r.state=Teleop"));
+        assertTrue(logger.published.contains("dt.xpos=N/A"));
+        assertTrue(logger.published.contains("rpi.missedHeartbeats=3.0"));
+        assertTrue(logger.published.contains("dt.field_oriented=[true, false]"));
+
+        // unchanged values are not published again
+        logger.published.clear();
+        logger.logNumber(LoggingKey.PigeonYaw, 2.0);
+        logger.logBoolean(LoggingKey.CargoFeederBeamBroken, true);
+        logger.logString(LoggingKey.RobotState, new String("Teleop"));
+        logger.logNumber(LoggingKey.DriveTrainXPosition, Double.valueOf(4.0));
+        logger.logBooleanArray(LoggingKey.DriveTrainFieldOriented, new boolean[] { true, false, true });
+        logger.update();
+
+        assertEquals(2, logger.published.size());
+        assertTrue(logger.published.contains("dt.xpos=4.0"));
+        assertTrue(logger.published.contains("dt.field_oriented=[true, false, true]"));
+    }
+
+    @Test
+    public void verifyBackgroundPublishing() throws InterruptedException
+    {
+        RecordingDashboardLogger logger = new RecordingDashboardLogger(20000000L); // 20ms
+        for (int cycle = 0; cycle <= 500; cycle++)
+        {
+            logger.logInteger(LoggingKey.OffboardVisionMissedHeartbeats, cycle);
+            logger.update();
+            if (cycle % 100 == 0)
+            {
+                Thread.sleep(5);
+            }
+        }
+
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!logger.getPublished().contains("rpi.missedHeartbeats=500.0") && System.currentTimeMillis() < deadline)
+        {
+            Thread.sleep(5);
+        }
+
+        ArrayList<String> published = logger.getPublished();
+        assertTrue(published.contains("rpi.missedHeartbeats=500.0"), "expected the latest value to be published");
+        assertTrue(published.size() < 500, "expected values to be coalesced between publishes");
+    }
+
+    private static class RecordingDashboardLogger extends BatchedDashboardLogger
+    {
+        private final ArrayList<String> published = new ArrayList<String>();
+
+        RecordingDashboardLogger(long publishPeriodNanos)
+        {
+            super(publishPeriodNanos);
+        }
+
+        synchronized ArrayList<String> getPublished()
+        {
+            return new ArrayList<String>(this.published);
+        }
+
+        @Override
+        protected synchronized void publishBoolean(String key, boolean value)
+        {
+            this.published.add(key + "=" + value);
+        }
+
+        @Override
+        protected synchronized void publishBooleanArray(String key, boolean[] value)
+        {
+            this.published.add(key + "=" + Arrays.toString(value));
+        }
+
+        @Override
+        protected synchronized void publishNumber(String key, double value)
+        {
+            this.published.add(key + "=" + value);
+        }
+
+        @Override
+        protected synchronized void publishString(String key, String value)
+        {
+            this.published.add(key + "=" + value);
+        }
+    }
+}
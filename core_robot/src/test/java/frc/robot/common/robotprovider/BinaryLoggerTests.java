@@ -0,0 +1,259 @@
+package frc.robot.common.robotprovider;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import frc.robot.LoggingKey;
+import frc.robot.TuningConstants;
+
+public class BinaryLoggerTests
+{
+    @Test
+    public void verifyConvertedLogMatchesCSV() throws IOException
+    {
+        StringFileWriter csvWriter = new StringFileWriter();
+        ByteArrayFileWriter binaryWriter = new ByteArrayFileWriter();
+        ILogger logger = new MultiLogger(new CSVLogger(csvWriter), new BinaryLogger(binaryWriter));
+
+        BinaryLoggerTests.logCycles(logger, 100);
+
+        StringWriter convertedWriter = new StringWriter();
+        BinaryLogConverter.convert(new ByteArrayInputStream(binaryWriter.toByteArray()), convertedWriter);
+        assertEquals(csvWriter.toString(), convertedWriter.toString());
+    }
+
+    @Test
+    public void verifyConvertedDeltaLogMatchesCSV() throws IOException
+    {
+        StringFileWriter csvWriter = new StringFileWriter();
+        ByteArrayFileWriter deltaWriter = new ByteArrayFileWriter();
+        ILogger logger = new MultiLogger(new CSVLogger(csvWriter), new BinaryLogger(deltaWriter, true));
+
+        // long enough to include a few keyframes
+        BinaryLoggerTests.logCycles(logger, 3 * TuningConstants.LOG_DELTA_KEYFRAME_INTERVAL + 10);
+
+        StringWriter convertedWriter = new StringWriter();
+        BinaryLogConverter.convert(new ByteArrayInputStream(deltaWriter.toByteArray()), convertedWriter);
+        assertEquals(csvWriter.toString(), convertedWriter.toString());
+    }
+
+    @Test
+    public void verifyConvertedDeltaLogHoldsSampledKeys() throws IOException
+    {
+        // the keys that are only logged every other cycle are sampled that way on purpose...
+        int[] sampleDivisors = new int[LoggingKey.values().length];
+        Arrays.fill(sampleDivisors, 1);
+        sampleDivisors[LoggingKey.DriveTrainXPosition.ordinal()] = 2;
+        sampleDivisors[LoggingKey.DriveTrainYPosition.ordinal()] = 2;
+        sampleDivisors[LoggingKey.DriveTrainFieldOriented.ordinal()] = 2;
+
+        ByteArrayFileWriter binaryWriter = new ByteArrayFileWriter();
+        ByteArrayFileWriter deltaWriter = new ByteArrayFileWriter();
+        int cycles = 3 * TuningConstants.LOG_DELTA_KEYFRAME_INTERVAL + 10;
+        BinaryLoggerTests.logCycles(new MultiLogger(new BinaryLogger(binaryWriter), new BinaryLogger(deltaWriter, true, sampleDivisors)), cycles, false);
+
+        // ...so they keep their value between samples, while the one-shot crash key is still cleared after its row
+        StringFileWriter csvWriter = new StringFileWriter();
+        BinaryLoggerTests.logCycles(new CSVLogger(csvWriter), cycles, true);
+
+        StringWriter convertedWriter = new StringWriter();
+        BinaryLogConverter.convert(new ByteArrayInputStream(deltaWriter.toByteArray()), convertedWriter);
+        assertEquals(csvWriter.toString(), convertedWriter.toString());
+        assertTrue(deltaWriter.size() < binaryWriter.size(), "expected delta encoding to be smaller");
+    }
+
+    private static void logCycles(ILogger logger, int cycles)
+    {
+        BinaryLoggerTests.logCycles(logger, cycles, false);
+    }
+
+    /**
+     * Log a series of cycles, some of which only log some of the keys
+     * @param logger to log into
+     * @param cycles number of cycles to log
+     * @param holdValues whether to log the values that a delta-encoded log holds for keys skipped between their samples
+     */
+    private static void logCycles(ILogger logger, int cycles, boolean holdValues)
+    {
+        for (int cycle = 0; cycle < cycles; cycle++)
+        {
+            logger.logString(LoggingKey.RobotState, "Teleop");
+            logger.logNumber(LoggingKey.RobotTime, cycle * 0.02);
+            logger.logBoolean(LoggingKey.CargoFeederBeamBroken, cycle % 3 == 0);
+            logger.logInteger(LoggingKey.OffboardVisionMissedHeartbeats, cycle);
+            logger.logInteger(LoggingKey.OffboardVisionEnableProcessing, cycle, "%04d");
+            if (cycle % 2 == 0 || holdValues)
+            {
+                int sampledCycle = cycle - cycle % 2;
+                logger.logNumber(LoggingKey.DriveTrainXPosition, (Double)null);
+                logger.logNumber(LoggingKey.DriveTrainYPosition, Double.valueOf(sampledCycle));
+                logger.logBooleanArray(LoggingKey.DriveTrainFieldOriented, new boolean[] { true, false, sampledCycle % 4 == 0 });
+            }
+
+            if (cycle == 50)
+            {
+                logger.logString(LoggingKey.RobotCrash, "some \"quoted\"\r\nvalue");
+            }
+
+            logger.logNumber(LoggingKey.PowerCurrent, cycle); // not logged to file
+            logger.update();
+        }
+
+        logger.flush();
+    }
+
+    @Test
+    public void verifyAsyncWriterDeliversAllRecords() throws Exception
+    {
+        ByteArrayFileWriter binaryWriter = new ByteArrayFileWriter();
+        AsyncBinaryFileWriter asyncWriter = new AsyncBinaryFileWriter(binaryWriter, 1024);
+
+        byte[] record = new byte[100];
+        int expectedLength = 0;
+        for (int i = 0; i < 100; i++)
+        {
+            // give the writer thread a chance to keep up with the small ring buffer
+            while (asyncWriter.getDroppedRecords() == 0 && i > 0 && binaryWriter.size() < expectedLength - 600)
+            {
+                Thread.sleep(1);
+            }
+
+            record[0] = (byte)i;
+            asyncWriter.write(record, 0, record.length);
+            expectedLength += record.length;
+        }
+
+        asyncWriter.close();
+        binaryWriter.waitForClose();
+
+        assertEquals(0L, asyncWriter.getDroppedRecords());
+        byte[] written = binaryWriter.toByteArray();
+        assertEquals(expectedLength, written.length);
+        for (int i = 0; i < 100; i++)
+        {
+            assertEquals((byte)i, written[i * record.length]);
+        }
+    }
+
+    @Test
+    public void verifyAsyncWriterDropsWholeRecordsWhenFull() throws Exception
+    {
+        ByteArrayFileWriter binaryWriter = new ByteArrayFileWriter();
+        binaryWriter.block();
+        AsyncBinaryFileWriter asyncWriter = new AsyncBinaryFileWriter(binaryWriter, 1024);
+
+        // the writer thread is stuck on the first record, so only 1024 bytes worth of records (including lengths) fit
+        byte[] record = new byte[124];
+        for (int i = 0; i < 20; i++)
+        {
+            asyncWriter.write(record, 0, record.length);
+        }
+
+        assertTrue(asyncWriter.getDroppedRecords() >= 20 - 16, "expected records to be dropped");
+        assertEquals(1L, asyncWriter.getOverruns());
+
+        binaryWriter.unblock();
+        asyncWriter.close();
+        binaryWriter.waitForClose();
+
+        assertEquals((20 - asyncWriter.getDroppedRecords()) * record.length, binaryWriter.toByteArray().length);
+    }
+
+    private class StringFileWriter implements IFileWriter
+    {
+        private final StringBuilder builder = new StringBuilder();
+
+        public void append(String string)
+        {
+            this.builder.append(string);
+        }
+
+        public void write(char[] buffer, int offset, int length)
+        {
+            this.builder.append(buffer, offset, length);
+        }
+
+        public void flush()
+        {
+        }
+
+        @Override
+        public String toString()
+        {
+            return this.builder.toString();
+        }
+    }
+
+    private class ByteArrayFileWriter implements IBinaryFileWriter
+    {
+        private final ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        private final CountDownLatch closed = new CountDownLatch(1);
+        private CountDownLatch blocked = new CountDownLatch(0);
+
+        public void write(byte[] buffer, int offset, int length)
+        {
+            try
+            {
+                this.blocked.await();
+            }
+            catch (InterruptedException e)
+            {
+            }
+
+            synchronized (this.stream)
+            {
+                this.stream.write(buffer, offset, length);
+            }
+        }
+
+        public void flush()
+        {
+        }
+
+        public void close()
+        {
+            this.closed.countDown();
+        }
+
+        public void block()
+        {
+            this.blocked = new CountDownLatch(1);
+        }
+
+        public void unblock()
+        {
+            this.blocked.countDown();
+        }
+
+        public void waitForClose() throws InterruptedException
+        {
+            assertTrue(this.closed.await(5, TimeUnit.SECONDS), "expected writer to be closed");
+        }
+
+        public int size()
+        {
+            synchronized (this.stream)
+            {
+                return this.stream.size();
+            }
+        }
+
+        public byte[] toByteArray()
+        {
+            synchronized (this.stream)
+            {
+                return this.stream.toByteArray();
+            }
+        }
+    }
+}
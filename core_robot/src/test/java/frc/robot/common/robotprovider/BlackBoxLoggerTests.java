@@ -0,0 +1,109 @@
+package frc.robot.common.robotprovider;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.ByteBuffer;
+
+import org.junit.jupiter.api.Test;
+
+import frc.robot.LoggingKey;
+
+public class BlackBoxLoggerTests
+{
+    private static final int SLOT_COUNT = 50;
+    private static final int SLOT_SIZE = 256;
+
+    @Test
+    public void verifyDumpHoldsMostRecentRows() throws IOException
+    {
+        LoggingKey[] keys = LoggingKey.values();
+        String[] schema = new String[keys.length];
+        for (int i = 0; i < keys.length; i++)
+        {
+            schema[i] = keys[i].value;
+        }
+
+        StringBuilder csv = new StringBuilder();
+        ILogger csvLogger = new CSVLogger(new StringFileWriter(csv), schema);
+        ByteBuffer buffer = ByteBuffer.allocate((int)BlackBoxLogger.getRequiredSize(BlackBoxLoggerTests.SLOT_COUNT, BlackBoxLoggerTests.SLOT_SIZE));
+        ILogger blackBox = new BlackBoxLogger(buffer, BlackBoxLoggerTests.SLOT_COUNT, BlackBoxLoggerTests.SLOT_SIZE);
+        ILogger logger = new MultiLogger(csvLogger, blackBox);
+
+        for (int cycle = 0; cycle < 3 * BlackBoxLoggerTests.SLOT_COUNT; cycle++)
+        {
+            logger.logString(LoggingKey.RobotState, "Teleop \u00b0");
+            logger.logNumber(LoggingKey.RobotTime, cycle * 0.02);
+            logger.logBoolean(LoggingKey.CargoFeederBeamBroken, cycle % 3 == 0);
+            logger.logInteger(LoggingKey.OffboardVisionMissedHeartbeats, cycle);
+            logger.logNumber(LoggingKey.DriveTrainXPosition, (Double)null);
+            logger.update();
+        }
+
+        // crash before the row is completed
+        logger.logNumber(LoggingKey.RobotTime, 3.0);
+        logger.logString(LoggingKey.RobotCrash, "some \"quoted\" value");
+        csvLogger.update();
+
+        // the black box holds the most recent rows, including the incomplete one
+        String[] rows = csv.toString().split("(?<=\r\n)(?=[^\r\n])");
+        StringBuilder expected = new StringBuilder(rows[0]);
+        for (int i = rows.length - BlackBoxLoggerTests.SLOT_COUNT; i < rows.length; i++)
+        {
+            expected.append(rows[i]);
+        }
+
+        StringWriter convertedWriter = new StringWriter();
+        BlackBoxConverter.convert(buffer, convertedWriter);
+        assertEquals(expected.toString(), convertedWriter.toString());
+    }
+
+    @Test
+    public void verifyLongStringsAreTruncated() throws IOException
+    {
+        ByteBuffer buffer = ByteBuffer.allocate((int)BlackBoxLogger.getRequiredSize(1, BlackBoxLoggerTests.SLOT_SIZE));
+        ILogger blackBox = new BlackBoxLogger(buffer, 1, BlackBoxLoggerTests.SLOT_SIZE);
+        blackBox.logNumber(LoggingKey.RobotTime, 1.0);
+        blackBox.logString(LoggingKey.RobotCrash, "x".repeat(1000));
+        blackBox.logNumber(LoggingKey.PigeonYaw, 2.0); // doesn't fit
+
+        StringWriter convertedWriter = new StringWriter();
+        BlackBoxConverter.convert(buffer, convertedWriter);
+        String[] lines = convertedWriter.toString().split("\r\n");
+        assertEquals(2, lines.length);
+
+        // slot header, double entry, string entry header + length
+        int expectedLength = BlackBoxLoggerTests.SLOT_SIZE - BlackBoxLogger.SLOT_HEADER_SIZE - 11 - 7;
+        assertTrue(lines[1].contains("1.0"));
+        assertTrue(lines[1].contains("," + "x".repeat(expectedLength) + ","));
+        assertFalse(lines[1].contains("x".repeat(expectedLength + 1)));
+        assertFalse(lines[1].contains("2.0"));
+    }
+
+    private class StringFileWriter implements IFileWriter
+    {
+        private final StringBuilder builder;
+
+        StringFileWriter(StringBuilder builder)
+        {
+            this.builder = builder;
+        }
+
+        public void append(String string)
+        {
+            this.builder.append(string);
+        }
+
+        public void write(char[] buffer, int offset, int length)
+        {
+            this.builder.append(buffer, offset, length);
+        }
+
+        public void flush()
+        {
+        }
+    }
+}
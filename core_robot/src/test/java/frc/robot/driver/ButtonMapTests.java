@@ -1,8 +1,28 @@
 package frc.robot.driver;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
 import org.junit.jupiter.api.Test;
 
+import frc.robot.common.robotprovider.IJoystick;
+import frc.robot.common.robotprovider.JoystickRumbleType;
 import frc.robot.driver.common.ButtonMapVerifier;
+import frc.robot.driver.common.IButtonMap;
+import frc.robot.driver.common.IControlTask;
+import frc.robot.driver.common.InputBindingTable;
+import frc.robot.driver.common.InputFrame;
+import frc.robot.driver.common.MacroScheduler;
+import frc.robot.driver.common.UserInputDeviceButton;
+import frc.robot.driver.common.buttons.ButtonType;
+import frc.robot.driver.common.descriptions.*;
+import frc.robot.driver.common.states.IMacroOperationState;
+import frc.robot.driver.common.states.MacroOperationState;
+import frc.robot.driver.common.states.OperationStateTable;
+
+import com.google.inject.Injector;
 
 public class ButtonMapTests
 {
@@ -11,4 +31,443 @@ public class ButtonMapTests
     {
         ButtonMapVerifier.Verify(new ButtonMap(), true, false);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void verifyMacroConflictsOnSameInput()
+    {
+        // macros on the same button but different shifts, which can both be held at once
+        MacroOperationDescription driverDebugMacro = ButtonMapTests.getShiftedMacro(MacroOperation.PIDLightBrake, Shift.DriverDebug, AnalogOperation.DriveTrainMoveForward);
+        MacroOperationDescription codriverDebugMacro = ButtonMapTests.getShiftedMacro(MacroOperation.PIDHeavyBrake, Shift.CodriverDebug, AnalogOperation.DriveTrainTurnAngleGoal);
+        ButtonMapVerifier.Verify(new TestButtonMap(driverDebugMacro, codriverDebugMacro), true, false);
+
+        // if they share a cancel operation, they would always cancel each other
+        MacroOperationDescription conflictingMacro = ButtonMapTests.getShiftedMacro(MacroOperation.PIDHeavyBrake, Shift.CodriverDebug, AnalogOperation.DriveTrainMoveForward);
+        assertThrows(RuntimeException.class, () -> ButtonMapVerifier.Verify(new TestButtonMap(driverDebugMacro, conflictingMacro), true, false));
+    }
+
+    @Test
+    public void verifyMacroSchedulerSkipsIdleMacros()
+    {
+        MacroHarness harness = new MacroHarness();
+        TestMacro a = harness.add(MacroOperation.PIDLightBrake, UserInputDeviceButton.XBONE_A_BUTTON, AnalogOperation.DriveTrainMoveForward);
+        TestMacro b = harness.add(MacroOperation.PIDHeavyBrake, UserInputDeviceButton.XBONE_B_BUTTON, AnalogOperation.DriveTrainTurnAngleGoal);
+
+        // every macro checks its input once, and then idle macros are skipped
+        harness.update();
+        harness.update();
+        harness.update();
+        assertEquals(1, a.checkInputCount);
+        assertEquals(1, b.checkInputCount);
+        assertEquals(0, a.runCount);
+        assertEquals(0, b.runCount);
+
+        // pressing a button wakes only its macro
+        harness.joystick.press(UserInputDeviceButton.XBONE_A_BUTTON, true);
+        harness.update();
+        assertEquals(2, a.checkInputCount);
+        assertEquals(1, b.checkInputCount);
+        assertEquals(1, a.runCount);
+        assertEquals(1, a.tasks.beginCount);
+        assertTrue(harness.scheduler.isActive(MacroOperation.PIDLightBrake));
+
+        // an active macro keeps checking its input and running while the button is held
+        harness.update();
+        harness.update();
+        assertEquals(4, a.checkInputCount);
+        assertEquals(3, a.runCount);
+        assertEquals(3, a.tasks.updateCount);
+
+        // toggling off runs the macro once more to stop its task, and then it goes idle
+        harness.joystick.press(UserInputDeviceButton.XBONE_A_BUTTON, false);
+        harness.update();
+        harness.joystick.press(UserInputDeviceButton.XBONE_A_BUTTON, true);
+        harness.update();
+        assertEquals(1, a.tasks.stopCount);
+        assertFalse(harness.scheduler.isActive(MacroOperation.PIDLightBrake));
+
+        int checkInputCount = a.checkInputCount;
+        int runCount = a.runCount;
+        harness.update();
+        harness.update();
+        harness.update();
+        assertEquals(checkInputCount + 1, a.checkInputCount);
+        assertEquals(runCount, a.runCount);
+        assertEquals(1, b.checkInputCount);
+    }
+
+    @Test
+    public void verifyMacroSchedulerUserActionCancels()
+    {
+        MacroHarness harness = new MacroHarness();
+        TestMacro a = harness.add(MacroOperation.PIDLightBrake, UserInputDeviceButton.XBONE_A_BUTTON, AnalogOperation.DriveTrainMoveForward);
+
+        harness.joystick.press(UserInputDeviceButton.XBONE_A_BUTTON, true);
+        harness.update();
+        assertEquals(1, a.tasks.beginCount);
+
+        // rule #1: a macro is cancelled when the user modifies one of its operations
+        harness.modify(AnalogOperation.DriveTrainMoveForward);
+        harness.update();
+        assertEquals(1, a.tasks.stopCount);
+        assertFalse(harness.scheduler.isActive(MacroOperation.PIDLightBrake));
+        assertFalse(a.getIsActive());
+    }
+
+    @Test
+    public void verifyMacroSchedulerCancelStopsTasks()
+    {
+        MacroHarness harness = new MacroHarness();
+        TestMacro a = harness.add(MacroOperation.PIDLightBrake, UserInputDeviceButton.XBONE_A_BUTTON, AnalogOperation.DriveTrainMoveForward);
+        TestMacro b = harness.add(MacroOperation.PIDHeavyBrake, UserInputDeviceButton.XBONE_B_BUTTON, AnalogOperation.DriveTrainTurnSpeed);
+
+        harness.joystick.press(UserInputDeviceButton.XBONE_A_BUTTON, true);
+        harness.joystick.press(UserInputDeviceButton.XBONE_B_BUTTON, true);
+        harness.update();
+        assertEquals(1, a.tasks.beginCount);
+        assertEquals(1, b.tasks.beginCount);
+
+        // when the robot is disabled, running tasks are stopped so that they can clean up
+        harness.scheduler.cancelAll();
+        assertEquals(1, a.tasks.stopCount);
+        assertEquals(1, b.tasks.stopCount);
+
+        // as is the task of a macro state that is replaced
+        harness.joystick.press(UserInputDeviceButton.XBONE_A_BUTTON, false);
+        harness.update();
+        harness.joystick.press(UserInputDeviceButton.XBONE_A_BUTTON, true);
+        harness.update();
+        assertEquals(2, a.tasks.beginCount);
+        harness.scheduler.setMacroState(MacroOperation.PIDLightBrake, null, null);
+        assertEquals(2, a.tasks.stopCount);
+    }
+
+    @Test
+    public void verifyMacroSchedulerNewMacroUsurpsOld()
+    {
+        MacroHarness harness = new MacroHarness();
+        TestMacro a = harness.add(MacroOperation.PIDLightBrake, UserInputDeviceButton.XBONE_A_BUTTON, AnalogOperation.DriveTrainMoveForward);
+        TestMacro b = harness.add(MacroOperation.PIDHeavyBrake, UserInputDeviceButton.XBONE_B_BUTTON, AnalogOperation.DriveTrainMoveForward);
+
+        harness.joystick.press(UserInputDeviceButton.XBONE_A_BUTTON, true);
+        harness.update();
+        assertEquals(1, a.tasks.beginCount);
+
+        // rule #2: a new macro cancels the previously-active macro that shares an operation
+        harness.joystick.press(UserInputDeviceButton.XBONE_B_BUTTON, true);
+        harness.update();
+        assertEquals(1, a.tasks.stopCount);
+        assertEquals(1, b.tasks.beginCount);
+        assertFalse(harness.scheduler.isActive(MacroOperation.PIDLightBrake));
+        assertTrue(harness.scheduler.isActive(MacroOperation.PIDHeavyBrake));
+    }
+
+    @Test
+    public void verifyMacroSchedulerConflictingNewMacrosCancel()
+    {
+        MacroHarness harness = new MacroHarness();
+        TestMacro a = harness.add(MacroOperation.PIDLightBrake, UserInputDeviceButton.XBONE_A_BUTTON, AnalogOperation.DriveTrainMoveForward);
+        TestMacro b = harness.add(MacroOperation.PIDHeavyBrake, UserInputDeviceButton.XBONE_B_BUTTON, AnalogOperation.DriveTrainMoveForward);
+        TestMacro c = harness.add(MacroOperation.VisionCenterHub, UserInputDeviceButton.XBONE_X_BUTTON, AnalogOperation.DriveTrainTurnAngleGoal);
+
+        // rule #3: new macros that share an operation cancel each other, but other new macros are unaffected
+        harness.joystick.press(UserInputDeviceButton.XBONE_A_BUTTON, true);
+        harness.joystick.press(UserInputDeviceButton.XBONE_B_BUTTON, true);
+        harness.joystick.press(UserInputDeviceButton.XBONE_X_BUTTON, true);
+        harness.update();
+        assertEquals(0, a.tasks.beginCount);
+        assertEquals(0, b.tasks.beginCount);
+        assertEquals(1, c.tasks.beginCount);
+        assertFalse(a.getIsActive());
+        assertFalse(b.getIsActive());
+        assertTrue(harness.scheduler.isActive(MacroOperation.VisionCenterHub));
+    }
+
+    /**
+     * Scheduler with toggle-button macros bound to a single joystick
+     */
+    private static MacroOperationDescription getShiftedMacro(MacroOperation macroOperation, Shift requiredShift, IOperation affectedOperation)
+    {
+        return new MacroOperationDescription(
+            macroOperation,
+            UserInputDevice.Driver,
+            UserInputDeviceButton.XBONE_A_BUTTON,
+            requiredShift,
+            requiredShift,
+            ButtonType.Toggle,
+            () -> new CountingTask(new CountingTasks()),
+            new IOperation[] { affectedOperation });
+    }
+
+    private static class TestButtonMap implements IButtonMap
+    {
+        private final MacroOperationDescription[] macroSchema;
+
+        TestButtonMap(MacroOperationDescription... macroSchema)
+        {
+            this.macroSchema = macroSchema;
+        }
+
+        @Override
+        public ShiftDescription[] getShiftSchema()
+        {
+            return new ShiftDescription[0];
+        }
+
+        @Override
+        public AnalogOperationDescription[] getAnalogOperationSchema()
+        {
+            return new AnalogOperationDescription[0];
+        }
+
+        @Override
+        public DigitalOperationDescription[] getDigitalOperationSchema()
+        {
+            return new DigitalOperationDescription[0];
+        }
+
+        @Override
+        public MacroOperationDescription[] getMacroOperationSchema()
+        {
+            return this.macroSchema;
+        }
+    }
+
+    private static class MacroHarness
+    {
+        private final OperationStateTable operationStateTable;
+        private final MacroScheduler scheduler;
+        private final ButtonJoystick joystick;
+        private final IJoystick[] joysticks;
+        private final InputFrame frame;
+        private final boolean[] modifiedOperations;
+
+        private MacroOperationDescription[] macroSchema;
+        private InputBindingTable inputBindings;
+
+        MacroHarness()
+        {
+            this.operationStateTable = new OperationStateTable(new DigitalOperationDescription[0], new AnalogOperationDescription[0]);
+            this.scheduler = new MacroScheduler(this.operationStateTable);
+            this.joystick = new ButtonJoystick();
+            this.joysticks = new IJoystick[UserInputDevice.MaxCount.getId()];
+            this.joysticks[UserInputDevice.Driver.getId()] = this.joystick;
+            this.frame = new InputFrame();
+            this.modifiedOperations = new boolean[this.operationStateTable.getOperationCount()];
+            this.macroSchema = new MacroOperationDescription[0];
+        }
+
+        TestMacro add(MacroOperation macroOperation, UserInputDeviceButton button, IOperation affectedOperation)
+        {
+            CountingTasks tasks = new CountingTasks();
+            MacroOperationDescription description =
+                new MacroOperationDescription(
+                    macroOperation,
+                    UserInputDevice.Driver,
+                    button,
+                    ButtonType.Toggle,
+                    () -> new CountingTask(tasks),
+                    new IOperation[] { affectedOperation });
+
+            MacroOperationDescription[] macroSchema = new MacroOperationDescription[this.macroSchema.length + 1];
+            System.arraycopy(this.macroSchema, 0, macroSchema, 0, this.macroSchema.length);
+            macroSchema[this.macroSchema.length] = description;
+            this.macroSchema = macroSchema;
+            this.inputBindings = new InputBindingTable(new ShiftDescription[0], new DigitalOperationDescription[0], new AnalogOperationDescription[0], this.macroSchema);
+
+            TestMacro macro = new TestMacro(new MacroOperationState(description, this.operationStateTable, null), tasks);
+            this.scheduler.setMacroState(macroOperation, macro, description);
+            return macro;
+        }
+
+        void modify(IOperation operation)
+        {
+            this.modifiedOperations[this.operationStateTable.getIndex(operation)] = true;
+        }
+
+        void update()
+        {
+            this.inputBindings.capture(this.joysticks, this.frame);
+            this.scheduler.update(this.frame, Shift.None.getValue(), true, this.modifiedOperations);
+            for (int i = 0; i < this.modifiedOperations.length; i++)
+            {
+                this.modifiedOperations[i] = false;
+            }
+        }
+    }
+
+    /**
+     * Macro state that counts how often the scheduler checks and runs it
+     */
+    private static class TestMacro implements IMacroOperationState
+    {
+        private final IMacroOperationState inner;
+        private final CountingTasks tasks;
+        private int checkInputCount;
+        private int runCount;
+
+        TestMacro(IMacroOperationState inner, CountingTasks tasks)
+        {
+            this.inner = inner;
+            this.tasks = tasks;
+        }
+
+        @Override
+        public void setIsInterrupted(boolean enable)
+        {
+            this.inner.setIsInterrupted(enable);
+        }
+
+        @Override
+        public boolean getIsInterrupted()
+        {
+            return this.inner.getIsInterrupted();
+        }
+
+        @Override
+        public boolean checkInput(InputFrame frame, int activeShifts)
+        {
+            this.checkInputCount++;
+            return this.inner.checkInput(frame, activeShifts);
+        }
+
+        @Override
+        public IOperation[] getMacroCancelOperations()
+        {
+            return this.inner.getMacroCancelOperations();
+        }
+
+        @Override
+        public IOperation[] getAffectedOperations()
+        {
+            return this.inner.getAffectedOperations();
+        }
+
+        @Override
+        public boolean getIsActive()
+        {
+            return this.inner.getIsActive();
+        }
+
+        @Override
+        public void run()
+        {
+            this.runCount++;
+            this.inner.run();
+        }
+
+        @Override
+        public void cancel()
+        {
+            this.inner.cancel();
+        }
+    }
+
+    /**
+     * Counts of the calls to every task created for a macro
+     */
+    private static class CountingTasks
+    {
+        private int beginCount;
+        private int updateCount;
+        private int stopCount;
+    }
+
+    /**
+     * Task that never completes
+     */
+    private static class CountingTask implements IControlTask
+    {
+        private final CountingTasks tasks;
+
+        CountingTask(CountingTasks tasks)
+        {
+            this.tasks = tasks;
+        }
+
+        @Override
+        public void initialize(OperationStateTable operationStateTable, Injector injector)
+        {
+        }
+
+        @Override
+        public void begin()
+        {
+            this.tasks.beginCount++;
+        }
+
+        @Override
+        public void update()
+        {
+            this.tasks.updateCount++;
+        }
+
+        @Override
+        public void stop()
+        {
+            this.tasks.stopCount++;
+        }
+
+        @Override
+        public void end()
+        {
+        }
+
+        @Override
+        public boolean hasCompleted()
+        {
+            return false;
+        }
+
+        @Override
+        public boolean shouldCancel()
+        {
+            return false;
+        }
+    }
+
+    private static class ButtonJoystick implements IJoystick
+    {
+        private int pressedButtons;
+
+        void press(UserInputDeviceButton button, boolean pressed)
+        {
+            if (pressed)
+            {
+                this.pressedButtons |= 1 << button.Value;
+            }
+            else
+            {
+                this.pressedButtons &= ~(1 << button.Value);
+            }
+        }
+
+        @Override
+        public boolean isConnected()
+        {
+            return true;
+        }
+
+        @Override
+        public double getAxis(int relevantAxis)
+        {
+            return 0.0;
+        }
+
+        @Override
+        public int getPOV()
+        {
+            return -1;
+        }
+
+        @Override
+        public boolean getRawButton(int value)
+        {
+            return (this.pressedButtons & (1 << value)) != 0;
+        }
+
+        @Override
+        public void setRumble(JoystickRumbleType type, double value)
+        {
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package frc.robot.driver.common;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import frc.robot.common.robotprovider.IJoystick;
+import frc.robot.common.robotprovider.JoystickRumbleType;
+import frc.robot.driver.ButtonMap;
+import frc.robot.driver.common.descriptions.UserInputDevice;
+
+public class InputBindingTableTests
+{
+    @Test
+    public void verifyEachInputReadOnce()
+    {
+        InputBindingTable inputBindings = new InputBindingTable(new ButtonMap());
+        InputFrame frame = new InputFrame();
+
+        CountingJoystick driver = new CountingJoystick();
+        CountingJoystick codriver = new CountingJoystick();
+        IJoystick[] joysticks = new IJoystick[UserInputDevice.MaxCount.getId()];
+        joysticks[UserInputDevice.Driver.getId()] = driver;
+        joysticks[UserInputDevice.Codriver.getId()] = codriver;
+
+        for (int cycle = 1; cycle <= 3; cycle++)
+        {
+            inputBindings.capture(joysticks, frame);
+            for (CountingJoystick joystick : new CountingJoystick[] { driver, codriver })
+            {
+                assertEquals(cycle, joystick.connectedCount);
+                assertTrue(joystick.povCount <= cycle);
+                for (int i = 0; i < joystick.axisCounts.length; i++)
+                {
+                    assertTrue(joystick.axisCounts[i] <= cycle);
+                }
+
+                for (int i = 0; i < joystick.buttonCounts.length; i++)
+                {
+                    assertTrue(joystick.buttonCounts[i] <= cycle);
+                }
+            }
+        }
+
+        // the frame holds the values that were read
+        assertTrue(frame.isConnected(UserInputDevice.Driver));
+        assertFalse(frame.isConnected(UserInputDevice.Test1));
+        assertFalse(frame.isConnected(UserInputDevice.None));
+        assertEquals(0.5, frame.getAxis(UserInputDevice.Driver, AnalogAxis.XBONE_LSY), 0.0001);
+        assertTrue(frame.getButton(UserInputDevice.Codriver, UserInputDeviceButton.XBONE_A_BUTTON));
+        assertFalse(frame.getButton(UserInputDevice.Codriver, UserInputDeviceButton.XBONE_B_BUTTON));
+
+        // disconnecting clears the device's inputs
+        codriver.connected = false;
+        inputBindings.capture(joysticks, frame);
+        assertFalse(frame.isConnected(UserInputDevice.Codriver));
+        assertFalse(frame.getButton(UserInputDevice.Codriver, UserInputDeviceButton.XBONE_A_BUTTON));
+        assertEquals(-1, frame.getPOV(UserInputDevice.Codriver));
+    }
+
+    private static class CountingJoystick implements IJoystick
+    {
+        private final int[] axisCounts = new int[8];
+        private final int[] buttonCounts = new int[32];
+        private int connectedCount;
+        private int povCount;
+        private boolean connected = true;
+
+        @Override
+        public boolean isConnected()
+        {
+            this.connectedCount++;
+            return this.connected;
+        }
+
+        @Override
+        public double getAxis(int relevantAxis)
+        {
+            this.axisCounts[relevantAxis]++;
+            return 0.5;
+        }
+
+        @Override
+        public int getPOV()
+        {
+            this.povCount++;
+            return 90;
+        }
+
+        @Override
+        public boolean getRawButton(int value)
+        {
+            this.buttonCounts[value]++;
+            return value == UserInputDeviceButton.XBONE_A_BUTTON.Value;
+        }
+
+        @Override
+        public void setRumble(JoystickRumbleType type, double value)
+        {
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package frc.robot.driver.common;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import frc.robot.TuningConstants;
+import frc.robot.common.robotprovider.*;
+import frc.robot.driver.RoadRunnerTrajectoryGenerator;
+
+public class PathCacheTests
+{
+    @Test
+    public void verifyCacheMatchesGeneratedPaths() throws IOException
+    {
+        PathManager generated = new PathManager();
+        RoadRunnerTrajectoryGenerator.generateTrajectories(generated);
+
+        long definitionHash = RoadRunnerTrajectoryGenerator.getDefinitionHash();
+        PathCache cache = new PathCache(PathCache.write(definitionHash, TuningConstants.TRAJECTORY_SAMPLE_STEP, generated));
+        assertEquals(definitionHash, cache.getDefinitionHash());
+        assertFalse(cache.containsPath("notAPath"));
+        assertNull(cache.getTrajectory("notAPath"));
+
+        for (String name : generated.getPathNames())
+        {
+            assertTrue(cache.containsPath(name), name);
+
+            ITrajectory expected = generated.getTrajectory(name);
+            ITrajectory actual = cache.getTrajectory(name);
+            assertEquals(expected.getDuration(), actual.getDuration(), 0.0, name);
+
+            // the states at the sample times only differ by the precision of the stored floats
+            for (double time = 0.0; time < expected.getDuration(); time += TuningConstants.TRAJECTORY_SAMPLE_STEP)
+            {
+                PathCacheTests.assertStateEquals(expected.get(time), actual.get(time), 1e-3, name + " at " + time);
+            }
+
+            PathCacheTests.assertStateEquals(expected.get(expected.getDuration()), actual.get(actual.getDuration() + 1.0), 1e-3, name + " at end");
+        }
+    }
+
+    @Test
+    public void verifyLoadTrajectories() throws IOException
+    {
+        PathManager generated = new PathManager();
+        RoadRunnerTrajectoryGenerator.generateTrajectories(generated);
+        String name = generated.getPathNames().iterator().next();
+
+        // a cache generated from the same definitions is used, and only decoded when a path is used...
+        PathManager cached = new PathManager();
+        RoadRunnerTrajectoryGenerator.loadTrajectories(
+            cached,
+            new CacheFile(PathCache.write(RoadRunnerTrajectoryGenerator.getDefinitionHash(), TuningConstants.TRAJECTORY_SAMPLE_STEP, generated)),
+            new NullLogger());
+        assertTrue(cached.getPathNames().isEmpty());
+        assertTrue(cached.getTrajectory(name) instanceof SampledTrajectory);
+        assertEquals(1, cached.getPathNames().size());
+
+        // ...but paths are generated when the cache is out of date or can't be read
+        PathManager outOfDate = new PathManager();
+        RoadRunnerTrajectoryGenerator.loadTrajectories(
+            outOfDate,
+            new CacheFile(PathCache.write(RoadRunnerTrajectoryGenerator.getDefinitionHash() + 1, TuningConstants.TRAJECTORY_SAMPLE_STEP, generated)),
+            new NullLogger());
+        assertEquals(generated.getPathNames(), outOfDate.getPathNames());
+        assertTrue(outOfDate.getTrajectory(name) instanceof SampledTrajectory);
+
+        PathManager unreadable = new PathManager();
+        RoadRunnerTrajectoryGenerator.loadTrajectories(unreadable, new CacheFile(ByteBuffer.allocate(0)), new NullLogger());
+        assertEquals(generated.getPathNames(), unreadable.getPathNames());
+    }
+
+    @Test
+    public void verifyAngleInterpolation()
+    {
+        // x, y, angle, x velocity, y velocity, angle velocity
+        SampledTrajectory trajectory = new SampledTrajectory(
+            0.02,
+            0.01,
+            new double[]
+            {
+                0.0, 0.0, 350.0, 10.0, 0.0, 0.0,
+                1.0, 2.0, 10.0, 20.0, 0.0, 0.0,
+                2.0, 4.0, 20.0, 30.0, 0.0, 0.0,
+            });
+
+        TrajectoryState state = trajectory.get(0.0025);
+        assertEquals(0.25, state.xPosition, 1e-9);
+        assertEquals(0.5, state.yPosition, 1e-9);
+        assertEquals(355.0, state.angle, 1e-9);
+        assertEquals(12.5, state.xVelocity, 1e-9);
+
+        // interpolates the short way around (continuous with the nearer sample)
+        assertEquals(365.0 - 360.0, trajectory.get(0.0075).angle, 1e-9);
+        assertEquals(15.0, trajectory.get(0.015).angle, 1e-9);
+        assertEquals(350.0, trajectory.get(-1.0).angle, 1e-9);
+        assertEquals(20.0, trajectory.get(1.0).angle, 1e-9);
+
+        // filling in a caller's state gives the same values
+        trajectory.get(0.0025, state);
+        PathCacheTests.assertStateEquals(trajectory.get(0.0025), state, 0.0, "filled state");
+        trajectory.get(0.0175, state);
+        PathCacheTests.assertStateEquals(trajectory.get(0.0175), state, 0.0, "refilled state");
+    }
+
+    private static void assertStateEquals(TrajectoryState expected, TrajectoryState actual, double relativeDelta, String message)
+    {
+        assertEquals(expected.xPosition, actual.xPosition, relativeDelta * Math.max(1.0, Math.abs(expected.xPosition)), message);
+        assertEquals(expected.yPosition, actual.yPosition, relativeDelta * Math.max(1.0, Math.abs(expected.yPosition)), message);
+        assertEquals(expected.angle, actual.angle, relativeDelta * Math.max(1.0, Math.abs(expected.angle)), message);
+        assertEquals(expected.xVelocity, actual.xVelocity, relativeDelta * Math.max(1.0, Math.abs(expected.xVelocity)), message);
+        assertEquals(expected.yVelocity, actual.yVelocity, relativeDelta * Math.max(1.0, Math.abs(expected.yVelocity)), message);
+        assertEquals(expected.angleVelocity, actual.angleVelocity, relativeDelta * Math.max(1.0, Math.abs(expected.angleVelocity)), message);
+    }
+
+    /**
+     * File that contains a path cache
+     */
+    private static class CacheFile implements IFile
+    {
+        private final ByteBuffer contents;
+
+        CacheFile(ByteBuffer contents)
+        {
+            this.contents = contents;
+        }
+
+        @Override
+        public void open(String fileName)
+        {
+        }
+
+        @Override
+        public boolean exists()
+        {
+            return true;
+        }
+
+        @Override
+        public long getFreeSpace()
+        {
+            return 0L;
+        }
+
+        @Override
+        public void mkdir()
+        {
+        }
+
+        @Override
+        public IFileWriter openWriter() throws IOException
+        {
+            throw new IOException("read-only");
+        }
+
+        @Override
+        public IBinaryFileWriter openBinaryWriter() throws IOException
+        {
+            throw new IOException("read-only");
+        }
+
+        @Override
+        public List<String> readAllLines() throws IOException
+        {
+            throw new IOException("not text");
+        }
+
+        @Override
+        public ByteBuffer openMemoryMapped(long size) throws IOException
+        {
+            throw new IOException("read-only");
+        }
+
+        @Override
+        public ByteBuffer openReadOnlyMemoryMapped() throws IOException
+        {
+            return this.contents.asReadOnlyBuffer();
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package frc.robot.driver.common.states;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import frc.robot.common.robotprovider.IJoystick;
+import frc.robot.common.robotprovider.JoystickRumbleType;
+import frc.robot.driver.AnalogOperation;
+import frc.robot.driver.DigitalOperation;
+import frc.robot.driver.Shift;
+import frc.robot.driver.common.InputBindingTable;
+import frc.robot.driver.common.InputFrame;
+import frc.robot.driver.common.UserInputDeviceButton;
+import frc.robot.driver.common.buttons.ButtonType;
+import frc.robot.driver.common.descriptions.AnalogOperationDescription;
+import frc.robot.driver.common.descriptions.DigitalOperationDescription;
+import frc.robot.driver.common.descriptions.MacroOperationDescription;
+import frc.robot.driver.common.descriptions.ShiftDescription;
+import frc.robot.driver.common.descriptions.UserInputDevice;
+
+public class OperationStateTableTests
+{
+    @Test
+    public void verifyInterruptedValues()
+    {
+        DigitalOperationDescription[] digitalOperationSchema =
+            new DigitalOperationDescription[]
+            {
+                new DigitalOperationDescription(
+                    DigitalOperation.DriveTrainReset,
+                    UserInputDevice.Driver,
+                    UserInputDeviceButton.XBONE_A_BUTTON,
+                    ButtonType.Simple),
+            };
+
+        AnalogOperationDescription[] analogOperationSchema =
+            new AnalogOperationDescription[]
+            {
+                new AnalogOperationDescription(AnalogOperation.DriveTrainTurnAngleGoal, 0.5),
+            };
+
+        OperationStateTable table = new OperationStateTable(digitalOperationSchema, analogOperationSchema);
+        InputBindingTable inputBindings =
+            new InputBindingTable(new ShiftDescription[0], digitalOperationSchema, analogOperationSchema, new MacroOperationDescription[0]);
+        InputFrame frame = new InputFrame();
+
+        PressedJoystick joystick = new PressedJoystick();
+        IJoystick[] joysticks = new IJoystick[UserInputDevice.MaxCount.getId()];
+        joysticks[UserInputDevice.Driver.getId()] = joystick;
+
+        // operations without a description use the defaults
+        assertFalse(table.getDigital(DigitalOperation.PositionResetFieldOrientation));
+        assertEquals(0.0, table.getAnalog(AnalogOperation.DriveTrainMoveForward), 0.0001);
+        assertEquals(0.5, table.getAnalog(AnalogOperation.DriveTrainTurnAngleGoal), 0.0001);
+
+        inputBindings.capture(joysticks, frame);
+        assertTrue(table.getDigitalState(DigitalOperation.DriveTrainReset).checkInput(frame, Shift.None.getValue()));
+        assertTrue(table.getDigital(DigitalOperation.DriveTrainReset));
+
+        // interrupting hides the user input until the interrupt is cleared
+        table.setIsInterrupted(DigitalOperation.DriveTrainReset, true);
+        table.setIsInterrupted(AnalogOperation.DriveTrainTurnAngleGoal, true);
+        assertFalse(table.getDigital(DigitalOperation.DriveTrainReset));
+        assertEquals(0.5, table.getAnalog(AnalogOperation.DriveTrainTurnAngleGoal), 0.0001);
+
+        table.getDigitalState(DigitalOperation.DriveTrainReset).setInterruptState(true);
+        table.getAnalogState(AnalogOperation.DriveTrainTurnAngleGoal).setInterruptState(90.0);
+        joystick.pressed = false;
+        inputBindings.capture(joysticks, frame);
+        table.getDigitalState(DigitalOperation.DriveTrainReset).checkInput(frame, Shift.None.getValue());
+        assertTrue(table.getDigital(DigitalOperation.DriveTrainReset));
+        assertEquals(90.0, table.getAnalog(AnalogOperation.DriveTrainTurnAngleGoal), 0.0001);
+        assertTrue(table.getState(DigitalOperation.DriveTrainReset).getIsInterrupted());
+
+        table.setIsInterrupted(DigitalOperation.DriveTrainReset, false);
+        table.setIsInterrupted(AnalogOperation.DriveTrainTurnAngleGoal, false);
+        assertFalse(table.getDigital(DigitalOperation.DriveTrainReset));
+        assertEquals(0.5, table.getAnalog(AnalogOperation.DriveTrainTurnAngleGoal), 0.0001);
+
+        // the interrupt value is reset once the interrupt is cleared
+        table.setIsInterrupted(AnalogOperation.DriveTrainTurnAngleGoal, true);
+        assertEquals(0.5, table.getAnalog(AnalogOperation.DriveTrainTurnAngleGoal), 0.0001);
+    }
+
+    @Test
+    public void verifyShiftMasks()
+    {
+        DigitalOperationDescription[] digitalOperationSchema =
+            new DigitalOperationDescription[]
+            {
+                new DigitalOperationDescription(
+                    DigitalOperation.DriveTrainReset,
+                    UserInputDevice.Driver,
+                    UserInputDeviceButton.XBONE_A_BUTTON,
+                    Shift.Union(Shift.DriverDebug, Shift.CodriverDebug),
+                    Shift.DriverDebug,
+                    ButtonType.Simple),
+            };
+
+        OperationStateTable table = new OperationStateTable(digitalOperationSchema, new AnalogOperationDescription[0]);
+        InputBindingTable inputBindings =
+            new InputBindingTable(new ShiftDescription[0], digitalOperationSchema, new AnalogOperationDescription[0], new MacroOperationDescription[0]);
+        InputFrame frame = new InputFrame();
+
+        IJoystick[] joysticks = new IJoystick[UserInputDevice.MaxCount.getId()];
+        joysticks[UserInputDevice.Driver.getId()] = new PressedJoystick();
+        inputBindings.capture(joysticks, frame);
+
+        DigitalOperationState state = table.getDigitalState(DigitalOperation.DriveTrainReset);
+        assertFalse(state.checkInput(frame, Shift.None.getValue()));
+        assertTrue(state.checkInput(frame, Shift.DriverDebug.getValue()));
+
+        // shifts that aren't relevant are ignored, relevant shifts that aren't required block the input
+        assertTrue(state.checkInput(frame, Shift.Union(Shift.DriverDebug, Shift.Test1Debug).getValue()));
+        assertFalse(state.checkInput(frame, Shift.Union(Shift.DriverDebug, Shift.CodriverDebug).getValue()));
+        assertFalse(table.getDigital(DigitalOperation.DriveTrainReset));
+    }
+
+    private static class PressedJoystick implements IJoystick
+    {
+        private boolean pressed = true;
+
+        @Override
+        public boolean isConnected()
+        {
+            return true;
+        }
+
+        @Override
+        public double getAxis(int relevantAxis)
+        {
+            return 0.0;
+        }
+
+        @Override
+        public int getPOV()
+        {
+            return -1;
+        }
+
+        @Override
+        public boolean getRawButton(int value)
+        {
+            return this.pressed;
+        }
+
+        @Override
+        public void setRumble(JoystickRumbleType type, double value)
+        {
+        }
+    }
+}
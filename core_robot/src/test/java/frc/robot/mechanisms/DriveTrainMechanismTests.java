@@ -1,10 +1,16 @@
 package frc.robot.mechanisms;
 
 import frc.robot.HardwareConstants;
+import frc.robot.LoggingKey;
 import frc.robot.TestProvider;
 import frc.robot.TuningConstants;
+import frc.robot.common.Controller;
+import frc.robot.common.ControllerManager;
 import frc.robot.common.Helpers;
 import frc.robot.common.LoggingManager;
+import frc.robot.common.PIDControlLaw;
+import frc.robot.common.robotprovider.ILogger;
+import frc.robot.common.robotprovider.IPoint;
 import frc.robot.common.robotprovider.IPigeon2;
 import frc.robot.common.robotprovider.ITalonFX;
 import frc.robot.common.robotprovider.ITalonSRX;
@@ -25,8 +31,9 @@ import frc.robot.driver.common.IDriver;
 import frc.robot.driver.common.descriptions.UserInputDevice;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
-// import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Test;
 
 public class DriveTrainMechanismTests
 {
@@ -72,12 +79,14 @@ public class DriveTrainMechanismTests
         LoggingManager logger = new LoggingManager(new NullLogger());
         PigeonManager pigeonManager = new PigeonManager(driver, logger, provider);
         PowerManager powerManager = new PowerManager(driver, timer, logger, provider);
+        ControllerManager controllerManager = new ControllerManager(logger, timer);
         DriveTrainMechanism driveTrain = new DriveTrainMechanism(
             driver,
             logger,
             provider,
             pigeonManager,
             powerManager,
+            controllerManager,
             timer);
 
         for (int timestep = 0; timestep < 10; timestep++)
@@ -117,12 +126,14 @@ public class DriveTrainMechanismTests
         LoggingManager logger = new LoggingManager(new NullLogger());
         PigeonManager pigeonManager = new PigeonManager(driver, logger, provider);
         PowerManager powerManager = new PowerManager(driver, timer, logger, provider);
+        ControllerManager controllerManager = new ControllerManager(logger, timer);
         DriveTrainMechanism driveTrain = new DriveTrainMechanism(
             driver,
             logger,
             provider,
             pigeonManager,
             powerManager,
+            controllerManager,
             timer);
 
         for (int timestep = 0; timestep < 50; timestep++)
@@ -168,12 +179,14 @@ public class DriveTrainMechanismTests
         LoggingManager logger = new LoggingManager(new NullLogger());
         PigeonManager pigeonManager = new PigeonManager(driver, logger, provider);
         PowerManager powerManager = new PowerManager(driver, timer, logger, provider);
+        ControllerManager controllerManager = new ControllerManager(logger, timer);
         DriveTrainMechanism driveTrain = new DriveTrainMechanism(
             driver,
             logger,
             provider,
             pigeonManager,
             powerManager,
+            controllerManager,
             timer);
 
         for (int timestep = 0; timestep < 50; timestep++)
@@ -220,12 +233,14 @@ public class DriveTrainMechanismTests
         LoggingManager logger = new LoggingManager(new NullLogger());
         PigeonManager pigeonManager = new PigeonManager(driver, logger, provider);
         PowerManager powerManager = new PowerManager(driver, timer, logger, provider);
+        ControllerManager controllerManager = new ControllerManager(logger, timer);
         DriveTrainMechanism driveTrain = new DriveTrainMechanism(
             driver,
             logger,
             provider,
             pigeonManager,
             powerManager,
+            controllerManager,
             timer);
 
         for (int timestep = 0; timestep < 50; timestep++)
@@ -273,12 +288,14 @@ public class DriveTrainMechanismTests
         LoggingManager logger = new LoggingManager(new NullLogger());
         PigeonManager pigeonManager = new PigeonManager(driver, logger, provider);
         PowerManager powerManager = new PowerManager(driver, timer, logger, provider);
+        ControllerManager controllerManager = new ControllerManager(logger, timer);
         DriveTrainMechanism driveTrain = new DriveTrainMechanism(
             driver,
             logger,
             provider,
             pigeonManager,
             powerManager,
+            controllerManager,
             timer);
 
         for (int timestep = 0; timestep < 50; timestep++)
@@ -325,12 +342,14 @@ public class DriveTrainMechanismTests
         LoggingManager logger = new LoggingManager(new NullLogger());
         PigeonManager pigeonManager = new PigeonManager(driver, logger, provider);
         PowerManager powerManager = new PowerManager(driver, timer, logger, provider);
+        ControllerManager controllerManager = new ControllerManager(logger, timer);
         DriveTrainMechanism driveTrain = new DriveTrainMechanism(
             driver,
             logger,
             provider,
             pigeonManager,
             powerManager,
+            controllerManager,
             timer);
 
         double robotVelocityRight = 0.0;
@@ -365,6 +384,194 @@ public class DriveTrainMechanismTests
         assertEquals(0.0, pose.y, 0.5);
     }
 
+    @Test
+    public void testControllers()
+    {
+        TestProvider provider = new TestProvider();
+
+        MockTimer timer = new MockTimer();
+        MockPigeon2 pigeon = new MockPigeon2();
+        provider.setPigeon2(pigeon);
+
+        for (int i = 0; i < 4; i++)
+        {
+            provider.setTalonFX(2 * i + 1, new MockTalonFX(2 * i + 1));
+            provider.setTalonFX(2 * i + 2, new MockTalonFX(2 * i + 2));
+        }
+
+        MockDriver driver = new MockDriver();
+        RecordingLogger recordingLogger = new RecordingLogger();
+        LoggingManager logger = new LoggingManager(recordingLogger);
+        PigeonManager pigeonManager = new PigeonManager(driver, logger, provider);
+        PowerManager powerManager = new PowerManager(driver, timer, logger, provider);
+        ControllerManager controllerManager = new ControllerManager(logger, timer);
+        DriveTrainMechanism driveTrain = new DriveTrainMechanism(
+            driver,
+            logger,
+            provider,
+            pigeonManager,
+            powerManager,
+            controllerManager,
+            timer);
+
+        assertEquals(4, controllerManager.getControllerCount());
+
+        // the same laws, evaluated separately from the same timer, to compare against
+        ControllerManager expectedManager = new ControllerManager(new LoggingManager(new NullLogger()), timer);
+        Controller expectedPathOmega = expectedManager.register(
+            new PIDControlLaw(
+                TuningConstants.DRIVETRAIN_PATH_OMEGA_POSITION_PID_KP,
+                TuningConstants.DRIVETRAIN_PATH_OMEGA_POSITION_PID_KI,
+                TuningConstants.DRIVETRAIN_PATH_OMEGA_POSITION_PID_KD,
+                TuningConstants.DRIVETRAIN_PATH_OMEGA_POSITION_PID_KF,
+                TuningConstants.DRIVETRAIN_PATH_OMEGA_POSITION_PID_KS,
+                TuningConstants.DRIVETRAIN_PATH_OMEGA_MIN_OUTPUT,
+                TuningConstants.DRIVETRAIN_PATH_OMEGA_MAX_OUTPUT));
+        Controller expectedPathX = expectedManager.register(
+            new PIDControlLaw(
+                TuningConstants.DRIVETRAIN_PATH_X_POSITION_PID_KP,
+                TuningConstants.DRIVETRAIN_PATH_X_POSITION_PID_KI,
+                TuningConstants.DRIVETRAIN_PATH_X_POSITION_PID_KD,
+                TuningConstants.DRIVETRAIN_PATH_X_POSITION_PID_KF,
+                TuningConstants.DRIVETRAIN_PATH_X_POSITION_PID_KS,
+                TuningConstants.DRIVETRAIN_PATH_X_MIN_OUTPUT,
+                TuningConstants.DRIVETRAIN_PATH_X_MAX_OUTPUT));
+        Controller expectedOmega = expectedManager.register(
+            new PIDControlLaw(
+                TuningConstants.DRIVETRAIN_OMEGA_POSITION_PID_KP,
+                TuningConstants.DRIVETRAIN_OMEGA_POSITION_PID_KI,
+                TuningConstants.DRIVETRAIN_OMEGA_POSITION_PID_KD,
+                TuningConstants.DRIVETRAIN_OMEGA_POSITION_PID_KF,
+                TuningConstants.DRIVETRAIN_OMEGA_POSITION_PID_KS,
+                TuningConstants.DRIVETRAIN_OMEGA_MIN_OUTPUT,
+                TuningConstants.DRIVETRAIN_OMEGA_MAX_OUTPUT));
+
+        // follow a path that is 10 degrees off of where the robot is facing, and 12 inches ahead of it
+        pigeon.set(10.0);
+        driver.setDigital(DigitalOperation.DriveTrainPathMode, true);
+        driver.setAnalog(AnalogOperation.DriveTrainPathXGoal, 12.0);
+        for (int timestep = 0; timestep < 25; timestep++)
+        {
+            controllerManager.readSensors();
+            expectedManager.readSensors();
+            pigeonManager.readSensors();
+            driveTrain.readSensors();
+            driveTrain.update();
+            controllerManager.update();
+
+            Pose2d pose = driveTrain.getPose();
+            assertEquals(expectedPathOmega.calculate(0.0, 10.0), recordingLogger.getNumber(LoggingKey.DriveTrainPathOmegaOutput), 0.0);
+            assertEquals(expectedPathX.calculate(12.0, pose.x), recordingLogger.getNumber(LoggingKey.DriveTrainPathXOffsetOutput), 0.0);
+            if (timestep == 0)
+            {
+                // no time has passed since the controllers were registered
+                assertEquals(0.0, recordingLogger.getNumber(LoggingKey.DriveTrainPathOmegaOutput), 0.0);
+            }
+            else
+            {
+                assertTrue(recordingLogger.getNumber(LoggingKey.DriveTrainPathOmegaOutput) < 0.0);
+            }
+
+            timer.increment(0.02);
+        }
+
+        // maintain the orientation from the path (facing 0 degrees) when driving normally
+        driver.setDigital(DigitalOperation.DriveTrainPathMode, false);
+        for (int timestep = 0; timestep < 25; timestep++)
+        {
+            controllerManager.readSensors();
+            expectedManager.readSensors();
+            pigeonManager.readSensors();
+            driveTrain.readSensors();
+            driveTrain.update();
+            controllerManager.update();
+
+            assertEquals(expectedOmega.calculate(0.0, 10.0), recordingLogger.getNumber(LoggingKey.DriveTrainOmegaOutput), 0.0);
+            timer.increment(0.02);
+        }
+
+        assertTrue(recordingLogger.getNumber(LoggingKey.DriveTrainOmegaOutput) < 0.0);
+
+        // once stopped, the controllers start over
+        controllerManager.stop();
+        driveTrain.stop();
+        controllerManager.readSensors();
+        pigeonManager.readSensors();
+        driveTrain.readSensors();
+        driveTrain.update();
+        assertEquals(0.0, recordingLogger.getNumber(LoggingKey.DriveTrainOmegaOutput), 0.0);
+    }
+
+    private class RecordingLogger implements ILogger
+    {
+        private final double[] numbers = new double[LoggingKey.values().length];
+
+        public double getNumber(LoggingKey key)
+        {
+            return this.numbers[key.ordinal()];
+        }
+
+        @Override
+        public void logBoolean(LoggingKey key, boolean value)
+        {
+        }
+
+        @Override
+        public void logBooleanArray(LoggingKey key, boolean[] value)
+        {
+        }
+
+        @Override
+        public void logNumber(LoggingKey key, double value)
+        {
+            this.numbers[key.ordinal()] = value;
+        }
+
+        @Override
+        public void logNumber(LoggingKey key, Double value)
+        {
+            if (value != null)
+            {
+                this.numbers[key.ordinal()] = value;
+            }
+        }
+
+        @Override
+        public void logInteger(LoggingKey key, int value)
+        {
+        }
+
+        @Override
+        public void logInteger(LoggingKey key, int value, String formatString)
+        {
+        }
+
+        @Override
+        public void logPoint(LoggingKey key, IPoint value)
+        {
+        }
+
+        @Override
+        public void logString(LoggingKey key, String value)
+        {
+        }
+
+        @Override
+        public void update()
+        {
+        }
+
+        @Override
+        public void flush()
+        {
+        }
+
+        @Override
+        public void close()
+        {
+        }
+    }
+
     private class MockTimer implements ITimer
     {
         private double currentTime;
@@ -602,6 +809,18 @@ public class DriveTrainMechanismTests
     private class MockDriver implements IDriver
     {
         private RobotMode currentMode = RobotMode.Teleop;
+        private final boolean[] digitals = new boolean[DigitalOperation.values().length];
+        private final double[] analogs = new double[AnalogOperation.values().length];
+
+        public void setDigital(DigitalOperation digitalOperation, boolean value)
+        {
+            this.digitals[digitalOperation.ordinal()] = value;
+        }
+
+        public void setAnalog(AnalogOperation analogOperation, double value)
+        {
+            this.analogs[analogOperation.ordinal()] = value;
+        }
 
         @Override
         public RobotMode getMode()
@@ -628,13 +847,13 @@ public class DriveTrainMechanismTests
         @Override
         public boolean getDigital(DigitalOperation digitalOperation)
         {
-            return false;
+            return this.digitals[digitalOperation.ordinal()];
         }
 
         @Override
         public double getAnalog(AnalogOperation analogOperation)
         {
-            return 0.0;
+            return this.analogs[analogOperation.ordinal()];
         }
 
         @Override
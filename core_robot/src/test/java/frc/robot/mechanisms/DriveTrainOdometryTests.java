@@ -0,0 +1,131 @@
+package frc.robot.mechanisms;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+
+import org.junit.jupiter.api.Test;
+
+import frc.robot.HardwareConstants;
+import frc.robot.common.Helpers;
+import frc.robot.common.SwerveKinematics;
+import frc.robot.common.robotprovider.ITalonFX;
+import frc.robot.common.robotprovider.ITimer;
+import frc.robot.common.robotprovider.Pose2d;
+
+public class DriveTrainOdometryTests
+{
+    @Test
+    public void checkArcIntegration()
+    {
+        DriveTrainOdometry odometry = DriveTrainOdometryTests.createOdometry();
+
+        // drive forward at 60 in/s while turning counter-clockwise at 90 deg/s, which is a circle with a radius of 120/pi
+        double velocity = 60.0;
+        double turnRate = 90.0;
+        double[] driveVelocities = new double[4];
+        double[] steerAngles = new double[4];
+        for (int i = 0; i < 4; i++)
+        {
+            driveVelocities[i] = velocity / HardwareConstants.DRIVETRAIN_DRIVE_MOTOR_VELOCITY_TO_INCHES_PER_SECOND;
+        }
+
+        // with samples far apart (20ms), the pose stays on the circle
+        Pose2d pose = new Pose2d(0.0, 0.0, 0.0);
+        double radius = velocity / (turnRate * Helpers.DEGREES_TO_RADIANS);
+        for (int step = 0; step <= 100; step++)
+        {
+            double time = step * 0.02;
+            odometry.integrate(time, turnRate * time, driveVelocities, steerAngles);
+
+            assertEquals(time, odometry.getPose(pose), 0.0);
+            assertEquals(radius * Helpers.sind(turnRate * time), pose.x, 1e-9);
+            assertEquals(radius * (1.0 - Helpers.cosd(turnRate * time)), pose.y, 1e-9);
+            assertEquals(turnRate * time, pose.angle, 0.0);
+        }
+
+        // a reset is applied the next time that the pose is integrated, without treating the IMU's jump as turning
+        odometry.resetPosition(10.0, 20.0);
+        odometry.resetAngle(0.0);
+        odometry.integrate(2.02, 0.0, new double[4], steerAngles);
+        odometry.getPose(pose);
+        assertEquals(10.0, pose.x, 0.0);
+        assertEquals(20.0, pose.y, 0.0);
+        assertEquals(0.0, odometry.getIntegratedAngle(), 0.0);
+    }
+
+    @Test
+    public void checkStrafe()
+    {
+        DriveTrainOdometry odometry = DriveTrainOdometryTests.createOdometry();
+
+        // strafe right (modules steered to -90 degrees) while facing 90 degrees, which moves along the field's x axis
+        double[] driveVelocities = new double[4];
+        double[] steerAngles = new double[4];
+        for (int i = 0; i < 4; i++)
+        {
+            driveVelocities[i] = 30.0 / HardwareConstants.DRIVETRAIN_DRIVE_MOTOR_VELOCITY_TO_INCHES_PER_SECOND;
+            steerAngles[i] = -90.0;
+        }
+
+        Pose2d pose = new Pose2d(0.0, 0.0, 0.0);
+        for (int step = 0; step <= 50; step++)
+        {
+            odometry.integrate(step * 0.005, 90.0, driveVelocities, steerAngles);
+        }
+
+        odometry.getPose(pose);
+        assertEquals(7.5, pose.x, 1e-9);
+        assertEquals(0.0, pose.y, 1e-9);
+        assertEquals(0.0, odometry.getIntegratedAngle(), 1e-9);
+    }
+
+    @Test
+    public void checkIntegratesOnRobotThreadUntilStarted()
+    {
+        // with a period, the odometry doesn't start its thread until asked to, so the robot thread integrates (as in replays)
+        DriveTrainOdometry odometry = DriveTrainOdometryTests.createOdometry(5000000L);
+
+        double[] driveVelocities = new double[4];
+        double[] steerAngles = new double[4];
+        for (int i = 0; i < 4; i++)
+        {
+            driveVelocities[i] = 30.0 / HardwareConstants.DRIVETRAIN_DRIVE_MOTOR_VELOCITY_TO_INCHES_PER_SECOND;
+        }
+
+        Pose2d pose = new Pose2d(0.0, 0.0, 0.0);
+        for (int step = 0; step <= 50; step++)
+        {
+            odometry.update(step * 0.02, 0.0, driveVelocities, steerAngles);
+        }
+
+        assertEquals(1.0, odometry.getPose(pose), 0.0);
+        assertEquals(30.0, pose.x, 1e-9);
+
+        // stopping when it was never started does nothing
+        odometry.stop();
+        odometry.update(1.02, 0.0, driveVelocities, steerAngles);
+        assertEquals(1.02, odometry.getPose(pose), 0.0);
+    }
+
+    private static DriveTrainOdometry createOdometry()
+    {
+        return DriveTrainOdometryTests.createOdometry(0L);
+    }
+
+    private static DriveTrainOdometry createOdometry(long periodNanos)
+    {
+        // the motors and IMU are only sampled on the odometry thread
+        ITalonFX[] motors = new ITalonFX[4];
+        return new DriveTrainOdometry(
+            motors,
+            motors,
+            null,
+            mock(ITimer.class),
+            new SwerveKinematics(
+                new double[] { -10.0, 10.0, 10.0, -10.0 },
+                new double[] { -12.0, -12.0, 12.0, 12.0 },
+                1000.0,
+                -1.0),
+            periodNanos);
+    }
+}
@@ -0,0 +1,241 @@
+package frc.robot.mechanisms;
+
+import frc.robot.TestProvider;
+import frc.robot.TuningConstants;
+import frc.robot.common.ControllerManager;
+import frc.robot.common.LoggingManager;
+import frc.robot.common.PoseHistory;
+import frc.robot.common.robotprovider.INetworkTableEntry;
+import frc.robot.common.robotprovider.INetworkTableProvider;
+import frc.robot.common.robotprovider.IPigeon2;
+import frc.robot.common.robotprovider.ISendableChooser;
+import frc.robot.common.robotprovider.ITimer;
+import frc.robot.common.robotprovider.NullLogger;
+import frc.robot.driver.common.IDriver;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+import java.util.HashMap;
+
+import org.junit.jupiter.api.Test;
+
+public class OffboardVisionManagerTests
+{
+    @Test
+    public void testCaptureTime()
+    {
+        MockNetworkTableProvider networkTable = new MockNetworkTableProvider();
+        DriveTrainMechanism driveTrain = OffboardVisionManagerTests.createDriveTrain();
+        OffboardVisionManager visionManager = OffboardVisionManagerTests.createVisionManager(networkTable, driveTrain);
+
+        // no frame has arrived yet
+        assertTrue(Double.isNaN(visionManager.getVisionCaptureTime()));
+
+        PoseHistory poseHistory = driveTrain.getPoseHistory();
+        poseHistory.add(0.5, 0.0, 0.0, 0.0);
+        poseHistory.add(1.0, 0.0, 0.0, 0.0);
+
+        networkTable.set("v.heartbeat", 1.0);
+        visionManager.readSensors();
+        assertEquals(1.0 - TuningConstants.VISION_CAPTURE_LATENCY, visionManager.getVisionCaptureTime(), 1e-9);
+
+        // the heartbeat hasn't changed, so it's still the same frame
+        poseHistory.add(1.02, 0.0, 0.0, 0.0);
+        visionManager.readSensors();
+        assertEquals(1.0 - TuningConstants.VISION_CAPTURE_LATENCY, visionManager.getVisionCaptureTime(), 1e-9);
+
+        networkTable.set("v.heartbeat", 2.0);
+        visionManager.readSensors();
+        assertEquals(1.02 - TuningConstants.VISION_CAPTURE_LATENCY, visionManager.getVisionCaptureTime(), 1e-9);
+    }
+
+    @Test
+    public void testProjectMovedForward()
+    {
+        if (!TuningConstants.VISION_LATENCY_COMPENSATION)
+        {
+            return;
+        }
+
+        MockNetworkTableProvider networkTable = new MockNetworkTableProvider();
+        DriveTrainMechanism driveTrain = OffboardVisionManagerTests.createDriveTrain();
+        OffboardVisionManager visionManager = OffboardVisionManagerTests.createVisionManager(networkTable, driveTrain);
+
+        // driving forward (along the x axis) at 50 inches per second
+        PoseHistory poseHistory = driveTrain.getPoseHistory();
+        for (int i = 25; i <= 50; i++)
+        {
+            double time = i * 0.02;
+            poseHistory.add(time, 50.0 * time, 0.0, 0.0);
+        }
+
+        // the target was 100 inches away and 30 degrees to the left when the frame was captured
+        networkTable.set("v.heartbeat", 1.0);
+        networkTable.set("v.distance", 100.0);
+        networkTable.set("v.horizontalAngle", -30.0);
+        networkTable.set("g.distance", -1.0);
+        visionManager.readSensors();
+
+        double captureX = 50.0 * (1.0 - TuningConstants.VISION_CAPTURE_LATENCY);
+        double targetX = captureX + 100.0 * Math.cos(Math.toRadians(30.0));
+        double targetY = 100.0 * Math.sin(Math.toRadians(30.0));
+        double offsetX = targetX - 50.0;
+        double offsetY = targetY;
+
+        // closer, and further to the left
+        assertEquals(Math.sqrt(offsetX * offsetX + offsetY * offsetY), visionManager.getVisionTargetDistance(), 1e-6);
+        assertEquals(-Math.toDegrees(Math.atan2(offsetY, offsetX)), visionManager.getVisionTargetHorizontalAngle(), 1e-6);
+        assertEquals(100.0, visionManager.getRawVisionTargetDistance(), 1e-9);
+        assertEquals(-30.0, visionManager.getRawVisionTargetHorizontalAngle(), 1e-9);
+        assertNull(visionManager.getGamePieceDistance());
+        assertNull(visionManager.getGamePieceHorizontalAngle());
+    }
+
+    @Test
+    public void testProjectTurned()
+    {
+        if (!TuningConstants.VISION_LATENCY_COMPENSATION)
+        {
+            return;
+        }
+
+        MockNetworkTableProvider networkTable = new MockNetworkTableProvider();
+        DriveTrainMechanism driveTrain = OffboardVisionManagerTests.createDriveTrain();
+        OffboardVisionManager visionManager = OffboardVisionManagerTests.createVisionManager(networkTable, driveTrain);
+
+        // turned 10 degrees counter-clockwise in place after the frame was captured
+        PoseHistory poseHistory = driveTrain.getPoseHistory();
+        poseHistory.add(0.5, 0.0, 0.0, 0.0);
+        poseHistory.add(1.0 - TuningConstants.VISION_CAPTURE_LATENCY, 0.0, 0.0, 0.0);
+        poseHistory.add(1.0, 0.0, 0.0, 10.0);
+
+        networkTable.set("v.heartbeat", 1.0);
+        networkTable.set("v.distance", 100.0);
+        networkTable.set("v.horizontalAngle", -30.0);
+        networkTable.set("g.distance", 50.0);
+        networkTable.set("g.horizontalAngle", 5.0);
+        visionManager.readSensors();
+
+        // a target to the left is now 10 degrees less to the left, and a target to the right is 10 degrees more to the right
+        assertEquals(100.0, visionManager.getVisionTargetDistance(), 1e-6);
+        assertEquals(-20.0, visionManager.getVisionTargetHorizontalAngle(), 1e-6);
+        assertEquals(50.0, visionManager.getGamePieceDistance(), 1e-6);
+        assertEquals(15.0, visionManager.getGamePieceHorizontalAngle(), 1e-6);
+    }
+
+    @Test
+    public void testFrameOlderThanPoseHistory()
+    {
+        if (!TuningConstants.VISION_LATENCY_COMPENSATION)
+        {
+            return;
+        }
+
+        MockNetworkTableProvider networkTable = new MockNetworkTableProvider();
+        DriveTrainMechanism driveTrain = OffboardVisionManagerTests.createDriveTrain();
+        OffboardVisionManager visionManager = OffboardVisionManagerTests.createVisionManager(networkTable, driveTrain);
+
+        // the history starts after the frame was captured
+        PoseHistory poseHistory = driveTrain.getPoseHistory();
+        poseHistory.add(0.98, 0.0, 0.0, 0.0);
+        poseHistory.add(1.0, 1.0, 0.0, 0.0);
+
+        networkTable.set("v.heartbeat", 1.0);
+        networkTable.set("v.distance", 100.0);
+        networkTable.set("v.horizontalAngle", -30.0);
+        networkTable.set("g.distance", 50.0);
+        networkTable.set("g.horizontalAngle", 5.0);
+        visionManager.readSensors();
+
+        assertNull(visionManager.getVisionTargetDistance());
+        assertNull(visionManager.getVisionTargetHorizontalAngle());
+        assertNull(visionManager.getGamePieceDistance());
+        assertNull(visionManager.getGamePieceHorizontalAngle());
+
+        // the results as of when the frame was captured are still available
+        assertNotNull(visionManager.getRawVisionTargetDistance());
+        assertEquals(100.0, visionManager.getRawVisionTargetDistance(), 1e-9);
+        assertEquals(-30.0, visionManager.getRawVisionTargetHorizontalAngle(), 1e-9);
+    }
+
+    private static DriveTrainMechanism createDriveTrain()
+    {
+        TestProvider provider = new TestProvider();
+        provider.setPigeon2(mock(IPigeon2.class));
+
+        IDriver driver = mock(IDriver.class);
+        ITimer timer = mock(ITimer.class);
+        LoggingManager logger = new LoggingManager(new NullLogger());
+        PigeonManager pigeonManager = new PigeonManager(driver, logger, provider);
+        PowerManager powerManager = new PowerManager(driver, timer, logger, provider);
+        ControllerManager controllerManager = new ControllerManager(logger, timer);
+        return new DriveTrainMechanism(
+            driver,
+            logger,
+            provider,
+            pigeonManager,
+            powerManager,
+            controllerManager,
+            timer);
+    }
+
+    private static OffboardVisionManager createVisionManager(MockNetworkTableProvider networkTable, DriveTrainMechanism driveTrain)
+    {
+        TestProvider provider = new TestProvider();
+        provider.setNetworkTableProvider(networkTable);
+        return new OffboardVisionManager(
+            mock(IDriver.class),
+            new LoggingManager(new NullLogger()),
+            provider,
+            driveTrain);
+    }
+
+    private static class MockNetworkTableProvider implements INetworkTableProvider
+    {
+        private final HashMap<String, Double> numbers = new HashMap<String, Double>();
+
+        public void set(String key, double value)
+        {
+            this.numbers.put(key, value);
+        }
+
+        @Override
+        public INetworkTableEntry getNumberSlider(String title, double initialValue)
+        {
+            return null;
+        }
+
+        @Override
+        public <V> ISendableChooser<V> getSendableChooser()
+        {
+            return null;
+        }
+
+        @Override
+        public <V> void addChooser(String name, ISendableChooser<V> chooser)
+        {
+        }
+
+        @Override
+        public double getSmartDashboardNumber(String key)
+        {
+            return this.numbers.getOrDefault(key, 0.0);
+        }
+
+        @Override
+        public boolean getSmartDashboardBoolean(String key)
+        {
+            return false;
+        }
+
+        @Override
+        public String getSmartDashboardString(String key)
+        {
+            return null;
+        }
+    }
+}
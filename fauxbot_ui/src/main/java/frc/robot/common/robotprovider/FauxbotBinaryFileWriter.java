@@ -0,0 +1,22 @@
+package frc.robot.common.robotprovider;
+
+import java.io.IOException;
+
+public class FauxbotBinaryFileWriter implements IBinaryFileWriter
+{
+    public FauxbotBinaryFileWriter()
+    {
+    }
+
+    public void write(byte[] buffer, int offset, int length) throws IOException
+    {
+    }
+
+    public void flush() throws IOException
+    {
+    }
+
+    public void close() throws IOException
+    {
+    }
+}
@@ -1,6 +1,9 @@
 package frc.robot.common.robotprovider;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
 
 import com.google.inject.Inject;
 
@@ -33,4 +36,24 @@ public class FauxbotFile implements IFile
     {
         return new FauxbotFileWriter();
     }
+
+    public IBinaryFileWriter openBinaryWriter() throws IOException
+    {
+        return new FauxbotBinaryFileWriter();
+    }
+
+    public List<String> readAllLines() throws IOException
+    {
+        return new ArrayList<String>();
+    }
+
+    public ByteBuffer openMemoryMapped(long size) throws IOException
+    {
+        return ByteBuffer.allocate((int)size);
+    }
+
+    public ByteBuffer openReadOnlyMemoryMapped() throws IOException
+    {
+        return ByteBuffer.allocate(0);
+    }
 }
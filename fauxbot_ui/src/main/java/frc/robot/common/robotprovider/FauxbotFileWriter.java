@@ -12,6 +12,10 @@ public class FauxbotFileWriter implements IFileWriter
     {
     }
 
+    public void write(char[] buffer, int offset, int length) throws IOException
+    {
+    }
+
     public void flush() throws IOException
     {
     }
@@ -0,0 +1,29 @@
+package frc.robot.common.robotprovider;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+public class BinaryFileWriterWrapper implements IBinaryFileWriter
+{
+    private FileOutputStream wrappedObject;
+
+    public BinaryFileWriterWrapper(String fileName) throws IOException
+    {
+        this.wrappedObject = new FileOutputStream(fileName);
+    }
+
+    public void write(byte[] buffer, int offset, int length) throws IOException
+    {
+        this.wrappedObject.write(buffer, offset, length);
+    }
+
+    public void flush() throws IOException
+    {
+        this.wrappedObject.flush();
+    }
+
+    public void close() throws IOException
+    {
+        this.wrappedObject.close();
+    }
+}
@@ -2,6 +2,11 @@ package frc.robot.common.robotprovider;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.util.List;
 
 import com.google.inject.Inject;
 
@@ -38,4 +43,33 @@ public class FileWrapper implements IFile
     {
         return new FileWriterWrapper(this.wrappedObject.getAbsolutePath());
     }
+
+    public IBinaryFileWriter openBinaryWriter() throws IOException
+    {
+        return new BinaryFileWriterWrapper(this.wrappedObject.getAbsolutePath());
+    }
+
+    public List<String> readAllLines() throws IOException
+    {
+        return Files.readAllLines(this.wrappedObject.toPath());
+    }
+
+    public ByteBuffer openMemoryMapped(long size) throws IOException
+    {
+        // the mapping remains valid after the file is closed
+        try (RandomAccessFile file = new RandomAccessFile(this.wrappedObject, "rw");
+            FileChannel channel = file.getChannel())
+        {
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        }
+    }
+
+    public ByteBuffer openReadOnlyMemoryMapped() throws IOException
+    {
+        try (RandomAccessFile file = new RandomAccessFile(this.wrappedObject, "r");
+            FileChannel channel = file.getChannel())
+        {
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+    }
 }
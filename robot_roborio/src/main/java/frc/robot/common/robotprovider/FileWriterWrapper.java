@@ -17,6 +17,11 @@ public class FileWriterWrapper implements IFileWriter
         this.wrappedObject.append(string);
     }
 
+    public void write(char[] buffer, int offset, int length) throws IOException
+    {
+        this.wrappedObject.write(buffer, offset, length);
+    }
+
     public void flush() throws IOException
     {
         this.wrappedObject.flush();
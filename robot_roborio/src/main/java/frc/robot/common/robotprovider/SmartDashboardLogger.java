@@ -2,142 +2,66 @@ package frc.robot.common.robotprovider;
 
 import javax.inject.Singleton;
 
+import com.google.inject.Inject;
+
 import edu.wpi.first.wpilibj.smartdashboard.SmartDashboard;
-import frc.robot.LoggingKey;
+import frc.robot.TuningConstants;
 
 /**
  * Logger that logs current values to a dashboard.
+ * Values are published in batches from a background thread (see BatchedDashboardLogger).
  *
  */
 @Singleton
-public class SmartDashboardLogger implements ISmartDashboardLogger
+public class SmartDashboardLogger extends BatchedDashboardLogger
 {
-    /**
-     * Write a boolean to the smart dashboard
-     * @param key to write to
-     * @param value to write
-     */
-    @Override
-    public void logBoolean(LoggingKey key, boolean value)
-    {
-        if (SmartDashboard.getBoolean(key.value, !value) != value)
-        {
-            SmartDashboard.putBoolean(key.value, value);
-        }
-    }
-
-    /**
-     * Write a boolean array to the smart dashboard
-     * @param key to write to
-     * @param value to write
-     */
-    @Override
-    public void logBooleanArray(LoggingKey key, boolean[] value)
-    {
-        SmartDashboard.putBooleanArray(key.value, value);
-    }
-
-    /**
-     * Write a number (double) to the smart dashboard
-     * @param key to write to
-     * @param value to write
-     */
-    @Override
-    public void logNumber(LoggingKey key, double value)
+    @Inject
+    public SmartDashboardLogger()
     {
-        if (SmartDashboard.getNumber(key.value, value + 0.5) != value)
-        {
-            SmartDashboard.putNumber(key.value, value);
-        }
+        super(TuningConstants.LOG_DASHBOARD_PUBLISH_PERIOD_NANOS);
     }
 
     /**
-     * Write a number (double) to the smart dashboard
+     * Publish a boolean to the smart dashboard
      * @param key to write to
      * @param value to write
      */
     @Override
-    public void logNumber(LoggingKey key, Double value)
+    protected void publishBoolean(String key, boolean value)
     {
-        String valueString = "N/A";
-        if (value != null)
-        {
-            valueString = "" + value;
-        }
-
-        SmartDashboard.putString(key.value, valueString);
+        SmartDashboard.putBoolean(key, value);
     }
 
     /**
-     * Write a number (integer) to the smart dashboard
+     * Publish a boolean array to the smart dashboard
      * @param key to write to
      * @param value to write
      */
     @Override
-    public void logInteger(LoggingKey key, int value)
+    protected void publishBooleanArray(String key, boolean[] value)
     {
-        this.logInteger(key, value, null);
+        SmartDashboard.putBooleanArray(key, value);
     }
 
     /**
-     * Write a number (integer) to the smart dashboard
+     * Publish a number to the smart dashboard
      * @param key to write to
      * @param value to write
-     * @param formatString to use
      */
     @Override
-    public void logInteger(LoggingKey key, int value, String formatString)
+    protected void publishNumber(String key, double value)
     {
-        if (SmartDashboard.getNumber(key.value, value + 0.5) != value)
-        {
-            SmartDashboard.putNumber(key.value, value);
-        }
+        SmartDashboard.putNumber(key, value);
     }
 
     /**
-     * Write a point (x,y or N/A) to the smart dashboard
+     * Publish a string to the smart dashboard
      * @param key to write to
      * @param value to write
      */
     @Override
-    public void logPoint(LoggingKey key, IPoint value)
-    {
-        String valueString = "N/A";
-        if (value != null)
-        {
-            valueString = String.format("(%f, %f)", value.getX(), value.getY());
-        }
-
-        this.logString(key, valueString);
-    }
-
-    /**
-     * Write a string to the smart dashboard
-     * @param key to write to
-     * @param value to write
-     */
-    @Override
-    public void logString(LoggingKey key, String value)
-    {
-        if (SmartDashboard.getString(key.value, null) != value)
-        {
-            SmartDashboard.putString(key.value, value);
-        }
-    }
-
-    /**
-     * Update the log, if appropriate..
-     */
-    @Override
-    public void update()
-    {
-    }
-
-    /**
-     * Flush the output stream, if appropriate..
-     */
-    @Override
-    public void flush()
+    protected void publishString(String key, String value)
     {
+        SmartDashboard.putString(key, value);
     }
 }